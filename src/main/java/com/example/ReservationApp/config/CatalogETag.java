@@ -0,0 +1,21 @@
+package com.example.ReservationApp.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+
+/**
+ * カタログ系の GET エンドポイントに ETag による条件付きリクエストを適用するアノテーション。
+ * value にはレスポンスの内容が依存する集約を指定する（いずれかが更新されると ETag が変わる）。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CatalogETag {
+
+    CatalogAggregate[] value();
+}
@@ -0,0 +1,79 @@
+package com.example.ReservationApp.config;
+
+import java.util.Optional;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.ReservationApp.service.product.CatalogVersionService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * CatalogETag が付与されたハンドラに対して ETag / Cache-Control を付与するインターセプター。
+ *
+ * If-None-Match が現在の ETag と一致する場合は、ハンドラ（クエリ実行・DTO 変換・シリアライズ）を
+ * 実行せずに 304 Not Modified を返す。
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    // ブラウザにはキャッシュを保持させ、利用のたびに再検証させる
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final CatalogVersionService catalogVersionService;
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+
+        if (!"GET".equalsIgnoreCase(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        CatalogETag catalogETag = handlerMethod.getMethodAnnotation(CatalogETag.class);
+        if (catalogETag == null) {
+            return true;
+        }
+        Optional<String> etag = catalogVersionService.currentETag(catalogETag.value());
+        if (etag.isEmpty()) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, etag.get());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag.get())) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * If-None-Match（カンマ区切り・弱い ETag を含む）が現在の ETag と一致するかを判定する。
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
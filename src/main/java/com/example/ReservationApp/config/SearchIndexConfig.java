@@ -0,0 +1,44 @@
+package com.example.ReservationApp.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 商品検索用の pg_trgm インデックスを作成する設定クラス。
+ *
+ * ddl-auto では式インデックス（LOWER(...) gin_trgm_ops）を作成できないため、起動時に
+ * IF NOT EXISTS で作成する。DB 側の LIKE '%kw%' 検索（インメモリインデックス構築前のフォールバック）で使用される。
+ * 拡張の作成権限がない環境ではログのみ出力して起動を継続する。
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexConfig {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (LOWER(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_products_code_trgm ON products USING gin (LOWER(product_code) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_supplier_products_sku_trgm ON supplier_products USING gin (LOWER(supplier_sku) gin_trgm_ops)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTrigramIndexes() {
+        for (String sql : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (Exception e) {
+                log.warn("検索用インデックスの作成に失敗しました: {} / {}", sql, e.getMessage());
+                return;
+            }
+        }
+    }
+}
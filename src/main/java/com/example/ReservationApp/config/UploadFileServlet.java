@@ -0,0 +1,308 @@
+package com.example.ReservationApp.config;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * アップロード画像（/uploads/*）を配信する専用サーブレット。
+ *
+ * DispatcherServlet を経由せずに配信し、API のリクエスト処理と分離する。
+ *
+ * ・Tomcat の sendfile が使える場合は転送をコネクタに委譲し、
+ *   リクエストスレッドをすぐに解放する。使えない場合も FileChannel.transferTo で転送する
+ * ・内容の SHA-256 をファイル名とした画像は内容が変わらないため immutable で長期キャッシュさせる
+ * ・ETag / Last-Modified による 304、単一の byte-range（206 / 416）、If-Range に対応する
+ * ・事前圧縮ファイル（.br / .gz）があり、Accept-Encoding が対応していればそちらを返す
+ */
+public class UploadFileServlet extends HttpServlet {
+
+    // Tomcat の sendfile 連携用リクエスト属性
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^[0-9a-f]{64}(?:_w\\d+)?\\.[a-z0-9]+$");
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final Path root;
+    private final long legacyMaxAgeSeconds;
+    private final long sendfileMinBytes;
+
+    /**
+     * 事前圧縮ファイルの種類（優先順）
+     */
+    private enum Encoding {
+        BR("br", ".br"),
+        GZIP("gzip", ".gz");
+
+        final String token;
+        final String suffix;
+
+        Encoding(String token, String suffix) {
+            this.token = token;
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * 配信するファイルと、その ETag・圧縮形式
+     */
+    private record Target(Path file, long length, long lastModified, String etag, Encoding encoding) {
+    }
+
+    public UploadFileServlet(Path root, long legacyMaxAgeSeconds, long sendfileMinBytes) {
+        this.root = root.toAbsolutePath().normalize();
+        this.legacyMaxAgeSeconds = legacyMaxAgeSeconds;
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, true);
+    }
+
+    @Override
+    protected void doHead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(request, response, false);
+    }
+
+    private void serve(HttpServletRequest request, HttpServletResponse response, boolean includeBody)
+            throws IOException {
+        String fileName = fileName(request.getPathInfo());
+        if (fileName == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Path original;
+        try {
+            original = root.resolve(fileName).normalize();
+        } catch (InvalidPathException e) {
+            // ファイルシステムで表現できない文字を含む名前は存在しないファイルとして扱う
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (!original.startsWith(root) || !Files.isRegularFile(original, LinkOption.NOFOLLOW_LINKS)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        // Range 指定時は元ファイルの位置で返すため、圧縮ファイルは使用しない
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        Target target = resolve(original, rangeHeader == null ? request.getHeader(HttpHeaders.ACCEPT_ENCODING) : null);
+
+        String contentType = getServletContext().getMimeType(fileName);
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.ETAG, target.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, target.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CONTENT_ADDRESSED.matcher(fileName).matches()
+                ? IMMUTABLE_CACHE_CONTROL
+                : "public, max-age=" + legacyMaxAgeSeconds);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (target.encoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, target.encoding().token);
+        }
+
+        if (notModified(request, target)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = target.length() - 1;
+        if (rangeHeader != null && ifRangeMatches(request, target)) {
+            long[] range = parseRange(rangeHeader, target.length());
+            if (range == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + target.length());
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (range.length == 2) {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + end + "/" + target.length());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (!includeBody || length <= 0) {
+            return;
+        }
+
+        if (length >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // コネクタが転送するため、リクエストスレッドはここで解放される
+            request.setAttribute(SENDFILE_FILENAME_ATTR, target.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(target.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Accept-Encoding に対応する事前圧縮ファイルがあればそれを、なければ元ファイルを返す。
+     */
+    private Target resolve(Path original, String acceptEncoding) throws IOException {
+        if (acceptEncoding != null) {
+            String accepted = acceptEncoding.toLowerCase(Locale.ROOT);
+            for (Encoding encoding : Encoding.values()) {
+                Path compressed = original.resolveSibling(original.getFileName() + encoding.suffix);
+                if (accepts(accepted, encoding.token) && Files.isRegularFile(compressed, LinkOption.NOFOLLOW_LINKS)) {
+                    return target(compressed, encoding);
+                }
+            }
+        }
+        return target(original, null);
+    }
+
+    private Target target(Path file, Encoding encoding) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String name = file.getFileName().toString();
+        if (encoding != null) {
+            name = name.substring(0, name.length() - encoding.suffix.length());
+        }
+        // 内容ハッシュ名のファイルはハッシュをそのまま ETag にし、それ以外はサイズと更新日時から作る
+        String base = CONTENT_ADDRESSED.matcher(name).matches()
+                ? name.substring(0, name.indexOf('.'))
+                : Long.toHexString(length) + "-" + Long.toHexString(lastModified);
+        String etag = "\"" + base + (encoding != null ? "-" + encoding.token : "") + "\"";
+        return new Target(file, length, lastModified, etag, encoding);
+    }
+
+    private static boolean accepts(String acceptEncoding, String token) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.trim().split(";");
+            if (pieces[0].trim().equals(token)) {
+                return pieces.length < 2 || !pieces[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match を優先し、指定がない場合は If-Modified-Since で判定する。
+     */
+    private static boolean notModified(HttpServletRequest request, Target target) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return CatalogETagInterceptor.matches(ifNoneMatch, target.etag());
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && target.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * If-Range が未指定、または ETag / Last-Modified が一致する場合のみ Range を有効にする。
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, Target target) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(target.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && target.lastModified() / 1000 == date / 1000;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 単一の byte-range を解析する。
+     *
+     * @return {開始, 終了} の配列。複数範囲など対応しない形式の場合は空配列（全体を返す）、
+     *         満たせない範囲の場合は null
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 末尾 N バイト
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * パス情報からファイル名を取り出す。パス区切り・NUL を含む場合や、先頭がドットの場合は null。
+     * 旧形式のファイル名（<uuid>_<元のファイル名>）は空白・括弧・日本語などを含むため文字種では制限せず、
+     * 保存先ディレクトリ外の参照は呼び出し側の normalize().startsWith(root) で防ぐ。
+     */
+    private static String fileName(String pathInfo) {
+        if (pathInfo == null || pathInfo.length() < 2) {
+            return null;
+        }
+        String name = pathInfo.substring(1);
+        if (name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.indexOf('\0') >= 0 || name.startsWith(".")) {
+            return null;
+        }
+        return name;
+    }
+}
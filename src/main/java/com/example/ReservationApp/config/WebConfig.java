@@ -1,16 +1,20 @@
 package com.example.ReservationApp.config;
 
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
     
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(CatalogETagInterceptor catalogETagInterceptor) {
         
         return new WebMvcConfigurer() {
             @Override
@@ -19,14 +23,29 @@ public class WebConfig {
                         .allowedOrigins("http://127.0.0.1:5173", "http://localhost:5173")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag")
                         .allowCredentials(true);
             }
 
             @Override
-            public void addResourceHandlers(ResourceHandlerRegistry registry) {
-                registry.addResourceHandler("/uploads/**")
-                        .addResourceLocations("file:uploads/");
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(catalogETagInterceptor);
             }
         };
     }
+
+    /**
+     * アップロード画像は DispatcherServlet を経由せず、専用サーブレットで配信する。
+     */
+    @Bean
+    public ServletRegistrationBean<UploadFileServlet> uploadFileServlet(
+            @Value("${storage.location:uploads}") String location,
+            @Value("${uploads.legacy-max-age-seconds:3600}") long legacyMaxAgeSeconds,
+            @Value("${uploads.sendfile-min-bytes:49152}") long sendfileMinBytes) {
+        ServletRegistrationBean<UploadFileServlet> registration = new ServletRegistrationBean<>(
+                new UploadFileServlet(Paths.get(location), legacyMaxAgeSeconds, sendfileMinBytes), "/uploads/*");
+        registration.setName("uploadFileServlet");
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,16 +34,18 @@ public class InventoryStockController {
     @PostMapping("/{poId}/receive-stock")
     public ResponseEntity<ResponseDTO<ReceiveStockResultDTO>> receiveStock(
             @PathVariable Long poId,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
             @RequestBody List<ReceiveStockItemDTO> receivedItems) {
 
-        return ResponseEntity.ok(inventoryStockService.receiveStock(poId, receivedItems));
+        return ResponseEntity.ok(inventoryStockService.receiveStock(poId, requestId, receivedItems));
     }
 
     @PostMapping("/{soId}/deliver-stock")
     public ResponseEntity<ResponseDTO<DeliverStockResultDTO>> de(
             @PathVariable Long soId,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId,
             @Valid @RequestBody List<DeliverStockItemDTO> deliverItems) {
-        return ResponseEntity.ok(inventoryStockService.deliverStock(soId, deliverItems));
+        return ResponseEntity.ok(inventoryStockService.deliverStock(soId, requestId, deliverItems));
     }
 
     @GetMapping("/all-stocks")
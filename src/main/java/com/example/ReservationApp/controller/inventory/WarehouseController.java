@@ -14,8 +14,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseWithTotalChangedQtyDTO;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
 import com.example.ReservationApp.service.inventory.WarehouseService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final WarehouseCapacityService warehouseCapacityService;
 
     @PostMapping("/add-wh")
     public ResponseEntity<ResponseDTO<WarehouseDTO>> createWarehouse(@RequestBody WarehouseDTO warehouseDTO) {
@@ -48,6 +52,14 @@ public class WarehouseController {
         return ResponseEntity.ok(warehouseService.getWarehouseById(id));
     }
 
+    @GetMapping("/{id}/stocks")
+    public ResponseEntity<ResponseDTO<List<InventoryStockDTO>>> getWarehouseStocks(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(warehouseService.getWarehouseStocks(id, page, size));
+    }
+
     @GetMapping("/location")
     public ResponseEntity<ResponseDTO<List<WarehouseDTO>>> getWarehouseByLocation(@RequestParam("value") String location) {
         return ResponseEntity.ok(warehouseService.getWarehouseByLocation(location));
@@ -62,6 +74,16 @@ public class WarehouseController {
         return ResponseEntity.ok(warehouseService.getWarehouseWithTotalChangedQty());
     }
 
+    @GetMapping("/utilization")
+    public ResponseEntity<ResponseDTO<List<WarehouseUtilizationDTO>>> getAllUtilization() {
+        return ResponseEntity.ok(warehouseCapacityService.getAllUtilization());
+    }
+
+    @GetMapping("/{id}/utilization")
+    public ResponseEntity<ResponseDTO<WarehouseUtilizationDTO>> getUtilization(@PathVariable Long id) {
+        return ResponseEntity.ok(warehouseCapacityService.getUtilization(id));
+    }
+
     @PutMapping("/{id}/update-wh")
     public ResponseEntity<ResponseDTO<WarehouseDTO>> updateWarehouse(
             @PathVariable Long id,
@@ -2,7 +2,9 @@ package com.example.ReservationApp.controller.notification;
 
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +12,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.security.AuthUser;
 import com.example.ReservationApp.service.notification.NotificationService;
 
 import lombok.RequiredArgsConstructor;
@@ -32,6 +36,11 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getNotificationsForUser(userId));
     }
 
+    @GetMapping(value = "/notification/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@AuthenticationPrincipal AuthUser authUser) {
+        return notificationService.subscribe(authUser.getUser().getId(), authUser.getUser().getRole());
+    }
+
     @GetMapping("/notification/unread-count")
     public ResponseEntity<ResponseDTO<Long>> getUnreadCount(@RequestParam Long userId) {
         return ResponseEntity.ok(notificationService.getUnreadCount(userId));
@@ -42,6 +51,12 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.markAsRead(id));
     }
 
+    @PostMapping("/notification/broadcast/mark-read")
+    public ResponseEntity<ResponseDTO<NotificationDTO>> markBroadcastAsRead(
+            @AuthenticationPrincipal AuthUser authUser, @RequestParam Long id) {
+        return ResponseEntity.ok(notificationService.markBroadcastAsRead(authUser.getUser().getId(), id));
+    }
+
     @DeleteMapping("/{id}/delete-notification")
     public ResponseEntity<ResponseDTO<Void>> deleteNotification(@PathVariable Long id) {
 
@@ -13,10 +13,12 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.ReservationApp.config.CatalogETag;
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.product.CategoryDTO;
 import com.example.ReservationApp.dto.response.product.CategorySummariesDTO;
 import com.example.ReservationApp.dto.response.product.CategorySummaryDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.service.product.CategoryService;
 
 import jakarta.validation.Valid;
@@ -38,6 +40,8 @@ public class CategoryController {
     }
 
     @GetMapping("/all-cat")
+    @CatalogETag({ CatalogAggregate.CATEGORY, CatalogAggregate.PRODUCT, CatalogAggregate.SUPPLIER,
+            CatalogAggregate.SUPPLIER_PRODUCT })
     public ResponseEntity<ResponseDTO<List<CategoryDTO>>> getAllCategories() {
 
         return ResponseEntity.ok(categoryService.getAllCategories());
@@ -65,6 +69,8 @@ public class CategoryController {
     }
 
     @GetMapping("/active")
+    @CatalogETag({ CatalogAggregate.CATEGORY, CatalogAggregate.PRODUCT, CatalogAggregate.SUPPLIER,
+            CatalogAggregate.SUPPLIER_PRODUCT })
     public ResponseEntity<ResponseDTO<List<CategoryDTO>>> getActiveCategories() {
 
         return ResponseEntity.ok(categoryService.getActiveCategories());
@@ -15,13 +15,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.ReservationApp.config.CatalogETag;
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.product.ProductDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDetailDTO;
+import com.example.ReservationApp.dto.response.product.ProductSuggestionDTO;
 import com.example.ReservationApp.dto.response.product.ProductWithSkuByCategoryDTO;
 import com.example.ReservationApp.dto.response.product.SumReceivedGroupByProductDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.service.product.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -40,6 +43,7 @@ public class ProductController {
     }
 
     @GetMapping("/all")
+    @CatalogETag({ CatalogAggregate.PRODUCT, CatalogAggregate.CATEGORY })
     public ResponseEntity<ResponseDTO<List<ProductDTO>>> getAllProducts() {
 
         return ResponseEntity.ok(productService.getAllProducts());
@@ -71,9 +75,20 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ResponseDTO<List<ProductDTO>>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<ResponseDTO<List<ProductDTO>>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
 
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+        return ResponseEntity.ok(productService.searchProducts(keyword, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ResponseDTO<List<ProductSuggestionDTO>>> suggestProducts(
+            @RequestParam(name = "q", defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
     }
 
     @GetMapping("/info/{id}")
@@ -83,6 +98,8 @@ public class ProductController {
     }
 
     @GetMapping("/info/all-prod")
+    @CatalogETag({ CatalogAggregate.PRODUCT, CatalogAggregate.CATEGORY, CatalogAggregate.SUPPLIER,
+            CatalogAggregate.SUPPLIER_PRODUCT, CatalogAggregate.INVENTORY })
     public ResponseEntity<ResponseDTO<List<ProductInfoDTO>>> getAllProductWithSupplierAndStock() {
 
         return ResponseEntity.ok(productService.getAllProductWithSupplierAndStock());
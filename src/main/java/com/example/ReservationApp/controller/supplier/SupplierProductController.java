@@ -1,7 +1,9 @@
 package com.example.ReservationApp.controller.supplier;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,12 +12,19 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.supplier.CategoryProductsDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierProductsOverviewDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderCostDTO;
 import com.example.ReservationApp.dto.supplier.SupplierProductDTO;
 import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
+import com.example.ReservationApp.enums.SupplierProductStatus;
+import com.example.ReservationApp.service.supplier.ProductSupplierRankingService;
+import com.example.ReservationApp.service.supplier.SupplierPriceHistoryService;
 import com.example.ReservationApp.service.supplier.SupplierProductService;
 
 import jakarta.validation.Valid;
@@ -27,6 +36,8 @@ import lombok.RequiredArgsConstructor;
 public class SupplierProductController {
 
         private final SupplierProductService supplierProductService;
+        private final SupplierPriceHistoryService supplierPriceHistoryService;
+        private final ProductSupplierRankingService productSupplierRankingService;
 
         @PostMapping("/{spId}/add-sp")
         public ResponseEntity<ResponseDTO<SupplierProductDTO>> addSupplierProduct(
@@ -44,6 +55,16 @@ public class SupplierProductController {
                                 .ok(supplierProductService.getProductsBySupplier(supplierId));
         }
 
+        @GetMapping("/{supplierId}/products")
+        public ResponseEntity<ResponseDTO<List<SupplierProductDTO>>> getProductBySupplierPage(
+                        @PathVariable Long supplierId,
+                        @RequestParam(required = false) SupplierProductStatus status,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size) {
+                return ResponseEntity
+                                .ok(supplierProductService.getProductsBySupplierPage(supplierId, status, page, size));
+        }
+
         @GetMapping("/{sku}/with-price-history")
         public ResponseEntity<ResponseDTO<SupplierProductDTO>> getProductsBySkuWithPriceHistory(
                         @PathVariable String sku) {
@@ -60,9 +81,46 @@ public class SupplierProductController {
         }
 
         @GetMapping("/price-histories")
-        public ResponseEntity<ResponseDTO<List<SupplierProductPriceHistoryDTO>>> getPriceHistory() {
+        public ResponseEntity<ResponseDTO<List<SupplierProductPriceHistoryDTO>>> getPriceHistory(
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size) {
+                return ResponseEntity
+                                .ok(supplierPriceHistoryService.getPriceHistory(page, size));
+        }
+
+        @GetMapping("/{sku}/price-histories")
+        public ResponseEntity<ResponseDTO<List<SupplierProductPriceHistoryDTO>>> getPriceHistoryBySku(
+                        @PathVariable String sku,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size) {
+                return ResponseEntity
+                                .ok(supplierPriceHistoryService.getPriceHistoryBySku(sku, page, size));
+        }
+
+        @GetMapping("/{sku}/price-as-of")
+        public ResponseEntity<ResponseDTO<SupplierProductPriceHistoryDTO>> getPriceAsOf(
+                        @PathVariable String sku,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
                 return ResponseEntity
-                                .ok(supplierProductService.getPriceHistory());
+                                .ok(supplierPriceHistoryService.getPriceAsOf(sku, date));
+        }
+
+        @GetMapping("/price-histories/purchase-costs")
+        public ResponseEntity<ResponseDTO<List<PurchaseOrderCostDTO>>> getPurchaseOrderCosts(
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+                return ResponseEntity
+                                .ok(supplierPriceHistoryService.getPurchaseOrderCosts(from, to));
+        }
+
+        @GetMapping("/rankings")
+        public ResponseEntity<ResponseDTO<List<ProductSupplierRankingDTO>>> getSupplierRankings(
+                        @RequestParam(defaultValue = "spread") String sort,
+                        @RequestParam(defaultValue = "1") int minSuppliers,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size) {
+                return ResponseEntity
+                                .ok(productSupplierRankingService.getRankings(sort, minSuppliers, page, size));
         }
 
         @DeleteMapping("{sku}/delete-sp")
@@ -85,4 +143,11 @@ public class SupplierProductController {
                                 .ok(supplierProductService.getSupplierProductsWithLeadTime(supplierId));
         }
 
+        @GetMapping("/{supplierId}/overview")
+        public ResponseEntity<ResponseDTO<SupplierProductsOverviewDTO>> getSupplierProductsOverview(
+                        @PathVariable Long supplierId) {
+                return ResponseEntity
+                                .ok(supplierProductService.getSupplierProductsOverview(supplierId));
+        }
+
 }
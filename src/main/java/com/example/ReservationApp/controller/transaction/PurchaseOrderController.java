@@ -3,18 +3,22 @@ package com.example.ReservationApp.controller.transaction;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentResultDTO;
 import com.example.ReservationApp.dto.transaction.PurchaseOrderDTO;
 import com.example.ReservationApp.service.transaction.PurchaseOrderService;
+import com.example.ReservationApp.service.transaction.ReplenishmentService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +29,7 @@ import lombok.RequiredArgsConstructor;
 public class PurchaseOrderController {
 
     private final PurchaseOrderService purchaseOrderService;
+    private final ReplenishmentService replenishmentService;
 
     @PostMapping("/add-purchase")
     ResponseEntity<ResponseDTO<PurchaseOrderDTO>> createPurchaseOrder(
@@ -68,7 +73,15 @@ public class PurchaseOrderController {
     }
 
     @PutMapping("/purchase/{poId}/place")
-    ResponseEntity<ResponseDTO<PurchaseOrderDTO>> placeOrder(@PathVariable Long poId) {
-        return ResponseEntity.ok(purchaseOrderService.placeOrder(poId));
+    ResponseEntity<ResponseDTO<PurchaseOrderDTO>> placeOrder(
+            @PathVariable Long poId,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId) {
+        return ResponseEntity.ok(purchaseOrderService.placeOrder(poId, requestId));
+    }
+
+    @PostMapping("/purchase/replenishment/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    ResponseEntity<ResponseDTO<ReplenishmentResultDTO>> runReplenishment() {
+        return ResponseEntity.ok(replenishmentService.runReplenishment());
     }
 }
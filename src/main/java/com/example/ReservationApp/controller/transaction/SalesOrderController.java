@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -62,7 +63,9 @@ public class SalesOrderController {
     }
 
     @PutMapping("/sales/{soId}/prepare")
-    ResponseEntity<ResponseDTO<SalesOrderDTO>> prepareOrder(@PathVariable Long soId) {
-        return ResponseEntity.ok(salesOrderService.prepareOrder(soId));
+    ResponseEntity<ResponseDTO<SalesOrderDTO>> prepareOrder(
+            @PathVariable Long soId,
+            @RequestHeader(value = "X-Request-Id", required = false) String requestId) {
+        return ResponseEntity.ok(salesOrderService.prepareOrder(soId, requestId));
     }
 }
@@ -3,6 +3,7 @@ package com.example.ReservationApp.dto.notification;
 import java.time.LocalDateTime;
 
 import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.AllArgsConstructor;
@@ -19,6 +20,8 @@ public class NotificationDTO {
     private Long id;
     private String title;
     private Long userId;
+    // ロール宛て（ブロードキャスト）の通知の場合のみ設定（userId は null）
+    private UserRole targetRole;
     private String message;
     private NotificationType type;
     private String link;
@@ -26,6 +26,7 @@ public class StockHistoryDTO {
     private RefType refType; // PO / SO
     private Long refId;
     private String notes;
+    private String lotIds;
     private LocalDateTime createdAt;
 }
 
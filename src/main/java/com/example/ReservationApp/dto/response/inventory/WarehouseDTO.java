@@ -1,5 +1,6 @@
 package com.example.ReservationApp.dto.response.inventory;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,6 +28,13 @@ public class WarehouseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // 一覧・詳細用の集計（在庫行数、在庫数量・予約数量の合計、使用量と上限に対する割合（%））
+    private Long skuCount;
+    private Long onHandQuantity;
+    private Long reservedQuantity;
+    private Long usedQuantity;
+    private BigDecimal utilizationRate;
+
     private List<InventoryStockDTO> stocks;
 
     public WarehouseDTO(Long id, String name, String location) {
@@ -0,0 +1,27 @@
+package com.example.ReservationApp.dto.response.inventory;
+
+import java.time.LocalDateTime;
+
+public interface WarehouseSummaryFlatDTO {
+    Long getId();
+
+    String getName();
+
+    String getLocation();
+
+    String getStatus();
+
+    Integer getStockLimit();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getSkuCount();
+
+    Long getOnHandQuantity();
+
+    Long getReservedQuantity();
+
+    Long getUsedQuantity();
+}
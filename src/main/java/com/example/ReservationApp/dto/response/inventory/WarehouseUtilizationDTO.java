@@ -0,0 +1,23 @@
+package com.example.ReservationApp.dto.response.inventory;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseUtilizationDTO {
+    private Long warehouseId;
+    private String name;
+    private Integer stockLimit;
+    private Long usedQuantity;
+    // 上限までの残り数量（上限を超えている場合は 0）
+    private Long availableCapacity;
+    // 上限に対する使用量の割合（%）
+    private BigDecimal utilizationRate;
+}
@@ -0,0 +1,11 @@
+package com.example.ReservationApp.dto.response.inventory;
+
+public interface WarehouseUtilizationFlatDTO {
+    Long getWarehouseId();
+
+    String getName();
+
+    Integer getStockLimit();
+
+    Long getUsedQuantity();
+}
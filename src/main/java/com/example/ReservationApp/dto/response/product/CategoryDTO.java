@@ -3,6 +3,7 @@ package com.example.ReservationApp.dto.response.product;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.example.ReservationApp.dto.response.storage.ImageVariantDTO;
 import com.example.ReservationApp.enums.CategoryStatus;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -31,4 +32,7 @@ public class CategoryDTO {
 
     private Long productCount;
     private List<String> supplierNames;
+
+    // 画像の原本・サムネイル（幅の昇順）
+    private List<ImageVariantDTO> imageVariants;
 }
@@ -0,0 +1,21 @@
+package com.example.ReservationApp.dto.response.product;
+
+import java.math.BigDecimal;
+
+public interface CategoryMetricsFlatDTO {
+    Long getCategoryId();
+
+    String getCategoryName();
+
+    Long getProductCount();
+
+    BigDecimal getPercentage();
+
+    Long getSupplierCount();
+
+    String getSupplierNames();
+
+    Long getTotalQuantity();
+
+    BigDecimal getTotalPrice();
+}
@@ -3,11 +3,15 @@ package com.example.ReservationApp.dto.response.product;
 
 import java.sql.Timestamp;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CategorySummariesDTO {
     
     private Long id;
@@ -3,6 +3,8 @@ package com.example.ReservationApp.dto.response.product;
 import java.math.BigDecimal;
 
 public interface CategorySummaryFlatDTO {
+    Long getProductId();
+
     String getProductName();
 
     Long getSupplierId();
@@ -0,0 +1,26 @@
+package com.example.ReservationApp.dto.response.product;
+
+public interface ProductDetailFlatDTO {
+    Long getId();
+
+    String getName();
+
+    String getProductCode();
+
+    String getDescription();
+
+    String getUnit();
+
+    String getStatus();
+
+    String getCategoryName();
+
+    // json_agg で集約した仕入先＋価格一覧
+    String getSuppliersJson();
+
+    // json_agg で集約した在庫履歴（期間・件数で制限済み）
+    String getHistoriesJson();
+
+    // json_agg で集約した倉庫別在庫
+    String getStocksJson();
+}
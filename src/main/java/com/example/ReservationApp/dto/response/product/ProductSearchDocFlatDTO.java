@@ -0,0 +1,15 @@
+package com.example.ReservationApp.dto.response.product;
+
+public interface ProductSearchDocFlatDTO {
+    Long getProductId();
+
+    String getProductName();
+
+    String getProductCode();
+
+    String getCategoryName();
+
+    String getSkus();
+
+    String getSupplierNames();
+}
@@ -0,0 +1,19 @@
+package com.example.ReservationApp.dto.response.product;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSuggestionDTO {
+    private Long productId;
+    private String label;
+    private String type; // NAME / CODE / SKU
+}
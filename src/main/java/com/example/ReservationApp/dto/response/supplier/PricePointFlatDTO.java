@@ -0,0 +1,14 @@
+package com.example.ReservationApp.dto.response.supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface PricePointFlatDTO {
+    Long getSupplierId();
+
+    Long getProductId();
+
+    LocalDate getEffectiveDate();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,30 @@
+package com.example.ReservationApp.dto.response.supplier;
+
+import java.math.BigDecimal;
+
+import com.example.ReservationApp.dto.response.product.SupplierPriceDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSupplierRankingDTO {
+    private Long productId;
+    private String productName;
+    private String productCode;
+    private Integer supplierCount;
+    // 最安の仕入先
+    private SupplierPriceDTO cheapest;
+    // 最短リードタイムの仕入先
+    private SupplierPriceDTO fastest;
+    private Integer minLeadTime;
+    private BigDecimal maxPrice;
+    // 最高値と最安値の差、および最安値に対する割合（%）
+    private BigDecimal priceSpread;
+    private BigDecimal priceSpreadRate;
+}
@@ -0,0 +1,37 @@
+package com.example.ReservationApp.dto.response.supplier;
+
+import java.math.BigDecimal;
+
+public interface ProductSupplierRankingFlatDTO {
+    Long getProductId();
+
+    String getProductName();
+
+    String getProductCode();
+
+    Integer getSupplierCount();
+
+    Long getCheapestSupplierId();
+
+    String getCheapestSupplierName();
+
+    String getCheapestSku();
+
+    BigDecimal getMinPrice();
+
+    Long getFastestSupplierId();
+
+    String getFastestSupplierName();
+
+    String getFastestSku();
+
+    Integer getMinLeadTime();
+
+    BigDecimal getFastestPrice();
+
+    BigDecimal getMaxPrice();
+
+    BigDecimal getPriceSpread();
+
+    BigDecimal getPriceSpreadRate();
+}
@@ -0,0 +1,23 @@
+package com.example.ReservationApp.dto.response.supplier;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 仕入先画面用に、カテゴリ別（在庫）と仕入先別（リードタイム）の一覧をまとめたDTO。
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SupplierProductsOverviewDTO {
+    // カテゴリ別の仕入れ商品と在庫数
+    private List<CategoryProductsDTO> stockByCategory;
+    // 仕入先別の仕入れ商品とリードタイム
+    private List<CategoryProductsDTO> leadTimeBySupplier;
+}
@@ -0,0 +1,19 @@
+package com.example.ReservationApp.dto.response.supplier;
+
+public interface SupplierSummaryFlatDTO {
+    Long getId();
+
+    String getName();
+
+    String getContactInfo();
+
+    String getMail();
+
+    String getAddress();
+
+    String getStatus();
+
+    Long getProductCount();
+
+    String getCategoryNames();
+}
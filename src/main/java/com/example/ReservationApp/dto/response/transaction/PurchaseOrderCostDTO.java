@@ -0,0 +1,26 @@
+package com.example.ReservationApp.dto.response.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurchaseOrderCostDTO {
+    private Long purchaseOrderId;
+    private Long supplierId;
+    private LocalDate orderDate;
+    private int lineCount;
+    // 明細に記録された単価での合計
+    private BigDecimal recordedTotal;
+    // 発注日時点の仕入れ価格（価格履歴）での合計
+    private BigDecimal historicalTotal;
+    // 発注日時点の価格履歴が存在しない明細数（historicalTotal に含まれない）
+    private int unpricedLines;
+}
@@ -0,0 +1,18 @@
+package com.example.ReservationApp.dto.response.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface PurchaseOrderLineFlatDTO {
+    Long getPurchaseOrderId();
+
+    Long getSupplierId();
+
+    Long getProductId();
+
+    LocalDateTime getOrderedAt();
+
+    Integer getQty();
+
+    BigDecimal getCost();
+}
@@ -0,0 +1,25 @@
+package com.example.ReservationApp.dto.response.transaction;
+
+import java.math.BigDecimal;
+
+public interface ReplenishmentCandidateFlatDTO {
+    Long getSupplierProductId();
+
+    Long getSupplierId();
+
+    Long getProductId();
+
+    String getSku();
+
+    BigDecimal getPrice();
+
+    Integer getLeadTime();
+
+    Long getSoldQty();
+
+    Long getSoldQtySquares();
+
+    Long getAvailableQty();
+
+    Long getOnOrderQty();
+}
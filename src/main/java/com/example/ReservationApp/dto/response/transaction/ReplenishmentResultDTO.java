@@ -0,0 +1,20 @@
+package com.example.ReservationApp.dto.response.transaction;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplenishmentResultDTO {
+    private int evaluatedSkuCount;
+    private int reorderSkuCount;
+    private List<Long> createdPurchaseOrderIds;
+    private List<Long> failedSupplierIds;
+    private long elapsedMillis;
+}
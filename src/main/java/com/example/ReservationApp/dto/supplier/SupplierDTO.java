@@ -48,4 +48,6 @@ public class SupplierDTO {
     @NotNull(message = "ステータスは必須です")
     private SupplierStatus supplierStatus;
     private List<String> categoryNames;
+    // 取扱商品数（一覧・詳細の取得時のみ設定）
+    private Long productCount;
 }
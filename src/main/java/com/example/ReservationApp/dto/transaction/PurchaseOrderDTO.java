@@ -25,6 +25,8 @@ public class PurchaseOrderDTO {
     private String description;
     private BigDecimal total;
     private LocalDateTime createdAt;
+    private Integer totalLines;
+    private Integer completedLines;
 
     private List<PurchaseOrderDetailDTO> details;
 }
\ No newline at end of file
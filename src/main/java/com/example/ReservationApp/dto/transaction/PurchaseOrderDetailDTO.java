@@ -33,6 +33,8 @@ public class PurchaseOrderDetailDTO {
     private BigDecimal cost; // snapshot price
     private OrderStatus status;
     private String sku;
+    // 自動発注で解決済みの SupplierProduct ID（指定時は商品ID での検索を省略する）
+    private Long supplierProductId;
 
     private Integer orderedQty;
     private Integer receivedQty;
@@ -24,6 +24,8 @@ public class SalesOrderDTO {
     private OrderStatus status; // NEW, PROCESSING, COMPLETED, CANCELLED
     private BigDecimal total;
     private LocalDateTime createdAt;
+    private Integer totalLines;
+    private Integer completedLines;
 
     private List<SalesOrderDetailDTO> details;
 }
@@ -0,0 +1,68 @@
+package com.example.ReservationApp.entity.inventory;
+
+import java.time.LocalDateTime;
+
+import com.example.ReservationApp.enums.RefType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 在庫ロット（入庫単位）
+ *
+ * InventoryStock の下位に位置し、受領明細1行ごとに1ロットを作成する。
+ * 出庫時は (received_at, id) の昇順で残数のあるロットから引き当てる（FIFO）。
+ */
+@Entity
+@Table(name = "inventory_lots", indexes = {
+        // FIFO 引当用：在庫ごとに受領日時順で走査する
+        @Index(name = "idx_inventory_lots_fifo", columnList = "inventory_stock_id, received_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryLot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "inventory_stock_id", nullable = false)
+    private InventoryStock inventoryStock;
+
+    @Column(nullable = false)
+    private Integer receivedQty;
+
+    @Column(nullable = false)
+    private Integer remainingQty;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Enumerated(EnumType.STRING)
+    private RefType refType; // PO / ADJ
+    private Long refId;
+
+    @PrePersist
+    public void onCreate() {
+        if (this.receivedAt == null) {
+            this.receivedAt = LocalDateTime.now();
+        }
+    }
+}
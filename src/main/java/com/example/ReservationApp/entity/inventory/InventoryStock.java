@@ -12,6 +12,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -23,7 +24,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "inventory_stocks")
+@Table(name = "inventory_stocks", indexes = {
+        // 倉庫ごとの在庫のページ取得・倉庫の集計・削除前の在庫有無チェック用
+        @Index(name = "idx_inventory_stocks_warehouse_id", columnList = "warehouse_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,10 +49,12 @@ public class InventoryStock {
     @JoinColumn(name = "supplier_product_id", nullable = false)
     private SupplierProduct supplierProduct;
 
-    @Column(nullable = false)
+    // 在庫数量・予約数量は作成時のみ INSERT し、以降は InventoryStockRepository の UPDATE 文で加減算する
+    // （読み込んだ時点の値を書き戻して同時更新を失わないため）
+    @Column(nullable = false, updatable = false)
     private Integer quantity;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private Integer reservedQuantity = 0;
 
@@ -12,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -22,7 +23,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "stock_histories")
+@Table(name = "stock_histories", indexes = {
+        // 商品詳細の在庫履歴（直近 N 日・N 件）取得用
+        @Index(name = "idx_stock_histories_stock_created", columnList = "inventory_stock_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +50,10 @@ public class StockHistory {
     private Long refId;
     private String notes;
 
+    // 入庫時は作成したロットID、出庫時は引き当てたロットID（カンマ区切り）
+    @Column(columnDefinition = "TEXT")
+    private String lotIds;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
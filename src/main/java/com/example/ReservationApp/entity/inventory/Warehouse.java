@@ -44,6 +44,11 @@ public class Warehouse {
     @Column(nullable = false)
     private Integer stockLimit;
 
+    // 在庫数量の合計（使用量カウンタ）。入庫・出庫・調整時に WarehouseRepository の UPDATE 文でのみ更新する
+    // null はカウンタ導入前の倉庫で、最初の更新時に在庫数量の合計から初期化する
+    @Column(insertable = false, updatable = false)
+    private Integer usedQuantity;
+
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
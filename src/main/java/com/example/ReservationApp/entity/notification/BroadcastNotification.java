@@ -0,0 +1,66 @@
+package com.example.ReservationApp.entity.notification;
+
+import java.time.LocalDateTime;
+
+import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ロール宛ての通知（ブロードキャスト）エンティティ
+ *
+ * 対象ロールのユーザー全員に表示する通知を1行だけ保存し、既読状態はユーザーごとの
+ * NotificationReadMarker で管理する（読み取り時に展開する）。
+ */
+@Entity
+@Table(name = "broadcast_notifications", indexes = {
+        // ロール別の一覧・未読件数の取得用
+        @Index(name = "idx_broadcast_notifications_role_id", columnList = "target_role, id"),
+        // 保持期間を過ぎた通知の削除用
+        @Index(name = "idx_broadcast_notifications_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BroadcastNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role", nullable = false)
+    private UserRole targetRole;
+
+    private String title;
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String link;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
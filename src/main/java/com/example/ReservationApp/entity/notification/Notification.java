@@ -11,6 +11,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -19,7 +20,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // 未読件数の数え直し（Redis のキーがない場合）用
+        @Index(name = "idx_notifications_user_readed", columnList = "user_id, readed"),
+        // 保持期間を過ぎた既読通知の削除用
+        @Index(name = "idx_notifications_readed_created", columnList = "readed, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
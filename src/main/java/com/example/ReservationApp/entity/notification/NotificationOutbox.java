@@ -0,0 +1,55 @@
+package com.example.ReservationApp.entity.notification;
+
+import java.time.LocalDateTime;
+
+import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 保存待ちの通知の退避先（アウトボックス）エンティティ
+ *
+ * NotificationDispatcher のキューが満杯のときに通知をそのまま1行で退避し、
+ * キューが空いた時点でディスパッチャーが取り出して notifications / broadcast_notifications に保存する。
+ * userId と targetRole はどちらか一方のみ設定される。
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role")
+    private UserRole targetRole;
+
+    private String title;
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String link;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
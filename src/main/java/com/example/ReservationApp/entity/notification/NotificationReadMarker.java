@@ -0,0 +1,125 @@
+package com.example.ReservationApp.entity.notification;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ブロードキャスト通知の既読位置（ユーザーごとに1行）
+ *
+ * lastReadBroadcastId 以下の通知はすべて既読とみなし、それより新しい通知のうち個別に既読にしたものは
+ * readBitmap のビット（lastReadBroadcastId + 1 + i 番目の通知 → ビット i）で保持する。
+ * 対象ロールの通知が先頭から既読になった分は lastReadBroadcastId を進めてビットマップを詰める。
+ * 他ロール宛て・削除済みの ID は既読にならないため、既読位置を進める際に読み飛ばす。
+ */
+@Entity
+@Table(name = "notification_read_markers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationReadMarker {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Builder.Default
+    @Column(name = "last_read_broadcast_id", nullable = false)
+    private long lastReadBroadcastId = 0;
+
+    @Column(name = "read_bitmap")
+    private byte[] readBitmap;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 指定したブロードキャスト通知が既読かどうか。
+     */
+    public boolean isRead(long broadcastId) {
+        if (broadcastId <= lastReadBroadcastId) {
+            return true;
+        }
+        long offset = broadcastId - lastReadBroadcastId - 1;
+        return offset < Integer.MAX_VALUE && bits().get((int) offset);
+    }
+
+    /**
+     * 指定したブロードキャスト通知を既読にする。
+     *
+     * @param broadcastId 既読にする通知の ID
+     * @param visibleIds  既読位置より新しい対象ロールの通知の ID（昇順）
+     * @return 未読から既読に変わった場合は true
+     */
+    public boolean markRead(long broadcastId, List<Long> visibleIds) {
+        if (isRead(broadcastId)) {
+            return false;
+        }
+        BitSet bits = bits();
+        bits.set(offset(broadcastId));
+        // 対象ロールの通知を古い順にたどり、最初の未読の直前まで既読位置を進める
+        long advanceTo = lastReadBroadcastId;
+        for (long id : visibleIds) {
+            if (id <= lastReadBroadcastId) {
+                continue;
+            }
+            if (!bits.get(offset(id))) {
+                advanceTo = id - 1;
+                break;
+            }
+            advanceTo = id;
+        }
+        if (advanceTo > lastReadBroadcastId) {
+            int shift = offset(advanceTo) + 1;
+            bits = bits.get(shift, Math.max(shift, bits.length()));
+            lastReadBroadcastId = advanceTo;
+        }
+        readBitmap = bits.isEmpty() ? null : bits.toByteArray();
+        return true;
+    }
+
+    /**
+     * 指定した ID までのブロードキャスト通知をすべて既読にする。
+     */
+    public void markAllRead(long latestBroadcastId) {
+        if (latestBroadcastId <= lastReadBroadcastId) {
+            return;
+        }
+        BitSet bits = bits();
+        int shift = (int) Math.min(latestBroadcastId - lastReadBroadcastId, Integer.MAX_VALUE);
+        bits = bits.get(shift, Math.max(shift, bits.length()));
+        lastReadBroadcastId = latestBroadcastId;
+        readBitmap = bits.isEmpty() ? null : bits.toByteArray();
+    }
+
+    /**
+     * 既読位置より新しい通知のうち、個別に既読にした件数。
+     */
+    public int countReadAfterPosition() {
+        return bits().cardinality();
+    }
+
+    private int offset(long broadcastId) {
+        return (int) (broadcastId - lastReadBroadcastId - 1);
+    }
+
+    private BitSet bits() {
+        return readBitmap != null ? BitSet.valueOf(readBitmap) : new BitSet();
+    }
+}
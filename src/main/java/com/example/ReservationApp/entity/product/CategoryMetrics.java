@@ -0,0 +1,50 @@
+package com.example.ReservationApp.entity.product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * カテゴリ単位の集計値（ダッシュボード用）を保持するエンティティ。
+ *
+ * 商品・仕入れ商品・在庫・販売の更新イベントを受けて該当カテゴリの行を再計算し、
+ * 夜間バッチで全カテゴリを再計算する。画面側はこの1行を読むだけで概要を表示できる。
+ */
+@Entity
+@Table(name = "category_metrics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryMetrics {
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private Long productCount;
+
+    @Column(nullable = false)
+    private Long supplierCount;
+
+    @Column(columnDefinition = "TEXT")
+    private String supplierNames;
+
+    @Column(nullable = false)
+    private Long onHandQuantity;
+
+    // 出庫完了（COMPLETED）した販売明細の金額合計
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
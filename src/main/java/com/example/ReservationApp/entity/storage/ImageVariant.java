@@ -0,0 +1,67 @@
+package com.example.ReservationApp.entity.storage;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * アップロード画像のバリアント（原本・サムネイル）
+ *
+ * 画像は内容の SHA-256 をファイル名として保存するため、同じ画像は1つの原本を共有する。
+ * 原本1行と、設定された幅ごとのサムネイル行を content_hash 単位で保持する。
+ */
+@Entity
+@Table(name = "image_variants", uniqueConstraints = @UniqueConstraint(name = "uk_image_variants_hash_width", columnNames = {
+        "content_hash", "width" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageVariant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    @Column(nullable = false, length = 50)
+    private String contentType;
+
+    @Column(nullable = false)
+    private String url;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    // 原本の場合 true
+    @Column(nullable = false)
+    private boolean original;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
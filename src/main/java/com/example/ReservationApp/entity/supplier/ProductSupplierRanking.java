@@ -0,0 +1,61 @@
+package com.example.ReservationApp.entity.supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 商品ごとの仕入先比較（最安・最短リードタイム・価格差）を保持するエンティティ。
+ *
+ * 有効な仕入れ商品（ACTIVE）のみを対象とし、仕入れ商品・仕入先の更新イベントを受けて該当商品の行を再計算し、
+ * 夜間バッチで全商品を再計算する。一覧画面はこの表をページ単位で読むだけで比較結果を表示できる。
+ */
+@Entity
+@Table(name = "product_supplier_rankings", indexes = {
+        // 価格差の大きい順の一覧用
+        @Index(name = "idx_product_supplier_rankings_spread", columnList = "price_spread, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSupplierRanking {
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer supplierCount;
+
+    // 最安（同額の場合はリードタイムの短い方）
+    @Column(nullable = false)
+    private Long cheapestSupplierProductId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal minPrice;
+
+    // 最短リードタイム（同じ場合は価格の安い方）
+    @Column(nullable = false)
+    private Long fastestSupplierProductId;
+
+    @Column(nullable = false)
+    private Integer minLeadTime;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "price_spread", nullable = false, precision = 19, scale = 2)
+    private BigDecimal priceSpread;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
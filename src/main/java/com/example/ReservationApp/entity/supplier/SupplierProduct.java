@@ -15,6 +15,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -33,7 +34,10 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "supplier_products", uniqueConstraints = @UniqueConstraint(columnNames = { "supplier_id",
-        "supplier_sku" }))
+        "supplier_sku" }), indexes = {
+                // 商品ごとの仕入先比較（product_supplier_rankings）の再計算用
+                @Index(name = "idx_supplier_products_product_status", columnList = "product_id, status")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,9 +6,11 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -19,7 +21,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "supplier_product_price_histories")
+@Table(name = "supplier_product_price_histories", indexes = {
+        // SKU ごとの履歴のページング・指定日時点の価格検索用
+        @Index(name = "idx_sp_price_histories_sp_effective", columnList = "supplier_product_id, effective_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +35,7 @@ public class SupplierProductPriceHistory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supplier_product_id", nullable = false)
     private SupplierProduct supplierProduct;
 
@@ -0,0 +1,65 @@
+package com.example.ReservationApp.entity.transaction;
+
+import java.time.LocalDateTime;
+
+import com.example.ReservationApp.enums.OrderCommandType;
+import com.example.ReservationApp.enums.RefType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 処理済みの注文コマンド
+ *
+ * クライアントが付与したリクエストIDを一意キーとして記録し、
+ * スキャナー等からの再送を重複処理しないために使用する。
+ * 再送の受付期間（order-command.retention.days）を過ぎた行は定期的に削除する。
+ */
+@Entity
+@Table(name = "order_commands", indexes = {
+        // 保持期間を過ぎた行の削除用
+        @Index(name = "idx_order_commands_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderCommand {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 100)
+    private String requestId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RefType refType; // PO / SO
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderCommandType command;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -19,6 +19,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -30,12 +31,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "purchase_orders")
+@Table(name = "purchase_orders", indexes = {
+        // 期間指定での発注明細の原価計算用
+        @Index(name = "idx_purchase_orders_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class PurchaseOrder {
+public class PurchaseOrder implements TrackedOrder {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -53,6 +57,10 @@ public class PurchaseOrder {
 
     private String description;
     private BigDecimal total;
+
+    // 明細の完了カウンタ（発注・受注確定時に初期化）
+    private Integer totalLines;
+    private Integer completedLines;
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
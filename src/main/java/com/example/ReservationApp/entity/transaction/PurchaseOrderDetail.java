@@ -53,10 +53,17 @@ public class PurchaseOrderDetail {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    // 受領済み数量（receiveStock で更新。カラム導入前の明細は null）
+    @Builder.Default
+    private Integer receivedQty = 0;
+
     @PrePersist
     public void prePersist() {
         if (status == null) {
             status = OrderStatus.NEW;
         }
+        if (receivedQty == null) {
+            receivedQty = 0;
+        }
     }
 }
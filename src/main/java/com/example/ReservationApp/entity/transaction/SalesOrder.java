@@ -34,7 +34,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class SalesOrder {
+public class SalesOrder implements TrackedOrder {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +51,10 @@ public class SalesOrder {
     private String description;
     private BigDecimal total;
 
+    // 明細の完了カウンタ（発注・受注確定時に初期化）
+    private Integer totalLines;
+    private Integer completedLines;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -13,6 +13,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -23,7 +24,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "sales_order_details")
+@Table(name = "sales_order_details", indexes = {
+        // 商品・カテゴリ単位の売上集計用
+        @Index(name = "idx_sales_order_details_product_status", columnList = "product_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
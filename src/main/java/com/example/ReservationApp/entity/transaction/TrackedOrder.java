@@ -0,0 +1,24 @@
+package com.example.ReservationApp.entity.transaction;
+
+import com.example.ReservationApp.enums.OrderStatus;
+
+/**
+ * ステータス遷移と明細完了カウンタを持つ注文（PurchaseOrder / SalesOrder）の共通インターフェース。
+ * 各メソッドは Lombok の @Data により実装される。
+ */
+public interface TrackedOrder {
+
+    Long getId();
+
+    OrderStatus getStatus();
+
+    void setStatus(OrderStatus status);
+
+    Integer getTotalLines();
+
+    void setTotalLines(Integer totalLines);
+
+    Integer getCompletedLines();
+
+    void setCompletedLines(Integer completedLines);
+}
@@ -0,0 +1,9 @@
+package com.example.ReservationApp.enums;
+
+public enum CatalogAggregate {
+    CATEGORY,
+    PRODUCT,
+    SUPPLIER,
+    SUPPLIER_PRODUCT,
+    INVENTORY
+}
@@ -0,0 +1,9 @@
+package com.example.ReservationApp.enums;
+
+public enum OrderCommandType {
+    PLACE,
+    PREPARE,
+    RECEIVE,
+    DELIVER,
+    UPDATE_STATUS
+}
@@ -5,5 +5,27 @@ public enum OrderStatus {
     PROCESSING,
     COMPLETED,
     CANCELLED,
-    PENDING
+    PENDING;
+
+    /**
+     * 注文ステータスの遷移可否を判定する。
+     * 同一ステータスへの遷移は冪等な再実行として許可する。
+     *
+     * @param next 遷移先ステータス
+     * @return 遷移可能な場合 true
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        if (next == null) {
+            return false;
+        }
+        if (this == next) {
+            return true;
+        }
+        return switch (this) {
+            case NEW -> next == PENDING || next == CANCELLED;
+            case PENDING -> next == PROCESSING || next == COMPLETED || next == CANCELLED;
+            case PROCESSING -> next == COMPLETED;
+            case COMPLETED, CANCELLED -> false;
+        };
+    }
 }
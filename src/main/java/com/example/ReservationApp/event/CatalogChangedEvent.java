@@ -0,0 +1,65 @@
+package com.example.ReservationApp.event;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+
+/**
+ * 商品カタログ（カテゴリ・商品・仕入先・仕入れ商品・在庫）の更新イベント。
+ *
+ * 書き込み系サービスから発行し、検索インデックスや ETag のバージョン、カテゴリ集計など
+ * インメモリ／キャッシュ上の派生データをコミット後に更新するために使用する。
+ *
+ * ・productIds が null の場合は対象を特定できないため、商品単位のデータを全件再構築する
+ * ・productIds が空の場合は商品単位のデータ（検索インデックスなど）に影響しない更新を表す
+ * ・在庫（INVENTORY）の更新は数量が変わった商品IDを持つが、検索用ドキュメントには影響しない
+ * ・商品の作成・更新・削除は、移動元・移動先のカテゴリIDを categoryIds に持つ（カテゴリ集計用）
+ *
+ * @param aggregate   更新された集約の種類
+ * @param productIds  影響を受ける商品ID
+ * @param categoryIds 影響を受けるカテゴリID。null の場合は商品IDから求める
+ */
+public record CatalogChangedEvent(CatalogAggregate aggregate, Set<Long> productIds, Set<Long> categoryIds) {
+
+    public CatalogChangedEvent(CatalogAggregate aggregate, Set<Long> productIds) {
+        this(aggregate, productIds, null);
+    }
+
+    public static CatalogChangedEvent ofProduct(CatalogAggregate aggregate, Long productId) {
+        return new CatalogChangedEvent(aggregate, productId != null ? Set.of(productId) : null);
+    }
+
+    /**
+     * 商品の更新イベントを、影響するカテゴリ（変更前・変更後）付きで生成する。null のカテゴリIDは除外する。
+     */
+    public static CatalogChangedEvent ofProduct(CatalogAggregate aggregate, Long productId, Long... categoryIds) {
+        Set<Long> ids = Arrays.stream(categoryIds).filter(Objects::nonNull).collect(Collectors.toSet());
+        return new CatalogChangedEvent(aggregate, productId != null ? Set.of(productId) : null, ids);
+    }
+
+    public static CatalogChangedEvent of(CatalogAggregate aggregate) {
+        return new CatalogChangedEvent(aggregate, Set.of());
+    }
+
+    public static CatalogChangedEvent all(CatalogAggregate aggregate) {
+        return new CatalogChangedEvent(aggregate, null);
+    }
+
+    public boolean isFullRefresh() {
+        return productIds == null;
+    }
+
+    public boolean affectsProducts() {
+        return productIds == null || !productIds.isEmpty();
+    }
+
+    /**
+     * 検索・サジェスト用のドキュメント（商品名・コード・SKU・カテゴリ名・仕入先名）に影響する更新か。
+     */
+    public boolean affectsProductDocuments() {
+        return aggregate != CatalogAggregate.INVENTORY && affectsProducts();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ReservationApp.event;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+
+/**
+ * 通知の作成イベント。
+ *
+ * 通知を保存したサービスから発行し、コミット後に接続中のクライアントへプッシュするために使用する。
+ *
+ * @param notification 保存済みの通知（ID・作成日時を含む）
+ */
+public record NotificationCreatedEvent(NotificationDTO notification) {
+}
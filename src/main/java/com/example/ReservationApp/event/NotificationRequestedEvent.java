@@ -0,0 +1,14 @@
+package com.example.ReservationApp.event;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+
+/**
+ * 通知の作成依頼イベント。
+ *
+ * 業務処理（入出庫・受注・発注など）のトランザクション内で発行し、コミット後に
+ * NotificationDispatcher がまとめて保存・配信する。ロールバックされた処理の通知は破棄される。
+ *
+ * @param notification 作成する通知（ID は未採番）
+ */
+public record NotificationRequestedEvent(NotificationDTO notification) {
+}
@@ -0,0 +1,27 @@
+package com.example.ReservationApp.event;
+
+/**
+ * 通知の既読化・削除による未読件数の変更イベント。
+ *
+ * 通知を既読にしたサービスから発行し、コミット後に Redis 上の未読件数カウンタへ反映するために使用する。
+ * 通知の作成による加算は NotificationCreatedEvent で扱う。
+ *
+ * @param userId    対象ユーザーID
+ * @param delta     個人宛て通知の未読件数の増減（reset が true の場合は無視する）
+ * @param reset     すべて既読にした場合は true（未読件数を 0 にする）
+ * @param broadcast ロール宛て通知の既読位置が変わった場合は true
+ */
+public record UnreadCountChangedEvent(Long userId, long delta, boolean reset, boolean broadcast) {
+
+    public static UnreadCountChangedEvent decrement(Long userId) {
+        return new UnreadCountChangedEvent(userId, -1, false, false);
+    }
+
+    public static UnreadCountChangedEvent broadcastRead(Long userId) {
+        return new UnreadCountChangedEvent(userId, 0, false, true);
+    }
+
+    public static UnreadCountChangedEvent reset(Long userId) {
+        return new UnreadCountChangedEvent(userId, 0, true, true);
+    }
+}
@@ -13,6 +13,7 @@ public interface CategoryMapper {
 
     @Mapping(target = "productCount", ignore = true) // handle in service
     @Mapping(target = "supplierNames", ignore = true) // handle in service
+    @Mapping(target = "imageVariants", ignore = true) // handle in service
     CategoryDTO toDTO(Category category);
 
     List<CategoryDTO> toDTOList(List<Category> categories);
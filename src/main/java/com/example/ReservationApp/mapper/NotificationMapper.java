@@ -3,15 +3,22 @@ package com.example.ReservationApp.mapper;
 import java.util.List;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.entity.notification.BroadcastNotification;
 import com.example.ReservationApp.entity.notification.Notification;
 
 @Mapper(componentModel = "spring")
 public interface NotificationMapper {
 
+    @Mapping(target = "targetRole", ignore = true)
     NotificationDTO toDTO(Notification notification);
 
+    @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "readed", ignore = true)
+    NotificationDTO toDTO(BroadcastNotification notification);
+
     List<NotificationDTO> toDTOList(List<Notification> notifications);
 
     Notification toEntity(NotificationDTO dto);
@@ -16,14 +16,15 @@ public interface PurchaseOrderDetailMapper {
     @Mapping(target = "productName", source = "product.name")
     @Mapping(target = "sku", ignore = true) 
     @Mapping(target = "orderedQty", ignore = true) 
-    @Mapping(target = "receivedQty", ignore = true)
     @Mapping(target = "remainingQty", ignore = true)
+    @Mapping(target = "supplierProductId", ignore = true)
     PurchaseOrderDetailDTO toDTO(PurchaseOrderDetail detail);
 
     List<PurchaseOrderDetailDTO> toDTOList(List<PurchaseOrderDetail> details);
 
     @Mapping(target = "purchaseOrder", ignore = true)   
     @Mapping(target = "product", ignore = true)         
+    @Mapping(target = "receivedQty", ignore = true)
     PurchaseOrderDetail toEntity(PurchaseOrderDetailDTO dto);
 
     List<PurchaseOrderDetail> toEntityList(List<PurchaseOrderDetailDTO> detailDTOs);
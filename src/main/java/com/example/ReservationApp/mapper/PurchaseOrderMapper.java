@@ -23,5 +23,7 @@ public interface PurchaseOrderMapper {
     @Mapping(target = "supplier", ignore = true)  
     @Mapping(target = "details", ignore = true)   
     @Mapping(target = "createdBy", ignore = true)   
+    @Mapping(target = "totalLines", ignore = true)
+    @Mapping(target = "completedLines", ignore = true)
     PurchaseOrder toEntity(PurchaseOrderDTO dto);
 }
@@ -20,5 +20,7 @@ public interface SalesOrderMapper {
 
     @Mapping(target = "details", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "totalLines", ignore = true)
+    @Mapping(target = "completedLines", ignore = true)
     SalesOrder toEntity(SalesOrderDTO salesOrderDTO);
 }
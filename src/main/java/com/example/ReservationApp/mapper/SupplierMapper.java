@@ -13,6 +13,7 @@ public interface SupplierMapper {
 
     @Mapping(target = "categoryNames", expression = "java(supplier.getSupplierProducts().stream().map(sp -> sp.getProduct().getCategory().getName()).distinct().toList())")
     @Mapping(target = "supplierStatus", source = "status")
+    @Mapping(target = "productCount", ignore = true)
     SupplierDTO toDTO(Supplier supplier);
 
     List<SupplierDTO> toDTOList(List<Supplier> suppliers);
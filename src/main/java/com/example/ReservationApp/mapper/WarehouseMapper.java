@@ -12,10 +12,15 @@ import com.example.ReservationApp.entity.inventory.Warehouse;
 public interface WarehouseMapper {
 
     @Mapping(target = "stocks", ignore = true) 
+    @Mapping(target = "skuCount", ignore = true)
+    @Mapping(target = "onHandQuantity", ignore = true)
+    @Mapping(target = "reservedQuantity", ignore = true)
+    @Mapping(target = "utilizationRate", ignore = true)
     WarehouseDTO toDTO(Warehouse warehouse);
 
     List<WarehouseDTO> toDTOList(List<Warehouse> warehouses);
 
     @Mapping(target = "inventoryStocks", ignore = true)
+    @Mapping(target = "usedQuantity", ignore = true)
     Warehouse toEntity(WarehouseDTO dto);
 }
@@ -0,0 +1,67 @@
+package com.example.ReservationApp.repository.inventory;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+
+import jakarta.persistence.LockModeType;
+
+public interface InventoryLotRepository extends JpaRepository<InventoryLot, Long> {
+
+    /**
+     * 残数のあるロットを FIFO 順（受領日時 → ID）で取得する。
+     * idx_inventory_lots_fifo を使用し、必要な件数だけを先頭から読み出す。
+     * 同じ在庫からの出庫が同時に行われても残数の減算を失わないよう、読み出したロットに行ロックを取る。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                SELECT l FROM InventoryLot l
+                WHERE l.inventoryStock.id = :stockId
+                  AND l.remainingQty > 0
+                ORDER BY l.receivedAt ASC, l.id ASC
+            """)
+    List<InventoryLot> findOpenLotsFifo(@Param("stockId") Long stockId, Pageable pageable);
+
+    /**
+     * ロット導入前から残っている在庫に、期首ロットを1件ずつ作成する。
+     * 数量は在庫数量からロット残数の合計を引いた分、受領日時は最初の入庫履歴（既存ロットより前）とし、
+     * FIFO で最初に引き当てられるようにする。差分のない在庫には作成しないため、繰り返し実行しても増えない。
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO inventory_lots (inventory_stock_id, received_qty, remaining_qty, received_at, ref_type, ref_id)
+                SELECT s.id,
+                    s.quantity - COALESCE(l.remaining, 0),
+                    s.quantity - COALESCE(l.remaining, 0),
+                    LEAST(h.first_received_at, l.first_received_at - INTERVAL '1 millisecond', NOW()),
+                    'ADJ',
+                    NULL
+                FROM inventory_stocks s
+                LEFT JOIN (
+                    SELECT inventory_stock_id, SUM(remaining_qty) AS remaining, MIN(received_at) AS first_received_at
+                    FROM inventory_lots
+                    GROUP BY inventory_stock_id
+                ) l ON l.inventory_stock_id = s.id
+                LEFT JOIN (
+                    SELECT inventory_stock_id, MIN(created_at) AS first_received_at
+                    FROM stock_histories
+                    WHERE type = 'IN'
+                    GROUP BY inventory_stock_id
+                ) h ON h.inventory_stock_id = s.id
+                WHERE s.quantity - COALESCE(l.remaining, 0) > 0
+            """, nativeQuery = true)
+    int backfillOpeningLots();
+
+    /**
+     * 期首ロットの作成を複数ノードで同時に実行しないよう、トランザクション終了まで保持するロックを取る。
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('inventory_lots_backfill'))) l", nativeQuery = true)
+    Integer lockBackfill();
+}
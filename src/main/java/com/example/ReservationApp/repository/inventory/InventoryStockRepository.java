@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -73,6 +76,43 @@ public interface InventoryStockRepository extends JpaRepository<InventoryStock,
                         """)
         void reserveStockBySku(@Param("sku") String sku, @Param("qty") int qty);
 
+        /**
+         * 在庫数量を増減する。減算後の数量が 0 未満になる場合は更新せず 0 を返す。
+         */
+        @Modifying
+        @Query("""
+                        UPDATE InventoryStock is
+                        SET is.quantity = is.quantity + :delta
+                        WHERE is.id = :id
+                        AND is.quantity + :delta >= 0
+                        """)
+        int adjustQuantity(Long id, int delta);
+
+        /**
+         * 出庫数量を在庫数量と予約数量から減算する。予約数量が不足する場合は更新せず 0 を返す。
+         */
+        @Modifying
+        @Query("""
+                        UPDATE InventoryStock is
+                        SET is.quantity = is.quantity - :qty,
+                            is.reservedQuantity = is.reservedQuantity - :qty
+                        WHERE is.id = :id
+                        AND is.reservedQuantity >= :qty
+                        """)
+        int deliver(Long id, int qty);
+
+        /**
+         * 引当可能数量（在庫数量 - 予約数量）の範囲で予約数量を加算する。不足する場合は更新せず 0 を返す。
+         */
+        @Modifying
+        @Query("""
+                        UPDATE InventoryStock is
+                        SET is.reservedQuantity = is.reservedQuantity + :qty
+                        WHERE is.id = :id
+                        AND is.quantity - is.reservedQuantity >= :qty
+                        """)
+        int reserveIfAvailable(Long id, int qty);
+
         @Query("""
                         SELECT s
                         FROM InventoryStock s
@@ -110,4 +150,12 @@ public interface InventoryStockRepository extends JpaRepository<InventoryStock,
                         JOIN FETCH s.warehouse
                         """)
         List<InventoryStock> findAllStockWithSupplierAndProduct();
+
+        /**
+         * 指定倉庫に数量が残っている在庫があるか（最初の1件で打ち切る）。
+         */
+        boolean existsByWarehouseIdAndQuantityGreaterThan(Long warehouseId, Integer quantity);
+
+        @EntityGraph(attributePaths = { "product", "supplierProduct", "warehouse" })
+        Page<InventoryStock> findPageByWarehouseId(Long warehouseId, Pageable pageable);
 }
@@ -4,32 +4,78 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.ReservationApp.dto.response.inventory.WarehouseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseSummaryFlatDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationFlatDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseWithTotalChangedQtyDTO;
 import com.example.ReservationApp.entity.inventory.Warehouse;
 
+import jakarta.persistence.LockModeType;
+
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
         List<Warehouse> findByLocationContainingIgnoreCase(String location);
 
-        @Query("""
-                        SELECT w
-                        FROM Warehouse w
-                        LEFT JOIN FETCH w.inventoryStocks s
-                        LEFT JOIN FETCH s.product
-                            WHERE w.id = :id
-                        """)
-        Optional<Warehouse> findByIdWithStocks(Long id);
+        /**
+         * 倉庫ごとの集計（在庫行数、在庫数量・予約数量の合計、使用量）。
+         * 在庫行は SQL で集計し、倉庫1件につき1行のみ返す。
+         */
+        @Query(value = """
+                        SELECT
+                            w.id AS id,
+                            w.name AS name,
+                            w.location AS location,
+                            w.status AS status,
+                            w.stock_limit AS stockLimit,
+                            w.created_at AS createdAt,
+                            w.updated_at AS updatedAt,
+                            COALESCE(s.sku_count, 0) AS skuCount,
+                            COALESCE(s.on_hand, 0) AS onHandQuantity,
+                            COALESCE(s.reserved, 0) AS reservedQuantity,
+                            COALESCE(w.used_quantity, s.on_hand, 0) AS usedQuantity
+                        FROM warehouses w
+                        LEFT JOIN (
+                            SELECT i.warehouse_id,
+                                COUNT(*) AS sku_count,
+                                SUM(i.quantity) AS on_hand,
+                                SUM(i.reserved_quantity) AS reserved
+                            FROM inventory_stocks i
+                            GROUP BY i.warehouse_id
+                        ) s ON s.warehouse_id = w.id
+                        ORDER BY w.id
+                        """, nativeQuery = true)
+        List<WarehouseSummaryFlatDTO> findAllSummaries();
 
-        @Query("""
-                        SELECT w
-                        FROM Warehouse w
-                        LEFT JOIN FETCH w.inventoryStocks s
-                        LEFT JOIN FETCH s.product
-                        """)
-        List<Warehouse> findAllWithStocks();
+        @Query(value = """
+                        SELECT
+                            w.id AS id,
+                            w.name AS name,
+                            w.location AS location,
+                            w.status AS status,
+                            w.stock_limit AS stockLimit,
+                            w.created_at AS createdAt,
+                            w.updated_at AS updatedAt,
+                            COALESCE(s.sku_count, 0) AS skuCount,
+                            COALESCE(s.on_hand, 0) AS onHandQuantity,
+                            COALESCE(s.reserved, 0) AS reservedQuantity,
+                            COALESCE(w.used_quantity, s.on_hand, 0) AS usedQuantity
+                        FROM warehouses w
+                        LEFT JOIN (
+                            SELECT i.warehouse_id,
+                                COUNT(*) AS sku_count,
+                                SUM(i.quantity) AS on_hand,
+                                SUM(i.reserved_quantity) AS reserved
+                            FROM inventory_stocks i
+                            WHERE i.warehouse_id = :id
+                            GROUP BY i.warehouse_id
+                        ) s ON s.warehouse_id = w.id
+                        WHERE w.id = :id
+                        """, nativeQuery = true)
+        Optional<WarehouseSummaryFlatDTO> findSummaryById(@Param("id") Long id);
 
         @Query("""
                         SELECT w
@@ -66,4 +112,78 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
                         ORDER BY wh.id
                         """, nativeQuery = true)
         List<WarehouseWithTotalChangedQtyDTO> findWarehouseWithTotalChangedQty();
+
+        /**
+         * 上限を超えない場合のみ使用量に qty を加算する。更新件数が 0 の場合は上限超過（または倉庫なし）。
+         * カウンタが未初期化（null）の倉庫は在庫数量の合計から初期化してから判定する。
+         * 行ロックを取るため、同じ倉庫への同時入庫でも上限を超えない。
+         */
+        @Modifying
+        @Query(value = """
+                        UPDATE warehouses w
+                        SET used_quantity = COALESCE(w.used_quantity,
+                                (SELECT COALESCE(SUM(i.quantity), 0) FROM inventory_stocks i WHERE i.warehouse_id = w.id))
+                            + :qty
+                        WHERE w.id = :id
+                            AND COALESCE(w.used_quantity,
+                                (SELECT COALESCE(SUM(i.quantity), 0) FROM inventory_stocks i WHERE i.warehouse_id = w.id))
+                            + :qty <= w.stock_limit
+                        """, nativeQuery = true)
+        int reserveCapacity(@Param("id") Long id, @Param("qty") int qty);
+
+        /**
+         * 上限を判定せずに使用量を delta だけ増減する（出庫・在庫調整用）。
+         */
+        @Modifying
+        @Query(value = """
+                        UPDATE warehouses w
+                        SET used_quantity = COALESCE(w.used_quantity,
+                                (SELECT COALESCE(SUM(i.quantity), 0) FROM inventory_stocks i WHERE i.warehouse_id = w.id))
+                            + :delta
+                        WHERE w.id = :id
+                        """, nativeQuery = true)
+        int adjustUsedQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+        @Modifying
+        @Query(value = "UPDATE warehouses SET used_quantity = :usedQuantity WHERE id = :id", nativeQuery = true)
+        int setUsedQuantity(@Param("id") Long id, @Param("usedQuantity") long usedQuantity);
+
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT w FROM Warehouse w WHERE w.id = :id")
+        Optional<Warehouse> findForUpdate(@Param("id") Long id);
+
+        @Query("SELECT w.id FROM Warehouse w ORDER BY w.id")
+        List<Long> findAllIds();
+
+        @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM InventoryStock i WHERE i.warehouse.id = :id")
+        long sumQuantity(@Param("id") Long id);
+
+        /**
+         * 倉庫ごとの使用量。カウンタが未初期化の倉庫のみ在庫数量を合計する。
+         */
+        @Query(value = """
+                        SELECT
+                            w.id AS warehouseId,
+                            w.name AS name,
+                            w.stock_limit AS stockLimit,
+                            COALESCE(w.used_quantity,
+                                (SELECT COALESCE(SUM(i.quantity), 0) FROM inventory_stocks i WHERE i.warehouse_id = w.id))
+                                AS usedQuantity
+                        FROM warehouses w
+                        ORDER BY w.id
+                        """, nativeQuery = true)
+        List<WarehouseUtilizationFlatDTO> findAllUtilization();
+
+        @Query(value = """
+                        SELECT
+                            w.id AS warehouseId,
+                            w.name AS name,
+                            w.stock_limit AS stockLimit,
+                            COALESCE(w.used_quantity,
+                                (SELECT COALESCE(SUM(i.quantity), 0) FROM inventory_stocks i WHERE i.warehouse_id = w.id))
+                                AS usedQuantity
+                        FROM warehouses w
+                        WHERE w.id = :id
+                        """, nativeQuery = true)
+        Optional<WarehouseUtilizationFlatDTO> findUtilizationById(@Param("id") Long id);
 }
@@ -0,0 +1,49 @@
+package com.example.ReservationApp.repository.notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.ReservationApp.entity.notification.BroadcastNotification;
+import com.example.ReservationApp.enums.UserRole;
+
+import jakarta.transaction.Transactional;
+
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    List<BroadcastNotification> findTop20ByTargetRoleOrderByIdDesc(UserRole targetRole);
+
+    boolean existsByIdAndTargetRole(Long id, UserRole targetRole);
+
+    /**
+     * 既読位置より新しい通知の ID を昇順で返す（未読件数の計算・既読位置の更新用。保持期間により件数は限られる）
+     */
+    @Query("""
+                SELECT b.id FROM BroadcastNotification b
+                WHERE b.targetRole = :targetRole
+                AND b.id > :afterId
+                ORDER BY b.id
+            """)
+    List<Long> findIdsByTargetRoleAfter(UserRole targetRole, long afterId);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM BroadcastNotification b")
+    long findMaxId();
+
+    /**
+     * 保持期間を過ぎた通知を最大 limit 件削除する。
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                DELETE FROM broadcast_notifications
+                WHERE id IN (
+                    SELECT id FROM broadcast_notifications
+                    WHERE created_at < :cutoff
+                    ORDER BY id
+                    LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,33 @@
+package com.example.ReservationApp.repository.notification;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.ReservationApp.entity.notification.NotificationReadMarker;
+
+import jakarta.persistence.LockModeType;
+
+public interface NotificationReadMarkerRepository extends JpaRepository<NotificationReadMarker, Long> {
+
+    /**
+     * 既読位置の行がなければ作成する（同時作成時の重複を避ける）。
+     */
+    @Modifying
+    @Query(value = """
+                INSERT INTO notification_read_markers (user_id, last_read_broadcast_id, updated_at)
+                VALUES (:userId, 0, NOW())
+                ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(Long userId);
+
+    /**
+     * 同一ユーザーの既読化が同時に行われてもビットマップを失わないよう、行ロックを取得する。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM NotificationReadMarker m WHERE m.userId = :userId")
+    Optional<NotificationReadMarker> findForUpdate(Long userId);
+}
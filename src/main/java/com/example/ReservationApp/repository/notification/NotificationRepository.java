@@ -1,5 +1,6 @@
 package com.example.ReservationApp.repository.notification;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,6 +17,19 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByUserIdAndReadedFalse(Long userId);
 
+    /**
+     * 未読の場合のみ既読にする。同時に呼ばれても更新件数が 1 になるのは1回だけ。
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE Notification n
+                SET n.readed = true
+                WHERE n.id = :id
+                AND n.readed = false
+            """)
+    int markAsReadIfUnread(Long id);
+
     @Modifying
     @Transactional
     @Query("""
@@ -25,4 +39,20 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
                 AND n.readed = false
             """)
     int markAllAsRead(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 保持期間を過ぎた既読通知を最大 limit 件削除する。
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                DELETE FROM notifications
+                WHERE id IN (
+                    SELECT id FROM notifications
+                    WHERE readed = true
+                    AND created_at < :cutoff
+                    ORDER BY id
+                    LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteReadCreatedBefore(LocalDateTime cutoff, int limit);
+}
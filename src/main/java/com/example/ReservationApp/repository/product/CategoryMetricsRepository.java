@@ -0,0 +1,107 @@
+package com.example.ReservationApp.repository.product;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ReservationApp.dto.response.product.CategoryMetricsFlatDTO;
+import com.example.ReservationApp.entity.product.CategoryMetrics;
+
+public interface CategoryMetricsRepository extends JpaRepository<CategoryMetrics, Long> {
+
+    /**
+     * 指定カテゴリの集計値を1行で取得する。
+     * 製品数の割合は category_metrics の合計（カテゴリ数分の小さな集計）から計算する。
+     */
+    @Query(value = """
+            SELECT
+                m.category_id AS categoryId,
+                c.name AS categoryName,
+                m.product_count AS productCount,
+                ROUND(100.0 * m.product_count / NULLIF(t.total_product, 0), 2) AS percentage,
+                m.supplier_count AS supplierCount,
+                m.supplier_names AS supplierNames,
+                m.on_hand_quantity AS totalQuantity,
+                m.revenue AS totalPrice
+            FROM category_metrics m
+            JOIN categories c ON c.id = m.category_id
+            CROSS JOIN (SELECT SUM(product_count) AS total_product FROM category_metrics) t
+            WHERE m.category_id = :categoryId
+                   """, nativeQuery = true)
+    Optional<CategoryMetricsFlatDTO> findOverviewByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * 指定カテゴリの集計値を再計算して UPSERT する。
+     * 製品数・仕入先・在庫・売上はそれぞれカテゴリ単位で事前集計してから結合するため、
+     * 仕入先 × 在庫の直積による二重計上は発生しない。
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO category_metrics
+                (category_id, product_count, supplier_count, supplier_names, on_hand_quantity, revenue, updated_at)
+            SELECT
+                c.id,
+                COALESCE(pc.product_count, 0),
+                COALESCE(sc.supplier_count, 0),
+                sc.supplier_names,
+                COALESCE(st.on_hand_quantity, 0),
+                COALESCE(rv.revenue, 0),
+                NOW()
+            FROM categories c
+            LEFT JOIN (
+                SELECT p.category_id, COUNT(*) AS product_count
+                FROM products p
+                WHERE p.category_id IN (:categoryIds)
+                GROUP BY p.category_id
+            ) pc ON pc.category_id = c.id
+            LEFT JOIN (
+                SELECT
+                    p.category_id,
+                    COUNT(DISTINCT s.id) AS supplier_count,
+                    STRING_AGG(DISTINCT s.name, ', ') AS supplier_names
+                FROM products p
+                JOIN supplier_products sp ON sp.product_id = p.id
+                JOIN suppliers s ON s.id = sp.supplier_id
+                WHERE p.category_id IN (:categoryIds)
+                GROUP BY p.category_id
+            ) sc ON sc.category_id = c.id
+            LEFT JOIN (
+                SELECT p.category_id, SUM(i.quantity) AS on_hand_quantity
+                FROM products p
+                JOIN inventory_stocks i ON i.product_id = p.id
+                WHERE p.category_id IN (:categoryIds)
+                GROUP BY p.category_id
+            ) st ON st.category_id = c.id
+            LEFT JOIN (
+                SELECT p.category_id, SUM(sod.price * sod.qty) AS revenue
+                FROM products p
+                JOIN sales_order_details sod ON sod.product_id = p.id
+                WHERE p.category_id IN (:categoryIds)
+                  AND sod.status = 'COMPLETED'
+                GROUP BY p.category_id
+            ) rv ON rv.category_id = c.id
+            WHERE c.id IN (:categoryIds)
+            ON CONFLICT (category_id) DO UPDATE SET
+                product_count = EXCLUDED.product_count,
+                supplier_count = EXCLUDED.supplier_count,
+                supplier_names = EXCLUDED.supplier_names,
+                on_hand_quantity = EXCLUDED.on_hand_quantity,
+                revenue = EXCLUDED.revenue,
+                updated_at = EXCLUDED.updated_at
+                   """, nativeQuery = true)
+    int recompute(@Param("categoryIds") Collection<Long> categoryIds);
+
+    /**
+     * 削除済みカテゴリの集計行を削除する。
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM category_metrics m
+            WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.id = m.category_id)
+                   """, nativeQuery = true)
+    int deleteOrphans();
+}
@@ -1,12 +1,17 @@
 package com.example.ReservationApp.repository.product;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.example.ReservationApp.dto.response.product.ProductDetailFlatDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductSearchDocFlatDTO;
 import com.example.ReservationApp.dto.response.product.ProductWithSkuByCategoryDTO;
 import com.example.ReservationApp.entity.product.Product;
 
@@ -35,13 +40,116 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                    """, nativeQuery = true)
     List<Object[]> findProductWithCatName(@Param("productId") Long id);
 
+    /**
+     * 商品詳細画面用に、商品基本情報・仕入先＋価格・在庫履歴・倉庫別在庫を1回の問い合わせで取得する。
+     * 明細はそれぞれ json_agg で JSON 配列に集約し、在庫履歴は期間と件数で上限を設ける。
+     */
+    @Query(value = """
+            SELECT
+                p.id,
+                p.name,
+                p.product_code AS productCode,
+                p.description,
+                p.unit,
+                p.status,
+                c.name AS categoryName,
+                (
+                    SELECT COALESCE(json_agg(json_build_object(
+                               'supplierId', s.id,
+                               'supplierName', s.name,
+                               'sku', sp.supplier_sku,
+                               'price', sp.current_price) ORDER BY s.name, sp.id), '[]'::json)
+                    FROM supplier_products sp
+                    JOIN suppliers s ON s.id = sp.supplier_id
+                    WHERE sp.product_id = p.id
+                )::text AS suppliersJson,
+                (
+                    SELECT COALESCE(json_agg(json_build_object(
+                               'createdAt', h.created_at,
+                               'type', h.type,
+                               'changeQty', h.change_qty) ORDER BY h.created_at, h.id), '[]'::json)
+                    FROM (
+                        SELECT sh.id, sh.created_at, sh.type, sh.change_qty
+                        FROM stock_histories sh
+                        JOIN inventory_stocks ivs ON ivs.id = sh.inventory_stock_id
+                        WHERE ivs.product_id = p.id
+                          AND sh.created_at >= :historySince
+                        ORDER BY sh.created_at DESC, sh.id DESC
+                        LIMIT :historyLimit
+                    ) h
+                )::text AS historiesJson,
+                (
+                    SELECT COALESCE(json_agg(json_build_object(
+                               'quantity', ivs.quantity,
+                               'warehouseName', w.name) ORDER BY w.name, ivs.id), '[]'::json)
+                    FROM inventory_stocks ivs
+                    JOIN warehouses w ON w.id = ivs.warehouse_id
+                    WHERE ivs.product_id = p.id
+                )::text AS stocksJson
+            FROM products p
+            JOIN categories c ON p.category_id = c.id
+            WHERE p.id = :productId
+            """, nativeQuery = true)
+    Optional<ProductDetailFlatDTO> findProductDetail(
+            @Param("productId") Long productId,
+            @Param("historySince") LocalDateTime historySince,
+            @Param("historyLimit") int historyLimit);
+
     @Query("SELECT p FROM Product p WHERE " +
             "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.productCode) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Product> searchProducts(@Param("keyword") String keyword);
 
+    /**
+     * 検索インデックス用に、商品ごとの検索対象項目（商品名・商品コード・カテゴリ名・SKU・仕入先名）を
+     * 1行にまとめて取得する。
+     */
+    @Query(value = """
+            SELECT
+                p.id AS productId,
+                p.name AS productName,
+                p.product_code AS productCode,
+                c.name AS categoryName,
+                STRING_AGG(DISTINCT sp.supplier_sku, ' ') AS skus,
+                STRING_AGG(DISTINCT s.name, ' ') AS supplierNames
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            LEFT JOIN supplier_products sp ON sp.product_id = p.id
+            LEFT JOIN suppliers s ON s.id = sp.supplier_id
+            GROUP BY p.id, p.name, p.product_code, c.name
+            """, nativeQuery = true)
+    List<ProductSearchDocFlatDTO> findAllSearchDocuments();
+
+    @Query("SELECT DISTINCT p.category.id FROM Product p WHERE p.id IN :productIds AND p.category IS NOT NULL")
+    List<Long> findCategoryIdsByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 指定商品の検索対象項目を取得する（インデックスの差分更新用）。
+     */
+    @Query(value = """
+            SELECT
+                p.id AS productId,
+                p.name AS productName,
+                p.product_code AS productCode,
+                c.name AS categoryName,
+                STRING_AGG(DISTINCT sp.supplier_sku, ' ') AS skus,
+                STRING_AGG(DISTINCT s.name, ' ') AS supplierNames
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            LEFT JOIN supplier_products sp ON sp.product_id = p.id
+            LEFT JOIN suppliers s ON s.id = sp.supplier_id
+            WHERE p.id IN (:productIds)
+            GROUP BY p.id, p.name, p.product_code, c.name
+            """, nativeQuery = true)
+    List<ProductSearchDocFlatDTO> findSearchDocumentsByIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 指定商品の「商品 + 仕入先 + 在庫合計」をフラット形式で取得する。
+     * 在庫はサブクエリで商品単位に集計してから結合するため、仕入先の件数によって合計が重複しない。
+     */
     @Query(value = """
                SELECT
+                   p.id,
                    p.name AS productName,
                    p.product_code AS productCode,
                    p.status AS productStatus,
@@ -49,51 +157,47 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                    s.name AS supplierName,
                    s.id AS supplierId,
                    sp.current_price AS price,
-                   COALESCE(SUM(i.quantity), 0) AS totalQuantity
+                   COALESCE(st.total_quantity, 0) AS totalQuantity
                FROM products p
                JOIN categories c ON p.category_id = c.id
+               LEFT JOIN (
+                   SELECT i.product_id, SUM(i.quantity) AS total_quantity
+                   FROM inventory_stocks i
+                   WHERE i.product_id = :productId
+                   GROUP BY i.product_id
+               ) st ON st.product_id = p.id
                LEFT JOIN supplier_products sp ON sp.product_id = p.id
                LEFT JOIN suppliers s ON s.id = sp.supplier_id
-               LEFT JOIN inventory_stocks i ON i.product_id = p.id
-               LEFT JOIN warehouses w ON w.id = i.warehouse_id
                WHERE p.id = :productId
-               GROUP BY
-                 p.name,
-                 p.product_code,
-                 c.name,
-                 p.status,
-                 s.id,
-                 sp.id
-               ORDER BY p.name, s.name
+               ORDER BY s.name, s.id, sp.id
             """, nativeQuery = true)
     List<ProductInfoFlatDTO> getProductWithSupplierAndStockById(@Param("productId") Long productId);
 
+    /**
+     * 全商品の「商品 + 仕入先 + 在庫合計」をフラット形式で取得する。
+     * 同一商品の行が連続するよう (商品名, 商品ID) 順に並べる（サービス側で1パスで集約するため）。
+     */
     @Query(value = """
                SELECT
-                    p.id,
-                    p.name AS productName,
-                    p.product_code AS productCode,
-                    p.status AS productStatus,
-                    c.name AS categoryName,
-                    s.name AS supplierName,
-                    s.id AS supplierId,
-                    sp.current_price AS price,
-                   COALESCE(SUM(i.quantity), 0) AS totalQuantity
+                   p.id,
+                   p.name AS productName,
+                   p.product_code AS productCode,
+                   p.status AS productStatus,
+                   c.name AS categoryName,
+                   s.name AS supplierName,
+                   s.id AS supplierId,
+                   sp.current_price AS price,
+                   COALESCE(st.total_quantity, 0) AS totalQuantity
                FROM products p
                JOIN categories c ON p.category_id = c.id
+               LEFT JOIN (
+                   SELECT i.product_id, SUM(i.quantity) AS total_quantity
+                   FROM inventory_stocks i
+                   GROUP BY i.product_id
+               ) st ON st.product_id = p.id
                LEFT JOIN supplier_products sp ON sp.product_id = p.id
                LEFT JOIN suppliers s ON s.id = sp.supplier_id
-               LEFT JOIN inventory_stocks i ON i.product_id = p.id
-               LEFT JOIN warehouses w ON w.id = i.warehouse_id
-               GROUP BY
-                  p.id,
-                  p.name,
-                  p.product_code,
-                  c.name,
-                  p.status,
-                  s.id,
-                  sp.id
-               ORDER BY p.name, s.name
+               ORDER BY p.name, p.id, s.name, s.id, sp.id
             """, nativeQuery = true)
     List<ProductInfoFlatDTO> getAllProductWithSupplierAndStock();
 
@@ -0,0 +1,19 @@
+package com.example.ReservationApp.repository.storage;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ReservationApp.entity.storage.ImageVariant;
+
+public interface ImageVariantRepository extends JpaRepository<ImageVariant, Long> {
+
+    boolean existsByContentHash(String contentHash);
+
+    List<ImageVariant> findByContentHashInOrderByContentHashAscWidthAsc(Collection<String> contentHashes);
+
+    @Transactional
+    void deleteByContentHash(String contentHash);
+}
@@ -0,0 +1,141 @@
+package com.example.ReservationApp.repository.supplier;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingFlatDTO;
+import com.example.ReservationApp.entity.supplier.ProductSupplierRanking;
+
+public interface ProductSupplierRankingRepository extends JpaRepository<ProductSupplierRanking, Long> {
+
+    String RANKING_SELECT = """
+            SELECT
+                r.product_id AS productId,
+                p.name AS productName,
+                p.product_code AS productCode,
+                r.supplier_count AS supplierCount,
+                cs.id AS cheapestSupplierId,
+                cs.name AS cheapestSupplierName,
+                c.supplier_sku AS cheapestSku,
+                r.min_price AS minPrice,
+                fs.id AS fastestSupplierId,
+                fs.name AS fastestSupplierName,
+                f.supplier_sku AS fastestSku,
+                r.min_lead_time AS minLeadTime,
+                f.current_price AS fastestPrice,
+                r.max_price AS maxPrice,
+                r.price_spread AS priceSpread,
+                ROUND(100.0 * r.price_spread / NULLIF(r.min_price, 0), 2) AS priceSpreadRate
+            FROM product_supplier_rankings r
+            JOIN products p ON p.id = r.product_id
+            JOIN supplier_products c ON c.id = r.cheapest_supplier_product_id
+            JOIN suppliers cs ON cs.id = c.supplier_id
+            JOIN supplier_products f ON f.id = r.fastest_supplier_product_id
+            JOIN suppliers fs ON fs.id = f.supplier_id
+            """;
+
+    /**
+     * 価格差の大きい順に比較結果を取得する。結合はページ内の行に対してのみ行われる。
+     */
+    @Query(value = RANKING_SELECT + """
+            WHERE r.supplier_count >= :minSuppliers
+            ORDER BY r.price_spread DESC, r.product_id
+            """, countQuery = """
+            SELECT COUNT(*) FROM product_supplier_rankings r WHERE r.supplier_count >= :minSuppliers
+            """, nativeQuery = true)
+    Page<ProductSupplierRankingFlatDTO> findBySpread(@Param("minSuppliers") int minSuppliers, Pageable pageable);
+
+    /**
+     * 商品ID順に比較結果を取得する。
+     */
+    @Query(value = RANKING_SELECT + """
+            WHERE r.supplier_count >= :minSuppliers
+            ORDER BY r.product_id
+            """, countQuery = """
+            SELECT COUNT(*) FROM product_supplier_rankings r WHERE r.supplier_count >= :minSuppliers
+            """, nativeQuery = true)
+    Page<ProductSupplierRankingFlatDTO> findByProduct(@Param("minSuppliers") int minSuppliers, Pageable pageable);
+
+    /**
+     * 指定商品の比較結果を再計算して UPSERT する。
+     * 最安・最短は DISTINCT ON で商品ごとに1行を選び、件数・価格の範囲は別に集計してから結合する。
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO product_supplier_rankings
+                (product_id, supplier_count, cheapest_supplier_product_id, min_price,
+                 fastest_supplier_product_id, min_lead_time, max_price, price_spread, updated_at)
+            SELECT
+                a.product_id,
+                a.supplier_count,
+                c.id,
+                a.min_price,
+                f.id,
+                f.lead_time,
+                a.max_price,
+                a.max_price - a.min_price,
+                NOW()
+            FROM (
+                SELECT product_id, COUNT(*) AS supplier_count,
+                       MIN(current_price) AS min_price, MAX(current_price) AS max_price
+                FROM supplier_products
+                WHERE product_id IN (:productIds) AND status = 'ACTIVE'
+                GROUP BY product_id
+            ) a
+            JOIN (
+                SELECT DISTINCT ON (product_id) product_id, id
+                FROM supplier_products
+                WHERE product_id IN (:productIds) AND status = 'ACTIVE'
+                ORDER BY product_id, current_price, lead_time, id
+            ) c ON c.product_id = a.product_id
+            JOIN (
+                SELECT DISTINCT ON (product_id) product_id, id, lead_time
+                FROM supplier_products
+                WHERE product_id IN (:productIds) AND status = 'ACTIVE'
+                ORDER BY product_id, lead_time, current_price, id
+            ) f ON f.product_id = a.product_id
+            ON CONFLICT (product_id) DO UPDATE SET
+                supplier_count = EXCLUDED.supplier_count,
+                cheapest_supplier_product_id = EXCLUDED.cheapest_supplier_product_id,
+                min_price = EXCLUDED.min_price,
+                fastest_supplier_product_id = EXCLUDED.fastest_supplier_product_id,
+                min_lead_time = EXCLUDED.min_lead_time,
+                max_price = EXCLUDED.max_price,
+                price_spread = EXCLUDED.price_spread,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int recompute(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 有効な仕入れ商品がなくなった商品の行を削除する。
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM product_supplier_rankings r
+            WHERE r.product_id IN (:productIds)
+              AND NOT EXISTS (SELECT 1 FROM supplier_products sp
+                              WHERE sp.product_id = r.product_id AND sp.status = 'ACTIVE')
+            """, nativeQuery = true)
+    int deleteWithoutActiveSuppliers(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 有効な仕入れ商品がない商品（削除済みを含む）の行をすべて削除する。
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM product_supplier_rankings r
+            WHERE NOT EXISTS (SELECT 1 FROM supplier_products sp
+                              WHERE sp.product_id = r.product_id AND sp.status = 'ACTIVE')
+            """, nativeQuery = true)
+    int deleteOrphans();
+
+    @Query(value = "SELECT DISTINCT product_id FROM supplier_products WHERE status = 'ACTIVE' ORDER BY product_id", nativeQuery = true)
+    List<Long> findRankedProductIds();
+}
@@ -1,9 +1,18 @@
 package com.example.ReservationApp.repository.supplier;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.ReservationApp.dto.response.supplier.PricePointFlatDTO;
 import com.example.ReservationApp.entity.supplier.SupplierProductPriceHistory;
 
 import jakarta.transaction.Transactional;
@@ -14,4 +23,29 @@ public interface SupplierProductPriceHistoryRepository extends JpaRepository<Sup
     @Modifying
     @Query("DELETE FROM SupplierProductPriceHistory h WHERE h.supplierProduct.id = :supplierProductId")
     void deleteBySupplierProductId(Long supplierProductId);
+
+    // 新しい順（同日の場合は登録順の逆）
+    Page<SupplierProductPriceHistory> findBySupplierProductIdOrderByEffectiveDateDescIdDesc(
+            Long supplierProductId, Pageable pageable);
+
+    // 指定日時点で有効な価格（指定日以前で最も新しい履歴）
+    Optional<SupplierProductPriceHistory> findFirstBySupplierProductIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDescIdDesc(
+            Long supplierProductId, LocalDate date);
+
+    // 仕入先・商品ごとに適用日の昇順で並べた価格の変化点
+    @Query("""
+                SELECT
+                    sp.supplier.id AS supplierId,
+                    sp.product.id AS productId,
+                    h.effectiveDate AS effectiveDate,
+                    h.price AS price
+                FROM SupplierProductPriceHistory h
+                JOIN h.supplierProduct sp
+                WHERE sp.supplier.id IN :supplierIds
+                  AND h.effectiveDate <= :to
+                  AND h.price IS NOT NULL
+                ORDER BY sp.supplier.id, sp.product.id, h.effectiveDate, h.id
+            """)
+    List<PricePointFlatDTO> findPricePoints(@Param("supplierIds") Collection<Long> supplierIds,
+            @Param("to") LocalDate to);
 }
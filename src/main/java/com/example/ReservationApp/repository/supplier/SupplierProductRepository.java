@@ -3,10 +3,14 @@ package com.example.ReservationApp.repository.supplier;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.example.ReservationApp.dto.response.supplier.SupplierProductStockFlatDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentCandidateFlatDTO;
 import com.example.ReservationApp.entity.supplier.SupplierProduct;
 import com.example.ReservationApp.enums.SupplierProductStatus;
 
@@ -18,6 +22,13 @@ public interface SupplierProductRepository extends JpaRepository<SupplierProduct
 
     Optional<SupplierProduct> findByProductIdAndSupplierId(Long productId, Long SupplierId);
 
+    // 発注書作成用（明細の商品も同じクエリで取得する）
+    @EntityGraph(attributePaths = { "product" })
+    List<SupplierProduct> findWithProductByIdIn(List<Long> ids);
+
+    @EntityGraph(attributePaths = { "product" })
+    List<SupplierProduct> findWithProductByProductIdInAndSupplierId(List<Long> productIds, Long supplierId);
+
     List<SupplierProduct> findBySupplierId(Long supplierId);
 
     List<SupplierProduct> findByProductId(Long productId);
@@ -28,6 +39,14 @@ public interface SupplierProductRepository extends JpaRepository<SupplierProduct
 
     List<SupplierProduct> findBySupplierIdAndStatus(Long supplierId, SupplierProductStatus status);
 
+    // 仕入先の取扱商品のページ取得（商品・仕入先は同じクエリで取得する）
+    @EntityGraph(attributePaths = { "product", "supplier" })
+    Page<SupplierProduct> findPageBySupplierIdAndStatus(Long supplierId, SupplierProductStatus status,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = { "product", "supplier" })
+    Page<SupplierProduct> findPageBySupplierId(Long supplierId, Pageable pageable);
+
     boolean existsBySupplierIdAndSupplierSku(Long supplierId, String sku);
 
     boolean existsBySupplierIdAndSupplierSkuAndIdNot(Long supplierId, String sku, Long excludeId);
@@ -69,4 +88,67 @@ public interface SupplierProductRepository extends JpaRepository<SupplierProduct
             """, nativeQuery = true)
     List<SupplierProductStockFlatDTO> findSupplierProductsWithStock(@Param("supplierId") Long supplierId);
 
+
+    /**
+     * 補充点計算用に、ACTIVE な SupplierProduct ごとの販売実績・有効在庫・発注残を一括集計する。
+     * 販売実績は直近 windowDays 日の完了明細を日別に集計し、合計と二乗和を返す（標準偏差の算出用）。
+     */
+    @Query(value = """
+            WITH daily_sales AS (
+                SELECT
+                    sod.supplier_product_id,
+                    DATE(so.created_at) AS day,
+                    SUM(sod.qty) AS qty
+                FROM sales_order_details sod
+                JOIN sales_orders so ON so.id = sod.sales_order_id
+                WHERE sod.status = 'COMPLETED'
+                  AND so.created_at >= CURRENT_DATE - make_interval(days => :windowDays)
+                GROUP BY sod.supplier_product_id, DATE(so.created_at)
+            ),
+            sales AS (
+                SELECT
+                    supplier_product_id,
+                    SUM(qty) AS sold_qty,
+                    SUM(qty * qty) AS sold_qty_squares
+                FROM daily_sales
+                GROUP BY supplier_product_id
+            ),
+            stock AS (
+                SELECT
+                    supplier_product_id,
+                    SUM(quantity - reserved_quantity) AS available_qty
+                FROM inventory_stocks
+                GROUP BY supplier_product_id
+            ),
+            on_order AS (
+                SELECT
+                    sp2.id AS supplier_product_id,
+                    SUM(pod.qty - COALESCE(pod.received_qty, 0)) AS on_order_qty
+                FROM purchase_order_details pod
+                JOIN purchase_orders po ON po.id = pod.purchase_order_id
+                JOIN supplier_products sp2
+                       ON sp2.product_id = pod.product_id
+                      AND sp2.supplier_id = po.supplier_id
+                WHERE po.status IN ('NEW', 'PENDING', 'PROCESSING')
+                GROUP BY sp2.id
+            )
+            SELECT
+                sp.id AS supplierProductId,
+                sp.supplier_id AS supplierId,
+                sp.product_id AS productId,
+                sp.supplier_sku AS sku,
+                sp.current_price AS price,
+                sp.lead_time AS leadTime,
+                COALESCE(sa.sold_qty, 0) AS soldQty,
+                COALESCE(sa.sold_qty_squares, 0) AS soldQtySquares,
+                COALESCE(st.available_qty, 0) AS availableQty,
+                COALESCE(oo.on_order_qty, 0) AS onOrderQty
+            FROM supplier_products sp
+            LEFT JOIN sales sa ON sa.supplier_product_id = sp.id
+            LEFT JOIN stock st ON st.supplier_product_id = sp.id
+            LEFT JOIN on_order oo ON oo.supplier_product_id = sp.id
+            WHERE sp.status = 'ACTIVE'
+            ORDER BY sp.supplier_id, sp.id
+            """, nativeQuery = true)
+    List<ReplenishmentCandidateFlatDTO> findReplenishmentCandidates(@Param("windowDays") int windowDays);
 }
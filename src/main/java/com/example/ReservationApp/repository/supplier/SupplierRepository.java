@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.ReservationApp.dto.response.supplier.SupplierSummaryFlatDTO;
 import com.example.ReservationApp.entity.supplier.Supplier;
 
 @Repository
@@ -16,11 +17,56 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
 
         boolean existsByContactInfo(String contactInfo);
 
-        @Query("SELECT s FROM Supplier s " +
-                        "LEFT JOIN FETCH s.supplierProducts sp " +
-                        "LEFT JOIN FETCH sp.product p " +
-                        "LEFT JOIN FETCH p.category c")
-        List<Supplier> findAllWithProducts();
+        String CATEGORY_NAME_SEPARATOR = "\u001F";
+
+        /**
+         * 仕入先の一覧を取扱商品数・カテゴリ名とともに取得する。
+         * 仕入れ商品は SQL 側で仕入先単位に集計し、1仕入先1行のみを返す。
+         * カテゴリ名は CATEGORY_NAME_SEPARATOR 区切りの文字列で返す。
+         */
+        @Query(value = """
+                        SELECT
+                            s.id AS id,
+                            s.name AS name,
+                            s.contact_info AS contactInfo,
+                            s.mail AS mail,
+                            s.address AS address,
+                            s.status AS status,
+                            COALESCE(pc.product_count, 0) AS productCount,
+                            pc.category_names AS categoryNames
+                        FROM suppliers s
+                        LEFT JOIN (
+                            SELECT
+                                sp.supplier_id,
+                                COUNT(*) AS product_count,
+                                STRING_AGG(DISTINCT c.name, CHR(31)) AS category_names
+                            FROM supplier_products sp
+                            JOIN products p ON p.id = sp.product_id
+                            LEFT JOIN categories c ON c.id = p.category_id
+                            GROUP BY sp.supplier_id
+                        ) pc ON pc.supplier_id = s.id
+                        ORDER BY s.id
+                        """, nativeQuery = true)
+        List<SupplierSummaryFlatDTO> findAllSummaries();
+
+        @Query(value = """
+                        SELECT
+                            s.id AS id,
+                            s.name AS name,
+                            s.contact_info AS contactInfo,
+                            s.mail AS mail,
+                            s.address AS address,
+                            s.status AS status,
+                            (SELECT COUNT(*) FROM supplier_products sp WHERE sp.supplier_id = s.id) AS productCount,
+                            (SELECT STRING_AGG(DISTINCT c.name, CHR(31))
+                             FROM supplier_products sp
+                             JOIN products p ON p.id = sp.product_id
+                             JOIN categories c ON c.id = p.category_id
+                             WHERE sp.supplier_id = s.id) AS categoryNames
+                        FROM suppliers s
+                        WHERE s.id = :id
+                        """, nativeQuery = true)
+        Optional<SupplierSummaryFlatDTO> findSummaryById(@Param("id") Long id);
 
         @Query("""
                         SELECT DISTINCT s FROM Supplier s
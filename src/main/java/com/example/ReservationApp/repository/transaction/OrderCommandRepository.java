@@ -0,0 +1,32 @@
+package com.example.ReservationApp.repository.transaction;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.ReservationApp.entity.transaction.OrderCommand;
+
+import jakarta.transaction.Transactional;
+
+public interface OrderCommandRepository extends JpaRepository<OrderCommand, Long> {
+
+    Optional<OrderCommand> findByRequestId(String requestId);
+
+    /**
+     * 再送の受付期間を過ぎたコマンドを最大 limit 件削除する。
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                DELETE FROM order_commands
+                WHERE id IN (
+                    SELECT id FROM order_commands
+                    WHERE created_at < :cutoff
+                    ORDER BY id
+                    LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff, int limit);
+}
@@ -1,5 +1,6 @@
 package com.example.ReservationApp.repository.transaction;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.ReservationApp.dto.response.transaction.PurchaseOrderDetailWithSkuFlatDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderLineFlatDTO;
 import com.example.ReservationApp.dto.response.transaction.PurchasesProcessingOrderWithRemainingQtyFlatDTO;
 import com.example.ReservationApp.entity.transaction.PurchaseOrder;
 import com.example.ReservationApp.entity.transaction.PurchaseOrderDetail;
@@ -51,30 +53,63 @@ public interface PurchaseOrderDetailRepository extends JpaRepository<PurchaseOrd
             """)
     List<PurchaseOrderDetailWithSkuFlatDTO> findDetailsWithSupplierSku(@Param("poId") Long poId);
 
+    // 受領済み数量は明細の received_qty を直接参照する
+    // （カラム導入前の明細のみ、該当 SupplierProduct の入庫履歴から補完）
     @Query(value = """
+                WITH received AS (
+                    SELECT
+                        pod.id AS detail_id,
+                        COALESCE(
+                            pod.received_qty,
+                            (SELECT COALESCE(SUM(sh.change_qty), 0)
+                             FROM stock_histories sh
+                             JOIN inventory_stocks is_ ON is_.id = sh.inventory_stock_id
+                             WHERE is_.supplier_product_id = sp.id
+                               AND sh.ref_type = 'PO'
+                               AND sh.ref_id = :poId)
+                        ) AS received_qty
+                    FROM purchase_order_details pod
+                    JOIN purchase_orders po ON pod.purchase_order_id = po.id
+                    JOIN supplier_products sp
+                           ON sp.product_id = pod.product_id
+                          AND sp.supplier_id = po.supplier_id
+                    WHERE pod.purchase_order_id = :poId
+                )
                 SELECT
                     pod.id            AS detailId,
                     p.id              AS productId,
                     p.name            AS productName,
                     sp.supplier_sku   AS sku,
                     pod.qty           AS orderedQty,
-                    COALESCE(SUM(sh.change_qty), 0) AS receivedQty,
-                    pod.qty - COALESCE(SUM(sh.change_qty), 0) AS remainingQty
+                    r.received_qty    AS receivedQty,
+                    pod.qty - r.received_qty AS remainingQty
                 FROM purchase_order_details pod
+                JOIN received r ON r.detail_id = pod.id
                 JOIN products p ON pod.product_id = p.id
                 JOIN purchase_orders po ON pod.purchase_order_id = po.id
                 JOIN supplier_products sp
                        ON sp.product_id = p.id
                       AND sp.supplier_id = po.supplier_id
-                LEFT JOIN inventory_stocks is_ ON is_.product_id = p.id
-                LEFT JOIN stock_histories sh
-                       ON sh.inventory_stock_id = is_.id
-                      AND sh.ref_type = 'PO'
-                      AND sh.ref_id = :poId
                 WHERE pod.purchase_order_id = :poId
-                GROUP BY pod.id, p.id, p.name, sp.supplier_sku, pod.qty
                 ORDER BY pod.id
             """, nativeQuery = true)
     List<PurchasesProcessingOrderWithRemainingQtyFlatDTO> findProcessingDetailWithRemaingQty(@Param("poId") Long poId);
 
+    // 期間内に作成された発注の明細（原価計算用）
+    @Query("""
+                SELECT
+                    po.id AS purchaseOrderId,
+                    po.supplier.id AS supplierId,
+                    pod.product.id AS productId,
+                    po.createdAt AS orderedAt,
+                    pod.qty AS qty,
+                    pod.cost AS cost
+                FROM PurchaseOrderDetail pod
+                JOIN pod.purchaseOrder po
+                WHERE po.createdAt >= :from AND po.createdAt < :to
+                ORDER BY po.id, pod.id
+            """)
+    List<PurchaseOrderLineFlatDTO> findLinesCreatedBetween(@Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
 }
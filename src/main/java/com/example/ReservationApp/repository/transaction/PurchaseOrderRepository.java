@@ -11,6 +11,14 @@ import com.example.ReservationApp.entity.transaction.PurchaseOrder;
 
 
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+    /**
+     * 自動発注を複数ノードで同時に実行しないよう、トランザクション終了まで保持するロックを試行する。
+     *
+     * @return ロックを取得できた場合は true（別のノードが実行中の場合は false）
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('replenishment'))", nativeQuery = true)
+    boolean tryLockReplenishment();
+
     @Query("SELECT po FROM PurchaseOrder po JOIN FETCH po.createdBy JOIN FETCH po.supplier")
     List<PurchaseOrder> findAllWithUserAndSupplier();
 
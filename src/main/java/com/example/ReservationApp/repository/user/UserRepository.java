@@ -5,8 +5,10 @@ import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
 
 public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    Optional<User> findFirstByRoleOrderByIdAsc(UserRole role);
 }
@@ -0,0 +1,324 @@
+package com.example.ReservationApp.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在庫の入庫・出庫 POST に対する Idempotency-Key 処理を行うフィルタークラス。
+ *
+ * ハンディスキャナーのタイムアウト再送で同じ入出庫が二重に反映されないよう、
+ * リクエストのフィンガープリントとレスポンス（ResponseDTO の JSON）を Redis に TTL 付きで保存し、
+ * 同じキーで再送されたリクエストには DB に触れずに保存済みレスポンスを返す。
+ *
+ * ・同じキーで処理中のリクエストがある場合は 409
+ * ・同じキーで内容の異なるリクエストが送られた場合は 422
+ * ・処理が失敗した場合（2xx 以外）はキーを削除し、再試行を許可する
+ * ・X-Request-Id が未指定の場合は、ユーザー・キー・フィンガープリントから導出した ID を渡し、
+ *   Redis のエントリ失効後もサービス層のコマンド重複排除が効くようにする
+ *   （別ユーザーや内容の異なるリクエストが同じキーを使っても一致しない）
+ * ・Redis に接続できない場合は通常どおり処理を続行する
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String KEY_PREFIX = "idempotency:";
+
+    // 対象エンドポイント（入庫・出庫）
+    private static final List<String> TARGET_PATTERNS = List.of(
+            "/api/inventory/stock/*/receive-stock",
+            "/api/inventory/stock/*/deliver-stock");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    /**
+     * Redis に保存するエントリ。status が 0 の間は処理中を表す。
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class IdempotencyRecord {
+        private String fingerprint;
+        private int status;
+        private String body;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())
+                || !StringUtils.hasText(request.getHeader(IDEMPOTENCY_KEY_HEADER))) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return TARGET_PATTERNS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        byte[] requestBody = StreamUtils.copyToByteArray(request.getInputStream());
+        String principal = currentPrincipal();
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        String redisKey = KEY_PREFIX + principal + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request, requestBody);
+        CachedBodyRequestWrapper wrappedRequest = new CachedBodyRequestWrapper(request, requestBody,
+                sha256(principal, idempotencyKey, fingerprint));
+        Duration ttl = Duration.ofHours(ttlHours);
+
+        // 処理中マーカーでキーを確保（既に存在する場合は保存済みエントリを確認）
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(
+                    redisKey, objectMapper.writeValueAsString(new IdempotencyRecord(fingerprint, 0, null)), ttl);
+        } catch (Exception e) {
+            log.warn("Redis に接続できないため Idempotency-Key を無視します: {}", e.getMessage());
+            filterChain.doFilter(wrappedRequest, response);
+            return;
+        }
+
+        if (!Boolean.TRUE.equals(acquired)) {
+            IdempotencyRecord record = readRecord(redisKey);
+            if (record == null) {
+                // 確認までの間に失効・削除された場合は再送を促す
+                writeError(response, HttpStatus.CONFLICT, "同じリクエストが処理中です。しばらくしてから再試行してください");
+            } else if (!fingerprint.equals(record.getFingerprint())) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key が別のリクエストで既に使用されています");
+            } else if (record.getStatus() == 0) {
+                writeError(response, HttpStatus.CONFLICT, "同じリクエストが処理中です。しばらくしてから再試行してください");
+            } else {
+                log.info("保存済みレスポンスを返します。key={}", redisKey);
+                response.setStatus(record.getStatus());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.setHeader(REPLAYED_HEADER, "true");
+                response.getWriter().write(record.getBody() != null ? record.getBody() : "");
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(wrappedRequest, wrappedResponse);
+            int status = wrappedResponse.getStatus();
+            if (status >= 200 && status < 300) {
+                String body = new String(wrappedResponse.getContentAsByteArray(), StandardCharsets.UTF_8);
+                try {
+                    redisTemplate.opsForValue().set(
+                            redisKey, objectMapper.writeValueAsString(new IdempotencyRecord(fingerprint, status, body)),
+                            ttl);
+                    stored = true;
+                } catch (Exception e) {
+                    // 処理自体は完了しているため、保存失敗はログのみ（再送はサービス層の重複排除で吸収）
+                    log.warn("Idempotency レスポンスの保存に失敗しました。key={}, {}", redisKey, e.getMessage());
+                }
+            }
+        } finally {
+            if (!stored) {
+                // 失敗したリクエストは再試行できるようにキーを解放
+                try {
+                    redisTemplate.delete(redisKey);
+                } catch (Exception e) {
+                    log.warn("Idempotency-Key の解放に失敗しました。key={}, {}", redisKey, e.getMessage());
+                }
+            }
+            wrappedResponse.copyBodyToResponse();
+        }
+    }
+
+    private IdempotencyRecord readRecord(String redisKey) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey);
+            return json != null ? objectMapper.readValue(json, IdempotencyRecord.class) : null;
+        } catch (Exception e) {
+            log.warn("Idempotency エントリの読み込みに失敗しました。key={}, {}", redisKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ResponseDTO<Void> responseDTO = ResponseDTO.<Void>builder()
+                .status(status.value())
+                .message(message)
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(objectMapper.writeValueAsString(responseDTO));
+    }
+
+    /**
+     * キーの衝突を避けるため、ログインユーザーごとにキーを分離する。
+     */
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    /**
+     * メソッド・URI・ボディから SHA-256 のフィンガープリントを生成する。
+     */
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest digest = sha256Digest();
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 各値を区切り文字で連結した SHA-256（16進数）を返す。
+     */
+    private static String sha256(String... values) {
+        MessageDigest digest = sha256Digest();
+        for (String value : values) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 が利用できません", e);
+        }
+    }
+
+    /**
+     * フィンガープリント計算のために先読みしたボディを、後続でも再読込できるようにするラッパー。
+     */
+    private static class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final String derivedRequestId;
+
+        CachedBodyRequestWrapper(HttpServletRequest request, byte[] body, String derivedRequestId) {
+            super(request);
+            this.body = body;
+            this.derivedRequestId = derivedRequestId;
+        }
+
+        /**
+         * X-Request-Id が未指定の場合は導出したリクエストIDを返す。
+         */
+        @Override
+        public String getHeader(String name) {
+            String value = super.getHeader(name);
+            if (value == null && REQUEST_ID_HEADER.equalsIgnoreCase(name)) {
+                return derivedRequestId;
+            }
+            return value;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            String value = getHeader(name);
+            if (value != null && REQUEST_ID_HEADER.equalsIgnoreCase(name)) {
+                return Collections.enumeration(List.of(value));
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * ボディは読み込み済みのため、登録時点ですぐに読み込み可能・読み込み完了を通知する。
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import com.example.ReservationApp.exception.CustomAccessDenialHandler;
 import com.example.ReservationApp.exception.CustomAuthenticationEntryPoint;
+
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -86,6 +88,8 @@ public class SecurityConfig {
                                                 .authenticationEntryPoint(customAuthenticationEntryPoint)
                                                 .accessDeniedHandler(customAccessDenialHandler))
                                 .authorizeHttpRequests(request -> request
+                                                // SSE の非同期ディスパッチは開始時のリクエストで認証済み
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 .requestMatchers("/api/auth/**",
                                                                 "/api/users/set-password",
                                                                 "/api/users/reset-password",
@@ -1,11 +1,17 @@
 package com.example.ReservationApp.service;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.ReservationApp.dto.response.storage.ImageVariantDTO;
+
 public interface StorageService {
     String storeFile(MultipartFile file);
     void deleteFile(String fileUrl);
     String storeBase64Image(String base64Image) throws IOException;
+    Map<String, List<ImageVariantDTO>> findVariants(Collection<String> fileUrls);
 }
@@ -0,0 +1,103 @@
+package com.example.ReservationApp.service.impl;
+
+import java.util.Collection;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.event.CatalogChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * カタログの更新から再計算する事前計算表（カテゴリ集計・仕入先比較など）の共通処理。
+ *
+ * 起動時の初回計算・コミット後の差分反映・夜間の全件再計算の流れをまとめ、
+ * どの行を再計算するか、再計算の SQL は各サブクラスが実装する。
+ *
+ * ・起動時に表が空（導入直後・データ移行後など）の場合は全件を計算する
+ * ・更新イベントはコミット後に新しいトランザクションで反映し、失敗しても業務処理には影響させない
+ *   （取りこぼしは夜間の全件再計算で補正される）
+ * ・夜間の全件再計算のスケジュールと有効フラグはサブクラスの @Scheduled メソッドで指定する
+ */
+@Slf4j
+public abstract class CatalogDerivedTableService {
+
+    /**
+     * ログ出力に使う表の名前。
+     */
+    protected abstract String tableLabel();
+
+    /**
+     * 表の行数。0 の場合は起動時に全件を計算する。
+     */
+    protected abstract long countRows();
+
+    /**
+     * 更新イベントが影響する行を再計算する。対象外のイベントでは何もしない。
+     */
+    protected abstract void applyChange(CatalogChangedEvent event);
+
+    /**
+     * 指定した行を再計算する。
+     */
+    protected abstract void recomputeRows(Collection<Long> ids);
+
+    /**
+     * 全件を再計算し、不要になった行を削除する。
+     */
+    protected abstract void recomputeAllRows();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        try {
+            if (countRows() == 0) {
+                recomputeAllRows();
+            }
+        } catch (Exception e) {
+            log.warn("起動時の{}の計算に失敗しました: {}", tableLabel(), e.getMessage());
+        }
+    }
+
+    /**
+     * コミット済みのトランザクションには参加できないため、新しいトランザクションで実行する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        try {
+            applyChange(event);
+        } catch (Exception e) {
+            log.warn("{}の更新に失敗しました。aggregate={}, {}", tableLabel(), event.aggregate(), e.getMessage());
+        }
+    }
+
+    @Transactional
+    public void recompute(Collection<Long> ids) {
+        recomputeRows(ids);
+    }
+
+    @Transactional
+    public void recomputeAll() {
+        recomputeAllRows();
+    }
+
+    /**
+     * サブクラスの @Scheduled メソッドから呼び出す夜間の全件再計算。
+     */
+    protected void runScheduledRecompute(boolean enabled) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            recomputeAllRows();
+        } catch (Exception e) {
+            log.error("{}の再計算でエラーが発生しました: {}", tableLabel(), e.getMessage(), e);
+        }
+    }
+}
@@ -1,40 +1,143 @@
 package com.example.ReservationApp.service.impl;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.UUID;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.ReservationApp.dto.response.storage.ImageVariantDTO;
+import com.example.ReservationApp.entity.storage.ImageVariant;
+import com.example.ReservationApp.repository.storage.ImageVariantRepository;
 import com.example.ReservationApp.service.StorageService;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * StorageServiceImplクラスは、ファイルのアップロードと保存を処理。
  * アップロードされたファイルはローカルの "uploads" ディレクトリに保存。
+ *
+ * ・アップロードはメモリに展開せず一時ファイルへストリーミングし、同時に SHA-256 を計算する
+ * ・ファイル名は内容の SHA-256（コンテンツアドレス）とし、同じ画像は1つの原本を共有する
+ * ・設定された幅のサムネイル（JPEG）を上限付きのワーカープールで生成し、バリアントとして記録する
+ * ・Base64 画像もデコード結果を byte[] に展開せず、ストリームで保存する
  */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class StorageServiceImpl implements StorageService {
 
-    private final Path storageLocation = Paths.get("uploads");
+    private static final String URL_PREFIX = "/uploads/";
+    private static final String DEFAULT_EXTENSION = "jpg";
+    // コンテンツアドレスで保存した原本・サムネイルのファイル名
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^([0-9a-f]{64})(?:_w\\d+)?\\.[a-z0-9]+$");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("^[a-z0-9]{1,5}$");
+
+    private final ImageVariantRepository imageVariantRepository;
+
+    @Value("${storage.location:uploads}")
+    private String location;
+
+    @Value("${storage.thumbnail.widths:160,320,640}")
+    private List<Integer> thumbnailWidths;
+
+    @Value("${storage.thumbnail.workers:2}")
+    private int workers;
+
+    @Value("${storage.thumbnail.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${storage.thumbnail.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${storage.thumbnail.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    // 受け付ける画像の最大画素数（幅 × 高さ）。デコード時のメモリは画素数に比例するため上限を設ける
+    @Value("${storage.max-pixels:40000000}")
+    private long maxPixels;
+
+    private Path storageLocation;
+    private ThreadPoolExecutor thumbnailExecutor;
 
     /**
-     * コンストラクタ。保存用ディレクトリが存在しない場合は作成。
-     * 
+     * 画像の形式とサイズ（ヘッダーのみ読み取り）
+     */
+    record ImageInfo(String extension, String contentType, int width, int height) {
+    }
+
+    /**
+     * 保存用ディレクトリとサムネイル生成用のワーカープールを初期化する。
+     *
      * @throws IOException ディレクトリ作成に失敗した場合
      */
-    public StorageServiceImpl() throws IOException {
+    @PostConstruct
+    void init() throws IOException {
+        storageLocation = Paths.get(location);
         Files.createDirectories(storageLocation);
+        AtomicInteger sequence = new AtomicInteger();
+        thumbnailExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-thumbnail-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // キューが一杯の場合は呼び出し元スレッドで実行し、同時に展開される画像の数を抑える
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailExecutor.shutdown();
     }
 
     /**
      * アップロードされたファイルを保存。
-     * ファイル名が同じ場合は上書き。
-     * 
+     * 同じ内容のファイルが既に保存されている場合は、既存のファイルを共有する。
+     *
      * @param file 保存するMultipartFile
      * @return 保存先のファイルパス文字列。ファイルが空の場合はnullを返。
      * @throws RuntimeException ファイルの保存に失敗した場合
@@ -50,22 +153,21 @@ public class StorageServiceImpl implements StorageService {
                     || !file.getContentType().startsWith("image/")) {
                 throw new IllegalArgumentException("無効な画像ファイルです");
             }
-
-            // ファイル名の重複を防ぐためUUIDを付与
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path targetLocation = storageLocation.resolve(fileName);
-
-            // ファイルを保存（同名ファイルがある場合は上書き）
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // 保存された画像のパスを返す
-            return "/uploads/" + fileName;
+            try (InputStream in = file.getInputStream()) {
+                return store(in, extensionOf(file.getOriginalFilename()));
+            }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("ファイルの保存に失敗しました: {}", file.getOriginalFilename(), e);
             throw new RuntimeException("ファイルの保存に失敗しました: " + file.getOriginalFilename());
         }
     }
 
+    /**
+     * ファイルを削除する。コンテンツアドレスで保存した画像の場合は、サムネイルと記録も削除する。
+     * 同じ内容の画像は共有されるため、他から参照されていないことを呼び出し側で確認すること。
+     *
+     * @param fileUrl 削除対象のファイルURL
+     */
     @Override
     public void deleteFile(String fileUrl) {
         try {
@@ -74,23 +176,305 @@ public class StorageServiceImpl implements StorageService {
 
             String fileName = Paths.get(fileUrl).getFileName().toString();
             Path filePath = storageLocation.resolve(fileName).normalize();
-
             Files.deleteIfExists(filePath);
+
+            String contentHash = contentHashOf(fileUrl);
+            if (contentHash != null) {
+                for (ImageVariant variant : imageVariantRepository
+                        .findByContentHashInOrderByContentHashAscWidthAsc(List.of(contentHash))) {
+                    String variantName = Paths.get(variant.getUrl()).getFileName().toString();
+                    Files.deleteIfExists(storageLocation.resolve(variantName).normalize());
+                }
+                imageVariantRepository.deleteByContentHash(contentHash);
+            }
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("ファイルの削除に失敗しました: {}, {}", fileUrl, e.getMessage());
         }
     }
 
+    /**
+     * Base64（data URL 形式も可）の画像を保存する。
+     * 文字列から直接デコードしながら書き込むため、デコード後の画像全体をメモリに展開しない。
+     *
+     * @param base64Image Base64 文字列
+     * @return 保存先のファイルパス文字列
+     * @throws IOException 保存に失敗した場合
+     */
     @Override
     public String storeBase64Image(String base64Image) throws IOException {
-        if (base64Image.contains(",")) {
-            base64Image = base64Image.split(",")[1];
-        }
-        byte[] bytes = Base64.getDecoder().decode(base64Image);
-        String fileName = "image_" + System.currentTimeMillis() + ".jpg";
-        Path path = Paths.get("uploads/" + fileName);
-        Files.createDirectories(path.getParent());
-        Files.write(path, bytes);
-        return "/uploads/" + fileName;
+        int start = base64Image.indexOf(',') + 1;
+        try (InputStream in = Base64.getMimeDecoder().wrap(new CharSequenceInputStream(base64Image, start))) {
+            return store(in, DEFAULT_EXTENSION);
+        }
+    }
+
+    /**
+     * 画像URLごとのバリアント（原本・サムネイル）を幅の昇順で取得する。
+     * バリアントが記録されていない画像（移行前の画像など）は結果に含めない。
+     *
+     * @param fileUrls 画像URL
+     * @return 画像URL → バリアント一覧
+     */
+    @Override
+    public Map<String, List<ImageVariantDTO>> findVariants(Collection<String> fileUrls) {
+        Map<String, List<String>> urlsByHash = new HashMap<>();
+        for (String fileUrl : fileUrls) {
+            String contentHash = contentHashOf(fileUrl);
+            if (contentHash != null) {
+                urlsByHash.computeIfAbsent(contentHash, k -> new ArrayList<>()).add(fileUrl);
+            }
+        }
+        Map<String, List<ImageVariantDTO>> result = new HashMap<>();
+        if (urlsByHash.isEmpty()) {
+            return result;
+        }
+        for (ImageVariant variant : imageVariantRepository
+                .findByContentHashInOrderByContentHashAscWidthAsc(urlsByHash.keySet())) {
+            ImageVariantDTO dto = ImageVariantDTO.builder()
+                    .width(variant.getWidth())
+                    .height(variant.getHeight())
+                    .url(variant.getUrl())
+                    .original(variant.isOriginal())
+                    .build();
+            for (String fileUrl : urlsByHash.get(variant.getContentHash())) {
+                result.computeIfAbsent(fileUrl, k -> new ArrayList<>()).add(dto);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ストリームを一時ファイルに書き込みながら SHA-256 を計算し、コンテンツアドレスのファイル名で保存する。
+     * 初めて保存された画像の場合はサムネイルを生成してバリアントを記録する。
+     */
+    String store(InputStream in, String fallbackExtension) throws IOException {
+        Path tmp = Files.createTempFile(storageLocation, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            ImageInfo info = probe(tmp);
+            // ヘッダーの寸法だけで判定し、画像全体をデコードする前に拒否する
+            if (info != null && (long) info.width() * info.height() > maxPixels) {
+                throw new IllegalArgumentException("画像の解像度が大きすぎます（最大 " + maxPixels + " 画素）");
+            }
+            String fileName = contentHash + "." + (info != null ? info.extension() : fallbackExtension);
+            Path target = storageLocation.resolve(fileName);
+
+            if (Files.exists(target)) {
+                log.info("同じ内容の画像が保存済みのため共有します: {}", fileName);
+            } else {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            if (info != null && !imageVariantRepository.existsByContentHash(contentHash)) {
+                createVariants(contentHash, target, info, size);
+            }
+            return URL_PREFIX + fileName;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 原本と、原本より小さい設定幅のサムネイルをバリアントとして記録する。
+     * 画像のデコードは1回のみ行い、各幅の縮小はワーカープールで並行して実行する。
+     */
+    private void createVariants(String contentHash, Path original, ImageInfo info, long size) throws IOException {
+        List<ImageVariant> variants = new ArrayList<>();
+        variants.add(ImageVariant.builder()
+                .contentHash(contentHash)
+                .width(info.width())
+                .height(info.height())
+                .contentType(info.contentType())
+                .url(URL_PREFIX + original.getFileName())
+                .sizeBytes(size)
+                .original(true)
+                .build());
+
+        List<Integer> widths = thumbnailWidths.stream()
+                .filter(width -> width > 0 && width < info.width())
+                .distinct()
+                .sorted()
+                .toList();
+        BufferedImage source = widths.isEmpty() ? null : ImageIO.read(original.toFile());
+        if (source != null) {
+            List<Future<ImageVariant>> futures = widths.stream()
+                    .map(width -> thumbnailExecutor.submit(() -> writeThumbnail(contentHash, source, width)))
+                    .toList();
+            for (Future<ImageVariant> future : futures) {
+                try {
+                    variants.add(future.get(timeoutSeconds, TimeUnit.SECONDS));
+                } catch (ExecutionException | TimeoutException e) {
+                    // サムネイルの失敗でアップロード自体は失敗させない（原本を表示する）
+                    future.cancel(true);
+                    log.warn("サムネイルの生成に失敗しました。hash={}, {}", contentHash, e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        try {
+            imageVariantRepository.saveAll(variants);
+        } catch (DataIntegrityViolationException e) {
+            // 同じ画像が同時にアップロードされた場合は先に記録された方を使用する
+            log.info("画像バリアントは既に記録されています。hash={}", contentHash);
+        }
+    }
+
+    private ImageVariant writeThumbnail(String contentHash, BufferedImage source, int width) throws IOException {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage thumbnail = resize(source, width, height);
+
+        String fileName = contentHash + "_w" + width + ".jpg";
+        Path target = storageLocation.resolve(fileName);
+        Path tmp = Files.createTempFile(storageLocation, "thumb-", ".tmp");
+        try {
+            writeJpeg(thumbnail, tmp);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return ImageVariant.builder()
+                .contentHash(contentHash)
+                .width(width)
+                .height(height)
+                .contentType("image/jpeg")
+                .url(URL_PREFIX + fileName)
+                .sizeBytes(Files.size(target))
+                .original(false)
+                .build();
+    }
+
+    /**
+     * 半分ずつ段階的に縮小し、最後に目標サイズへ縮小する（1回で大きく縮小した場合のジャギーを防ぐ）。
+     * JPEG は透過を扱えないため、背景は白で塗りつぶす。
+     */
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * ヘッダーのみを読み取り、画像形式とサイズを判定する。対応していない形式の場合は null。
+     */
+    static ImageInfo probe(Path file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                return switch (format) {
+                    case "jpeg", "jpg" -> new ImageInfo("jpg", "image/jpeg", reader.getWidth(0), reader.getHeight(0));
+                    case "png" -> new ImageInfo("png", "image/png", reader.getWidth(0), reader.getHeight(0));
+                    case "gif" -> new ImageInfo("gif", "image/gif", reader.getWidth(0), reader.getHeight(0));
+                    case "bmp" -> new ImageInfo("bmp", "image/bmp", reader.getWidth(0), reader.getHeight(0));
+                    default -> null;
+                };
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static String contentHashOf(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        Matcher matcher = CONTENT_ADDRESSED.matcher(fileUrl.substring(URL_PREFIX.length()));
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return DEFAULT_EXTENSION;
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : DEFAULT_EXTENSION;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 が利用できません", e);
+        }
+    }
+
+    /**
+     * 文字列（Base64 の ASCII 文字）を1文字1バイトとして読み出すストリーム。
+     * 文字列をバイト配列にコピーせずにデコーダーへ渡すために使用する。
+     */
+    private static final class CharSequenceInputStream extends InputStream {
+
+        private final CharSequence source;
+        private int position;
+
+        CharSequenceInputStream(CharSequence source, int start) {
+            this.source = source;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < source.length() ? source.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= source.length()) {
+                return -1;
+            }
+            int count = Math.min(len, source.length() - position);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) source.charAt(position++);
+            }
+            return count;
+        }
     }
 }
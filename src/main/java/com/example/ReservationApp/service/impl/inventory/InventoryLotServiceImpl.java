@@ -0,0 +1,129 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.repository.inventory.InventoryLotRepository;
+import com.example.ReservationApp.service.inventory.InventoryLotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在庫ロット（inventory_lots）を管理するサービス実装クラス。
+ *
+ * ・入庫・プラス調整ごとにロットを作成する
+ * ・出庫・マイナス調整は (received_at, id) の昇順で残数のあるロットから引き当てる（FIFO）
+ * ・起動時に、ロット導入前から残っている在庫の期首ロットを作成し、在庫数量とロット残数の合計を揃える
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLotServiceImpl implements InventoryLotService {
+
+    // FIFO 引当時に一度に読み込むロット件数
+    static final int LOT_FETCH_SIZE = 50;
+
+    private final InventoryLotRepository inventoryLotRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        try {
+            backfillOpeningLots();
+        } catch (Exception e) {
+            log.error("期首ロットの作成に失敗しました: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 在庫にロットを1件作成する。
+     *
+     * @param stock   対象の在庫
+     * @param qty     数量
+     * @param refType 参照種別（PO / ADJ）
+     * @param refId   参照ID
+     * @return 作成したロット
+     */
+    @Override
+    @Transactional
+    public InventoryLot createLot(InventoryStock stock, int qty, RefType refType, Long refId) {
+        return inventoryLotRepository.save(InventoryLot.builder()
+                .inventoryStock(stock)
+                .receivedQty(qty)
+                .remainingQty(qty)
+                .refType(refType)
+                .refId(refId)
+                .build());
+    }
+
+    /**
+     * 残数のあるロットを古い順に引き当て、引き当てたロットIDを返す。
+     * ロットは LOT_FETCH_SIZE 件ずつ読み込み、必要な分だけ走査する。
+     *
+     * @param stock 対象の在庫
+     * @param qty   引き当てる数量
+     * @return 引き当てたロットIDのリスト（引き当て順）
+     */
+    @Override
+    @Transactional
+    public List<Long> consumeFifo(InventoryStock stock, int qty) {
+        List<Long> consumedLotIds = new ArrayList<>();
+        int remaining = qty;
+
+        while (remaining > 0) {
+            // 消費済みロットは残数0となり次回の検索から外れるため、常に先頭ページを読む
+            List<InventoryLot> lots = inventoryLotRepository.findOpenLotsFifo(
+                    stock.getId(), PageRequest.of(0, LOT_FETCH_SIZE));
+            if (lots.isEmpty()) {
+                log.warn("ロット未登録の在庫から出庫します。stockId={}, qty={}", stock.getId(), remaining);
+                break;
+            }
+            int before = remaining;
+            for (InventoryLot lot : lots) {
+                int take = Math.min(lot.getRemainingQty(), remaining);
+                if (take <= 0) {
+                    continue;
+                }
+                lot.setRemainingQty(lot.getRemainingQty() - take);
+                consumedLotIds.add(lot.getId());
+                remaining -= take;
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            inventoryLotRepository.saveAll(lots);
+            // 引当が進まない場合は無限ループを防ぐ
+            if (remaining == before) {
+                break;
+            }
+        }
+        return consumedLotIds;
+    }
+
+    /**
+     * ロット導入前から残っている在庫に期首ロットを作成する。
+     * 在庫数量とロット残数の合計が一致している在庫には何もしない。
+     *
+     * @return 作成したロット数
+     */
+    @Override
+    @Transactional
+    public int backfillOpeningLots() {
+        inventoryLotRepository.lockBackfill();
+        int created = inventoryLotRepository.backfillOpeningLots();
+        if (created > 0) {
+            log.info("期首ロットを作成しました。件数={}", created);
+        }
+        return created;
+    }
+}
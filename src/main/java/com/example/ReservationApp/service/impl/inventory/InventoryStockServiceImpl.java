@@ -2,12 +2,14 @@ package com.example.ReservationApp.service.impl.inventory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +23,7 @@ import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.inventory.ReceiveStockResultDTO;
 import com.example.ReservationApp.dto.response.inventory.StockHistoryDTO;
 
+import com.example.ReservationApp.entity.inventory.InventoryLot;
 import com.example.ReservationApp.entity.inventory.InventoryStock;
 import com.example.ReservationApp.entity.inventory.StockHistory;
 import com.example.ReservationApp.entity.inventory.Warehouse;
@@ -31,9 +34,13 @@ import com.example.ReservationApp.entity.transaction.SalesOrder;
 import com.example.ReservationApp.entity.transaction.SalesOrderDetail;
 import com.example.ReservationApp.entity.user.User;
 import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.OrderCommandType;
 import com.example.ReservationApp.enums.OrderStatus;
 import com.example.ReservationApp.enums.RefType;
 import com.example.ReservationApp.enums.StockChangeType;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.InvalidCredentialException;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.InventoryStockMapper;
@@ -51,8 +58,11 @@ import com.example.ReservationApp.repository.transaction.SalesOrderDetailReposit
 import com.example.ReservationApp.repository.transaction.SalesOrderRepository;
 import com.example.ReservationApp.repository.user.UserRepository;
 import com.example.ReservationApp.service.auth.UserService;
+import com.example.ReservationApp.service.inventory.InventoryLotService;
 import com.example.ReservationApp.service.inventory.InventoryStockService;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
 import com.example.ReservationApp.service.notification.NotificationService;
+import com.example.ReservationApp.service.transaction.OrderStatusService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -69,6 +79,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InventoryStockServiceImpl implements InventoryStockService {
 
     private final InventoryStockRepository inventoryStockRepository;
+    private final InventoryLotService inventoryLotService;
     private final WarehouseRepository warehouseRepository;
     private final InventoryStockMapper inventoryStockMapper;
     private final StockHistoryMapper stockHistoryMapper;
@@ -82,6 +93,9 @@ public class InventoryStockServiceImpl implements InventoryStockService {
     private final SupplierProductRepository supplierProductRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final OrderStatusService orderStatusService;
+    private final WarehouseCapacityService warehouseCapacityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * すべての在庫情報を取得します。
@@ -207,6 +221,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
      * 発注書 (Purchase Order) に対して在庫受領処理を行います。
      *
      * @param poId          対象の Purchase Order の ID
+     * @param requestId     クライアントが付与したリクエストID（再送時の重複排除に使用、任意）
      * @param receivedItems 受領するアイテム情報のリスト
      * @return 在庫受領処理後の PurchaseOrderDTO を格納した ResponseDTO
      * @throws NotFoundException          PO または明細、倉庫、商品が存在しない場合
@@ -215,11 +230,28 @@ public class InventoryStockServiceImpl implements InventoryStockService {
      */
     @Override
     @Transactional
-    public ResponseDTO<ReceiveStockResultDTO> receiveStock(Long poId, List<ReceiveStockItemDTO> receivedItems) {
+    public ResponseDTO<ReceiveStockResultDTO> receiveStock(Long poId, String requestId,
+            List<ReceiveStockItemDTO> receivedItems) {
 
         // 明細も含めて取得（存在しない場合は例外）
         PurchaseOrder po = purchaseOrderRepository.findByIdWithDetails(poId)
                 .orElseThrow(() -> new NotFoundException("この注文書は存在していません"));
+        // 再送されたリクエストは処理せず現在の状態を返す
+        if (!orderStatusService.registerCommand(requestId, RefType.PO, poId, OrderCommandType.RECEIVE)) {
+            return ResponseDTO.<ReceiveStockResultDTO>builder()
+                    .status(HttpStatus.OK.value())
+                    .message("このリクエストは既に処理済みです")
+                    .data(ReceiveStockResultDTO.builder()
+                            .orderId(po.getId())
+                            .status(po.getStatus())
+                            .completedDetailIds(po.getDetails().stream()
+                                    .filter(d -> d.getStatus() == OrderStatus.COMPLETED)
+                                    .map(PurchaseOrderDetail::getId)
+                                    .toList())
+                            .stockHistories(List.of())
+                            .build())
+                    .build();
+        }
         // 既に完了済みの発注書は受領不可
         if (po.getStatus() == OrderStatus.COMPLETED) {
             throw new IllegalStateException("この注文書は既に完了しています");
@@ -227,7 +259,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
         User currentUser = userService.getCurrentUserEntity();
 
         boolean anyReceived = false; // 今回受領したアイテムがあるか
-        boolean allReceived = true; // 全明細が完了しているか
+        int newlyCompleted = 0; // 今回完了した明細数
 
         // 明細情報をMap化（detailId → Detail）
         Map<Long, PurchaseOrderDetail> detailMap = po.getDetails().stream()
@@ -256,20 +288,20 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                         s -> s.getSupplierProduct().getId() + "_" + s.getWarehouse().getId(),
                         s -> s));
 
-        // 既に受領済み数量を取得（履歴テーブルから集計）
-        Map<Long, Integer> receivedQtyMap = new HashMap<>();
-        for (Object[] row : stockHistoryRepository.sumReceivedQtyByPoGroupBySupplierProduct(poId)) {
-            Long spId = (Long) row[0];
-            Integer qty = ((Number) row[1]).intValue();
-            receivedQtyMap.put(spId, qty);
+        // 受領済み数量が未設定（カラム導入前）の明細は履歴から一度だけ補完
+        if (po.getDetails().stream().anyMatch(d -> d.getReceivedQty() == null)) {
+            backfillReceivedQty(po, spMap);
         }
         // 既に完了している明細IDリスト
         List<Long> allCompletedDetailIds = po.getDetails().stream()
                 .filter(d -> d.getStatus() == OrderStatus.COMPLETED)
                 .map(PurchaseOrderDetail::getId)
                 .collect(Collectors.toCollection(ArrayList::new));
+        // カウンタ導入前の注文書は完了済み明細数から初期化
+        orderStatusService.ensureCounters(po, po.getDetails().size(), allCompletedDetailIds::size);
 
         List<StockHistoryDTO> createdStockHistories = new ArrayList<>();
+        Set<Long> receivedProductIds = new HashSet<>(); // 在庫が増えた商品ID（カテゴリ集計の更新用）
         // 受領処理ループ
         for (ReceiveStockItemDTO item : receivedItems) {
             PurchaseOrderDetail detail = detailMap.get(item.getDetailId());
@@ -284,8 +316,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
             if (sp == null)
                 throw new NotFoundException("SupplierProductが存在しません。productId=" + detail.getProduct().getId());
             // 発注数量超過チェック
-            int deliveredSoFar = receivedQtyMap.getOrDefault(sp.getId(), 0);
-            int totalAfterReceive = deliveredSoFar + item.getReceivedQty();
+            int totalAfterReceive = detail.getReceivedQty() + item.getReceivedQty();
 
             if (totalAfterReceive > detail.getQty())
                 throw new InvalidCredentialException("受領数量が発注数量を超えています。 (orderedQty = " + detail.getQty() + ")");
@@ -294,13 +325,17 @@ public class InventoryStockServiceImpl implements InventoryStockService {
             if (totalAfterReceive == detail.getQty()) {
                 detail.setStatus(OrderStatus.COMPLETED);
                 allCompletedDetailIds.add(detail.getId());
+                newlyCompleted++;
             } else if (totalAfterReceive > 0) {
                 detail.setStatus(OrderStatus.PROCESSING);
             }
+            detail.setReceivedQty(totalAfterReceive);
             poDetailRepository.save(detail);
 
-            receivedQtyMap.put(sp.getId(), totalAfterReceive);
             anyReceived = true;
+            receivedProductIds.add(detail.getProduct().getId());
+            // 倉庫の使用量を加算（保管上限を超える場合は例外で受領全体をロールバック）
+            warehouseCapacityService.reserve(item.getWarehouseId(), item.getReceivedQty());
             // 在庫更新処理
             String stockKey = sp.getId() + "_" + item.getWarehouseId();
             InventoryStock stock = stockMap.get(stockKey);
@@ -316,9 +351,10 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                 stock = inventoryStockRepository.save(stock);
                 stockMap.put(stockKey, stock);
             }
-            // 数量加算
-            stock.setQuantity(stock.getQuantity() + item.getReceivedQty());
-            inventoryStockRepository.save(stock);
+            // 数量加算（倉庫の行ロック取得後に UPDATE 文で加算し、読み込んだ時点の数量は書き戻さない）
+            inventoryStockRepository.adjustQuantity(stock.getId(), item.getReceivedQty());
+            // 受領明細ごとにロットを作成
+            InventoryLot lot = inventoryLotService.createLot(stock, item.getReceivedQty(), RefType.PO, po.getId());
             // 在庫履歴登録
             StockHistory history = new StockHistory();
             history.setInventoryStock(stock);
@@ -327,32 +363,14 @@ public class InventoryStockServiceImpl implements InventoryStockService {
             history.setRefType(RefType.PO);
             history.setRefId(po.getId());
             history.setNotes(item.getNote() != null ? item.getNote() : "発注書からの受領");
+            history.setLotIds(String.valueOf(lot.getId()));
             stockHistoryRepository.save(history);
 
             createdStockHistories.add(stockHistoryMapper.toDTO(history));
         }
 
-        // 全明細が完了しているか判定
-        for (PurchaseOrderDetail d : po.getDetails()) {
-
-            SupplierProduct sp = spMap.get(d.getProduct().getId());
-            int received = receivedQtyMap.getOrDefault(sp.getId(), 0);
-            if (received < d.getQty()) {
-                allReceived = false;
-                break;
-            }
-        }
-
-        // PO ステータス更新
-
-        if (!anyReceived) {
-            po.setStatus(OrderStatus.PENDING);
-        } else if (allReceived) {
-            po.setStatus(OrderStatus.COMPLETED);
-        } else {
-            po.setStatus(OrderStatus.PROCESSING);
-        }
-
+        // PO ステータス更新（完了明細カウンタで判定）
+        orderStatusService.recordLineProgress(po, newlyCompleted, anyReceived);
         purchaseOrderRepository.save(po);
 
         notificationService.createNotification(
@@ -363,6 +381,17 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                         .type(NotificationType.STOCK)
                         .link("/purchase-order/" + po.getId())
                         .build());
+        // 管理者にはロール宛ての通知として1件だけ保存する（人数に依存しない）
+        notificationService.createNotification(
+                NotificationDTO.builder()
+                        .targetRole(UserRole.ADMIN)
+                        .title("発注書の入庫処理が行われました")
+                        .message("注文ID #" + po.getId() + " の商品が " + currentUser.getName() + " により入庫されました")
+                        .type(NotificationType.STOCK)
+                        .link("/purchase-order/" + po.getId())
+                        .build());
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogAggregate.INVENTORY, receivedProductIds));
 
         ReceiveStockResultDTO result = ReceiveStockResultDTO.builder()
                 .orderId(po.getId())
@@ -382,6 +411,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
      * 注文書 (Sales Order) に対して在庫出庫処理を行います。
      * 
      * @param soId         対象のSales Order ID
+     * @param requestId    クライアントが付与したリクエストID（再送時の重複排除に使用、任意）
      * @param deliverItems 出庫するアイテム情報リスト
      * @return ResponseDTO<DeliverStockResultDTO> 出庫結果、更新後のSOステータス、作成された在庫履歴
      * @throws NotFoundException          SO、明細、在庫が存在しない場合
@@ -390,12 +420,30 @@ public class InventoryStockServiceImpl implements InventoryStockService {
      */
     @Override
     @Transactional
-    public ResponseDTO<DeliverStockResultDTO> deliverStock(Long soId, List<DeliverStockItemDTO> deliverItems) {
+    public ResponseDTO<DeliverStockResultDTO> deliverStock(Long soId, String requestId,
+            List<DeliverStockItemDTO> deliverItems) {
 
         // SalesOrder をIDで取得。存在しなければ例外
         SalesOrder so = salesOrderRepository.findById(soId)
                 .orElseThrow(() -> new NotFoundException("注文書が存在しません"));
 
+        // 再送されたリクエストは処理せず現在の状態を返す
+        if (!orderStatusService.registerCommand(requestId, RefType.SO, soId, OrderCommandType.DELIVER)) {
+            return ResponseDTO.<DeliverStockResultDTO>builder()
+                    .status(HttpStatus.OK.value())
+                    .message("このリクエストは既に処理済みです")
+                    .data(DeliverStockResultDTO.builder()
+                            .salesOrderId(so.getId())
+                            .soStatus(so.getStatus())
+                            .completedDetailIds(so.getDetails().stream()
+                                    .filter(d -> d.getStatus() == OrderStatus.COMPLETED)
+                                    .map(SalesOrderDetail::getId)
+                                    .toList())
+                            .stockHistories(List.of())
+                            .build())
+                    .build();
+        }
+
         // 完了済みの注文書なら出庫不可
         if (so.getStatus() == OrderStatus.COMPLETED) {
             throw new IllegalStateException("この注文書は既に完了しています");
@@ -404,7 +452,11 @@ public class InventoryStockServiceImpl implements InventoryStockService {
         User currentUser = userService.getCurrentUserEntity();
 
         boolean anyDelivered = false; // 今回出庫したアイテムがあるか
-        boolean allDelivered = true; // 全明細が出庫完了か
+        int newlyCompleted = 0; // 今回出庫完了した明細数
+
+        // カウンタ導入前の注文書は出庫完了済み明細数から初期化
+        orderStatusService.ensureCounters(so, so.getDetails().size(),
+                () -> (int) so.getDetails().stream().filter(d -> d.getStatus() == OrderStatus.COMPLETED).count());
 
         // 注文書に含まれる明細IDをセット化
         Set<Long> soDetailIds = so.getDetails().stream()
@@ -413,6 +465,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
 
         List<Long> completedDetailIds = new ArrayList<>(); // 出庫完了した明細IDリスト
         List<StockHistoryDTO> historyDTOs = new ArrayList<>(); // 作成した在庫履歴DTOリスト
+        Set<Long> deliveredProductIds = new HashSet<>(); // 出庫した商品ID（カテゴリ集計の更新用）
 
         // 各出庫アイテムを処理
         for (DeliverStockItemDTO itemDTO : deliverItems) {
@@ -451,10 +504,17 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                                 + ", warehouseId=" + itemDTO.getWarehouseId());
             }
 
-            // 在庫数量と予約数量を減算
-            stock.setQuantity(stock.getQuantity() - itemDTO.getDeliveredQty());
-            stock.setReservedQuantity(stock.getReservedQuantity() - itemDTO.getDeliveredQty());
-            inventoryStockRepository.save(stock);
+            // 倉庫の使用量を減算（倉庫の行ロックを先に取り、在庫調整と同じ順序にする）
+            warehouseCapacityService.adjust(itemDTO.getWarehouseId(), -itemDTO.getDeliveredQty());
+
+            // 在庫数量と予約数量を UPDATE 文で減算してから、ロットを FIFO で引き当てる
+            // （同時に出庫され予約在庫が足りなくなった場合は更新件数が 0 となる）
+            if (inventoryStockRepository.deliver(stock.getId(), itemDTO.getDeliveredQty()) == 0) {
+                throw new InvalidCredentialException(
+                        "予約在庫が不足しています。productId=" + supplierProduct.getId()
+                                + ", warehouseId=" + itemDTO.getWarehouseId());
+            }
+            List<Long> consumedLotIds = inventoryLotService.consumeFifo(stock, itemDTO.getDeliveredQty());
 
             // 出庫履歴を作成
             StockHistory history = new StockHistory();
@@ -464,6 +524,7 @@ public class InventoryStockServiceImpl implements InventoryStockService {
             history.setRefType(RefType.SO);
             history.setRefId(so.getId());
             history.setNotes("Deliver from SalesOrder");
+            history.setLotIds(consumedLotIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
             stockHistoryRepository.save(history);
 
             historyDTOs.add(stockHistoryMapper.toDTO(history));
@@ -473,26 +534,19 @@ public class InventoryStockServiceImpl implements InventoryStockService {
             detail.setDeliveredQty(deliveredSofar);
 
             // 明細の出庫完了判定
-            if (deliveredSofar == detail.getQty()) {
+            if (deliveredSofar == detail.getQty() && detail.getStatus() != OrderStatus.COMPLETED) {
                 detail.setStatus(OrderStatus.COMPLETED);
                 completedDetailIds.add(detail.getId());
-            } else {
-                allDelivered = false;
+                newlyCompleted++;
             }
 
             salesOrderDetailRepository.save(detail);
             anyDelivered = true;
+            deliveredProductIds.add(detail.getProduct().getId());
         }
 
-        // SalesOrderのステータス更新
-        if (!anyDelivered) {
-            so.setStatus(OrderStatus.NEW);
-        } else if (allDelivered) {
-            so.setStatus(OrderStatus.COMPLETED);
-        } else {
-            so.setStatus(OrderStatus.PROCESSING);
-        }
-
+        // SalesOrderのステータス更新（完了明細カウンタで判定）
+        orderStatusService.recordLineProgress(so, newlyCompleted, anyDelivered);
         salesOrderRepository.save(so);
 
         notificationService.createNotification(
@@ -503,6 +557,16 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                         .type(NotificationType.STOCK)
                         .link("/sales-order/" + so.getId())
                         .build());
+        notificationService.createNotification(
+                NotificationDTO.builder()
+                        .targetRole(UserRole.ADMIN)
+                        .title("注文商品の出庫が完了しました")
+                        .message("注文ID #" + so.getId() + " の商品が " + currentUser.getName() + " により出庫されました")
+                        .type(NotificationType.STOCK)
+                        .link("/sales-order/" + so.getId())
+                        .build());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogAggregate.INVENTORY, deliveredProductIds));
+
         // 出庫結果をDTOにまとめる
         DeliverStockResultDTO result = DeliverStockResultDTO.builder()
                 .salesOrderId(so.getId())
@@ -518,4 +582,25 @@ public class InventoryStockServiceImpl implements InventoryStockService {
                 .build();
     }
 
+    /**
+     * received_qty カラム導入前に作成された発注明細の受領済み数量を、入庫履歴から補完する。
+     * 補完後は明細の値が維持されるため、集計はその発注書で一度だけ実行される。
+     *
+     * @param po    対象の発注書
+     * @param spMap productId → SupplierProduct のMap
+     */
+    private void backfillReceivedQty(PurchaseOrder po, Map<Long, SupplierProduct> spMap) {
+
+        Map<Long, Integer> receivedQtyMap = new HashMap<>();
+        for (Object[] row : stockHistoryRepository.sumReceivedQtyByPoGroupBySupplierProduct(po.getId())) {
+            receivedQtyMap.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        for (PurchaseOrderDetail detail : po.getDetails()) {
+            if (detail.getReceivedQty() == null) {
+                SupplierProduct sp = spMap.get(detail.getProduct().getId());
+                detail.setReceivedQty(sp != null ? receivedQtyMap.getOrDefault(sp.getId(), 0) : 0);
+            }
+        }
+    }
+
 }
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +17,13 @@ import com.example.ReservationApp.dto.response.inventory.InventoryHistoryByPurch
 import com.example.ReservationApp.dto.response.inventory.InventoryHistoryBySaleOrderFlatDTO;
 import com.example.ReservationApp.dto.response.inventory.StockHistoriesWithDetailDTO;
 import com.example.ReservationApp.dto.response.inventory.StockHistoryDTO;
+import com.example.ReservationApp.entity.inventory.InventoryLot;
 import com.example.ReservationApp.entity.inventory.InventoryStock;
 import com.example.ReservationApp.entity.inventory.StockHistory;
 
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.StockHistoryMapper;
 import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
@@ -26,7 +31,9 @@ import com.example.ReservationApp.repository.inventory.StockHistoryRepository;
 import com.example.ReservationApp.repository.inventory.WarehouseRepository;
 import com.example.ReservationApp.repository.product.ProductRepository;
 import com.example.ReservationApp.repository.transaction.SalesOrderRepository;
+import com.example.ReservationApp.service.inventory.InventoryLotService;
 import com.example.ReservationApp.service.inventory.StockHistoryService;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -40,6 +47,9 @@ public class StockHistoryServiceImpl implements StockHistoryService {
         private final WarehouseRepository warehouseRepository;
         private final ProductRepository productRepository;
         private final SalesOrderRepository salesOrderRepository;
+        private final WarehouseCapacityService warehouseCapacityService;
+        private final InventoryLotService inventoryLotService;
+        private final ApplicationEventPublisher eventPublisher;
 
         /**
          * 在庫履歴を作成します。数量の増減を反映します。
@@ -68,14 +78,34 @@ public class StockHistoryServiceImpl implements StockHistoryService {
                         throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "在庫が不足しています");
                 }
 
+                // 倉庫の使用量を増減（棚卸などの調整のため上限は判定しない）
+                warehouseCapacityService.adjust(inventoryStock.getWarehouse().getId(), stockHistoryDTO.getChangeQty());
+
+                // InventoryStock の数量を UPDATE 文で増減（同時の出庫で不足した場合は更新件数が 0 となる）
+                if (inventoryStockRepository.adjustQuantity(inventoryStockId, stockHistoryDTO.getChangeQty()) == 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "在庫が不足しています");
+                }
+
                 // StockHistory エンティティに変換し、在庫と紐付けて保存
                 StockHistory stockHistory = stockHistoryMapper.toEntity(stockHistoryDTO);
                 stockHistory.setInventoryStock(inventoryStock);
                 stockHistoryRepository.save(stockHistory);
 
-                // InventoryStock の数量を更新
-                inventoryStock.setQuantity(newQty);
-                inventoryStockRepository.save(inventoryStock);
+                // ロットを増減（プラスは調整ロットを作成、マイナスは出庫と同じく FIFO で引き当て）
+                if (stockHistoryDTO.getChangeQty() > 0) {
+                        InventoryLot lot = inventoryLotService.createLot(inventoryStock, stockHistoryDTO.getChangeQty(),
+                                        RefType.ADJ, stockHistory.getId());
+                        stockHistory.setLotIds(String.valueOf(lot.getId()));
+                } else {
+                        List<Long> consumedLotIds = inventoryLotService.consumeFifo(inventoryStock,
+                                        -stockHistoryDTO.getChangeQty());
+                        stockHistory.setLotIds(consumedLotIds.stream().map(String::valueOf)
+                                        .collect(Collectors.joining(",")));
+                }
+                stockHistoryRepository.save(stockHistory);
+
+                eventPublisher.publishEvent(
+                                CatalogChangedEvent.ofProduct(CatalogAggregate.INVENTORY, inventoryStock.getProduct().getId()));
 
                 return ResponseDTO.<StockHistoryDTO>builder()
                                 .status(HttpStatus.OK.value())
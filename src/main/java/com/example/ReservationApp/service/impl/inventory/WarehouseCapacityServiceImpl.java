@@ -0,0 +1,204 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationFlatDTO;
+import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.repository.inventory.WarehouseRepository;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 倉庫の使用量カウンタ（warehouses.used_quantity）を管理するサービス実装クラス。
+ *
+ * ・入庫時は上限（stockLimit）を超えない場合のみ1つの UPDATE 文で加算し、超える場合は入庫を拒否する
+ * ・出庫・在庫調整は上限を判定せずに増減する
+ * ・カウンタの更新は在庫数量の変更より先に行い、倉庫の行ロックで同じ倉庫への更新を直列化する
+ *   （在庫数量はロック取得後に InventoryStockRepository の UPDATE 文で加減算し、読み込んだ時点の値は書き戻さない）
+ * ・カウンタ導入前の倉庫は最初の更新時に在庫数量の合計から初期化する
+ * ・夜間に倉庫ごとに行ロックを取って在庫数量の合計と照合し、ずれていれば補正する
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarehouseCapacityServiceImpl implements WarehouseCapacityService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${warehouse.utilization.reconcile-enabled:true}")
+    private boolean reconcileEnabled;
+
+    /**
+     * 倉庫の使用量に入庫数量を加算する。呼び出し元のトランザクションに参加し、ロールバック時は加算も取り消される。
+     *
+     * @param warehouseId 倉庫ID
+     * @param qty         入庫数量
+     * @throws NotFoundException   倉庫が存在しない場合
+     * @throws BadRequestException 入庫後の使用量が倉庫の上限を超える場合
+     */
+    @Override
+    @Transactional
+    public void reserve(Long warehouseId, int qty) {
+        if (qty <= 0) {
+            return;
+        }
+        if (warehouseRepository.reserveCapacity(warehouseId, qty) > 0) {
+            return;
+        }
+        WarehouseUtilizationFlatDTO row = warehouseRepository.findUtilizationById(warehouseId)
+                .orElseThrow(() -> new NotFoundException("倉庫が存在していません。ID=" + warehouseId));
+        throw new BadRequestException("倉庫の保管上限を超えるため入庫できません。倉庫=" + row.getName()
+                + ", 上限=" + row.getStockLimit()
+                + ", 使用量=" + row.getUsedQuantity()
+                + ", 入庫数量=" + qty);
+    }
+
+    /**
+     * 倉庫の使用量を上限の判定なしに増減する。
+     *
+     * @param warehouseId 倉庫ID
+     * @param delta       増減数量（出庫はマイナス）
+     * @throws NotFoundException 倉庫が存在しない場合
+     */
+    @Override
+    @Transactional
+    public void adjust(Long warehouseId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (warehouseRepository.adjustUsedQuantity(warehouseId, delta) == 0) {
+            throw new NotFoundException("倉庫が存在していません。ID=" + warehouseId);
+        }
+    }
+
+    /**
+     * 指定倉庫の使用量と上限に対する割合を取得する。
+     *
+     * @param warehouseId 倉庫ID
+     * @return 使用量DTOを含むレスポンス
+     * @throws NotFoundException 倉庫が存在しない場合
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<WarehouseUtilizationDTO> getUtilization(Long warehouseId) {
+        WarehouseUtilizationFlatDTO row = warehouseRepository.findUtilizationById(warehouseId)
+                .orElseThrow(() -> new NotFoundException("倉庫が見つかりません。ID = " + warehouseId));
+        return ResponseDTO.<WarehouseUtilizationDTO>builder()
+                .status(HttpStatus.OK.value())
+                .message("倉庫の使用量の取得に成功しました")
+                .data(toDTO(row))
+                .build();
+    }
+
+    /**
+     * すべての倉庫の使用量と上限に対する割合を取得する。
+     *
+     * @return 使用量DTOのリストを含むレスポンス
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<WarehouseUtilizationDTO>> getAllUtilization() {
+        List<WarehouseUtilizationDTO> utilizations = warehouseRepository.findAllUtilization().stream()
+                .map(WarehouseCapacityServiceImpl::toDTO)
+                .toList();
+        return ResponseDTO.<List<WarehouseUtilizationDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("倉庫の使用量の取得に成功しました")
+                .data(utilizations)
+                .total((long) utilizations.size())
+                .build();
+    }
+
+    /**
+     * 定期実行（デフォルト：毎日 4:15）
+     */
+    @Scheduled(cron = "${warehouse.utilization.reconcile-cron:0 15 4 * * *}")
+    public void scheduledReconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("倉庫の使用量の照合でエラーが発生しました: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * すべての倉庫の使用量カウンタを在庫数量の合計と照合し、ずれていれば補正する。
+     * 倉庫ごとに別トランザクションで行ロックを取り、ロック後に合計するため、処理中の入出庫と競合しない。
+     *
+     * @return 補正した倉庫数
+     */
+    @Override
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        List<Long> warehouseIds = warehouseRepository.findAllIds();
+        int corrected = 0;
+        for (Long warehouseId : warehouseIds) {
+            Boolean changed = transactionTemplate.execute(status -> reconcileWarehouse(warehouseId));
+            if (Boolean.TRUE.equals(changed)) {
+                corrected++;
+            }
+        }
+        log.info("倉庫の使用量を照合しました。倉庫数={}, 補正={}, {}ms",
+                warehouseIds.size(), corrected, System.currentTimeMillis() - start);
+        return corrected;
+    }
+
+    private boolean reconcileWarehouse(Long warehouseId) {
+        Warehouse warehouse = warehouseRepository.findForUpdate(warehouseId).orElse(null);
+        if (warehouse == null) {
+            return false;
+        }
+        long actual = warehouseRepository.sumQuantity(warehouseId);
+        Integer counted = warehouse.getUsedQuantity();
+        if (counted != null && counted == actual) {
+            return false;
+        }
+        if (counted != null) {
+            log.warn("倉庫の使用量カウンタを補正します。warehouseId={}, カウンタ={}, 実数={}", warehouseId, counted, actual);
+        }
+        warehouseRepository.setUsedQuantity(warehouseId, actual);
+        return true;
+    }
+
+    private static WarehouseUtilizationDTO toDTO(WarehouseUtilizationFlatDTO row) {
+        long used = row.getUsedQuantity() != null ? row.getUsedQuantity() : 0L;
+        Integer limit = row.getStockLimit();
+        return WarehouseUtilizationDTO.builder()
+                .warehouseId(row.getWarehouseId())
+                .name(row.getName())
+                .stockLimit(limit)
+                .usedQuantity(used)
+                .availableCapacity(limit != null ? Math.max(limit - used, 0L) : null)
+                .utilizationRate(utilizationRate(used, limit))
+                .build();
+    }
+
+    /**
+     * 上限に対する使用量の割合（%、小数2桁）。上限が未設定または0の場合は null。
+     */
+    static BigDecimal utilizationRate(long used, Integer stockLimit) {
+        if (stockLimit == null || stockLimit <= 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(used * 100).divide(BigDecimal.valueOf(stockLimit), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -3,17 +3,26 @@ package com.example.ReservationApp.service.impl.inventory;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseSummaryFlatDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseWithTotalChangedQtyDTO;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
 import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.enums.WarehouseStatus;
 import com.example.ReservationApp.exception.BadRequestException;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.InventoryStockMapper;
 import com.example.ReservationApp.mapper.WarehouseMapper;
+import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
 import com.example.ReservationApp.repository.inventory.WarehouseRepository;
 import com.example.ReservationApp.service.inventory.WarehouseService;
 
@@ -25,7 +34,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WarehouseServiceImpl implements WarehouseService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final WarehouseRepository warehouseRepository;
+    private final InventoryStockRepository inventoryStockRepository;
     private final InventoryStockMapper inventoryStockMapper;
     private final WarehouseMapper warehouseMapper;
 
@@ -52,23 +64,17 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     /**
-     * すべての倉庫情報を取得します。
+     * すべての倉庫情報を在庫の集計（在庫行数・在庫数量・予約数量・使用量）付きで取得します。
+     * 在庫の明細は含めません（倉庫ごとの在庫は getWarehouseStocks でページ単位に取得）。
      *
      * @return 倉庫DTOリスト
      */
     @Override
     public ResponseDTO<List<WarehouseDTO>> getAllWarehouse() {
-        // 全件取得
-        List<Warehouse> warehouses = warehouseRepository.findAllWithStocks();
-
-        // エンティティをDTOに変換
-        List<WarehouseDTO> warehouseDTOs = warehouses.stream()
-                .map(wh -> {
-                    WarehouseDTO warehouseDTO = warehouseMapper.toDTO(wh);
-                    warehouseDTO.setStocks(inventoryStockMapper.toDTOList(wh.getInventoryStocks()));
-                    return warehouseDTO;
-                })
-                .collect(Collectors.toList());
+        // 在庫行は読み込まず、倉庫ごとの集計を SQL で取得
+        List<WarehouseDTO> warehouseDTOs = warehouseRepository.findAllSummaries().stream()
+                .map(WarehouseServiceImpl::toDTO)
+                .toList();
 
         return ResponseDTO.<List<WarehouseDTO>>builder()
                 .status(HttpStatus.OK.value())
@@ -95,21 +101,18 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     /**
-     * IDから倉庫情報を取得します。
+     * IDから倉庫情報を在庫の集計付きで取得します。
      *
      * @param warehouseId 倉庫ID
      * @return 倉庫DTO
      */
     @Override
     public ResponseDTO<WarehouseDTO> getWarehouseById(Long warehouseId) {
-        // 指定IDの倉庫を取得。存在しなければ例外
-        Warehouse warehouse = warehouseRepository.findByIdWithStocks(warehouseId)
+        // 指定IDの倉庫を集計付きで取得。存在しなければ例外
+        WarehouseDTO warehouseDTO = warehouseRepository.findSummaryById(warehouseId)
+                .map(WarehouseServiceImpl::toDTO)
                 .orElseThrow(() -> new NotFoundException("倉庫が見つかりません。ID = " + warehouseId));
 
-        WarehouseDTO warehouseDTO = warehouseMapper.toDTO(warehouse);
-        warehouseDTO.setStocks(
-                inventoryStockMapper.toDTOList(warehouse.getInventoryStocks()));
-
         return ResponseDTO.<WarehouseDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("倉庫情報の取得に成功しました")
@@ -211,11 +214,10 @@ public class WarehouseServiceImpl implements WarehouseService {
     @Override
     public ResponseDTO<Void> deleteWarehouse(Long warehouseId) {
         // 対象倉庫を取得。存在しなければ例外
-        Warehouse existingWarehouse = warehouseRepository.findByIdWithStocks(warehouseId)
+        Warehouse existingWarehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new NotFoundException("倉庫は存在していません。ID = " + warehouseId));
-        boolean hasStockLeft = existingWarehouse.getInventoryStocks().stream()
-                .anyMatch(stock -> stock.getQuantity() > 0);
-        if (hasStockLeft) {
+        // 在庫行を読み込まず、数量の残る在庫の有無のみ確認
+        if (inventoryStockRepository.existsByWarehouseIdAndQuantityGreaterThan(warehouseId, 0)) {
             throw new BadRequestException("倉庫には在庫が残っているため、削除できません。");
         }
         // 削除
@@ -227,6 +229,32 @@ public class WarehouseServiceImpl implements WarehouseService {
                 .build();
     }
 
+    /**
+     * 指定倉庫の在庫をページ単位で取得します。
+     *
+     * @param warehouseId 倉庫ID
+     * @param page        ページ番号（0始まり）
+     * @param size        1ページの件数
+     * @return 在庫DTOのリスト（total に全件数）を含むレスポンス
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<InventoryStockDTO>> getWarehouseStocks(Long warehouseId, int page, int size) {
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new NotFoundException("倉庫が見つかりません。ID = " + warehouseId);
+        }
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("id"));
+        Page<InventoryStock> stocks = inventoryStockRepository.findPageByWarehouseId(warehouseId, pageRequest);
+
+        return ResponseDTO.<List<InventoryStockDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("倉庫の在庫の取得に成功しました")
+                .data(inventoryStockMapper.toDTOList(stocks.getContent()))
+                .total(stocks.getTotalElements())
+                .build();
+    }
+
     /**
      * 全倉庫の在庫変動合計数量を含む倉庫情報を取得する処理
      *
@@ -249,4 +277,22 @@ public class WarehouseServiceImpl implements WarehouseService {
                 .data(warehouses)
                 .build();
     }
+
+    private static WarehouseDTO toDTO(WarehouseSummaryFlatDTO row) {
+        long used = row.getUsedQuantity() != null ? row.getUsedQuantity() : 0L;
+        return WarehouseDTO.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .location(row.getLocation())
+                .status(row.getStatus() != null ? WarehouseStatus.valueOf(row.getStatus()) : null)
+                .stockLimit(row.getStockLimit())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .skuCount(row.getSkuCount())
+                .onHandQuantity(row.getOnHandQuantity())
+                .reservedQuantity(row.getReservedQuantity())
+                .usedQuantity(used)
+                .utilizationRate(WarehouseCapacityServiceImpl.utilizationRate(used, row.getStockLimit()))
+                .build();
+    }
 }
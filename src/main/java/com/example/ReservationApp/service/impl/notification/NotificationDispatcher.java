@@ -0,0 +1,325 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.example.ReservationApp.event.NotificationRequestedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 通知の非同期ディスパッチャー。
+ *
+ * 業務トランザクション内で記録された NotificationRequestedEvent をコミット後にキューへ積み、
+ * 専用スレッドがまとめて取り出して複数行 INSERT し、
+ * 採番後に NotificationCreatedEvent（未読件数の加算・SSE 配信）を発行する。
+ *
+ * ・業務処理のトランザクションでは通知の INSERT を行わず、通知の失敗で業務処理がロールバックされない
+ * ・キューが満杯の場合は notification_outbox に1行 INSERT して退避し、キューが空いた時点で専用スレッドが取り出して保存する
+ *   （呼び出し元スレッドではまとめた INSERT やイベント発行を行わない。退避もできない場合は破棄して件数を記録する）
+ * ・不正な行（長さ超過など）でまとめた INSERT が失敗した場合は1件ずつ保存し直し、失われるのはその行のみとする
+ * ・停止時はキューに残った通知を保存してから終了する（退避テーブルの通知は次回起動後に保存する）
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String INSERT_NOTIFICATIONS = "INSERT INTO notifications (user_id, title, message, type, link, readed, created_at) VALUES ";
+    private static final String NOTIFICATION_ROW = "(?, ?, ?, ?, ?, false, ?)";
+    private static final String NOTIFICATION_RETURNING = " RETURNING id, user_id, title, message, type, link, readed, created_at";
+
+    private static final String INSERT_BROADCASTS = "INSERT INTO broadcast_notifications (target_role, title, message, type, link, created_at) VALUES ";
+    private static final String BROADCAST_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String BROADCAST_RETURNING = " RETURNING id, target_role, title, message, type, link, created_at";
+
+    private static final String INSERT_OUTBOX = "INSERT INTO notification_outbox (user_id, target_role, title, message, type, link, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // 複数ノードで同時に取り出しても同じ行を二重に保存しないよう、ロック中の行は飛ばす
+    private static final String DRAIN_OUTBOX = "DELETE FROM notification_outbox WHERE id IN "
+            + "(SELECT id FROM notification_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING user_id, target_role, title, message, type, link, created_at";
+
+    private static final RowMapper<NotificationDTO> NOTIFICATION_MAPPER = (rs, rowNum) -> mapRow(rs)
+            .userId(rs.getLong("user_id"))
+            .readed(rs.getBoolean("readed"))
+            .build();
+
+    private static final RowMapper<NotificationDTO> BROADCAST_MAPPER = (rs, rowNum) -> mapRow(rs)
+            .targetRole(UserRole.valueOf(rs.getString("target_role")))
+            .build();
+
+    private static final RowMapper<NotificationDTO> OUTBOX_MAPPER = (rs, rowNum) -> {
+        String type = rs.getString("type");
+        String targetRole = rs.getString("target_role");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return NotificationDTO.builder()
+                .userId(rs.getObject("user_id", Long.class))
+                .targetRole(targetRole != null ? UserRole.valueOf(targetRole) : null)
+                .title(rs.getString("title"))
+                .message(rs.getString("message"))
+                .type(type != null ? NotificationType.valueOf(type) : null)
+                .link(rs.getString("link"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${notification.dispatch.batch-size:200}")
+    private int batchSize;
+
+    private BlockingQueue<NotificationDTO> queue;
+    private Thread worker;
+    private volatile boolean running;
+    private final AtomicBoolean outboxPending = new AtomicBoolean(false);
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = Thread.ofPlatform().name("notification-dispatcher").daemon().start(this::run);
+        Gauge.builder("notification.dispatch.queue", queue, BlockingQueue::size)
+                .description("保存待ちの通知数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 前回の停止時・障害時に退避テーブルへ残った通知を保存対象にする。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        outboxPending.set(true);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        List<NotificationDTO> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    /**
+     * 業務処理のコミット後に通知をキューへ積む。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationRequested(NotificationRequestedEvent event) {
+        NotificationDTO notification = event.notification();
+        if (notification == null || (notification.getUserId() == null && notification.getTargetRole() == null)) {
+            return;
+        }
+        if (!queue.offer(notification)) {
+            spill(notification);
+        }
+    }
+
+    /**
+     * キューに積めなかった通知を退避テーブルへ1行 INSERT する。
+     * 退避にも失敗した場合は通知を破棄し、件数をメトリクスに記録する。
+     */
+    void spill(NotificationDTO notification) {
+        try {
+            jdbcTemplate.update(INSERT_OUTBOX,
+                    notification.getUserId(),
+                    notification.getTargetRole() != null ? notification.getTargetRole().name() : null,
+                    notification.getTitle(),
+                    notification.getMessage(),
+                    notification.getType() != null ? notification.getType().name() : null,
+                    notification.getLink(),
+                    Timestamp.valueOf(notification.getCreatedAt() != null ? notification.getCreatedAt() : LocalDateTime.now()));
+            outboxPending.set(true);
+            Counter.builder("notification.dispatch.spilled")
+                    .description("キューが満杯のため退避テーブルに保存した通知数")
+                    .register(meterRegistry)
+                    .increment();
+        } catch (Exception e) {
+            log.error("通知キューが満杯で退避にも失敗したため通知を破棄します。userId={}, {}",
+                    notification.getUserId(), e.getMessage());
+            Counter.builder("notification.dispatch.dropped")
+                    .description("キューが満杯で退避もできず破棄した通知数")
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    /**
+     * 退避テーブルから通知を最大 batchSize 件取り出して保存する。
+     * 取り出しと削除は同時に行うため、その後の保存に失敗した通知は他の保存失敗と同じく失われる。
+     *
+     * @return 退避テーブルにまだ通知が残っている可能性がある場合は true
+     */
+    boolean drainOutbox() {
+        List<NotificationDTO> spilled;
+        try {
+            spilled = jdbcTemplate.query(DRAIN_OUTBOX,
+                    new ArgumentPreparedStatementSetter(new Object[] { batchSize }), OUTBOX_MAPPER);
+        } catch (Exception e) {
+            log.warn("退避した通知の取り出しに失敗しました: {}", e.getMessage());
+            return true;
+        }
+        if (spilled == null || spilled.isEmpty()) {
+            return false;
+        }
+        flush(spilled);
+        return spilled.size() >= batchSize;
+    }
+
+    private void run() {
+        List<NotificationDTO> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationDTO first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    // キューが空いたら退避した通知を保存する（取り出し中の退避で立った印は残す）
+                    if (outboxPending.compareAndSet(true, false) && drainOutbox()) {
+                        outboxPending.set(true);
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 通知をまとめて保存し、保存できた通知の作成イベントを発行する。
+     * 個人宛ては notifications、ロール宛ては broadcast_notifications にそれぞれ1文で INSERT する。
+     */
+    void flush(List<NotificationDTO> notifications) {
+        List<NotificationDTO> personal = new ArrayList<>();
+        List<NotificationDTO> broadcasts = new ArrayList<>();
+        for (NotificationDTO notification : notifications) {
+            (notification.getUserId() != null ? personal : broadcasts).add(notification);
+        }
+        List<NotificationDTO> created = new ArrayList<>();
+        created.addAll(insertOrRetryEach("通知", INSERT_NOTIFICATIONS, NOTIFICATION_ROW, NOTIFICATION_RETURNING,
+                personal, NotificationDTO::getUserId, NOTIFICATION_MAPPER));
+        created.addAll(insertOrRetryEach("ロール宛て通知", INSERT_BROADCASTS, BROADCAST_ROW, BROADCAST_RETURNING,
+                broadcasts, n -> n.getTargetRole().name(), BROADCAST_MAPPER));
+        for (NotificationDTO notification : created) {
+            try {
+                eventPublisher.publishEvent(new NotificationCreatedEvent(notification));
+            } catch (Exception e) {
+                log.warn("通知の配信に失敗しました。id={}, {}", notification.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * まとめて INSERT し、データ不正で失敗した場合は1件ずつ INSERT し直す。
+     * 接続障害などデータ以外の失敗は1件ずつでも成功しないため、再試行せずに破棄する。
+     *
+     * @return 保存できた通知
+     */
+    private List<NotificationDTO> insertOrRetryEach(String label, String prefix, String row, String returning,
+            List<NotificationDTO> notifications, Function<NotificationDTO, Object> recipient,
+            RowMapper<NotificationDTO> rowMapper) {
+        try {
+            return insert(prefix, row, returning, notifications, recipient, rowMapper);
+        } catch (DataIntegrityViolationException e) {
+            if (notifications.size() == 1) {
+                log.error("{}の保存に失敗しました。title={}, {}", label, notifications.get(0).getTitle(), e.getMessage());
+                return List.of();
+            }
+            log.warn("{}の一括保存に失敗したため1件ずつ保存します。件数={}, {}", label, notifications.size(), e.getMessage());
+        } catch (Exception e) {
+            log.error("{}の保存に失敗しました。件数={}, {}", label, notifications.size(), e.getMessage());
+            return List.of();
+        }
+        List<NotificationDTO> created = new ArrayList<>();
+        for (NotificationDTO notification : notifications) {
+            try {
+                created.addAll(insert(prefix, row, returning, List.of(notification), recipient, rowMapper));
+            } catch (Exception e) {
+                log.error("{}の保存に失敗しました。title={}, {}", label, notification.getTitle(), e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private List<NotificationDTO> insert(String prefix, String row, String returning,
+            List<NotificationDTO> notifications, Function<NotificationDTO, Object> recipient,
+            RowMapper<NotificationDTO> rowMapper) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder(prefix);
+        List<Object> args = new ArrayList<>(notifications.size() * 6);
+        for (NotificationDTO n : notifications) {
+            if (args.size() > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+            args.add(recipient.apply(n));
+            args.add(n.getTitle());
+            args.add(n.getMessage());
+            args.add(n.getType() != null ? n.getType().name() : null);
+            args.add(n.getLink());
+            args.add(Timestamp.valueOf(n.getCreatedAt() != null ? n.getCreatedAt() : LocalDateTime.now()));
+        }
+        sql.append(returning);
+        List<NotificationDTO> created = jdbcTemplate.query(sql.toString(),
+                new ArgumentPreparedStatementSetter(args.toArray()), rowMapper);
+        return created != null ? created : Collections.emptyList();
+    }
+
+    private static NotificationDTO.NotificationDTOBuilder mapRow(ResultSet rs) throws SQLException {
+        String type = rs.getString("type");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return NotificationDTO.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .message(rs.getString("message"))
+                .type(type != null ? NotificationType.valueOf(type) : null)
+                .link(rs.getString("link"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 通知のプッシュ配信（Server-Sent Events）。
+ *
+ * ユーザーごとの SSE 接続をノード内で保持し、作成された通知をコミット後に Redis Pub/Sub へ発行する。
+ * 各ノードは Pub/Sub で受け取った通知を、自ノードに接続している宛先ユーザー
+ * （ロール宛ての通知は該当ロールのユーザー全員）へ送信する。
+ *
+ * ・接続は非同期サーブレット（SseEmitter）で保持するため、待機中の接続はスレッドを占有しない
+ * ・送信は仮想スレッドで行い、遅いクライアントが他の接続や Pub/Sub の受信を止めないようにする
+ * ・定期的にハートビートを送り、切断済みの接続を検出して破棄する
+ *
+ * Redis に接続できない場合は自ノードの接続のみに配信する。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushHub implements MessageListener {
+
+    static final String CHANNEL = "notification:push";
+    static final String EVENT_NOTIFICATION = "notification";
+    static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notification.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    // ユーザーID → 接続中の SSE（接続順）
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    // ユーザーID → ロール（ロール宛て通知の配信先判定用）
+    private final Map<Long, UserRole> roles = new ConcurrentHashMap<>();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void init() {
+        sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-push-", 0).factory());
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        Gauge.builder("notification.sse.connections", this, NotificationPushHub::connectionCount)
+                .description("接続中の通知 SSE 数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        emitters.values().forEach(list -> list.forEach(SseEmitter::complete));
+        emitters.clear();
+        roles.clear();
+        sender.shutdownNow();
+    }
+
+    /**
+     * ユーザーの SSE 接続を登録する。上限を超えた場合は最も古い接続を閉じる。
+     *
+     * @param userId ユーザーID
+     * @param role   ユーザーのロール
+     * @return SSE 接続
+     */
+    public SseEmitter subscribe(Long userId, UserRole role) {
+        SseEmitter emitter = createEmitter();
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        List<SseEmitter> list = emitters.compute(userId, (k, current) -> {
+            List<SseEmitter> next = current != null ? current : new CopyOnWriteArrayList<>();
+            next.add(emitter);
+            if (role != null) {
+                roles.put(userId, role);
+            }
+            return next;
+        });
+        while (list.size() > maxConnectionsPerUser) {
+            SseEmitter oldest = list.get(0);
+            remove(userId, oldest);
+            oldest.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 通知の作成をコミット後に全ノードへ発行する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        publish(event.notification());
+    }
+
+    /**
+     * 通知を Redis Pub/Sub へ発行する。発行できない場合は自ノードの接続にのみ配信する。
+     */
+    public void publish(NotificationDTO notification) {
+        if (notification == null || (notification.getUserId() == null && notification.getTargetRole() == null)) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(notification));
+        } catch (Exception e) {
+            log.warn("通知のプッシュ配信を Redis に発行できませんでした。自ノードのみに配信します: {}", e.getMessage());
+            deliver(notification);
+        }
+    }
+
+    /**
+     * 他ノード（自ノードを含む）から発行された通知を受け取る。
+     */
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), NotificationDTO.class));
+        } catch (IOException e) {
+            log.warn("プッシュ通知を復元できませんでした: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 指定した接続にイベントを1件送信する。
+     */
+    public void send(Long userId, SseEmitter emitter, String name, Object data) {
+        sender.execute(() -> sendNow(userId, emitter, SseEmitter.event().name(name).data(data)));
+    }
+
+    /**
+     * 切断済みの接続を検出するため、全接続にコメント行を送る。
+     */
+    @Scheduled(fixedDelayString = "${notification.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, list) -> list.forEach(
+                emitter -> sender.execute(() -> sendNow(userId, emitter, SseEmitter.event().comment("ping")))));
+    }
+
+    public int connectionCount() {
+        return emitters.values().stream().mapToInt(List::size).sum();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void deliver(NotificationDTO notification) {
+        if (notification.getUserId() != null) {
+            deliver(notification.getUserId(), notification);
+            return;
+        }
+        roles.forEach((userId, role) -> {
+            if (role == notification.getTargetRole()) {
+                deliver(userId, notification);
+            }
+        });
+    }
+
+    private void deliver(Long userId, NotificationDTO notification) {
+        List<SseEmitter> list = emitters.get(userId);
+        if (list == null) {
+            return;
+        }
+        for (SseEmitter emitter : list) {
+            send(userId, emitter, EVENT_NOTIFICATION, notification);
+        }
+    }
+
+    private void sendNow(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (Exception e) {
+            // クライアントが切断済みの場合
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, list) -> {
+            list.remove(emitter);
+            if (list.isEmpty()) {
+                roles.remove(userId);
+                return null;
+            }
+            return list;
+        });
+    }
+}
@@ -1,31 +1,92 @@
 package com.example.ReservationApp.service.impl.notification;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.IntSupplier;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.entity.notification.BroadcastNotification;
 import com.example.ReservationApp.entity.notification.Notification;
+import com.example.ReservationApp.entity.notification.NotificationReadMarker;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationRequestedEvent;
+import com.example.ReservationApp.event.UnreadCountChangedEvent;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.NotificationMapper;
+import com.example.ReservationApp.repository.notification.BroadcastNotificationRepository;
+import com.example.ReservationApp.repository.notification.NotificationReadMarkerRepository;
 import com.example.ReservationApp.repository.notification.NotificationRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
 import com.example.ReservationApp.service.notification.NotificationService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RequiredArgsConstructor
 @Service
+@Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int LIST_LIMIT = 20;
+
     private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationReadMarkerRepository notificationReadMarkerRepository;
+    private final UserRepository userRepository;
     private final NotificationMapper notificationMapper;
+    private final NotificationPushHub notificationPushHub;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${notification.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${notification.retention.read-days:30}")
+    private long readRetentionDays;
+
+    @Value("${notification.retention.broadcast-days:30}")
+    private long broadcastRetentionDays;
+
+    @Value("${notification.retention.batch-size:1000}")
+    private int retentionBatchSize;
 
+    /**
+     * 個人宛ての通知とロール宛ての通知を新しい順にまとめて返す。
+     * ロール宛ての通知の既読状態はユーザーの既読位置から判定する。
+     */
     @Override
     public ResponseDTO<List<NotificationDTO>> getNotificationsForUser(Long userId) {
         List<Notification> notifications = notificationRepository.findTop20ByUserIdOrderByCreatedAtDesc(userId);
-        List<NotificationDTO> notificationDTOs = notificationMapper.toDTOList(notifications);
+        List<NotificationDTO> notificationDTOs = new ArrayList<>(notificationMapper.toDTOList(notifications));
+
+        UserRole role = roleOf(userId);
+        if (role != null) {
+            NotificationReadMarker marker = notificationReadMarkerRepository.findById(userId)
+                    .orElseGet(NotificationReadMarker::new);
+            for (BroadcastNotification broadcast : broadcastNotificationRepository
+                    .findTop20ByTargetRoleOrderByIdDesc(role)) {
+                NotificationDTO dto = notificationMapper.toDTO(broadcast);
+                dto.setReaded(marker.isRead(broadcast.getId()));
+                notificationDTOs.add(dto);
+            }
+            notificationDTOs.sort(Comparator.comparing(NotificationDTO::getCreatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder())));
+            if (notificationDTOs.size() > LIST_LIMIT) {
+                notificationDTOs = new ArrayList<>(notificationDTOs.subList(0, LIST_LIMIT));
+            }
+        }
         return ResponseDTO.<List<NotificationDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("通知一覧の取得に成功しました")
@@ -35,7 +96,7 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public ResponseDTO<Long> getUnreadCount(Long userId) {
-        long count = notificationRepository.countByUserIdAndReadedFalse(userId);
+        long count = unreadNotificationCounter.get(userId);
         return ResponseDTO.<Long>builder()
                 .status(HttpStatus.OK.value())
                 .message("未読通知の件数を取得しました")
@@ -47,9 +108,35 @@ public class NotificationServiceImpl implements NotificationService {
     public ResponseDTO<NotificationDTO> markAsRead(Long id) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("通知が見つかりません"));
+        // 既読済み・同時実行の場合は更新件数が 0 となり、未読件数は減らさない
+        if (notificationRepository.markAsReadIfUnread(id) > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.decrement(notification.getUserId()));
+        }
         notification.setReaded(true);
-        Notification updated = notificationRepository.save(notification);
-        NotificationDTO notificationDTO = notificationMapper.toDTO(updated);
+        NotificationDTO notificationDTO = notificationMapper.toDTO(notification);
+        return ResponseDTO.<NotificationDTO>builder()
+                .status(HttpStatus.OK.value())
+                .message("通知を既読にしました")
+                .data(notificationDTO)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public ResponseDTO<NotificationDTO> markBroadcastAsRead(Long userId, Long id) {
+        UserRole role = roleOf(userId);
+        BroadcastNotification broadcast = broadcastNotificationRepository.findById(id)
+                .filter(b -> b.getTargetRole() == role)
+                .orElseThrow(() -> new NotFoundException("通知が見つかりません"));
+
+        NotificationReadMarker marker = lockMarker(userId);
+        if (marker.markRead(id, broadcastNotificationRepository.findIdsByTargetRoleAfter(role,
+                marker.getLastReadBroadcastId()))) {
+            notificationReadMarkerRepository.save(marker);
+            eventPublisher.publishEvent(UnreadCountChangedEvent.broadcastRead(userId));
+        }
+        NotificationDTO notificationDTO = notificationMapper.toDTO(broadcast);
+        notificationDTO.setReaded(true);
         return ResponseDTO.<NotificationDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("通知を既読にしました")
@@ -58,8 +145,15 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
+    @Transactional
     public ResponseDTO<Void> markReadAllNotification(Long userId) {
         notificationRepository.markAllAsRead(userId);
+        eventPublisher.publishEvent(UnreadCountChangedEvent.reset(userId));
+
+        // ロール宛ての通知は既読位置を最新まで進める
+        NotificationReadMarker marker = lockMarker(userId);
+        marker.markAllRead(broadcastNotificationRepository.findMaxId());
+        notificationReadMarkerRepository.save(marker);
 
         return ResponseDTO.<Void>builder()
                 .status(HttpStatus.OK.value())
@@ -69,22 +163,36 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public ResponseDTO<NotificationDTO> createNotification(NotificationDTO notification) {
-        Notification entity = notificationMapper.toEntity(notification);
-        notificationRepository.save(entity);
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(LocalDateTime.now());
+        }
+        // 保存と配信はコミット後に NotificationDispatcher がまとめて行う
+        eventPublisher.publishEvent(new NotificationRequestedEvent(notification));
         return ResponseDTO.<NotificationDTO>builder()
                 .status(HttpStatus.OK.value())
-                .message("新しい通知を作成しました")
+                .message("新しい通知を受け付けました")
                 .data(notification)
                 .build();
 
     }
 
+    @Override
+    public SseEmitter subscribe(Long userId, UserRole role) {
+        SseEmitter emitter = notificationPushHub.subscribe(userId, role);
+        // 接続直後に未読件数を1回だけ送り、以降はプッシュされた通知でクライアント側の件数を更新する
+        notificationPushHub.send(userId, emitter, NotificationPushHub.EVENT_UNREAD_COUNT,
+                unreadNotificationCounter.get(userId));
+        return emitter;
+    }
+
     @Override
     public ResponseDTO<Void> deleteNotification(Long id) {
-        if (!notificationRepository.existsById(id)) {
-            throw new NotFoundException("指定した通知は存在していない");
-        }
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("指定した通知は存在していない"));
         notificationRepository.deleteById(id);
+        if (!notification.isReaded()) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.decrement(notification.getUserId()));
+        }
         return ResponseDTO.<Void>builder()
                 .status(HttpStatus.OK.value())
                 .message("通知を削除しました")
@@ -92,4 +200,57 @@ public class NotificationServiceImpl implements NotificationService {
 
     }
 
+    /**
+     * 保持期間を過ぎた既読の個人通知と、ロール宛ての通知を一定件数ずつ削除する。
+     * 1回の削除ごとにトランザクションを分け、長時間のロックを避ける。
+     */
+    @Override
+    public void purgeExpiredNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        int notifications = deleteInBatches(
+                () -> notificationRepository.deleteReadCreatedBefore(now.minusDays(readRetentionDays),
+                        retentionBatchSize));
+        int broadcasts = deleteInBatches(
+                () -> broadcastNotificationRepository.deleteCreatedBefore(now.minusDays(broadcastRetentionDays),
+                        retentionBatchSize));
+        if (broadcasts > 0) {
+            unreadNotificationCounter.evictBroadcasts();
+        }
+        log.info("保持期間を過ぎた通知を削除しました。個人通知={}, ロール宛て通知={}", notifications, broadcasts);
+    }
+
+    /**
+     * 定期実行（デフォルト：毎日 4:00）
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 0 4 * * *}")
+    public void scheduledPurge() {
+        if (!retentionEnabled) {
+            return;
+        }
+        try {
+            purgeExpiredNotifications();
+        } catch (Exception e) {
+            log.error("通知の削除でエラーが発生しました: {}", e.getMessage(), e);
+        }
+    }
+
+    private int deleteInBatches(IntSupplier deleteBatch) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.getAsInt();
+            total += deleted;
+        } while (deleted >= retentionBatchSize);
+        return total;
+    }
+
+    private NotificationReadMarker lockMarker(Long userId) {
+        notificationReadMarkerRepository.insertIfAbsent(userId);
+        return notificationReadMarkerRepository.findForUpdate(userId)
+                .orElseThrow(() -> new NotFoundException("既読位置が見つかりません"));
+    }
+
+    private UserRole roleOf(Long userId) {
+        return userRepository.findById(userId).map(User::getRole).orElse(null);
+    }
 }
@@ -0,0 +1,323 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.entity.notification.NotificationReadMarker;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.example.ReservationApp.event.UnreadCountChangedEvent;
+import com.example.ReservationApp.repository.notification.BroadcastNotificationRepository;
+import com.example.ReservationApp.repository.notification.NotificationReadMarkerRepository;
+import com.example.ReservationApp.repository.notification.NotificationRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 未読通知件数カウンタ（Redis）。個人宛てとロール宛ての未読件数を分けて保持し、取得時に合算する。
+ *
+ * ・個人宛て：ユーザーごとのキーに未読件数を保持し、作成（INCR）・既読化（DECR）・全件既読（SET 0）をコミット後に反映する
+ * ・ロール宛て：ロールごとのソート済みセットに通知 ID を保持し、作成時は1件追加するのみとする（ユーザー数に依存しない）。
+ *   ユーザーごとの未読件数は、取得時に既読位置より新しい ID の件数（ZCOUNT）から個別に既読にした件数を引いて求める
+ * ・既読位置（ロール・lastReadBroadcastId・個別既読数）もユーザーごとのキーに保持し、既読化のコミット後に削除して数え直す
+ * ・加減算・追加はキーが存在する場合のみ行い（Lua スクリプトで原子的に判定）、0 未満にはしない
+ * ・既読化の二重実行は呼び出し側で条件付き UPDATE により1回に絞る
+ * ・数え直しと更新が競合した場合のずれは、キーの有効期限が切れた時点で解消される
+ *   （保持期間によるロール宛て通知の削除後はロールのセットを削除して読み込み直す）
+ *
+ * Redis に接続できない場合は DB の件数を返す。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadNotificationCounter {
+
+    private static final String KEY_PREFIX = "notification:unread:";
+    private static final String READ_POSITION_KEY_PREFIX = "notification:broadcast-read:";
+    private static final String ROLE_KEY_PREFIX = "notification:broadcast:";
+
+    // ロールのセットがなければ -1、あれば指定した ID より新しい通知の件数を返す
+    private static final RedisScript<Long> COUNT_AFTER_IF_PRESENT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            return redis.call('ZCOUNT', KEYS[1], '(' .. ARGV[1], '+inf')
+            """, Long.class);
+
+    // ロールのセットが存在する場合のみ通知 ID を追加する
+    private static final RedisScript<Long> ADD_BROADCAST_IF_PRESENT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return redis.call('ZADD', KEYS[1], ARGV[1], ARGV[1])
+            end
+            return 0
+            """, Long.class);
+
+    // DB から読み込んだ通知 ID でセットを作成する（通知がなくてもキーを作るため ID 0 を番兵として入れる）
+    private static final RedisScript<Long> LOAD_BROADCASTS = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], 0, '0')
+            for i = 2, #ARGV do
+                redis.call('ZADD', KEYS[1], ARGV[i], ARGV[i])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            return #ARGV - 1
+            """, Long.class);
+
+    // 存在するキーのみ加減算し、0 未満になった場合は 0 に戻す（戻り値は更新したキーの数）
+    private static final RedisScript<Long> ADD_IF_PRESENT = new DefaultRedisScript<>("""
+            local updated = 0
+            for _, key in ipairs(KEYS) do
+                if redis.call('EXISTS', key) == 1 then
+                    if redis.call('INCRBY', key, ARGV[1]) < 0 then
+                        redis.call('SET', key, 0, 'KEEPTTL')
+                    end
+                    updated = updated + 1
+                end
+            end
+            return updated
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final BroadcastNotificationRepository broadcastNotificationRepository;
+    private final NotificationReadMarkerRepository notificationReadMarkerRepository;
+    private final UserRepository userRepository;
+
+    @Value("${notification.unread.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    /**
+     * ユーザーのロール宛て通知の既読位置。role が null の場合はロール宛て通知の対象外。
+     *
+     * @param readCount 既読位置より新しい通知のうち個別に既読にした件数
+     */
+    record ReadPosition(UserRole role, long lastReadBroadcastId, int readCount) {
+
+        static final ReadPosition NONE = new ReadPosition(null, 0, 0);
+
+        String encode() {
+            return role == null ? "-" : role.name() + ":" + lastReadBroadcastId + ":" + readCount;
+        }
+
+        static ReadPosition decode(String value) {
+            if ("-".equals(value)) {
+                return NONE;
+            }
+            String[] parts = value.split(":");
+            return new ReadPosition(UserRole.valueOf(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+        }
+    }
+
+    /**
+     * 未読件数を取得する。
+     *
+     * @param userId ユーザーID
+     * @return 未読件数
+     */
+    public long get(Long userId) {
+        try {
+            return personalCount(userId) + unreadBroadcastCount(userId);
+        } catch (Exception e) {
+            log.warn("未読件数を Redis から取得できませんでした。userId={}, {}", userId, e.getMessage());
+            return countFromDatabase(userId);
+        }
+    }
+
+    /**
+     * 通知の作成をコミット後に加算する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (event.notification() == null) {
+            return;
+        }
+        if (event.notification().getUserId() != null) {
+            add(event.notification().getUserId(), 1);
+        } else if (event.notification().getTargetRole() != null) {
+            addToRole(event.notification().getTargetRole(), event.notification().getId());
+        }
+    }
+
+    /**
+     * 既読化・削除をコミット後に反映する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        if (event.reset()) {
+            try {
+                redisTemplate.opsForValue().set(key(event.userId()), "0", Duration.ofSeconds(ttlSeconds));
+            } catch (Exception e) {
+                evict(event.userId(), e);
+            }
+        } else if (event.delta() != 0) {
+            add(event.userId(), event.delta());
+        }
+        if (event.broadcast()) {
+            try {
+                redisTemplate.delete(readPositionKey(event.userId()));
+            } catch (Exception e) {
+                log.warn("既読位置のキーを削除できませんでした。userId={}, {}", event.userId(), e.getMessage());
+            }
+        }
+    }
+
+    private long personalCount(Long userId) {
+        String cached = redisTemplate.opsForValue().get(key(userId));
+        if (cached != null) {
+            return Long.parseLong(cached);
+        }
+        long count = notificationRepository.countByUserIdAndReadedFalse(userId);
+        // 数え直しの間に別の更新で保存された値がある場合はそちらを優先する
+        cacheIfAbsent(key(userId), String.valueOf(count));
+        return count;
+    }
+
+    /**
+     * ロールの通知 ID のセットと既読位置から、ロール宛て通知の未読件数を求める。
+     */
+    private long unreadBroadcastCount(Long userId) {
+        ReadPosition position = readPosition(userId);
+        if (position.role() == null) {
+            return 0;
+        }
+        Long after = redisTemplate.execute(COUNT_AFTER_IF_PRESENT, List.of(roleKey(position.role())),
+                String.valueOf(position.lastReadBroadcastId()));
+        if (after == null || after < 0) {
+            after = loadBroadcasts(position.role()).stream()
+                    .filter(id -> id > position.lastReadBroadcastId())
+                    .count();
+        }
+        return Math.max(0, after - position.readCount());
+    }
+
+    private ReadPosition readPosition(Long userId) {
+        String cached = redisTemplate.opsForValue().get(readPositionKey(userId));
+        if (cached != null) {
+            return ReadPosition.decode(cached);
+        }
+        UserRole role = userRepository.findById(userId).map(User::getRole).orElse(null);
+        ReadPosition position = ReadPosition.NONE;
+        if (role != null) {
+            NotificationReadMarker marker = notificationReadMarkerRepository.findById(userId)
+                    .orElseGet(NotificationReadMarker::new);
+            position = new ReadPosition(role, marker.getLastReadBroadcastId(), marker.countReadAfterPosition());
+        }
+        cacheIfAbsent(readPositionKey(userId), position.encode());
+        return position;
+    }
+
+    private List<Long> loadBroadcasts(UserRole role) {
+        List<Long> ids = broadcastNotificationRepository.findIdsByTargetRoleAfter(role, 0);
+        List<String> args = new ArrayList<>(ids.size() + 1);
+        args.add(String.valueOf(ttlSeconds));
+        ids.forEach(id -> args.add(String.valueOf(id)));
+        try {
+            redisTemplate.execute(LOAD_BROADCASTS, List.of(roleKey(role)), args.toArray());
+        } catch (Exception e) {
+            log.warn("ロール宛て通知の ID を Redis に保存できませんでした。role={}, {}", role, e.getMessage());
+        }
+        return ids;
+    }
+
+    private void cacheIfAbsent(String key, String value) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key, value, Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("未読件数を Redis に保存できませんでした。key={}, {}", key, e.getMessage());
+        }
+    }
+
+    private void add(Long userId, long delta) {
+        try {
+            redisTemplate.execute(ADD_IF_PRESENT, List.of(key(userId)), String.valueOf(delta));
+        } catch (Exception e) {
+            evict(userId, e);
+        }
+    }
+
+    /**
+     * ロールの通知 ID のセットに1件追加する。失敗した場合はセットを削除し、次回の取得時に DB から読み込み直す。
+     */
+    private void addToRole(UserRole role, Long broadcastId) {
+        if (broadcastId == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(ADD_BROADCAST_IF_PRESENT, List.of(roleKey(role)), String.valueOf(broadcastId));
+        } catch (Exception e) {
+            log.warn("ロール宛て通知を Redis に反映できませんでした。role={}, {}", role, e.getMessage());
+            try {
+                redisTemplate.delete(roleKey(role));
+            } catch (Exception ex) {
+                log.warn("ロール宛て通知のキーを削除できませんでした。role={}, {}", role, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * ロール宛て通知を削除した後に、全ロールの通知 ID のセットを削除して DB から読み込み直させる。
+     */
+    public void evictBroadcasts() {
+        try {
+            redisTemplate.delete(Arrays.stream(UserRole.values()).map(UnreadNotificationCounter::roleKey).toList());
+        } catch (Exception e) {
+            log.warn("ロール宛て通知のキーを削除できませんでした: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 個人宛ての未読件数に、既読位置より新しいロール宛て通知のうち未読の件数を加えて DB から数える。
+     */
+    private long countFromDatabase(Long userId) {
+        long count = notificationRepository.countByUserIdAndReadedFalse(userId);
+        UserRole role = userRepository.findById(userId).map(User::getRole).orElse(null);
+        if (role == null) {
+            return count;
+        }
+        NotificationReadMarker marker = notificationReadMarkerRepository.findById(userId)
+                .orElseGet(NotificationReadMarker::new);
+        for (Long broadcastId : broadcastNotificationRepository.findIdsByTargetRoleAfter(role,
+                marker.getLastReadBroadcastId())) {
+            if (!marker.isRead(broadcastId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 更新に失敗した場合はキーを削除し、次回の取得時に数え直す。
+     */
+    private void evict(Long userId, Exception cause) {
+        log.warn("未読件数を Redis に反映できませんでした。userId={}, {}", userId, cause.getMessage());
+        try {
+            redisTemplate.delete(key(userId));
+        } catch (Exception e) {
+            log.warn("未読件数のキーを削除できませんでした。userId={}, {}", userId, e.getMessage());
+        }
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private static String readPositionKey(Long userId) {
+        return READ_POSITION_KEY_PREFIX + userId;
+    }
+
+    private static String roleKey(UserRole role) {
+        return ROLE_KEY_PREFIX + role.name();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 商品ドキュメント（商品名・コード・SKU・カテゴリ名・仕入先名）の更新を全ノードへ中継する。
+ *
+ * 検索インデックス・サジェストのトライは各ノードのメモリ上にあるため、
+ * 更新したノードの AFTER_COMMIT イベントだけでは他ノードの内容が古いまま残る。
+ * コミット後に対象の商品ID（全件の場合は null）を Redis Pub/Sub で発行し、
+ * 受信した各ノード（自ノードを含む）で登録済みのハンドラーを呼び出す。
+ *
+ * ・ハンドラーは DB を読むため仮想スレッドで実行し、Pub/Sub の受信スレッドを止めない
+ * ・Redis に発行できない場合は自ノードのハンドラーのみ呼び出す（他ノードは再起動まで古いまま）
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeRelay implements MessageListener {
+
+    static final String CHANNEL = "catalog:product-documents:changed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final List<Consumer<CatalogChangedEvent>> handlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Pub/Sub で送る更新内容。productIds が null の場合は全件の再構築を表す。
+     */
+    record ChangeMessage(CatalogAggregate aggregate, Set<Long> productIds) {
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 全ノードで受け取る更新のハンドラーを登録する。
+     */
+    public void register(Consumer<CatalogChangedEvent> handler) {
+        handlers.add(handler);
+    }
+
+    /**
+     * 商品ドキュメントに影響する更新をコミット後に発行する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.affectsProductDocuments()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL,
+                    objectMapper.writeValueAsString(new ChangeMessage(event.aggregate(), event.productIds())));
+        } catch (Exception e) {
+            log.warn("商品ドキュメントの更新を Redis に発行できませんでした。自ノードのみ更新します: {}", e.getMessage());
+            dispatch(event);
+        }
+    }
+
+    /**
+     * 他ノード（自ノードを含む）から発行された更新を受け取る。
+     */
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        try {
+            ChangeMessage change = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            dispatch(new CatalogChangedEvent(change.aggregate(), change.productIds()));
+        } catch (IOException e) {
+            log.warn("商品ドキュメントの更新通知を復元できませんでした: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(CatalogChangedEvent event) {
+        for (Consumer<CatalogChangedEvent> handler : handlers) {
+            Thread.ofVirtual().name("catalog-change-relay").start(() -> {
+                try {
+                    handler.accept(event);
+                } catch (Exception e) {
+                    // 派生データの更新失敗で他のハンドラーを止めない
+                    log.warn("商品ドキュメントの更新の反映に失敗しました。aggregate={}, {}",
+                            event.aggregate(), e.getMessage());
+                }
+            });
+        }
+    }
+}
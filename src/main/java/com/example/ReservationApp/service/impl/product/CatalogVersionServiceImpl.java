@@ -0,0 +1,120 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.service.product.CatalogVersionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * カタログ集約ごとのバージョン番号を管理するサービス実装クラス。
+ *
+ * バージョンは Redis のカウンタ（INCR）で保持し、複数インスタンス間で共有する。
+ * 書き込み系サービスが発行する CatalogChangedEvent をコミット後に受け取り、該当集約のバージョンを進める。
+ * 読み取り API はバージョンの組から ETag を生成し、変更がなければ 304 を返す。
+ *
+ * Redis に接続できない場合は ETag を生成せず、通常どおり全件を返す（古いデータを 304 で返さないため）。
+ *
+ * ・ETag の先頭にはエポック（初回に SETNX で決めるランダム値）を含める。Redis のデータが消えて
+ *   カウンタが 0 から数え直しになってもエポックが変わるため、以前の ETag と一致しない
+ * ・バージョン更新に失敗した集約は、次の更新が成功するまで ETag を生成しない
+ *   （変更がカウンタに反映されていない間に 304 を返さないため）
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    private static final String KEY_PREFIX = "catalog:version:";
+    private static final String EPOCH_KEY = KEY_PREFIX + "epoch";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // バージョン更新に失敗し、まだ更新が成功していない集約
+    private final Set<CatalogAggregate> staleAggregates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * カタログの更新をコミット後に反映する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        bump(event.aggregate());
+    }
+
+    /**
+     * 指定集約のバージョンを1つ進める。
+     *
+     * @param aggregate 更新された集約
+     */
+    @Override
+    public void bump(CatalogAggregate aggregate) {
+        try {
+            redisTemplate.opsForValue().increment(KEY_PREFIX + aggregate.name());
+            staleAggregates.remove(aggregate);
+        } catch (Exception e) {
+            staleAggregates.add(aggregate);
+            log.error("カタログのバージョン更新に失敗しました。aggregate={}, {}", aggregate, e.getMessage());
+        }
+    }
+
+    /**
+     * 指定集約の現在のバージョンから強い ETag を生成する。
+     *
+     * @param aggregates レスポンスが依存する集約
+     * @return ETag（例: "5f3a9c.3.15.2"）。Redis に接続できない場合、または更新に失敗した集約を含む場合は空
+     */
+    @Override
+    public Optional<String> currentETag(CatalogAggregate... aggregates) {
+        if (Arrays.stream(aggregates).anyMatch(staleAggregates::contains)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> keys = new ArrayList<>();
+            keys.add(EPOCH_KEY);
+            Arrays.stream(aggregates).map(aggregate -> KEY_PREFIX + aggregate.name()).forEach(keys::add);
+            List<String> versions = redisTemplate.opsForValue().multiGet(keys);
+            if (versions == null) {
+                return Optional.empty();
+            }
+            String epoch = versions.get(0) != null ? versions.get(0) : initEpoch();
+            if (epoch == null) {
+                return Optional.empty();
+            }
+            StringBuilder etag = new StringBuilder("\"").append(epoch);
+            for (int i = 1; i < versions.size(); i++) {
+                etag.append('.').append(versions.get(i) != null ? versions.get(i) : "0");
+            }
+            return Optional.of(etag.append('"').toString());
+        } catch (Exception e) {
+            log.warn("カタログのバージョン取得に失敗しました: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * エポックが未設定の場合にランダム値を設定する。複数インスタンスが同時に設定しても SETNX で1つに決まる。
+     *
+     * @return 確定したエポック
+     */
+    private String initEpoch() {
+        String candidate = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(EPOCH_KEY, candidate))) {
+            return candidate;
+        }
+        return redisTemplate.opsForValue().get(EPOCH_KEY);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * カテゴリ一覧・有効カテゴリ一覧・カテゴリサマリー一覧の2段キャッシュ。
+ *
+ * ・1段目: ノード内の Caffeine キャッシュ（件数上限・TTL 付き）
+ * ・2段目: Redis（全ノード共有、TTL 付き）。キーに世代番号を含め、無効化時は世代を進める
+ *
+ * カテゴリ・商品・仕入先・仕入れ商品の更新イベントをコミット後に受け取り、
+ * 世代番号を INCR してから Pub/Sub で他ノードへ通知し、各ノードの1段目を破棄する。
+ * 世代を進めるため、無効化と並行して古いデータを読み込んだリクエストが
+ * Redis に書き戻しても、新しい世代のキーからは参照されない。
+ *
+ * Redis に接続できない場合は1段目のみで動作する（他ノードの更新は TTL 経過後に反映）。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCache implements MessageListener {
+
+    public static final String ALL_CATEGORIES = "all";
+    public static final String ACTIVE_CATEGORIES = "active";
+    public static final String CATEGORY_SUMMARIES = "summaries";
+
+    static final String CHANNEL = "catalog:cache:category:invalidate";
+    private static final String KEY_PREFIX = "catalog:cache:category:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${category.cache.local-max-size:100}")
+    private long localMaxSize;
+
+    @Value("${category.cache.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${category.cache.redis-ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    private Cache<String, Object> local;
+
+    // ノード内で無効化が行われた回数（読み込み中に無効化された値を1段目に残さないため）
+    private final AtomicLong localGeneration = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * キャッシュから値を取得する。1段目・2段目ともに存在しない場合は loader で読み込み、両方に保存する。
+     * 同一ノード内で同じキーの読み込みが重なった場合、loader の実行は1回にまとめる。
+     *
+     * @param name   キャッシュ名
+     * @param type   値の型（Redis からの復元用）
+     * @param loader DB からの読み込み処理
+     * @return キャッシュされた値
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, TypeReference<T> type, Supplier<T> loader) {
+        long generation = localGeneration.get();
+        T value = (T) local.get(name, key -> loadShared(name, type, loader));
+        if (localGeneration.get() != generation) {
+            // 読み込み中に無効化された場合は、今回の値を返しつつ1段目には残さない
+            local.invalidate(name);
+        }
+        return value;
+    }
+
+    /**
+     * カタログの更新をコミット後に反映する。在庫数量はキャッシュ対象に含まれないため無視する。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.aggregate() == CatalogAggregate.INVENTORY) {
+            return;
+        }
+        invalidate();
+    }
+
+    /**
+     * 全ノードのキャッシュを無効化する。
+     */
+    public void invalidate() {
+        invalidateLocal();
+        try {
+            redisTemplate.opsForValue().increment(GENERATION_KEY);
+            redisTemplate.convertAndSend(CHANNEL, "invalidate");
+        } catch (Exception e) {
+            log.warn("カテゴリキャッシュの無効化通知に失敗しました: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 他ノードからの無効化通知を受け取る。
+     */
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        invalidateLocal();
+    }
+
+    private void invalidateLocal() {
+        localGeneration.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    private <T> T loadShared(String name, TypeReference<T> type, Supplier<T> loader) {
+        String redisKey = null;
+        try {
+            String generation = redisTemplate.opsForValue().get(GENERATION_KEY);
+            redisKey = KEY_PREFIX + (generation != null ? generation : "0") + ":" + name;
+            String json = redisTemplate.opsForValue().get(redisKey);
+            if (json != null) {
+                return objectMapper.readValue(json, type);
+            }
+        } catch (Exception e) {
+            log.warn("カテゴリキャッシュを Redis から取得できませんでした。name={}, {}", name, e.getMessage());
+            redisKey = null;
+        }
+
+        T value = loader.get();
+        if (redisKey != null) {
+            try {
+                redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(value),
+                        Duration.ofSeconds(redisTtlSeconds));
+            } catch (Exception e) {
+                log.warn("カテゴリキャッシュを Redis に保存できませんでした。name={}, {}", name, e.getMessage());
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ReservationApp.dto.response.product.CategoryInventorySalesOverviewDTO;
+import com.example.ReservationApp.dto.response.product.CategoryMetricsFlatDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.repository.product.CategoryMetricsRepository;
+import com.example.ReservationApp.repository.product.CategoryRepository;
+import com.example.ReservationApp.repository.product.ProductRepository;
+import com.example.ReservationApp.service.impl.CatalogDerivedTableService;
+import com.example.ReservationApp.service.product.CategoryMetricsService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * カテゴリ単位の集計値（category_metrics）を管理するサービス実装クラス。
+ *
+ * ・仕入れ商品・仕入先・在庫（入庫・出庫・在庫調整）の更新イベントを受け、影響する商品のカテゴリのみ再計算する
+ *   （販売金額は出庫完了した明細で計上するため、出庫時の在庫イベントで更新される）
+ * ・商品の作成・更新・削除は、イベントに含まれる移動元・移動先のカテゴリのみ再計算する
+ *   （カテゴリIDを持たないイベントは対象を特定できないため、全カテゴリを再計算する）
+ * ・構成比は参照時に全行の合計から求めるため、集計表は全カテゴリ分を揃えておく
+ *   （起動時の初回集計・夜間の全件再計算は CatalogDerivedTableService による）
+ * ・集計行が未作成のカテゴリ（新規作成直後など）は参照時に作成する
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryMetricsServiceImpl extends CatalogDerivedTableService implements CategoryMetricsService {
+
+    private final CategoryMetricsRepository categoryMetricsRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+
+    @Value("${category-metrics.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 定期実行（デフォルト：毎日 3:30）
+     */
+    @Scheduled(cron = "${category-metrics.cron:0 30 3 * * *}")
+    @Transactional
+    public void scheduledRecompute() {
+        runScheduledRecompute(enabled);
+    }
+
+    /**
+     * 指定カテゴリの集計値を取得する。集計行が未作成の場合は作成してから返す。
+     *
+     * @param categoryId カテゴリID
+     * @return 売上・在庫概要DTO。カテゴリが存在しない場合は null
+     */
+    @Override
+    @Transactional
+    public CategoryInventorySalesOverviewDTO getOverview(Long categoryId) {
+        CategoryMetricsFlatDTO row = categoryMetricsRepository.findOverviewByCategoryId(categoryId)
+                .orElseGet(() -> {
+                    recomputeRows(List.of(categoryId));
+                    return categoryMetricsRepository.findOverviewByCategoryId(categoryId).orElse(null);
+                });
+        if (row == null) {
+            return null;
+        }
+        return CategoryInventorySalesOverviewDTO.builder()
+                .categoryId(row.getCategoryId())
+                .categoryName(row.getCategoryName())
+                .productCount(row.getProductCount())
+                .percentage(row.getPercentage() != null ? row.getPercentage().doubleValue() : 0.0)
+                .supplierCount(row.getSupplierCount())
+                .supplierNames(row.getSupplierNames())
+                .totalQuantity(row.getTotalQuantity())
+                .totalPrice(row.getTotalPrice() != null ? row.getTotalPrice().doubleValue() : 0.0)
+                .build();
+    }
+
+    @Override
+    protected String tableLabel() {
+        return "カテゴリ集計";
+    }
+
+    @Override
+    protected long countRows() {
+        return categoryMetricsRepository.count();
+    }
+
+    /**
+     * 商品の更新はカテゴリの移動元・移動先、仕入れ商品・在庫の更新は商品の所属カテゴリを再計算する。
+     * 商品の更新でカテゴリIDがない場合は、構成比が全カテゴリに影響するため全件を再計算する。
+     */
+    @Override
+    protected void applyChange(CatalogChangedEvent event) {
+        if (event.categoryIds() != null) {
+            recomputeRows(event.categoryIds());
+        } else if (event.isFullRefresh() || event.aggregate() == CatalogAggregate.PRODUCT) {
+            recomputeAllRows();
+        } else if (!event.productIds().isEmpty()) {
+            recomputeRows(productRepository.findCategoryIdsByProductIds(event.productIds()));
+        }
+    }
+
+    @Override
+    protected void recomputeRows(Collection<Long> categoryIds) {
+        if (categoryIds == null || categoryIds.isEmpty()) {
+            return;
+        }
+        categoryMetricsRepository.recompute(categoryIds);
+    }
+
+    @Override
+    protected void recomputeAllRows() {
+        long start = System.currentTimeMillis();
+        List<Long> categoryIds = categoryRepository.findAllIds();
+        recomputeRows(categoryIds);
+        int removed = categoryMetricsRepository.deleteOrphans();
+        log.info("カテゴリ集計を再計算しました。カテゴリ数={}, 削除={}, {}ms",
+                categoryIds.size(), removed, System.currentTimeMillis() - start);
+    }
+}
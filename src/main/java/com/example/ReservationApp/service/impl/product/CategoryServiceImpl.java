@@ -2,11 +2,14 @@ package com.example.ReservationApp.service.impl.product;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
@@ -22,15 +25,20 @@ import com.example.ReservationApp.dto.response.product.ProductStockDTO;
 import com.example.ReservationApp.dto.response.product.CategorySummaryFlatDTO;
 import com.example.ReservationApp.dto.response.product.StockDTO;
 import com.example.ReservationApp.dto.response.product.SupplierPriceDTO;
+import com.example.ReservationApp.dto.response.storage.ImageVariantDTO;
 import com.example.ReservationApp.entity.product.Category;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.enums.CategoryStatus;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.CategoryMapper;
 import com.example.ReservationApp.repository.product.CategoryRepository;
 import com.example.ReservationApp.exception.AlreadyExistException;
 import com.example.ReservationApp.exception.CannotDeleteException;
 import com.example.ReservationApp.service.StorageService;
+import com.example.ReservationApp.service.product.CategoryMetricsService;
 import com.example.ReservationApp.service.product.CategoryService;
+import com.fasterxml.jackson.core.type.TypeReference;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -45,9 +53,18 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
 
+        // カテゴリキャッシュ（Redis）からの復元用
+        private static final TypeReference<List<CategoryDTO>> CATEGORY_LIST = new TypeReference<>() {
+        };
+        private static final TypeReference<List<CategorySummariesDTO>> CATEGORY_SUMMARY_LIST = new TypeReference<>() {
+        };
+
         private final CategoryRepository categoryRepository;
         private final CategoryMapper categoryMapper;
         private final StorageService storageService;
+        private final ApplicationEventPublisher eventPublisher;
+        private final CategoryMetricsService categoryMetricsService;
+        private final CategoryCache categoryCache;
 
         /**
          * 新しいカテゴリを作成。
@@ -83,24 +100,28 @@ public class CategoryServiceImpl implements CategoryService {
                 Category newCategory = categoryMapper.toEntity(categoryDTO);
                 newCategory.setStatus(categoryDTO.getStatus());
                 categoryRepository.save(newCategory);
+                eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogAggregate.CATEGORY));
                 categoryDTO.setId(newCategory.getId());
                 return ResponseDTO.<CategoryDTO>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("新しいカテゴリの追加に成功しました")
-                                .data(categoryDTO)
+                                .data(withImageVariants(categoryDTO))
                                 .build();
         }
 
         /**
          * すべてのカテゴリを取得。
+         * 結果はカテゴリキャッシュ（ノード内＋Redis）から返し、未キャッシュの場合のみDBを参照する。
          * 
          * @return カテゴリ一覧を含むResponseDTO
          */
         @Override
         public ResponseDTO<List<CategoryDTO>> getAllCategories() {
-                List<Category> categories = categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
-                List<CategoryDTO> categoryDTOs = categories.stream()
-                                .map(category -> categoryMapper.toDTO(category)).collect(Collectors.toList());
+                List<CategoryDTO> categoryDTOs = categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST,
+                                () -> withImageVariants(categoryRepository.findAll(Sort.by(Sort.Direction.ASC, "id"))
+                                                .stream()
+                                                .map(category -> categoryMapper.toDTO(category))
+                                                .collect(Collectors.toList())));
                 return ResponseDTO.<List<CategoryDTO>>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("全てのカテゴリの取得に成功しました")
@@ -123,7 +144,7 @@ public class CategoryServiceImpl implements CategoryService {
                 return ResponseDTO.<CategoryDTO>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("成功しました")
-                                .data(categoryMapper.toDTO(category))
+                                .data(withImageVariants(categoryMapper.toDTO(category)))
                                 .build();
 
         }
@@ -135,7 +156,7 @@ public class CategoryServiceImpl implements CategoryService {
                 return ResponseDTO.<CategoryDTO>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("成功しました")
-                                .data(categoryMapper.toDTO(category))
+                                .data(withImageVariants(categoryMapper.toDTO(category)))
                                 .build();
 
         }
@@ -171,7 +192,9 @@ public class CategoryServiceImpl implements CategoryService {
                 } catch (IOException e) {
                         throw new RuntimeException("画像の保存中にエラーが発生しました", e);
                 }
+                boolean nameChanged = false;
                 if (categoryDTO.getName() != null && !categoryDTO.getName().isBlank()) {
+                        nameChanged = !categoryDTO.getName().equals(existingCategory.getName());
                         existingCategory.setName(categoryDTO.getName());
                 }
                 if (categoryDTO.getDescription() != null && !categoryDTO.getDescription().isBlank()) {
@@ -183,11 +206,15 @@ public class CategoryServiceImpl implements CategoryService {
                 existingCategory.setImageUrl(imgPath);
 
                 categoryRepository.save(existingCategory);
+                // カテゴリ名は商品検索の対象のため、変更時は商品単位のデータも再構築する
+                eventPublisher.publishEvent(nameChanged
+                                ? CatalogChangedEvent.all(CatalogAggregate.CATEGORY)
+                                : CatalogChangedEvent.of(CatalogAggregate.CATEGORY));
 
                 return ResponseDTO.<CategoryDTO>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("編集に成功しました")
-                                .data(categoryMapper.toDTO(existingCategory))
+                                .data(withImageVariants(categoryMapper.toDTO(existingCategory)))
                                 .build();
         }
 
@@ -218,6 +245,7 @@ public class CategoryServiceImpl implements CategoryService {
                         throw new CannotDeleteException(
                                         "このカテゴリに紐づく商品が存在するため、削除できません");
                 }
+                eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogAggregate.CATEGORY));
 
                 return ResponseDTO.<Void>builder()
                                 .status(HttpStatus.OK.value())
@@ -232,8 +260,9 @@ public class CategoryServiceImpl implements CategoryService {
          */
         @Override
         public ResponseDTO<List<CategoryDTO>> getActiveCategories() {
-                List<Category> categories = categoryRepository.findByStatus(CategoryStatus.ACTIVE);
-                List<CategoryDTO> categoryDTOs = categoryMapper.toDTOList(categories);
+                List<CategoryDTO> categoryDTOs = categoryCache.get(CategoryCache.ACTIVE_CATEGORIES, CATEGORY_LIST,
+                                () -> withImageVariants(categoryMapper
+                                                .toDTOList(categoryRepository.findByStatus(CategoryStatus.ACTIVE))));
 
                 return ResponseDTO.<List<CategoryDTO>>builder()
                                 .status(HttpStatus.OK.value())
@@ -249,7 +278,8 @@ public class CategoryServiceImpl implements CategoryService {
          */
         @Override
         public ResponseDTO<List<CategorySummariesDTO>> getAllCategorySummaries() {
-                List<CategorySummariesDTO> summaryDTOs = categoryRepository.getAllCategorySummary();
+                List<CategorySummariesDTO> summaryDTOs = categoryCache.get(CategoryCache.CATEGORY_SUMMARIES,
+                                CATEGORY_SUMMARY_LIST, categoryRepository::getAllCategorySummary);
 
                 return ResponseDTO.<List<CategorySummariesDTO>>builder()
                                 .status(HttpStatus.OK.value())
@@ -260,15 +290,20 @@ public class CategoryServiceImpl implements CategoryService {
 
         /**
          * 指定カテゴリの売上・在庫の統計情報（概要）を取得します。
+         * 集計済みの category_metrics を1行読むだけで返却します。
          *
          * @param categoryId カテゴリID
          * @return 売上・在庫概要DTO
+         * @throws NotFoundException 指定IDのカテゴリが存在しない場合
          */
         @Override
         public ResponseDTO<CategoryInventorySalesOverviewDTO> getCategorySalesAndInventoryOverviewById(
                         Long categoryId) {
-                CategoryInventorySalesOverviewDTO categoryInventorySalesOverviewDTO = categoryRepository
-                                .findCategorySalesAndInventoryOverviewById(categoryId);
+                if (!categoryRepository.existsById(categoryId)) {
+                        throw new NotFoundException("このカテゴリは存在していません");
+                }
+                CategoryInventorySalesOverviewDTO categoryInventorySalesOverviewDTO = categoryMetricsService
+                                .getOverview(categoryId);
 
                 return ResponseDTO.<CategoryInventorySalesOverviewDTO>builder()
                                 .status(HttpStatus.OK.value())
@@ -303,50 +338,69 @@ public class CategoryServiceImpl implements CategoryService {
                                 .build();
         }
 
+        /**
+         * カテゴリ画像のバリアント（原本・サムネイル）を設定します。
+         * 画面側はカードの表示サイズに合ったURLを選択できます。
+         *
+         * @param categoryDTOs カテゴリDTOのリスト
+         * @return バリアントを設定したカテゴリDTOのリスト
+         */
+        private List<CategoryDTO> withImageVariants(List<CategoryDTO> categoryDTOs) {
+                Map<String, List<ImageVariantDTO>> variants = storageService.findVariants(categoryDTOs.stream()
+                                .map(CategoryDTO::getImageUrl)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()));
+                categoryDTOs.forEach(dto -> dto.setImageVariants(variants.get(dto.getImageUrl())));
+                return categoryDTOs;
+        }
+
+        private CategoryDTO withImageVariants(CategoryDTO categoryDTO) {
+                withImageVariants(List.of(categoryDTO));
+                return categoryDTO;
+        }
+
         /**
          * フラットなカテゴリ集計結果を
          * Product → Supplier → Stock の階層構造に変換します。
          *
-         * 1商品につき1つのProductStockDTOを生成し、
-         * 仕入先は重複排除、在庫はそのまま追加します。
+         * SQL 側で同一商品の行が連続するよう並べているため、商品IDが変わった時点で
+         * 新しいProductStockDTOを生成する（1パス）。
+         * 仕入先は商品ごとの HashSet で重複排除し、在庫は倉庫別に集計済みの行をそのまま追加します。
          *
          * @param rows カテゴリ集計のフラットDTOリスト
          * @return 商品単位にグルーピングされたProductStockDTOリスト
          */
         public List<ProductStockDTO> buildProducts(List<CategorySummaryFlatDTO> rows) {
 
-                // 商品名をキーにして重複生成を防ぐ（順序保持のためLinkedHashMap使用）
-                Map<String, ProductStockDTO> productMap = new LinkedHashMap<>();
+                List<ProductStockDTO> products = new ArrayList<>();
+                ProductStockDTO product = null;
+                Long currentProductId = null;
+                Set<Long> supplierIds = new HashSet<>();
 
                 for (CategorySummaryFlatDTO r : rows) {
 
-                        // 既存の商品があれば取得、なければ新規生成
-                        // computeIfAbsentでコード簡潔化＋パフォーマンス向上
-                        ProductStockDTO product = productMap.computeIfAbsent(r.getProductName(), k -> {
-                                ProductStockDTO p = ProductStockDTO.builder()
+                        // 商品が切り替わったら新規生成
+                        if (product == null || !r.getProductId().equals(currentProductId)) {
+                                product = ProductStockDTO.builder()
                                                 .productName(r.getProductName())
                                                 .suppliers(new ArrayList<>())
                                                 .stocks(new ArrayList<>())
                                                 .build();
-                                return p;
-                        });
-
-                        // Supplier情報（重複排除）
-                        if (r.getSupplierId() != null) {
-                                // 同一仕入先が既に追加済みかチェック
-                                boolean exists = product.getSuppliers().stream()
-                                                .anyMatch(s -> s.getSupplierName().equals(r.getSupplierName()));
-                                // 未登録の場合のみ追加（重複防止）
-                                if (!exists) {
-                                        product.getSuppliers().add(
-                                                        SupplierPriceDTO.builder()
-                                                                        .supplierName(r.getSupplierName())
-                                                                        .price(r.getPrice())
-                                                                        .build());
-                                }
+                                products.add(product);
+                                currentProductId = r.getProductId();
+                                supplierIds.clear();
+                        }
+
+                        // Supplier情報（重複排除 O(1)）
+                        if (r.getSupplierId() != null && supplierIds.add(r.getSupplierId())) {
+                                product.getSuppliers().add(
+                                                SupplierPriceDTO.builder()
+                                                                .supplierName(r.getSupplierName())
+                                                                .price(r.getPrice())
+                                                                .build());
                         }
 
-                        // 在庫情報（そのまま追加）
+                        // 在庫情報（倉庫別に集計済み）
                         if (r.getQuantity() != null) {
                                 product.getStocks().add(
                                                 StockDTO.builder()
@@ -355,8 +409,7 @@ public class CategoryServiceImpl implements CategoryService {
                                                                 .build());
                         }
                 }
-                // Map → List に変換して返却
-                return new ArrayList<>(productMap.values());
+                return products;
         }
 
 }
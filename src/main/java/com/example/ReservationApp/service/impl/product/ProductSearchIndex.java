@@ -0,0 +1,344 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.ReservationApp.dto.response.product.ProductSearchDocFlatDTO;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.repository.product.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 商品検索用のインメモリ転置インデックス（3-gram）。
+ *
+ * 商品名・商品コード・SKU・カテゴリ名・仕入先名を正規化（NFKC・小文字化）して 3-gram に分解し、
+ * gram → 商品ID の転置リストを保持する。
+ * 検索時はクエリの gram の一致率で候補を絞り込み、項目ごとの加点で順位付けするため、
+ * 1〜2文字程度の入力ミスがあっても該当商品を返すことができる。
+ *
+ * ・起動時に全件を構築し、以降は CatalogChangeRelay 経由で全ノードが差分更新する
+ * ・構築完了までは isReady() が false となり、呼び出し側は DB 検索にフォールバックする
+ * ・3文字未満のクエリは gram で引けないため、全ドキュメントの項目を部分一致で走査する
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final String PADDING = "  ";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 項目ごとの加点（部分一致した場合）
+    private static final double NAME_BOOST = 1.0;
+    private static final double NAME_PREFIX_BOOST = 0.5;
+    private static final double CODE_BOOST = 0.8;
+    private static final double RELATED_BOOST = 0.3;
+
+    private final ProductRepository productRepository;
+    private final CatalogChangeRelay catalogChangeRelay;
+
+    @Value("${search.min-similarity:0.5}")
+    private double minSimilarity;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+
+    // 全件再構築中に更新された商品ID（再構築後に差分を再適用する）
+    private final Set<Long> pendingDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 検索対象の1商品分のドキュメント。各項目は正規化済み。
+     */
+    record Document(Long productId, String name, String code, String category, String skus,
+            String suppliers, Set<String> grams) {
+    }
+
+    /**
+     * 転置リストとドキュメントの組。全件再構築時は新しいインスタンスに差し替える。
+     */
+    static final class Snapshot {
+        final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+        final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 検索結果（順位順の商品IDと、ページング前の該当件数）。
+     */
+    public record SearchResult(List<Long> productIds, long total) {
+    }
+
+    private record ScoredDocument(Document document, double score) {
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    @PostConstruct
+    void init() {
+        catalogChangeRelay.register(this::onCatalogChanged);
+    }
+
+    /**
+     * 起動完了後にバックグラウンドでインデックスを構築する。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("product-search-index").start(this::rebuild);
+    }
+
+    /**
+     * 商品カタログの更新を反映する（CatalogChangeRelay の仮想スレッドから呼ばれる）。
+     * 対象の商品IDが特定できない場合は全件を再構築する。
+     */
+    void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isFullRefresh()) {
+            rebuild();
+        } else {
+            refresh(event.productIds());
+        }
+    }
+
+    /**
+     * 全商品を読み込み、インデックスを再構築する。
+     */
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.currentTimeMillis();
+            Snapshot next = new Snapshot();
+            for (ProductSearchDocFlatDTO row : productRepository.findAllSearchDocuments()) {
+                put(next, toDocument(row));
+            }
+            snapshot = next;
+            ready = true;
+            log.info("商品検索インデックスを構築しました。件数={}, gram数={}, {}ms",
+                    next.documents.size(), next.postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuilding = false;
+        }
+        if (!pendingDuringRebuild.isEmpty()) {
+            Set<Long> pending = new HashSet<>(pendingDuringRebuild);
+            pendingDuringRebuild.removeAll(pending);
+            refresh(pending);
+        }
+    }
+
+    /**
+     * 指定商品のドキュメントを DB から読み直して差し替える。削除された商品はインデックスから除外する。
+     */
+    public void refresh(Set<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        if (rebuilding) {
+            pendingDuringRebuild.addAll(productIds);
+        }
+        Snapshot current = snapshot;
+        Set<Long> missing = new HashSet<>(productIds);
+        for (ProductSearchDocFlatDTO row : productRepository.findSearchDocumentsByIds(productIds)) {
+            missing.remove(row.getProductId());
+            remove(current, row.getProductId());
+            put(current, toDocument(row));
+        }
+        missing.forEach(productId -> remove(current, productId));
+    }
+
+    /**
+     * キーワードに一致する商品IDを順位順に返す。
+     *
+     * @param keyword 検索キーワード
+     * @param page    ページ番号（0始まり）
+     * @param size    1ページの件数
+     * @return 検索結果。インデックスが未構築の場合は空
+     */
+    public Optional<SearchResult> search(String keyword, int page, int size) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return Optional.of(new SearchResult(List.of(), 0));
+        }
+        Snapshot current = snapshot;
+        // gram より短いクエリは転置リストで引けないため、各項目の部分一致で検索する
+        List<ScoredDocument> scored = query.length() < GRAM_SIZE
+                ? scoreBySubstring(current, query)
+                : scoreByGrams(current, query);
+        scored.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+                .thenComparing(s -> s.document().name())
+                .thenComparing(s -> s.document().productId()));
+
+        // page が大きい場合に int で桁あふれしないよう long で計算する
+        int from = (int) Math.min((long) Math.max(page, 0) * size, scored.size());
+        int to = (int) Math.min((long) from + size, scored.size());
+        List<Long> productIds = scored.subList(from, to).stream()
+                .map(s -> s.document().productId())
+                .toList();
+        return Optional.of(new SearchResult(productIds, scored.size()));
+    }
+
+    /**
+     * gram の一致率で候補を絞り込み、スコアを付ける（1〜2文字の入力ミスを許容する）。
+     */
+    private List<ScoredDocument> scoreByGrams(Snapshot current, String query) {
+        Set<String> queryGrams = queryGrams(query);
+
+        // gram ごとの一致数を商品単位で集計
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Long> postings = current.postings.get(gram);
+            if (postings != null) {
+                for (Long productId : postings) {
+                    hits.merge(productId, 1, Integer::sum);
+                }
+            }
+        }
+
+        // gram 数の少ないクエリは全 gram の一致を必須とし、それ以外は一致率で入力ミスを許容する
+        int required = queryGrams.size() <= 2
+                ? queryGrams.size()
+                : (int) Math.ceil(queryGrams.size() * minSimilarity);
+
+        List<ScoredDocument> scored = new ArrayList<>();
+        for (Map.Entry<Long, Integer> hit : hits.entrySet()) {
+            if (hit.getValue() < required) {
+                continue;
+            }
+            Document document = current.documents.get(hit.getKey());
+            if (document == null) {
+                continue;
+            }
+            double score = (double) hit.getValue() / queryGrams.size() + boost(document, query);
+            scored.add(new ScoredDocument(document, score));
+        }
+        return scored;
+    }
+
+    /**
+     * いずれかの項目にクエリを含むドキュメントを全件走査で抽出する（例：「牛乳」で「低脂肪牛乳」に一致）。
+     * 順位は項目ごとの加点のみで決まり、名前の先頭一致が最上位になる。
+     */
+    private List<ScoredDocument> scoreBySubstring(Snapshot current, String query) {
+        List<ScoredDocument> scored = new ArrayList<>();
+        for (Document document : current.documents.values()) {
+            double boost = boost(document, query);
+            if (boost > 0) {
+                scored.add(new ScoredDocument(document, boost));
+            }
+        }
+        return scored;
+    }
+
+    private double boost(Document document, String query) {
+        double boost = 0;
+        if (document.name().contains(query)) {
+            boost += NAME_BOOST;
+            if (document.name().startsWith(query)) {
+                boost += NAME_PREFIX_BOOST;
+            }
+        }
+        if (document.code().contains(query) || document.skus().contains(query)) {
+            boost += CODE_BOOST;
+        }
+        if (document.category().contains(query) || document.suppliers().contains(query)) {
+            boost += RELATED_BOOST;
+        }
+        return boost;
+    }
+
+    private Document toDocument(ProductSearchDocFlatDTO row) {
+        String name = normalize(row.getProductName());
+        String code = normalize(row.getProductCode());
+        String category = normalize(row.getCategoryName());
+        String skus = normalize(row.getSkus());
+        String suppliers = normalize(row.getSupplierNames());
+
+        Set<String> grams = new HashSet<>();
+        for (String field : List.of(name, code, category, skus, suppliers)) {
+            addDocumentGrams(grams, field);
+        }
+        return new Document(row.getProductId(), name, code, category, skus, suppliers, grams);
+    }
+
+    private void put(Snapshot target, Document document) {
+        target.documents.put(document.productId(), document);
+        // 追加は compute 内で行い、同じ gram の remove が空の集合を外した直後に古い集合へ追加しないようにする
+        for (String gram : document.grams()) {
+            target.postings.compute(gram, (k, ids) -> {
+                Set<Long> next = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                next.add(document.productId());
+                return next;
+            });
+        }
+    }
+
+    private void remove(Snapshot target, Long productId) {
+        Document old = target.documents.remove(productId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams()) {
+            target.postings.computeIfPresent(gram, (k, ids) -> {
+                ids.remove(productId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * 項目の先頭・末尾を空白で埋めて 3-gram に分解する（先頭一致を高く評価するため）。
+     */
+    private static void addDocumentGrams(Set<String> grams, String field) {
+        if (field.isEmpty()) {
+            return;
+        }
+        String padded = PADDING + field + " ";
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_SIZE));
+        }
+    }
+
+    /**
+     * クエリの gram を生成する。部分一致できるよう前後を埋めずに分解する（GRAM_SIZE 文字以上のクエリのみ）。
+     */
+    static Set<String> queryGrams(String query) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= query.length(); i++) {
+            grams.add(query.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -1,19 +1,20 @@
 package com.example.ReservationApp.service.impl.product;
 
-import java.math.BigDecimal;
-import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -21,9 +22,11 @@ import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.inventory.StockHistoryDTO;
 import com.example.ReservationApp.dto.response.product.ProductDTO;
+import com.example.ReservationApp.dto.response.product.ProductDetailFlatDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDetailDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductSuggestionDTO;
 import com.example.ReservationApp.dto.response.product.ProductWithSkuByCategoryDTO;
 import com.example.ReservationApp.dto.response.product.SumReceivedGroupByProductDTO;
 import com.example.ReservationApp.dto.response.product.SupplierPriceDTO;
@@ -31,22 +34,25 @@ import com.example.ReservationApp.entity.inventory.InventoryStock;
 import com.example.ReservationApp.entity.product.Category;
 import com.example.ReservationApp.entity.product.Product;
 import com.example.ReservationApp.entity.supplier.SupplierProduct;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.enums.ProductStatus;
-import com.example.ReservationApp.enums.StockChangeType;
 import com.example.ReservationApp.enums.SupplierProductStatus;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.AlreadyExistException;
 import com.example.ReservationApp.exception.CannotDeleteException;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.InventoryStockMapper;
 import com.example.ReservationApp.mapper.ProductMapper;
 import com.example.ReservationApp.mapper.SupplierProductMapper;
-import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
 import com.example.ReservationApp.repository.inventory.StockHistoryRepository;
 import com.example.ReservationApp.repository.product.CategoryRepository;
 import com.example.ReservationApp.repository.product.ProductRepository;
 import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
 import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
 import com.example.ReservationApp.service.product.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -68,10 +74,21 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepository;
     private final SupplierProductRepository supplierProductRepository;
     private final StockHistoryRepository stockHistoryRepository;
-    private final InventoryStockRepository inventoryStockRepository;
     private final PurchaseOrderRepository poRepository;
     private final SupplierProductMapper supplierProductMapper;
     private final InventoryStockMapper inventoryStockMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+
+    @Value("${product.detail.history-days:90}")
+    private long detailHistoryDays;
+
+    @Value("${product.detail.history-limit:200}")
+    private int detailHistoryLimit;
 
     /**
      * 新しい商品を作成する。
@@ -96,6 +113,8 @@ public class ProductServiceImpl implements ProductService {
             throw new AlreadyExistException("商品名は既に登録されています");
         }
         Product savedProduct = productRepository.save(createdProduct);
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(CatalogAggregate.PRODUCT, savedProduct.getId(),
+                categoryIdOf(savedProduct)));
 
         return ResponseDTO.<ProductDTO>builder()
                 .status(HttpStatus.OK.value())
@@ -161,6 +180,8 @@ public class ProductServiceImpl implements ProductService {
 
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(("この商品は存在していません")));
+        // カテゴリ集計の更新対象（移動元）
+        Long oldCategoryId = categoryIdOf(existingProduct);
 
         if (productDTO.getCategoryName() != null && !productDTO.getCategoryName().isBlank()) {
             existingProduct.setCategory(
@@ -200,6 +221,8 @@ public class ProductServiceImpl implements ProductService {
             existingProduct.setUnit(productDTO.getUnit());
         }
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(CatalogAggregate.PRODUCT, id,
+                oldCategoryId, categoryIdOf(updatedProduct)));
         return ResponseDTO.<ProductDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("更新に成功しました")
@@ -220,6 +243,8 @@ public class ProductServiceImpl implements ProductService {
         if (!productRepository.existsById(id)) {
             throw new NotFoundException("この商品は存在していません");
         }
+        // カテゴリ集計の更新対象（削除前に取得）
+        Long[] categoryIds = productRepository.findCategoryIdsByProductIds(Set.of(id)).toArray(Long[]::new);
         try {
             productRepository.deleteById(id);
 
@@ -234,6 +259,7 @@ public class ProductServiceImpl implements ProductService {
             throw new CannotDeleteException(
                     "仕入先情報が存在するため、商品を削除できません");
         }
+        eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(CatalogAggregate.PRODUCT, id, categoryIds));
         return ResponseDTO.<Void>builder()
                 .status(HttpStatus.OK.value())
                 .message("削除に成功しました")
@@ -264,30 +290,76 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      * キーワードで商品を検索する。
+     * インメモリの検索インデックス（ProductSearchIndex）で順位付けした結果をページ単位で返す。
+     * インデックスが未構築の場合は DB の部分一致検索にフォールバックする。
      *
      * @param keyword 検索するキーワード
-     * @return 検索結果の商品DTOのリストを含むレスポンス
+     * @param page    ページ番号（0始まり）
+     * @param size    1ページの件数
+     * @return 検索結果の商品DTOのリスト（total に該当件数）を含むレスポンス
      * @throws ResponseStatusException キーワードが空の場合（BAD_REQUEST）
      */
     @Override
-    public ResponseDTO<List<ProductDTO>> searchProducts(String keyword) {
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<ProductDTO>> searchProducts(String keyword, int page, int size) {
         if (keyword == null || keyword.isBlank()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST, "検索キーワードを入力してください");
         }
-        List<Product> products = productRepository.searchProducts(keyword);
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+
+        List<Product> products;
+        long total;
+        Optional<ProductSearchIndex.SearchResult> indexed = productSearchIndex.search(keyword, safePage, safeSize);
+        if (indexed.isPresent()) {
+            // インデックスの順位を保ったまま商品を取得
+            List<Long> ids = indexed.get().productIds();
+            Map<Long, Product> productById = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, p -> p));
+            products = ids.stream()
+                    .map(productById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            total = indexed.get().total();
+        } else {
+            List<Product> matched = productRepository.searchProducts(keyword);
+            int from = (int) Math.min((long) safePage * safeSize, matched.size());
+            products = matched.subList(from, (int) Math.min((long) from + safeSize, matched.size()));
+            total = matched.size();
+        }
         List<ProductDTO> productDTOs = productMapper.toDTOList(products);
         if (productDTOs.isEmpty()) {
             return ResponseDTO.<List<ProductDTO>>builder()
                     .status(HttpStatus.OK.value())
                     .message("該当する商品がありません")
                     .data(productDTOs)
+                    .total(total)
                     .build();
         }
         return ResponseDTO.<List<ProductDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("取得に成功しました")
                 .data(productDTOs)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * 入力中のキーワードに前方一致する商品候補（商品名・商品コード・SKU）を取得する。
+     * DB にはアクセスせず、インメモリのサジェスト用トライから返す。
+     *
+     * @param prefix 入力中のキーワード
+     * @param limit  取得件数の上限
+     * @return 候補（商品ID・表示名・種別）のリストを含むレスポンス
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseDTO<List<ProductSuggestionDTO>> suggestProducts(String prefix, int limit) {
+        return ResponseDTO.<List<ProductSuggestionDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("取得に成功しました")
+                .data(productSuggestIndex.suggest(prefix, limit))
                 .build();
     }
 
@@ -302,8 +374,11 @@ public class ProductServiceImpl implements ProductService {
         // DBから取得した「フラット構造」の商品＋仕入先＋在庫データ
         List<ProductInfoFlatDTO> productInfoFlatDTO = productRepository.getProductWithSupplierAndStockById(productId);
 
-        Map<String, ProductInfoDTO> productMap = builtProductMap(productInfoFlatDTO);
-        ProductInfoDTO result = productMap.values().iterator().next();
+        List<ProductInfoDTO> products = builtProductList(productInfoFlatDTO);
+        if (products.isEmpty()) {
+            throw new NotFoundException("この商品は見つかりません");
+        }
+        ProductInfoDTO result = products.get(0);
         return ResponseDTO.<ProductInfoDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("取得に成功しました")
@@ -323,42 +398,37 @@ public class ProductServiceImpl implements ProductService {
         // DBから取得した「フラット構造」の商品＋仕入先＋在庫データ
         List<ProductInfoFlatDTO> productInfoFlatDTO = productRepository.getAllProductWithSupplierAndStock();
 
-        Map<String, ProductInfoDTO> productMap = builtProductMap(productInfoFlatDTO);
-
-        // Mapに格納された商品DTOをListに変換してレスポンスとして返却
         return ResponseDTO.<List<ProductInfoDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("取得に成功しました")
-                .data(new ArrayList<>(productMap.values()))
+                .data(builtProductList(productInfoFlatDTO))
                 .build();
     }
 
     /**
      * フラット形式（JOIN結果）の商品データ一覧を
      * 「商品単位」の階層構造DTOに変換するメソッド。
-     * 
-     * @param rows フラット構造の検索結果
-     * @return 商品名をキーとした商品DTO Map
+     *
+     * SQL 側で同一商品の行が連続するよう並べているため、直前の商品IDと比較するだけで
+     * 1パスで集約できる（商品名や仕入先IDをキーにした Map は不要）。
+     * 同一商品内では仕入先ID順に並ぶため、仕入先の重複も直前の仕入先IDとの比較で除外する。
+     *
+     * @param rows フラット構造の検索結果（商品ID・仕入先ID で連続していること）
+     * @return 取得順の商品DTOリスト
      */
-    private Map<String, ProductInfoDTO> builtProductMap(List<ProductInfoFlatDTO> rows) {
+    static List<ProductInfoDTO> builtProductList(List<ProductInfoFlatDTO> rows) {
+        List<ProductInfoDTO> products = new ArrayList<>();
+        ProductInfoDTO current = null;
+        long currentId = 0;
+        long lastSupplierId = 0;
 
-        // 商品名をキーにして、同一商品の重複生成を防ぐためのMap
-        // LinkedHashMapを使うことで、取得順（SQLのORDER BY）を保持する
-        Map<String, ProductInfoDTO> productMap = new LinkedHashMap<>();
-
-        // 商品ごとの仕入先ID管理用
-        Map<String, Set<Long>> supplierMap = new HashMap<>();
-
-        // SQL結果を1行ずつ処理
         for (ProductInfoFlatDTO row : rows) {
+            long productId = row.getId();
 
-            // すでに存在する商品であれば取得、
-            // 存在しない場合は新しくProductInfoDTOを生成してMapに登録する
-            ProductInfoDTO productInfoDTO = productMap.computeIfAbsent(row.getProductName(), k -> {
-
-                // 初回のみ商品DTOを生成
-                return ProductInfoDTO.builder()
-                        .id(row.getId())
+            // 商品IDが変わったら新しい商品DTOを生成
+            if (current == null || productId != currentId) {
+                current = ProductInfoDTO.builder()
+                        .id(productId)
                         .productName(row.getProductName())
                         .code(row.getProductCode())
                         .categoryName(row.getCategoryName())
@@ -366,28 +436,23 @@ public class ProductServiceImpl implements ProductService {
                         .status(row.getProductStatus())
                         .supplier(new ArrayList<>())
                         .build();
-            });
-
-            /// 仕入先が存在する場合のみ処理
-            if (row.getSupplierId() != null) {
-
-                // 商品ごとの仕入先ID Set を取得 or 作成
-                Set<Long> supplierIds = supplierMap.computeIfAbsent(
-                        row.getProductName(),
-                        k -> new HashSet<>());
-
-                // 初登場の仕入先だけ追加（O(1)）
-                if (supplierIds.add(row.getSupplierId())) {
-                    productInfoDTO.getSupplier().add(
-                            SupplierPriceDTO.builder()
-                                    .supplierName(row.getSupplierName())
-                                    .price(row.getPrice())
-                                    .build());
-                }
+                products.add(current);
+                currentId = productId;
+                lastSupplierId = 0;
             }
-        }
 
-        return productMap;
+            // 仕入先が存在し、直前の行と異なる仕入先の場合のみ追加
+            Long supplierId = row.getSupplierId();
+            if (supplierId != null && supplierId != lastSupplierId) {
+                current.getSupplier().add(
+                        SupplierPriceDTO.builder()
+                                .supplierName(row.getSupplierName())
+                                .price(row.getPrice())
+                                .build());
+                lastSupplierId = supplierId;
+            }
+        }
+        return products;
     }
 
     /**
@@ -396,79 +461,47 @@ public class ProductServiceImpl implements ProductService {
      * 取得内容：
      * ・商品基本情報
      * ・仕入先＋価格一覧
-     * ・在庫履歴
+     * ・在庫履歴（直近 product.detail.history-days 日・最大 product.detail.history-limit 件）
      * ・倉庫別在庫数
      *
-     * 複数テーブルのJOIN結果を個別に取得し、
-     * 最終的に ProductInfoDetailDTO としてまとめて返却する。
+     * 明細は DB 側で JSON 配列に集約し、1回の問い合わせで取得した結果を
+     * ProductInfoDetailDTO としてまとめて返却する。
      *
      * @param productId 商品ID
      * @return 商品詳細DTO
      */
     @Override
+    @Transactional(readOnly = true)
     public ResponseDTO<ProductInfoDetailDTO> getProductInfoDetail(Long productId) {
 
-        // 商品基本情報取得
-        List<Object[]> products = productRepository.findProductWithCatName(productId);
-        if (products.isEmpty()) {
-            throw new NotFoundException("この商品は存在していません");
-        }
+        ProductDetailFlatDTO detail = productRepository
+                .findProductDetail(productId, LocalDateTime.now().minusDays(detailHistoryDays), detailHistoryLimit)
+                .orElseThrow(() -> new NotFoundException("この商品は存在していません"));
+
+        List<SupplierPriceDTO> supplierDTOs = readJsonList(detail.getSuppliersJson(),
+                new TypeReference<List<SupplierPriceDTO>>() {
+                });
+        List<StockHistoryDTO> stockHistoryDTOs = readJsonList(detail.getHistoriesJson(),
+                new TypeReference<List<StockHistoryDTO>>() {
+                });
+        List<InventoryStockDTO> stockDTOs = readJsonList(detail.getStocksJson(),
+                new TypeReference<List<InventoryStockDTO>>() {
+                });
 
-        // 1件のみ取得想定
-        Object[] product = products.get(0);
         ProductDTO productDTO = ProductDTO.builder()
-                .id(((Number) product[0]).longValue())
-                .name((String) product[1])
-                .productCode((String) product[2])
-                .description((String) product[3])
-                .unit((String) product[4])
-                .status(ProductStatus.valueOf((String) product[5]))
-                .categoryName((String) product[6])
-                .totalStock(0)
+                .id(detail.getId())
+                .name(detail.getName())
+                .productCode(detail.getProductCode())
+                .description(detail.getDescription())
+                .unit(detail.getUnit())
+                .status(ProductStatus.valueOf(detail.getStatus()))
+                .categoryName(detail.getCategoryName())
+                // 総在庫数計算
+                .totalStock(stockDTOs.stream()
+                        .mapToInt(InventoryStockDTO::getQuantity)
+                        .sum())
                 .build();
 
-        // 仕入先＋価格情報取得
-        List<Object[]> suppliers = supplierProductRepository.getSupplierAndPriceByProductId(productId);
-        List<SupplierPriceDTO> supplierDTOs = new ArrayList<>();
-        for (Object[] r : suppliers) {
-            SupplierPriceDTO dto = SupplierPriceDTO.builder()
-                    .supplierId(((Number) r[0]).longValue())
-                    .supplierName((String) r[1])
-                    .sku((String) r[2])
-                    .price((BigDecimal) r[3])
-                    .build();
-            supplierDTOs.add(dto);
-        }
-
-        // 在庫履歴取得
-        List<Object[]> historyList = stockHistoryRepository
-                .findHistoryWithQuantiyAndTypeByProductId(productId);
-        List<StockHistoryDTO> stockHistoryDTOs = new ArrayList<>();
-        for (Object[] r : historyList) {
-            StockHistoryDTO dto = StockHistoryDTO.builder()
-                    .createdAt(((Timestamp) r[0]).toLocalDateTime())
-                    .type((StockChangeType.valueOf((String) r[1])))
-                    .changeQty(((Number) r[2]).intValue())
-                    .build();
-            stockHistoryDTOs.add(dto);
-        }
-
-        // 倉庫別在庫取得
-        List<Object[]> stocks = inventoryStockRepository
-                .findStockWithWarehouseAndQtyByProductId(productId);
-        List<InventoryStockDTO> stockDTOs = new ArrayList<>();
-        for (Object[] r : stocks) {
-            InventoryStockDTO dto = InventoryStockDTO.builder()
-                    .quantity(((Number) r[0]).intValue())
-                    .warehouseName((String) r[1])
-                    .build();
-            stockDTOs.add(dto);
-        }
-
-        // 総在庫数計算
-        productDTO.setTotalStock(stockDTOs.stream()
-                .mapToInt(InventoryStockDTO::getQuantity)
-                .sum());
         ProductInfoDetailDTO productInfoDetailDTO = ProductInfoDetailDTO.builder()
                 .productDTO(productDTO)
                 .supplierPriceDTO(supplierDTOs)
@@ -482,6 +515,24 @@ public class ProductServiceImpl implements ProductService {
                 .build();
     }
 
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    /**
+     * json_agg で集約された JSON 配列を DTO のリストに変換する。
+     */
+    private <T> List<T> readJsonList(String json, TypeReference<List<T>> type) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("商品詳細の変換に失敗しました", e);
+        }
+    }
+
     /**
      * 指定された発注書IDに紐づく「商品別受領数量の合計」を取得する。
      *
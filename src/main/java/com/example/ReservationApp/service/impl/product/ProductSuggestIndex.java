@@ -0,0 +1,310 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.ReservationApp.dto.response.product.ProductSearchDocFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductSuggestionDTO;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.repository.product.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 入力補完（サジェスト）用のインメモリ圧縮プレフィックストライ（Radix Trie）。
+ *
+ * 商品名・商品コード・仕入先SKU を正規化したキーで保持し、各ノードに部分木の上位 k 件を
+ * 事前計算しておくことで、検索はプレフィックス長に比例する走査のみで完了する。
+ *
+ * ・起動時および CatalogChangeRelay 経由の更新受信時（全ノード）に ProductRepository から再構築する
+ *   （連続した更新は rebuild-delay の間まとめて1回にする）
+ * ・構築済みのトライは不変で、再構築時は参照を差し替える
+ * ・ノード数・キー数・推定メモリ使用量を Micrometer のゲージとして公開する
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestIndex {
+
+    public static final String TYPE_NAME = "NAME";
+    public static final String TYPE_CODE = "CODE";
+    public static final String TYPE_SKU = "SKU";
+
+    // メモリ推定用の概算サイズ（64bit JVM・圧縮参照を想定）
+    private static final int NODE_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_BYTES = 40;
+    private static final int ENTRY_BYTES = 32;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // 短いキーを優先し、同じ長さの場合は表示名順
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt((Entry e) -> e.key().length())
+            .thenComparing(Entry::label)
+            .thenComparing(Entry::productId);
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final CatalogChangeRelay catalogChangeRelay;
+
+    @Value("${suggest.max-k:10}")
+    private int maxK;
+
+    @Value("${suggest.rebuild-delay-ms:500}")
+    private long rebuildDelayMs;
+
+    private volatile Node root = new Node("", NO_CHILDREN, NO_ENTRIES);
+    private volatile TrieStats stats = new TrieStats(0, 0, 0);
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    /**
+     * サジェストの1候補。key は正規化済みの検索キー。
+     */
+    record Entry(String key, String label, Long productId, String type) {
+    }
+
+    /**
+     * トライのノード。label は親からの辺のラベル（圧縮済み）、top は部分木の上位 k 件。
+     */
+    static final class Node {
+        final String label;
+        final Node[] children;
+        final Entry[] top;
+
+        Node(String label, Node[] children, Entry[] top) {
+            this.label = label;
+            this.children = children;
+            this.top = top;
+        }
+    }
+
+    /**
+     * トライの統計情報（メトリクス用）。
+     */
+    record TrieStats(long nodes, long entries, long estimatedBytes) {
+    }
+
+    @PostConstruct
+    void init() {
+        catalogChangeRelay.register(this::onCatalogChanged);
+        Gauge.builder("product.suggest.trie.memory", this, index -> index.stats.estimatedBytes())
+                .description("サジェスト用トライの推定メモリ使用量")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("product.suggest.trie.nodes", this, index -> index.stats.nodes())
+                .description("サジェスト用トライのノード数")
+                .register(meterRegistry);
+        Gauge.builder("product.suggest.trie.entries", this, index -> index.stats.entries())
+                .description("サジェスト用トライのキー数")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name("product-suggest-index").start(this::rebuild);
+    }
+
+    /**
+     * 商品カタログの更新を受信したら再構築を予約する。
+     */
+    void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.affectsProductDocuments() || !rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("product-suggest-index").start(() -> {
+            try {
+                Thread.sleep(rebuildDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.warn("サジェスト用トライの再構築に失敗しました: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 全商品を読み込み、トライを再構築する。
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>();
+        for (ProductSearchDocFlatDTO row : productRepository.findAllSearchDocuments()) {
+            addEntry(entries, row.getProductName(), row.getProductId(), TYPE_NAME);
+            addEntry(entries, row.getProductCode(), row.getProductId(), TYPE_CODE);
+            if (row.getSkus() != null) {
+                for (String sku : row.getSkus().split(" ")) {
+                    addEntry(entries, sku, row.getProductId(), TYPE_SKU);
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key).thenComparing(RANKING));
+
+        long[] counter = new long[3]; // [ノード数, ラベル文字数, 子ノード・top の参照数]
+        Node built = entries.isEmpty()
+                ? new Node("", NO_CHILDREN, NO_ENTRIES)
+                : build(entries, 0, entries.size(), 0, counter);
+        long estimatedBytes = counter[0] * (NODE_BYTES + STRING_BYTES + 2L * ARRAY_HEADER_BYTES)
+                + counter[1] * 2L
+                + counter[2] * REFERENCE_BYTES
+                + entries.stream().mapToLong(e -> ENTRY_BYTES + 2L * STRING_BYTES
+                        + 2L * (e.key().length() + e.label().length())).sum();
+
+        root = built;
+        stats = new TrieStats(counter[0], entries.size(), estimatedBytes);
+        log.info("サジェスト用トライを構築しました。キー数={}, ノード数={}, 推定メモリ={}bytes, {}ms",
+                entries.size(), counter[0], estimatedBytes, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 指定したプレフィックスで始まる候補を上位 limit 件返す。
+     */
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String query = ProductSearchIndex.normalize(prefix);
+        int k = Math.min(Math.max(limit, 1), maxK);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        int pos = 0;
+        while (true) {
+            String label = node.label;
+            int len = Math.min(label.length(), query.length() - pos);
+            if (!query.regionMatches(pos, label, 0, len)) {
+                return List.of();
+            }
+            pos += len;
+            if (pos == query.length()) {
+                return Arrays.stream(node.top)
+                        .limit(k)
+                        .map(e -> ProductSuggestionDTO.builder()
+                                .productId(e.productId())
+                                .label(e.label())
+                                .type(e.type())
+                                .build())
+                        .toList();
+            }
+            node = findChild(node, query.charAt(pos));
+            if (node == null) {
+                return List.of();
+            }
+        }
+    }
+
+    TrieStats stats() {
+        return stats;
+    }
+
+    private void addEntry(List<Entry> entries, String label, Long productId, String type) {
+        if (label == null || label.isBlank()) {
+            return;
+        }
+        String key = ProductSearchIndex.normalize(label);
+        if (!key.isEmpty()) {
+            entries.add(new Entry(key, label, productId, type));
+        }
+    }
+
+    /**
+     * キー順に並んだ entries[from, to) から部分木を構築する。
+     * 範囲内の共通プレフィックス（先頭と末尾のキーの共通部分）を辺のラベルとして圧縮する。
+     */
+    private Node build(List<Entry> entries, int from, int to, int depth, long[] counter) {
+        String first = entries.get(from).key();
+        String last = entries.get(to - 1).key();
+        int end = depth;
+        int max = Math.min(first.length(), last.length());
+        while (end < max && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+
+        // このノードで終わるキー（ソート済みのため範囲の先頭に並ぶ）
+        List<Entry> candidates = new ArrayList<>();
+        int i = from;
+        while (i < to && entries.get(i).key().length() == end) {
+            candidates.add(entries.get(i));
+            i++;
+        }
+
+        // 次の文字ごとに子ノードを構築
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = entries.get(i).key().charAt(end);
+            int j = i + 1;
+            while (j < to && entries.get(j).key().charAt(end) == c) {
+                j++;
+            }
+            Node child = build(entries, i, j, end, counter);
+            children.add(child);
+            candidates.addAll(Arrays.asList(child.top));
+            i = j;
+        }
+
+        Entry[] top = topK(candidates);
+        counter[0]++;
+        counter[1] += end - depth;
+        counter[2] += children.size() + top.length;
+        return new Node(first.substring(depth, end),
+                children.isEmpty() ? NO_CHILDREN : children.toArray(Node[]::new),
+                top);
+    }
+
+    /**
+     * 候補を順位付けし、同じ商品の重複を除いて上位 k 件に絞る。
+     */
+    private Entry[] topK(List<Entry> candidates) {
+        candidates.sort(RANKING);
+        List<Entry> top = new ArrayList<>(maxK);
+        Set<Long> seen = new HashSet<>();
+        for (Entry entry : candidates) {
+            if (seen.add(entry.productId())) {
+                top.add(entry);
+                if (top.size() == maxK) {
+                    break;
+                }
+            }
+        }
+        return top.isEmpty() ? NO_ENTRIES : top.toArray(Entry[]::new);
+    }
+
+    /**
+     * 子ノードは辺ラベルの先頭文字順に並んでいるため二分探索する。
+     */
+    private static Node findChild(Node node, char c) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = children[mid].label.charAt(0);
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return children[mid];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.ReservationApp.dto.response.supplier.PricePointFlatDTO;
+
+/**
+ * 仕入先・商品ごとの価格履歴を区間として保持するメモリ上の構造。
+ *
+ * 価格の変化点（適用日と価格）を適用日の昇順に配列で持ち、
+ * 指定日時点の価格を二分探索で求める。
+ * 大量の発注明細を発注日時点の価格で計算する際に、明細ごとの問い合わせを不要にする。
+ *
+ * ・価格 p_i は適用日 d_i から次の変化点の前日まで有効（最後の変化点は以降ずっと有効）
+ * ・同じ適用日の変化点が複数ある場合は後から追加したものを優先する
+ * ・最初の適用日より前の日付には価格がない（null）
+ */
+public final class PriceTimeline {
+
+    private record Key(Long supplierId, Long productId) {
+    }
+
+    /**
+     * 1つの仕入れ商品の価格の区間（適用日のエポック日と価格）
+     */
+    private record Series(long[] days, BigDecimal[] prices) {
+
+        BigDecimal priceAt(long day) {
+            // day 以前で最も新しい変化点の位置を求める
+            int low = 0;
+            int high = days.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found < 0 ? null : prices[found];
+        }
+    }
+
+    private final Map<Key, Series> series;
+
+    private PriceTimeline(Map<Key, Series> series) {
+        this.series = series;
+    }
+
+    /**
+     * 価格の変化点から構造を作成する。変化点の並び順は問わない。
+     */
+    public static PriceTimeline of(List<PricePointFlatDTO> points) {
+        Map<Key, List<PricePointFlatDTO>> grouped = new HashMap<>();
+        for (PricePointFlatDTO point : points) {
+            if (point.getEffectiveDate() == null || point.getPrice() == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(new Key(point.getSupplierId(), point.getProductId()), k -> new ArrayList<>())
+                    .add(point);
+        }
+        Map<Key, Series> series = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> {
+            // 安定ソートのため同日の変化点は追加順が保たれる
+            list.sort(Comparator.comparing(PricePointFlatDTO::getEffectiveDate));
+            long[] days = new long[list.size()];
+            BigDecimal[] prices = new BigDecimal[list.size()];
+            int size = 0;
+            for (PricePointFlatDTO point : list) {
+                long day = point.getEffectiveDate().toEpochDay();
+                if (size > 0 && days[size - 1] == day) {
+                    prices[size - 1] = point.getPrice();
+                    continue;
+                }
+                days[size] = day;
+                prices[size] = point.getPrice();
+                size++;
+            }
+            series.put(key, new Series(Arrays.copyOf(days, size), Arrays.copyOf(prices, size)));
+        });
+        return new PriceTimeline(series);
+    }
+
+    /**
+     * 指定日時点の価格を返す。
+     *
+     * @return 価格。履歴がない、または最初の適用日より前の場合は null
+     */
+    public BigDecimal priceAt(Long supplierId, Long productId, LocalDate date) {
+        Series s = series.get(new Key(supplierId, productId));
+        return s == null ? null : s.priceAt(date.toEpochDay());
+    }
+
+    public int size() {
+        return series.size();
+    }
+}
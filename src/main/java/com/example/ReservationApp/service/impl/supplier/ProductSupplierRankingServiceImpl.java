@@ -0,0 +1,181 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.product.SupplierPriceDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingFlatDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.repository.supplier.ProductSupplierRankingRepository;
+import com.example.ReservationApp.service.impl.CatalogDerivedTableService;
+import com.example.ReservationApp.service.supplier.ProductSupplierRankingService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 商品ごとの仕入先比較（product_supplier_rankings）を管理するサービス実装クラス。
+ *
+ * ・仕入れ商品・仕入先・商品の更新イベントを受け、影響する商品の行のみ再計算する
+ * ・全件再計算は商品IDを一定件数ずつに分けて UPSERT する
+ *   （起動時の初回計算・夜間の全件再計算は CatalogDerivedTableService による）
+ * ・一覧は事前計算済みの表をページ単位で読み、仕入先名などの結合はページ内の行に限る
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSupplierRankingServiceImpl extends CatalogDerivedTableService
+        implements ProductSupplierRankingService {
+
+    static final String SORT_SPREAD = "spread";
+    static final String SORT_PRODUCT = "product";
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ProductSupplierRankingRepository productSupplierRankingRepository;
+
+    @Value("${supplier-ranking.enabled:true}")
+    private boolean enabled;
+
+    @Value("${supplier-ranking.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * 定期実行（デフォルト：毎日 3:45）
+     */
+    @Scheduled(cron = "${supplier-ranking.cron:0 45 3 * * *}")
+    @Transactional
+    public void scheduledRecompute() {
+        runScheduledRecompute(enabled);
+    }
+
+    /**
+     * 商品ごとの仕入先比較をページ単位で取得する。
+     *
+     * @param sort         並び順（spread：価格差の大きい順、product：商品ID順）
+     * @param minSuppliers 対象とする有効な仕入先数の下限
+     * @param page         ページ番号（0始まり）
+     * @param size         1ページの件数
+     * @return 比較結果DTOのリスト（total に該当件数）を含むレスポンス
+     * @throws BadRequestException 並び順の指定が不正な場合
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<ProductSupplierRankingDTO>> getRankings(String sort, int minSuppliers, int page,
+            int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        int safeMinSuppliers = Math.max(minSuppliers, 1);
+        Page<ProductSupplierRankingFlatDTO> rows;
+        if (sort == null || SORT_SPREAD.equals(sort)) {
+            rows = productSupplierRankingRepository.findBySpread(safeMinSuppliers, pageRequest);
+        } else if (SORT_PRODUCT.equals(sort)) {
+            rows = productSupplierRankingRepository.findByProduct(safeMinSuppliers, pageRequest);
+        } else {
+            throw new BadRequestException("並び順の指定が不正です: " + sort);
+        }
+        List<ProductSupplierRankingDTO> rankings = rows.getContent().stream()
+                .map(ProductSupplierRankingServiceImpl::toDTO)
+                .toList();
+        return ResponseDTO.<List<ProductSupplierRankingDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("仕入先の比較結果を取得しました")
+                .data(rankings)
+                .total(rows.getTotalElements())
+                .build();
+    }
+
+    @Override
+    protected String tableLabel() {
+        return "仕入先比較";
+    }
+
+    @Override
+    protected long countRows() {
+        return productSupplierRankingRepository.count();
+    }
+
+    /**
+     * 比較表は商品・仕入先・仕入れ価格のみから求めるため、カテゴリと在庫の更新は無視する。
+     */
+    @Override
+    protected void applyChange(CatalogChangedEvent event) {
+        if (event.aggregate() == CatalogAggregate.CATEGORY || event.aggregate() == CatalogAggregate.INVENTORY) {
+            return;
+        }
+        if (event.isFullRefresh()) {
+            recomputeAllRows();
+        } else {
+            recomputeRows(event.productIds());
+        }
+    }
+
+    /**
+     * 一定件数ずつ UPSERT し、有効な仕入先がなくなった商品の行を削除する。
+     */
+    @Override
+    protected void recomputeRows(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            productSupplierRankingRepository.recompute(chunk);
+            productSupplierRankingRepository.deleteWithoutActiveSuppliers(chunk);
+        }
+    }
+
+    /**
+     * 比較表に載せる商品の ID を一定件数ずつ UPSERT し、対象外になった商品の行を削除する。
+     */
+    @Override
+    protected void recomputeAllRows() {
+        long start = System.currentTimeMillis();
+        List<Long> productIds = productSupplierRankingRepository.findRankedProductIds();
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            productSupplierRankingRepository.recompute(
+                    productIds.subList(from, Math.min(from + batchSize, productIds.size())));
+        }
+        int removed = productSupplierRankingRepository.deleteOrphans();
+        log.info("仕入先比較を再計算しました。商品数={}, 削除={}, {}ms",
+                productIds.size(), removed, System.currentTimeMillis() - start);
+    }
+
+    private static ProductSupplierRankingDTO toDTO(ProductSupplierRankingFlatDTO row) {
+        return ProductSupplierRankingDTO.builder()
+                .productId(row.getProductId())
+                .productName(row.getProductName())
+                .productCode(row.getProductCode())
+                .supplierCount(row.getSupplierCount())
+                .cheapest(SupplierPriceDTO.builder()
+                        .supplierId(row.getCheapestSupplierId())
+                        .supplierName(row.getCheapestSupplierName())
+                        .sku(row.getCheapestSku())
+                        .price(row.getMinPrice())
+                        .build())
+                .fastest(SupplierPriceDTO.builder()
+                        .supplierId(row.getFastestSupplierId())
+                        .supplierName(row.getFastestSupplierName())
+                        .sku(row.getFastestSku())
+                        .price(row.getFastestPrice())
+                        .build())
+                .minLeadTime(row.getMinLeadTime())
+                .maxPrice(row.getMaxPrice())
+                .priceSpread(row.getPriceSpread())
+                .priceSpreadRate(row.getPriceSpreadRate())
+                .build();
+    }
+}
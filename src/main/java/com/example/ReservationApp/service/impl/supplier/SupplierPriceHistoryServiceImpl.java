@@ -0,0 +1,191 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderCostDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderLineFlatDTO;
+import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
+import com.example.ReservationApp.entity.supplier.SupplierProduct;
+import com.example.ReservationApp.entity.supplier.SupplierProductPriceHistory;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.SupplierProductPriceHistoryMapper;
+import com.example.ReservationApp.repository.supplier.SupplierProductPriceHistoryRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderDetailRepository;
+import com.example.ReservationApp.service.supplier.SupplierPriceHistoryService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 仕入れ商品の価格履歴（時系列）に関するサービス実装クラス。
+ * 主な機能:
+ * - 価格履歴のページ取得（全体・SKU 別）
+ * - 指定日時点の価格の取得
+ * - 発注明細の発注日時点の価格での一括原価計算
+ */
+@Service
+@RequiredArgsConstructor
+public class SupplierPriceHistoryServiceImpl implements SupplierPriceHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final long MAX_COST_RANGE_DAYS = 366;
+
+    private final SupplierProductPriceHistoryRepository supplierProductPriceHistoryRepository;
+    private final SupplierProductRepository supplierProductRepository;
+    private final PurchaseOrderDetailRepository purchaseOrderDetailRepository;
+    private final SupplierProductPriceHistoryMapper supplierProductPriceHistoryMapper;
+
+    /**
+     * 全ての仕入れ商品の価格履歴を新しい順にページ単位で取得する。
+     *
+     * @param page ページ番号（0始まり）
+     * @param size 1ページの件数
+     * @return 価格履歴DTOのリスト（total に全件数）を含むレスポンス
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistory(int page, int size) {
+        Page<SupplierProductPriceHistory> histories = supplierProductPriceHistoryRepository.findAll(
+                pageRequest(page, size).withSort(Sort.by(Sort.Direction.DESC, "effectiveDate", "id")));
+        return ResponseDTO.<List<SupplierProductPriceHistoryDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("仕入れ商品の価格履歴を取得しました")
+                .data(supplierProductPriceHistoryMapper.toDTOList(histories.getContent()))
+                .total(histories.getTotalElements())
+                .build();
+    }
+
+    /**
+     * 指定SKUの価格履歴を新しい順にページ単位で取得する。
+     *
+     * @param sku  商品SKU
+     * @param page ページ番号（0始まり）
+     * @param size 1ページの件数
+     * @return 価格履歴DTOのリスト（total に全件数）を含むレスポンス
+     * @throws NotFoundException SKUが存在しない場合
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistoryBySku(String sku, int page, int size) {
+        SupplierProduct supplierProduct = findBySku(sku);
+        Page<SupplierProductPriceHistory> histories = supplierProductPriceHistoryRepository
+                .findBySupplierProductIdOrderByEffectiveDateDescIdDesc(supplierProduct.getId(),
+                        pageRequest(page, size));
+        return ResponseDTO.<List<SupplierProductPriceHistoryDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("仕入れ商品の価格履歴を取得しました")
+                .data(supplierProductPriceHistoryMapper.toDTOList(histories.getContent()))
+                .total(histories.getTotalElements())
+                .build();
+    }
+
+    /**
+     * 指定SKUの、指定日時点で有効な価格履歴を取得する。
+     *
+     * @param sku  商品SKU
+     * @param date 対象日
+     * @return 指定日以前で最も新しい価格履歴DTOを含むレスポンス
+     * @throws NotFoundException SKUが存在しない場合、または指定日以前の価格履歴がない場合
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<SupplierProductPriceHistoryDTO> getPriceAsOf(String sku, LocalDate date) {
+        SupplierProduct supplierProduct = findBySku(sku);
+        SupplierProductPriceHistory history = supplierProductPriceHistoryRepository
+                .findFirstBySupplierProductIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDescIdDesc(
+                        supplierProduct.getId(), date != null ? date : LocalDate.now())
+                .orElseThrow(() -> new NotFoundException("指定日時点の価格履歴は存在していません"));
+        return ResponseDTO.<SupplierProductPriceHistoryDTO>builder()
+                .status(HttpStatus.OK.value())
+                .message("指定日時点の価格を取得しました")
+                .data(supplierProductPriceHistoryMapper.toDTO(history))
+                .build();
+    }
+
+    /**
+     * 期間内に作成された発注ごとに、明細を発注日時点の仕入れ価格で計算した合計を求める。
+     * 明細と価格履歴をそれぞれ1回のクエリで取得し、PriceTimeline で価格を引き当てる。
+     *
+     * @param from 開始日（含む）
+     * @param to   終了日（含む）
+     * @return 発注ごとの原価DTOのリストを含むレスポンス
+     * @throws BadRequestException 期間の指定が不正な場合
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseDTO<List<PurchaseOrderCostDTO>> getPurchaseOrderCosts(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new BadRequestException("期間の指定が不正です");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_COST_RANGE_DAYS) {
+            throw new BadRequestException("期間は" + MAX_COST_RANGE_DAYS + "日以内で指定してください");
+        }
+        List<PurchaseOrderLineFlatDTO> lines = purchaseOrderDetailRepository
+                .findLinesCreatedBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        Set<Long> supplierIds = new LinkedHashSet<>();
+        for (PurchaseOrderLineFlatDTO line : lines) {
+            supplierIds.add(line.getSupplierId());
+        }
+        PriceTimeline timeline = PriceTimeline.of(supplierIds.isEmpty() ? List.of()
+                : supplierProductPriceHistoryRepository.findPricePoints(supplierIds, to));
+
+        // 明細は発注ID順のため、発注が切り替わるたびに集計を確定する
+        List<PurchaseOrderCostDTO> costs = new ArrayList<>();
+        PurchaseOrderCostDTO current = null;
+        for (PurchaseOrderLineFlatDTO line : lines) {
+            if (current == null || !current.getPurchaseOrderId().equals(line.getPurchaseOrderId())) {
+                current = PurchaseOrderCostDTO.builder()
+                        .purchaseOrderId(line.getPurchaseOrderId())
+                        .supplierId(line.getSupplierId())
+                        .orderDate(line.getOrderedAt().toLocalDate())
+                        .recordedTotal(BigDecimal.ZERO)
+                        .historicalTotal(BigDecimal.ZERO)
+                        .build();
+                costs.add(current);
+            }
+            BigDecimal qty = BigDecimal.valueOf(line.getQty() != null ? line.getQty() : 0);
+            current.setLineCount(current.getLineCount() + 1);
+            if (line.getCost() != null) {
+                current.setRecordedTotal(current.getRecordedTotal().add(line.getCost().multiply(qty)));
+            }
+            BigDecimal price = timeline.priceAt(line.getSupplierId(), line.getProductId(),
+                    current.getOrderDate());
+            if (price == null) {
+                current.setUnpricedLines(current.getUnpricedLines() + 1);
+            } else {
+                current.setHistoricalTotal(current.getHistoricalTotal().add(price.multiply(qty)));
+            }
+        }
+        return ResponseDTO.<List<PurchaseOrderCostDTO>>builder()
+                .status(HttpStatus.OK.value())
+                .message("発注の原価を計算しました")
+                .data(costs)
+                .total((long) costs.size())
+                .build();
+    }
+
+    private SupplierProduct findBySku(String sku) {
+        return supplierProductRepository.findBySupplierSku(sku)
+                .orElseThrow(() -> new NotFoundException("このSKUは存在していません"));
+    }
+
+    private static PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+}
@@ -2,11 +2,15 @@ package com.example.ReservationApp.service.impl.supplier;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,15 +19,17 @@ import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.supplier.CategoryProductsDTO;
 import com.example.ReservationApp.dto.response.supplier.SupplierProductInCategoryDTO;
 import com.example.ReservationApp.dto.response.supplier.SupplierProductStockFlatDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierProductsOverviewDTO;
 import com.example.ReservationApp.dto.supplier.SupplierProductDTO;
-import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
 import com.example.ReservationApp.entity.product.Category;
 import com.example.ReservationApp.entity.product.Product;
 import com.example.ReservationApp.entity.supplier.Supplier;
 import com.example.ReservationApp.entity.supplier.SupplierProduct;
 import com.example.ReservationApp.entity.supplier.SupplierProductPriceHistory;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.enums.CategoryStatus;
 import com.example.ReservationApp.enums.SupplierProductStatus;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.AlreadyExistException;
 import com.example.ReservationApp.exception.BadRequestException;
 import com.example.ReservationApp.exception.NotFoundException;
@@ -51,6 +57,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SupplierProductServiceImpl implements SupplierProductService {
 
+        // SKU 詳細に含める直近の価格履歴の件数（それ以前は価格履歴のページ取得を使う）
+        private static final int RECENT_PRICE_HISTORY_SIZE = 20;
+        private static final int MAX_PAGE_SIZE = 200;
+
         private final SupplierProductRepository supplierProductRepository;
         private final SupplierRepository supplierRepository;
         private final ProductRepository productRepository;
@@ -59,6 +69,7 @@ public class SupplierProductServiceImpl implements SupplierProductService {
         private final SupplierProductPriceHistoryRepository supplierProductPriceHistoryRepository;
         private final SalesOrderDetailRepository salesOrderDetailRepository;
         private final SupplierProductPriceHistoryMapper supplierProductPriceHistoryMapper;
+        private final ApplicationEventPublisher eventPublisher;
 
         /**
          * 新しい仕入れ商品を登録する。
@@ -117,6 +128,8 @@ public class SupplierProductServiceImpl implements SupplierProductService {
 
                         supplierProductPriceHistoryRepository.save(history);
                 }
+                eventPublisher.publishEvent(
+                                CatalogChangedEvent.ofProduct(CatalogAggregate.SUPPLIER_PRODUCT, product.getId()));
 
                 return ResponseDTO.<SupplierProductDTO>builder()
                                 .status(HttpStatus.OK.value())
@@ -149,10 +162,43 @@ public class SupplierProductServiceImpl implements SupplierProductService {
         }
 
         /**
-         * 指定SKUの商品情報と価格履歴を取得する
+         * 指定した仕入先の仕入れ商品をページ単位で取得する。
+         *
+         * @param supplierId 取得対象の仕入先ID
+         * @param status     絞り込むステータス（null の場合は全て）
+         * @param page       ページ番号（0始まり）
+         * @param size       1ページの件数
+         * @return 仕入れ商品のDTOリスト（total に該当件数）を含むレスポンス
+         * @throws NotFoundException 指定した仕入先が存在しない場合
+         */
+        @Override
+        @Transactional(readOnly = true)
+        public ResponseDTO<List<SupplierProductDTO>> getProductsBySupplierPage(Long supplierId,
+                        SupplierProductStatus status, int page, int size) {
+
+                if (!supplierRepository.existsById(supplierId))
+                        throw new NotFoundException("仕入先は存在していません");
+
+                PageRequest pageRequest = PageRequest.of(Math.max(page, 0),
+                                Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+                Page<SupplierProduct> supplierProducts = status != null
+                                ? supplierProductRepository.findPageBySupplierIdAndStatus(supplierId, status,
+                                                pageRequest)
+                                : supplierProductRepository.findPageBySupplierId(supplierId, pageRequest);
+
+                return ResponseDTO.<List<SupplierProductDTO>>builder()
+                                .status(HttpStatus.OK.value())
+                                .message("仕入れ商品の一覧を取得しました")
+                                .data(supplierProductMapper.toDTOList(supplierProducts.getContent()))
+                                .total(supplierProducts.getTotalElements())
+                                .build();
+        }
+
+        /**
+         * 指定SKUの商品情報と直近の価格履歴を取得する
          *
          * @param sku 商品SKU
-         * @return SupplierProductDTO（価格履歴含む）
+         * @return SupplierProductDTO（直近の価格履歴を新しい順に含む）
          * @throws NotFoundException SKUが存在しない場合
          */
         @Override
@@ -161,8 +207,12 @@ public class SupplierProductServiceImpl implements SupplierProductService {
                 SupplierProduct supplierProducts = supplierProductRepository.findBySupplierSku(sku)
                                 .orElseThrow(() -> new NotFoundException("このSKUは存在していません"));
                 SupplierProductDTO supplierProductDTO = supplierProductMapper.toDTO(supplierProducts);
-                supplierProductDTO.setPriceHistories(
-                                supplierProductPriceHistoryMapper.toDTOList(supplierProducts.getPriceHistories()));
+                supplierProductDTO.setPriceHistories(supplierProductPriceHistoryMapper.toDTOList(
+                                supplierProductPriceHistoryRepository
+                                                .findBySupplierProductIdOrderByEffectiveDateDescIdDesc(
+                                                                supplierProducts.getId(),
+                                                                PageRequest.of(0, RECENT_PRICE_HISTORY_SIZE))
+                                                .getContent()));
 
                 return ResponseDTO.<SupplierProductDTO>builder()
                                 .status(HttpStatus.OK.value())
@@ -217,6 +267,8 @@ public class SupplierProductServiceImpl implements SupplierProductService {
                 }
 
                 SupplierProduct updatedSp = supplierProductRepository.save(existingSp);
+                eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(
+                                CatalogAggregate.SUPPLIER_PRODUCT, updatedSp.getProduct().getId()));
                 return ResponseDTO.<SupplierProductDTO>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("仕入れ商品の情報を更新しました")
@@ -224,22 +276,6 @@ public class SupplierProductServiceImpl implements SupplierProductService {
                                 .build();
         }
 
-        /**
-         * 全ての仕入れ商品の価格履歴を取得する。
-         *
-         * @return 価格履歴DTOのリストを含むレスポンス
-         */
-        @Override
-        public ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistory() {
-                List<SupplierProductPriceHistoryDTO> priceHistoryDTOs = supplierProductPriceHistoryMapper
-                                .toDTOList(supplierProductPriceHistoryRepository.findAll());
-                return ResponseDTO.<List<SupplierProductPriceHistoryDTO>>builder()
-                                .status(HttpStatus.OK.value())
-                                .message("仕入れ商品の価格履歴を取得しました")
-                                .data(priceHistoryDTOs)
-                                .build();
-        }
-
         /**
          * 指定した仕入れ商品を削除（無効化）する。
          *
@@ -257,6 +293,8 @@ public class SupplierProductServiceImpl implements SupplierProductService {
                         throw new BadRequestException("この商品はすでに注文に使用されています");
                 }
                 supplierProductRepository.delete(supplierProduct);
+                eventPublisher.publishEvent(CatalogChangedEvent.ofProduct(
+                                CatalogAggregate.SUPPLIER_PRODUCT, supplierProduct.getProduct().getId()));
 
                 return ResponseDTO.<Void>builder()
                                 .status(HttpStatus.OK.value())
@@ -295,45 +333,10 @@ public class SupplierProductServiceImpl implements SupplierProductService {
         @Override
         public ResponseDTO<List<CategoryProductsDTO>> getSupplierProductsWithStock(Long supplierId) {
 
-                if (!supplierRepository.existsById(supplierId)) {
-                        throw new NotFoundException("この仕入先は存在していません");
-                }
-                List<SupplierProductStockFlatDTO> rows = supplierProductRepository
-                                .findSupplierProductsWithStock(supplierId);
-
-                Map<String, List<SupplierProductInCategoryDTO>> grouped = rows.stream()
-                                .collect(Collectors.groupingBy(
-                                                SupplierProductStockFlatDTO::getCategoryName,
-                                                LinkedHashMap::new,
-                                                Collectors.mapping(p -> SupplierProductInCategoryDTO.builder()
-                                                                .id(p.getId())
-                                                                .sku(p.getSku())
-                                                                .product(p.getProductName())
-                                                                .status(p.getStatus())
-                                                                .price(p.getPrice())
-                                                                .stock(p.getTotalQuantity())
-                                                                .build(), Collectors.toList())));
-
-                List<CategoryProductsDTO> responseData = grouped.entrySet().stream()
-                                .map(entry -> {
-                                        Long categoryId = entry.getValue().isEmpty() ? null
-                                                        : rows.stream()
-                                                                        .filter(r -> r.getCategoryName()
-                                                                                        .equals(entry.getKey()))
-                                                                        .findFirst()
-                                                                        .map(SupplierProductStockFlatDTO::getCategoryId)
-                                                                        .orElse(null);
-                                        return CategoryProductsDTO.builder()
-                                                        .categoryName(entry.getKey())
-                                                        .categoryId(categoryId)
-                                                        .products(entry.getValue())
-                                                        .build();
-                                })
-                                .collect(Collectors.toList());
                 return ResponseDTO.<List<CategoryProductsDTO>>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("取得に成功しました")
-                                .data(responseData)
+                                .data(groupByCategory(findSupplierProductRows(supplierId)))
                                 .build();
         }
 
@@ -347,36 +350,88 @@ public class SupplierProductServiceImpl implements SupplierProductService {
         @Override
         public ResponseDTO<List<CategoryProductsDTO>> getSupplierProductsWithLeadTime(Long supplierId) {
 
-                if (!supplierRepository.existsById(supplierId)) {
-                        throw new NotFoundException("この仕入先は存在していません");
-                }
-                List<SupplierProductStockFlatDTO> rows = supplierProductRepository
-                                .findSupplierProductsWithStock(supplierId);
-
-                Map<String, List<SupplierProductInCategoryDTO>> grouped = rows.stream()
-                                .collect(Collectors.groupingBy(
-                                                SupplierProductStockFlatDTO::getSupplierName,
-                                                LinkedHashMap::new,
-                                                Collectors.mapping(p -> SupplierProductInCategoryDTO.builder()
-                                                                .id(p.getId())
-                                                                .sku(p.getSku())
-                                                                .product(p.getProductName())
-                                                                .status(p.getStatus())
-                                                                .price(p.getPrice())
-                                                                .leadTime(p.getLeadTime())
-                                                                .build(), Collectors.toList())));
-
-                List<CategoryProductsDTO> responseData = grouped.entrySet().stream()
-                                .map(entry -> CategoryProductsDTO.builder()
-                                                .supplierName(entry.getKey())
-                                                .supplierId(supplierId)
-                                                .products(entry.getValue())
-                                                .build())
-                                .collect(Collectors.toList());
                 return ResponseDTO.<List<CategoryProductsDTO>>builder()
                                 .status(HttpStatus.OK.value())
                                 .message("取得に成功しました")
-                                .data(responseData)
+                                .data(groupBySupplier(findSupplierProductRows(supplierId), supplierId))
+                                .build();
+        }
+
+        /**
+         * 指定した仕入先の仕入れ商品を、カテゴリ別（在庫）と仕入先別（リードタイム）の両方でまとめて取得する。
+         * 仕入れ商品の取得は1回のみで、両方の一覧を同じ結果から作成する。
+         *
+         * @param supplierId 取得対象の仕入先ID
+         * @return カテゴリ別・仕入先別の一覧を含むレスポンス
+         * @throws NotFoundException 指定した仕入先が存在しない場合
+         */
+        @Override
+        public ResponseDTO<SupplierProductsOverviewDTO> getSupplierProductsOverview(Long supplierId) {
+
+                List<SupplierProductStockFlatDTO> rows = findSupplierProductRows(supplierId);
+                return ResponseDTO.<SupplierProductsOverviewDTO>builder()
+                                .status(HttpStatus.OK.value())
+                                .message("取得に成功しました")
+                                .data(SupplierProductsOverviewDTO.builder()
+                                                .stockByCategory(groupByCategory(rows))
+                                                .leadTimeBySupplier(groupBySupplier(rows, supplierId))
+                                                .build())
                                 .build();
         }
+
+        private List<SupplierProductStockFlatDTO> findSupplierProductRows(Long supplierId) {
+                if (!supplierRepository.existsById(supplierId)) {
+                        throw new NotFoundException("この仕入先は存在していません");
+                }
+                return supplierProductRepository.findSupplierProductsWithStock(supplierId);
+        }
+
+        /**
+         * カテゴリIDごとに1回の走査でまとめる（カテゴリの並びは最初に出現した順）。
+         */
+        private static List<CategoryProductsDTO> groupByCategory(List<SupplierProductStockFlatDTO> rows) {
+                Map<Long, CategoryProductsDTO> grouped = new LinkedHashMap<>();
+                for (SupplierProductStockFlatDTO row : rows) {
+                        grouped.computeIfAbsent(row.getCategoryId(), id -> CategoryProductsDTO.builder()
+                                        .categoryId(id)
+                                        .categoryName(row.getCategoryName())
+                                        .products(new ArrayList<>())
+                                        .build())
+                                        .getProducts()
+                                        .add(SupplierProductInCategoryDTO.builder()
+                                                        .id(row.getId())
+                                                        .sku(row.getSku())
+                                                        .product(row.getProductName())
+                                                        .status(row.getStatus())
+                                                        .price(row.getPrice())
+                                                        .stock(row.getTotalQuantity())
+                                                        .build());
+                }
+                return new ArrayList<>(grouped.values());
+        }
+
+        /**
+         * 仕入先名ごとに1回の走査でまとめる。
+         */
+        private static List<CategoryProductsDTO> groupBySupplier(List<SupplierProductStockFlatDTO> rows,
+                        Long supplierId) {
+                Map<String, CategoryProductsDTO> grouped = new LinkedHashMap<>();
+                for (SupplierProductStockFlatDTO row : rows) {
+                        grouped.computeIfAbsent(row.getSupplierName(), name -> CategoryProductsDTO.builder()
+                                        .supplierName(name)
+                                        .supplierId(supplierId)
+                                        .products(new ArrayList<>())
+                                        .build())
+                                        .getProducts()
+                                        .add(SupplierProductInCategoryDTO.builder()
+                                                        .id(row.getId())
+                                                        .sku(row.getSku())
+                                                        .product(row.getProductName())
+                                                        .status(row.getStatus())
+                                                        .price(row.getPrice())
+                                                        .leadTime(row.getLeadTime())
+                                                        .build());
+                }
+                return new ArrayList<>(grouped.values());
+        }
 }
@@ -1,16 +1,21 @@
 package com.example.ReservationApp.service.impl.supplier;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierSummaryFlatDTO;
 import com.example.ReservationApp.dto.supplier.SupplierDTO;
 import com.example.ReservationApp.entity.supplier.Supplier;
+import com.example.ReservationApp.enums.CatalogAggregate;
 import com.example.ReservationApp.enums.SupplierProductStatus;
 import com.example.ReservationApp.enums.SupplierStatus;
+import com.example.ReservationApp.event.CatalogChangedEvent;
 import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.SupplierMapper;
 import com.example.ReservationApp.repository.supplier.SupplierRepository;
@@ -33,6 +38,7 @@ public class SupplierServiceImpl implements SupplierService {
 
     private final SupplierRepository supplierRepository;
     private final SupplierMapper supplierMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 新しい仕入先を追加する。
@@ -53,6 +59,7 @@ public class SupplierServiceImpl implements SupplierService {
         }
         Supplier supplier = supplierMapper.toEntity(supplierDTO);
         supplierRepository.save(supplier);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogAggregate.SUPPLIER));
         return ResponseDTO.<SupplierDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("新しい仕入先の追加に成功しました")
@@ -62,14 +69,16 @@ public class SupplierServiceImpl implements SupplierService {
 
     /**
      * 全ての仕入先を取得する。
+     * 仕入れ商品は読み込まず、取扱商品数とカテゴリ名を SQL で集計した結果のみを返す。
      *
      * @return 仕入先DTOのリストを含むレスポンス
      */
     @Override
     public ResponseDTO<List<SupplierDTO>> getAllSuppliers() {
 
-        List<Supplier> suppliers = supplierRepository.findAllWithProducts();
-        List<SupplierDTO> supplierDTOs = supplierMapper.toDTOList(suppliers);
+        List<SupplierDTO> supplierDTOs = supplierRepository.findAllSummaries().stream()
+                .map(SupplierServiceImpl::toDTO)
+                .toList();
         return ResponseDTO.<List<SupplierDTO>>builder()
                 .status(HttpStatus.OK.value())
                 .message("全て仕入先の取得に成功しました")
@@ -79,6 +88,7 @@ public class SupplierServiceImpl implements SupplierService {
 
     /**
      * 指定したIDの仕入先を取得する。
+     * 取扱商品の一覧は仕入れ商品のページ取得（/api/sup-product/{supplierId}/products）を使う。
      *
      * @param id 取得対象の仕入先ID
      * @return 指定IDの仕入先DTOを含むレスポンス
@@ -87,9 +97,9 @@ public class SupplierServiceImpl implements SupplierService {
     @Override
     public ResponseDTO<SupplierDTO> getSupplierById(Long id) {
 
-        Supplier supplier = supplierRepository.findSupplierWithProductsAndCategory(id)
+        SupplierDTO supplierDTO = supplierRepository.findSummaryById(id)
+                .map(SupplierServiceImpl::toDTO)
                 .orElseThrow(() -> new NotFoundException("この仕入先は存在していません"));
-        SupplierDTO supplierDTO = supplierMapper.toDTO(supplier);
         return ResponseDTO.<SupplierDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("仕入先の取得に成功しました")
@@ -110,7 +120,9 @@ public class SupplierServiceImpl implements SupplierService {
 
         Supplier existingSupplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("この仕入先は存在していません"));
+        boolean nameChanged = false;
         if (supplierDTO.getName() != null && !supplierDTO.getName().isBlank()) {
+            nameChanged = !supplierDTO.getName().equals(existingSupplier.getName());
             existingSupplier.setName(supplierDTO.getName());
         }
         if (supplierDTO.getAddress() != null && !supplierDTO.getAddress().isBlank()) {
@@ -122,13 +134,22 @@ public class SupplierServiceImpl implements SupplierService {
         if (supplierDTO.getContactInfo() != null && !supplierDTO.getContactInfo().isBlank()) {
             existingSupplier.setContactInfo(supplierDTO.getContactInfo());
         }
+        boolean statusChanged = false;
         if (supplierDTO.getSupplierStatus() != null) {
+            statusChanged = supplierDTO.getSupplierStatus() != existingSupplier.getStatus();
             existingSupplier.setStatus(supplierDTO.getSupplierStatus());
             if (supplierDTO.getSupplierStatus().equals(SupplierStatus.INACTIVE)) {
                 existingSupplier.getSupplierProducts().forEach(sp -> sp.setStatus(SupplierProductStatus.INACTIVE));
             }
         }
         Supplier updatedSupplier = supplierRepository.save(existingSupplier);
+        // 仕入先名は商品検索の対象、ステータスは仕入先比較の対象のため、変更時は取扱商品も更新する
+        eventPublisher.publishEvent(nameChanged || statusChanged
+                ? new CatalogChangedEvent(CatalogAggregate.SUPPLIER,
+                        updatedSupplier.getSupplierProducts().stream()
+                                .map(sp -> sp.getProduct().getId())
+                                .collect(Collectors.toSet()))
+                : CatalogChangedEvent.of(CatalogAggregate.SUPPLIER));
         return ResponseDTO.<SupplierDTO>builder()
                 .status(HttpStatus.OK.value())
                 .message("仕入先の更新に成功しました")
@@ -159,10 +180,25 @@ public class SupplierServiceImpl implements SupplierService {
             throw new CannotDeleteException(
                     "商品情報が存在するため、仕入先を削除できません");
         }
+        eventPublisher.publishEvent(CatalogChangedEvent.of(CatalogAggregate.SUPPLIER));
         return ResponseDTO.<Void>builder()
                 .status(HttpStatus.OK.value())
                 .message("仕入先の削除に成功しました")
                 .build();
     }
 
+    private static SupplierDTO toDTO(SupplierSummaryFlatDTO row) {
+        return SupplierDTO.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .contactInfo(row.getContactInfo())
+                .mail(row.getMail())
+                .address(row.getAddress())
+                .supplierStatus(row.getStatus() != null ? SupplierStatus.valueOf(row.getStatus()) : null)
+                .productCount(row.getProductCount())
+                .categoryNames(row.getCategoryNames() != null
+                        ? List.of(row.getCategoryNames().split(SupplierRepository.CATEGORY_NAME_SEPARATOR))
+                        : List.of())
+                .build();
+    }
 }
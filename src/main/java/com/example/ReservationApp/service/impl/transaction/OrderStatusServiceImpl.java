@@ -0,0 +1,219 @@
+package com.example.ReservationApp.service.impl.transaction;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.ReservationApp.entity.transaction.OrderCommand;
+import com.example.ReservationApp.entity.transaction.TrackedOrder;
+import com.example.ReservationApp.enums.OrderCommandType;
+import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.repository.transaction.OrderCommandRepository;
+import com.example.ReservationApp.service.transaction.OrderStatusService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 注文ステータスの状態遷移を一元管理するサービス実装クラス。
+ *
+ * ・OrderStatus#canTransitionTo による遷移チェック
+ * ・クライアントのリクエストIDによるコマンドの重複排除（再送の受付期間を過ぎた記録は定期的に削除）
+ * ・明細完了カウンタ（completed / total）による O(1) の完了判定
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderStatusServiceImpl implements OrderStatusService {
+
+    private final OrderCommandRepository orderCommandRepository;
+
+    @Value("${order-command.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${order-command.retention.days:7}")
+    private long retentionDays;
+
+    @Value("${order-command.retention.batch-size:1000}")
+    private int retentionBatchSize;
+
+    /**
+     * コマンドを処理済みとして登録する。
+     * リクエストIDが未指定の場合は重複排除を行わない。
+     * 処理済みとみなすのは、同じリクエストIDが同じ注文・同じコマンドで記録されている場合のみで、
+     * 別の注文・別のコマンドに使われたリクエストIDは再利用として拒否する。
+     *
+     * @param requestId クライアントが付与したリクエストID
+     * @param refType   注文種別（PO / SO）
+     * @param orderId   注文ID
+     * @param command   コマンド種別
+     * @return 初回のコマンドであれば true、既に処理済みであれば false
+     * @throws ResponseStatusException 同じリクエストIDが別の注文・コマンドで使用済みの場合（422）
+     * @throws IllegalStateException   同じリクエストIDが並行して処理された場合
+     */
+    @Override
+    public boolean registerCommand(String requestId, RefType refType, Long orderId, OrderCommandType command) {
+
+        if (requestId == null || requestId.isBlank()) {
+            return true;
+        }
+        Optional<OrderCommand> existing = orderCommandRepository.findByRequestId(requestId);
+        if (existing.isPresent()) {
+            OrderCommand stored = existing.get();
+            if (stored.getRefType() != refType || !stored.getOrderId().equals(orderId)
+                    || stored.getCommand() != command) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        "このリクエストIDは別の処理で使用されています。requestId=" + requestId
+                                + ", 使用済み=" + stored.getRefType() + ":" + stored.getOrderId() + ":"
+                                + stored.getCommand());
+            }
+            log.info("重複したコマンドをスキップします。requestId={}, orderId={}, command={}", requestId, orderId, command);
+            return false;
+        }
+        try {
+            orderCommandRepository.saveAndFlush(OrderCommand.builder()
+                    .requestId(requestId)
+                    .refType(refType)
+                    .orderId(orderId)
+                    .command(command)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("同じリクエストが処理中です。requestId=" + requestId);
+        }
+        return true;
+    }
+
+    /**
+     * 注文ステータスを遷移させる。
+     *
+     * @param order 対象注文
+     * @param next  遷移先ステータス
+     * @throws IllegalStateException 許可されていない遷移の場合
+     */
+    @Override
+    public void transition(TrackedOrder order, OrderStatus next) {
+
+        OrderStatus current = order.getStatus() != null ? order.getStatus() : OrderStatus.NEW;
+        if (!current.canTransitionTo(next)) {
+            throw new IllegalStateException(
+                    "注文ステータスを " + current + " から " + next + " に変更できません。orderId=" + order.getId());
+        }
+        order.setStatus(next);
+    }
+
+    /**
+     * 画面・API から指定されたステータスに遷移させる。
+     * COMPLETED は明細の完了カウンタからのみ遷移するため、指定できない。
+     *
+     * @param order 対象注文
+     * @param next  遷移先ステータス
+     * @throws IllegalStateException COMPLETED が指定された場合、または許可されていない遷移の場合
+     */
+    @Override
+    public void transitionRequested(TrackedOrder order, OrderStatus next) {
+
+        if (next == OrderStatus.COMPLETED && order.getStatus() != OrderStatus.COMPLETED) {
+            throw new IllegalStateException(
+                    "COMPLETED は全明細の入出庫完了時に自動で設定されるため、指定できません。orderId=" + order.getId());
+        }
+        transition(order, next);
+    }
+
+    /**
+     * 発注・受注確定時に明細カウンタを初期化し、PENDING に遷移させる。
+     * 確定後は明細を編集できないため、ここで設定した件数がそのまま完了判定に使われる。
+     *
+     * @param order      対象注文
+     * @param totalLines 明細数
+     */
+    @Override
+    public void startLines(TrackedOrder order, int totalLines) {
+
+        transition(order, OrderStatus.PENDING);
+        order.setTotalLines(totalLines);
+        order.setCompletedLines(0);
+    }
+
+    /**
+     * カウンタ導入前の注文に対して、カウンタを一度だけ初期化する。
+     *
+     * @param order          対象注文
+     * @param totalLines     明細数
+     * @param completedLines 完了済み明細数（未初期化の場合のみ評価される）
+     */
+    @Override
+    public void ensureCounters(TrackedOrder order, int totalLines, IntSupplier completedLines) {
+
+        if (order.getTotalLines() == null || order.getCompletedLines() == null) {
+            order.setTotalLines(totalLines);
+            order.setCompletedLines(completedLines.getAsInt());
+        }
+    }
+
+    /**
+     * 入出庫による明細の進捗を反映し、注文ステータスを更新する。
+     *
+     * @param order               対象注文
+     * @param newlyCompletedLines 今回完了した明細数
+     * @param anyProgress         今回数量の反映があったか
+     * @return 更新後のステータス
+     */
+    @Override
+    public OrderStatus recordLineProgress(TrackedOrder order, int newlyCompletedLines, boolean anyProgress) {
+
+        if (!anyProgress) {
+            return order.getStatus();
+        }
+        int completed = order.getCompletedLines() + newlyCompletedLines;
+        order.setCompletedLines(completed);
+        transition(order, completed >= order.getTotalLines() ? OrderStatus.COMPLETED : OrderStatus.PROCESSING);
+        return order.getStatus();
+    }
+
+    /**
+     * 再送の受付期間を過ぎたコマンドの記録を一定件数ずつ削除する。
+     * 1回の削除ごとにトランザクションを分け、登録処理とのロック競合を短くする。
+     *
+     * @return 削除した件数
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpiredCommands() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = orderCommandRepository.deleteCreatedBefore(cutoff, retentionBatchSize);
+            total += deleted;
+        } while (deleted >= retentionBatchSize);
+        log.info("受付期間を過ぎた注文コマンドを削除しました。件数={}", total);
+        return total;
+    }
+
+    /**
+     * 定期実行（デフォルト：毎日 4:15）
+     */
+    @Scheduled(cron = "${order-command.retention.cron:0 15 4 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledPurge() {
+        if (!retentionEnabled) {
+            return;
+        }
+        try {
+            purgeExpiredCommands();
+        } catch (Exception e) {
+            log.error("注文コマンドの削除でエラーが発生しました: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -23,7 +24,9 @@ import com.example.ReservationApp.entity.transaction.PurchaseOrder;
 import com.example.ReservationApp.entity.transaction.PurchaseOrderDetail;
 import com.example.ReservationApp.entity.user.User;
 import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.OrderCommandType;
 import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
 import com.example.ReservationApp.enums.SupplierProductStatus;
 import com.example.ReservationApp.enums.UserRole;
 import com.example.ReservationApp.exception.InvalidActionException;
@@ -31,13 +34,13 @@ import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.exception.UnauthorizedException;
 import com.example.ReservationApp.mapper.PurchaseOrderDetailMapper;
 import com.example.ReservationApp.mapper.PurchaseOrderMapper;
-import com.example.ReservationApp.repository.product.ProductRepository;
 import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
 import com.example.ReservationApp.repository.supplier.SupplierRepository;
 import com.example.ReservationApp.repository.transaction.PurchaseOrderDetailRepository;
 import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
 import com.example.ReservationApp.service.impl.auth.UserServiceImpl;
 import com.example.ReservationApp.service.notification.NotificationService;
+import com.example.ReservationApp.service.transaction.OrderStatusService;
 import com.example.ReservationApp.service.transaction.PurchaseOrderDetailService;
 import com.example.ReservationApp.service.transaction.PurchaseOrderService;
 
@@ -67,9 +70,9 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         private final PurchaseOrderMapper purchaseOrderMapper;
         private final PurchaseOrderDetailMapper poDetailMapper;
         private final PurchaseOrderDetailService poDetailService;
-        private final ProductRepository productRepository;
         private final SupplierProductRepository supplierProductRepository;
         private final NotificationService notificationService;
+        private final OrderStatusService orderStatusService;
 
         /**
          * 購入注文を新規作成する。
@@ -88,18 +91,29 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         @Override
         @Transactional
         public ResponseDTO<PurchaseOrderDTO> createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO) {
+                // ログインユーザーを作成者として登録
+                return createPurchaseOrder(purchaseOrderDTO, userService.getCurrentUserEntity());
+        }
+
+        /**
+         * 作成者を指定して購入注文を新規作成する。
+         * ログインユーザーが存在しないバッチ処理（自動発注など）から使用する。
+         *
+         * @param purchaseOrderDTO 注文データ（DTO）
+         * @param createdBy        作成者
+         * @return 作成された注文のレスポンスDTO
+         */
+        @Override
+        @Transactional
+        public ResponseDTO<PurchaseOrderDTO> createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO, User createdBy) {
 
                 log.info("Creating PurchaseOrder... supplierId = {}", purchaseOrderDTO.getSupplierId());
-                // 仕入れ先の取得（商品とカテゴリーも一括ロード）
-                Supplier supplier = supplierRepository
-                                .findSupplierWithProductsAndCategory(purchaseOrderDTO.getSupplierId())
+                // 仕入れ先の取得
+                Supplier supplier = supplierRepository.findById(purchaseOrderDTO.getSupplierId())
                                 .orElseThrow(() -> new NotFoundException("この仕入先は存在していません"));
-                // 仕入れ先に商品が存在するかチェック
-                if (supplier.getSupplierProducts() == null || supplier.getSupplierProducts().isEmpty()) {
-                        throw new NotFoundException("この仕入先には商品がありません");
-                }
-                // ログインユーザー取得
-                User currentUser = userService.getCurrentUserEntity();
+                // 明細の SupplierProduct を商品と合わせて一括ロード（productId → SupplierProduct）
+                Map<Long, SupplierProduct> spMap = loadSupplierProducts(purchaseOrderDTO.getDetails(), supplier.getId());
+                User currentUser = createdBy;
                 // DTO → Entity 変換
                 PurchaseOrder po = purchaseOrderMapper.toEntity(purchaseOrderDTO);
                 po.setSupplier(supplier);
@@ -109,14 +123,14 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                 Map<Long, PurchaseOrderDetail> detailMap = new HashMap<>();
                 List<PurchaseOrderDetail> details = new ArrayList<>();
                 for (PurchaseOrderDetailDTO detailDTO : purchaseOrderDTO.getDetails()) {
-                        Product product = productRepository.findById(detailDTO.getProductId())
-                                        .orElseThrow(() -> new NotFoundException("この商品は存在していません"));
-                        SupplierProduct supplierProduct = supplierProductRepository
-                                        .findByProductIdAndSupplierId(product.getId(), supplier.getId())
-                                        .orElseThrow(() -> new NotFoundException("この仕入先はこの商品を取り扱っていません"));
+                        SupplierProduct supplierProduct = spMap.get(detailDTO.getProductId());
+                        if (supplierProduct == null) {
+                                throw new NotFoundException("この仕入先はこの商品を取り扱っていません");
+                        }
                         if (supplierProduct.getStatus() == SupplierProductStatus.INACTIVE) {
                                 throw new IllegalStateException("この商品は現在購入できません");
                         }
+                        Product product = supplierProduct.getProduct();
                         PurchaseOrderDetail existing = detailMap.get(product.getId());
                         if (existing != null) {
                                 if (existing.getCost().compareTo(detailDTO.getCost()) != 0) {
@@ -157,6 +171,41 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
 
         }
 
+        /**
+         * 明細に対応する SupplierProduct を商品と合わせて一括取得する。
+         * 自動発注のように SupplierProduct ID が指定された明細は ID で、
+         * それ以外は商品ID と仕入先ID で取得する（明細ごとのクエリは発行しない）。
+         *
+         * @param detailDTOs 注文明細
+         * @param supplierId 仕入先ID
+         * @return productId → SupplierProduct のMap（仕入先が異なるものは除外）
+         */
+        private Map<Long, SupplierProduct> loadSupplierProducts(List<PurchaseOrderDetailDTO> detailDTOs,
+                        Long supplierId) {
+
+                List<Long> spIds = detailDTOs.stream()
+                                .map(PurchaseOrderDetailDTO::getSupplierProductId)
+                                .filter(Objects::nonNull)
+                                .distinct()
+                                .toList();
+                List<Long> productIds = detailDTOs.stream()
+                                .filter(d -> d.getSupplierProductId() == null)
+                                .map(PurchaseOrderDetailDTO::getProductId)
+                                .distinct()
+                                .toList();
+                List<SupplierProduct> sps = new ArrayList<>();
+                if (!spIds.isEmpty()) {
+                        sps.addAll(supplierProductRepository.findWithProductByIdIn(spIds));
+                }
+                if (!productIds.isEmpty()) {
+                        sps.addAll(supplierProductRepository.findWithProductByProductIdInAndSupplierId(productIds,
+                                        supplierId));
+                }
+                return sps.stream()
+                                .filter(sp -> supplierId.equals(sp.getSupplier().getId()))
+                                .collect(Collectors.toMap(sp -> sp.getProduct().getId(), sp -> sp, (a, b) -> a));
+        }
+
         /**
          * すべての購入注文を取得する。
          * JOIN FETCH を使用して N+1 問題を回避し、
@@ -254,7 +303,8 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                 PurchaseOrder po = purchaseOrderRepository.findById(poId)
                                 .orElseThrow(() -> new NotFoundException("この注文書は存在していません"));
                 if (purchaseOrderDTO.getStatus() != null) {
-                        po.setStatus(purchaseOrderDTO.getStatus());
+                        // 状態遷移ルールに従ってステータスを更新（COMPLETED は明細の完了時のみ）
+                        orderStatusService.transitionRequested(po, purchaseOrderDTO.getStatus());
                 }
                 if (purchaseOrderDTO.getDescription() != null &&
                                 !purchaseOrderDTO.getDescription().isBlank()) {
@@ -394,16 +444,27 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
          * 指定された購入注文を発注処理として確定します。
          *
          * @param purchaseOrderId 発注処理する購入注文ID
+         * @param requestId       クライアントが付与したリクエストID（再送時の重複排除に使用、任意）
          * @return 更新後のPurchaseOrderDTOを返すResponseDTO
          * @throws NotFoundException     注文書が存在しない場合
          * @throws IllegalStateException 注文書のステータスがNEWでない、商品が含まれない、または数量・単価が無効な場合
          */
         @Override
-        public ResponseDTO<PurchaseOrderDTO> placeOrder(Long purchaseOrderId) {
+        public ResponseDTO<PurchaseOrderDTO> placeOrder(Long purchaseOrderId, String requestId) {
 
                 PurchaseOrder po = purchaseOrderRepository.findById(purchaseOrderId)
                                 .orElseThrow(() -> new NotFoundException("この注文書は存在していません"));
 
+                // 再送されたリクエストは処理せず現在の状態を返す
+                if (!orderStatusService.registerCommand(requestId, RefType.PO, purchaseOrderId,
+                                OrderCommandType.PLACE)) {
+                        return ResponseDTO.<PurchaseOrderDTO>builder()
+                                        .status(HttpStatus.OK.value())
+                                        .message("このリクエストは既に処理済みです")
+                                        .data(purchaseOrderMapper.toDTO(po))
+                                        .build();
+                }
+
                 // ログインユーザー取得
                 User currentUser = userService.getCurrentUserEntity();
 
@@ -425,7 +486,8 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                         detail.setStatus(OrderStatus.PENDING);
                 }
 
-                po.setStatus(OrderStatus.PENDING);
+                // PENDING へ遷移し、明細完了カウンタを初期化
+                orderStatusService.startLines(po, po.getDetails().size());
                 purchaseOrderRepository.save(po);
 
                 notificationService.createNotification(
@@ -0,0 +1,274 @@
+package com.example.ReservationApp.service.impl.transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentCandidateFlatDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentResultDTO;
+import com.example.ReservationApp.dto.transaction.PurchaseOrderDTO;
+import com.example.ReservationApp.dto.transaction.PurchaseOrderDetailDTO;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
+import com.example.ReservationApp.service.transaction.PurchaseOrderService;
+import com.example.ReservationApp.service.transaction.ReplenishmentService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 補充点（Reorder Point）に基づく自動発注サービスの実装クラス。
+ *
+ * SKU（SupplierProduct）ごとに以下を計算し、発注が必要な SKU を仕入先ごとにまとめて
+ * NEW ステータスの発注書（下書き）を作成する。
+ *
+ * ・需要率      d = 直近 windowDays 日の販売数量 / windowDays
+ * ・安全在庫    SS = z × σ(日別販売数量) × √リードタイム
+ * ・補充点      ROP = d × リードタイム + SS
+ * ・在庫ポジション = 有効在庫（数量 - 引当済み）+ 発注残
+ * ・在庫ポジション ≦ ROP の場合、ROP + d × reviewDays まで補充する
+ *
+ * 集計は1クエリで取得し、計算はチャンク単位で仮想スレッドに分割して並列実行する。
+ * 発注書の作成も仕入先単位で並列化し、同時実行数は DB コネクション数に合わせて制限する。
+ * 複数ノードで同時に実行すると発注残の判定が競合して発注書が重複するため、
+ * 実行中はアドバイザリロックを保持するトランザクション（コネクション1本）を開いたままにする。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplenishmentServiceImpl implements ReplenishmentService {
+
+    private final SupplierProductRepository supplierProductRepository;
+    private final UserRepository userRepository;
+    private final PurchaseOrderService purchaseOrderService;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${replenishment.enabled:false}")
+    private boolean enabled;
+
+    @Value("${replenishment.window-days:28}")
+    private int windowDays;
+
+    @Value("${replenishment.review-days:7}")
+    private int reviewDays;
+
+    // サービスレベル係数（1.65 ≒ 欠品許容 5%）
+    @Value("${replenishment.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${replenishment.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${replenishment.parallelism:8}")
+    private int parallelism;
+
+    // 自動発注の作成者（未設定の場合は最初の ADMIN ユーザー）
+    @Value("${replenishment.user-email:}")
+    private String userEmail;
+
+    /**
+     * 発注が必要な SKU の計算結果
+     */
+    record ReorderLine(Long supplierId, Long supplierProductId, Long productId, String sku, BigDecimal price, int qty) {
+    }
+
+    /**
+     * 定期実行（デフォルト：毎日 2:00）
+     */
+    @Scheduled(cron = "${replenishment.cron:0 0 2 * * *}")
+    public void scheduledReplenishment() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runReplenishment();
+        } catch (ResponseStatusException e) {
+            log.info("自動発注処理をスキップします: {}", e.getReason());
+        } catch (Exception e) {
+            log.error("自動発注処理でエラーが発生しました: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 全カタログに対して補充点計算を行い、必要な発注書を作成する。
+     *
+     * @return 評価した SKU 数、発注対象 SKU 数、作成した発注書ID
+     * @throws NotFoundException       発注書の作成者となるユーザーが存在しない場合
+     * @throws ResponseStatusException 別のノードで実行中の場合（409）
+     */
+    @Override
+    public ResponseDTO<ReplenishmentResultDTO> runReplenishment() {
+
+        ResponseDTO<ReplenishmentResultDTO> response = transactionTemplate.execute(
+                status -> purchaseOrderRepository.tryLockReplenishment() ? replenish() : null);
+        if (response == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "自動発注処理は別のノードで実行中です");
+        }
+        return response;
+    }
+
+    /**
+     * 補充点の計算と発注書の作成を行う。発注書はそれぞれ別のトランザクションで作成される。
+     */
+    private ResponseDTO<ReplenishmentResultDTO> replenish() {
+
+        long start = System.currentTimeMillis();
+        User createdBy = resolveCreatedBy();
+
+        List<ReplenishmentCandidateFlatDTO> candidates = supplierProductRepository
+                .findReplenishmentCandidates(windowDays);
+
+        List<ReorderLine> lines = new ArrayList<>();
+        List<Long> createdIds = Collections.synchronizedList(new ArrayList<>());
+        List<Long> failedSupplierIds = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            // 1. チャンク単位で補充点を並列計算
+            List<Future<List<ReorderLine>>> futures = new ArrayList<>();
+            for (int from = 0; from < candidates.size(); from += chunkSize) {
+                List<ReplenishmentCandidateFlatDTO> chunk = candidates.subList(from,
+                        Math.min(from + chunkSize, candidates.size()));
+                futures.add(executor.submit(() -> chunk.stream()
+                        .map(this::evaluate)
+                        .filter(line -> line != null)
+                        .toList()));
+            }
+            for (Future<List<ReorderLine>> future : futures) {
+                lines.addAll(future.get());
+            }
+
+            // 2. 仕入先ごとに発注書（下書き）を作成。同時実行数を制限する
+            Map<Long, List<ReorderLine>> bySupplier = lines.stream()
+                    .collect(Collectors.groupingBy(ReorderLine::supplierId));
+            Semaphore permits = new Semaphore(Math.max(1, parallelism));
+            List<Future<?>> poFutures = new ArrayList<>();
+            for (Map.Entry<Long, List<ReorderLine>> entry : bySupplier.entrySet()) {
+                poFutures.add(executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        PurchaseOrderDTO po = purchaseOrderService
+                                .createPurchaseOrder(toPurchaseOrderDTO(entry.getKey(), entry.getValue()), createdBy)
+                                .getData();
+                        createdIds.add(po.getId());
+                    } catch (Exception e) {
+                        log.warn("自動発注書の作成に失敗しました。supplierId={}, {}", entry.getKey(), e.getMessage());
+                        failedSupplierIds.add(entry.getKey());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> future : poFutures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("自動発注処理が中断されました");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("補充点の計算に失敗しました: " + e.getCause().getMessage());
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("自動発注処理完了: SKU={}, 発注対象={}, 発注書={}, {}ms",
+                candidates.size(), lines.size(), createdIds.size(), elapsed);
+
+        ReplenishmentResultDTO result = ReplenishmentResultDTO.builder()
+                .evaluatedSkuCount(candidates.size())
+                .reorderSkuCount(lines.size())
+                .createdPurchaseOrderIds(createdIds)
+                .failedSupplierIds(failedSupplierIds)
+                .elapsedMillis(elapsed)
+                .build();
+        return ResponseDTO.<ReplenishmentResultDTO>builder()
+                .status(HttpStatus.OK.value())
+                .message("自動発注処理が完了しました")
+                .data(result)
+                .build();
+    }
+
+    /**
+     * 1 SKU の補充点を計算し、発注が必要な場合は発注数量を返す。
+     *
+     * @param c 集計済みの SKU 情報
+     * @return 発注明細（発注不要の場合は null）
+     */
+    ReorderLine evaluate(ReplenishmentCandidateFlatDTO c) {
+
+        if (c.getPrice() == null || c.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            return null;
+        }
+        long sold = c.getSoldQty() != null ? c.getSoldQty() : 0;
+        if (sold <= 0) {
+            // 販売実績のない SKU は補充しない
+            return null;
+        }
+        double mean = (double) sold / windowDays;
+        double squares = c.getSoldQtySquares() != null ? c.getSoldQtySquares() : 0;
+        // 販売のない日（0）も含めた母分散
+        double variance = Math.max(0, squares / windowDays - mean * mean);
+        int leadTime = c.getLeadTime() != null ? Math.max(0, c.getLeadTime()) : 0;
+
+        double safetyStock = serviceLevelZ * Math.sqrt(variance) * Math.sqrt(leadTime);
+        double reorderPoint = mean * leadTime + safetyStock;
+        long position = (c.getAvailableQty() != null ? c.getAvailableQty() : 0)
+                + (c.getOnOrderQty() != null ? c.getOnOrderQty() : 0);
+
+        if (position > reorderPoint) {
+            return null;
+        }
+        int qty = (int) Math.ceil(reorderPoint + mean * reviewDays - position);
+        if (qty <= 0) {
+            return null;
+        }
+        return new ReorderLine(c.getSupplierId(), c.getSupplierProductId(), c.getProductId(), c.getSku(), c.getPrice(), qty);
+    }
+
+    private PurchaseOrderDTO toPurchaseOrderDTO(Long supplierId, List<ReorderLine> lines) {
+
+        List<PurchaseOrderDetailDTO> details = lines.stream()
+                .map(line -> PurchaseOrderDetailDTO.builder()
+                        .supplierProductId(line.supplierProductId())
+                        .productId(line.productId())
+                        .sku(line.sku())
+                        .qty(line.qty())
+                        .cost(line.price())
+                        .build())
+                .toList();
+        return PurchaseOrderDTO.builder()
+                .supplierId(supplierId)
+                .description("自動発注（補充点計算）")
+                .details(details)
+                .build();
+    }
+
+    private User resolveCreatedBy() {
+        if (userEmail != null && !userEmail.isBlank()) {
+            return userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new NotFoundException("自動発注の作成者が見つかりません: " + userEmail));
+        }
+        return userRepository.findFirstByRoleOrderByIdAsc(UserRole.ADMIN)
+                .orElseThrow(() -> new NotFoundException("自動発注の作成者（ADMIN）が見つかりません"));
+    }
+}
@@ -22,7 +22,9 @@ import com.example.ReservationApp.entity.transaction.SalesOrder;
 import com.example.ReservationApp.entity.transaction.SalesOrderDetail;
 import com.example.ReservationApp.entity.user.User;
 import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.OrderCommandType;
 import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
 import com.example.ReservationApp.enums.UserRole;
 import com.example.ReservationApp.exception.InvalidActionException;
 import com.example.ReservationApp.exception.InvalidCredentialException;
@@ -36,6 +38,7 @@ import com.example.ReservationApp.repository.transaction.SalesOrderDetailReposit
 import com.example.ReservationApp.repository.transaction.SalesOrderRepository;
 import com.example.ReservationApp.service.impl.auth.UserServiceImpl;
 import com.example.ReservationApp.service.notification.NotificationService;
+import com.example.ReservationApp.service.transaction.OrderStatusService;
 import com.example.ReservationApp.service.transaction.SalesOrderDetailService;
 import com.example.ReservationApp.service.transaction.SalesOrderService;
 
@@ -56,6 +59,7 @@ public class SalesOrderServiceImpl implements SalesOrderService {
     private final InventoryStockRepository inventoryStockRepository;
     private final SalesOrderDetailRepository soDetailRepository;
     private final NotificationService notificationService;
+    private final OrderStatusService orderStatusService;
 
     /**
      * 新しい SalesOrder を作成する
@@ -204,7 +208,8 @@ public class SalesOrderServiceImpl implements SalesOrderService {
         SalesOrder so = soRepository.findById(soId)
                 .orElseThrow(() -> new NotFoundException("この販売注文書は存在していません"));
         if (salesOrderDTO.getStatus() != null) {
-            so.setStatus(salesOrderDTO.getStatus());
+            // 状態遷移ルールに従ってステータスを更新（COMPLETED は明細の完了時のみ）
+            orderStatusService.transitionRequested(so, salesOrderDTO.getStatus());
         }
         if (salesOrderDTO.getDescription() != null && !salesOrderDTO.getDescription().isBlank()) {
             so.setDescription(salesOrderDTO.getDescription());
@@ -311,12 +316,34 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    /**
+     * 販売注文書を確定し、在庫を引き当てる（NEW → PENDING）。
+     *
+     * @param saleOrderId 対象の販売注文書ID
+     * @param requestId   クライアントが付与したリクエストID（再送時の重複排除に使用、任意）
+     * @return ResponseDTO<SalesOrderDTO> 更新後の販売注文書DTO
+     * @throws NotFoundException          販売注文書が存在しない場合
+     * @throws IllegalStateException      NEW以外の状態、または明細が存在しない場合
+     * @throws InvalidCredentialException 在庫が不足している場合
+     */
     @Override
-    public ResponseDTO<SalesOrderDTO> prepareOrder(Long saleOrderId) {
+    @Transactional
+    public ResponseDTO<SalesOrderDTO> prepareOrder(Long saleOrderId, String requestId) {
 
         SalesOrder so = soRepository.findById(saleOrderId)
                 .orElseThrow(() -> new NotFoundException("この販売注文書は存在していません"));
 
+        // 再送されたリクエストは処理せず現在の状態を返す
+        if (!orderStatusService.registerCommand(requestId, RefType.SO, saleOrderId, OrderCommandType.PREPARE)) {
+            SalesOrderDTO soDTO = soMapper.toDTO(so);
+            soDTO.setDetails(soDetailMapper.toDTOList(so.getDetails()));
+            return ResponseDTO.<SalesOrderDTO>builder()
+                    .status(HttpStatus.OK.value())
+                    .message("このリクエストは既に処理済みです")
+                    .data(soDTO)
+                    .build();
+        }
+
         User currentUser = userService.getCurrentUserEntity();
         if (so.getStatus() != OrderStatus.NEW) {
             throw new IllegalStateException("この販売注文書はすでに処理中です");
@@ -364,8 +391,15 @@ public class SalesOrderServiceImpl implements SalesOrderService {
                 int canReserve = stock.getQuantity() - stock.getReservedQuantity();
                 int reserveQty = Math.min(canReserve, remaining);
 
+                if (reserveQty <= 0) {
+                    continue;
+                }
+                // 予約数量は UPDATE 文で加算する（同時の予約・出庫で引当可能数量が減った場合は更新件数が 0 となる）
+                if (inventoryStockRepository.reserveIfAvailable(stock.getId(), reserveQty) == 0) {
+                    throw new InvalidCredentialException("在庫が不足しています。SKU=" + sku);
+                }
+                // 同じ SKU の後続明細の引当計算のため、読み込んだ在庫にも反映する（DB には書き戻さない）
                 stock.setReservedQuantity(stock.getReservedQuantity() + reserveQty);
-                inventoryStockRepository.save(stock);
 
                 remaining -= reserveQty;
                 if (remaining == 0)
@@ -374,7 +408,8 @@ public class SalesOrderServiceImpl implements SalesOrderService {
             detail.setStatus(OrderStatus.PENDING);
         }
 
-        so.setStatus(OrderStatus.PENDING);
+        // PENDING へ遷移し、明細完了カウンタを初期化
+        orderStatusService.startLines(so, so.getDetails().size());
         soRepository.save(so);
 
         notificationService.createNotification(
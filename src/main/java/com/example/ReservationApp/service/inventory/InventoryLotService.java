@@ -0,0 +1,16 @@
+package com.example.ReservationApp.service.inventory;
+
+import java.util.List;
+
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.enums.RefType;
+
+public interface InventoryLotService {
+
+    InventoryLot createLot(InventoryStock stock, int qty, RefType refType, Long refId);
+
+    List<Long> consumeFifo(InventoryStock stock, int qty);
+
+    int backfillOpeningLots();
+}
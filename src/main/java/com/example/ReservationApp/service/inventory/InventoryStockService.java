@@ -19,9 +19,9 @@ public interface InventoryStockService {
 
     ResponseDTO<List<InventoryStockDTO>> getInventoryStockByProduct(Long productId);
 
-    ResponseDTO<ReceiveStockResultDTO> receiveStock(Long poId, List<ReceiveStockItemDTO> receivedItems);
+    ResponseDTO<ReceiveStockResultDTO> receiveStock(Long poId, String requestId, List<ReceiveStockItemDTO> receivedItems);
 
-    ResponseDTO<DeliverStockResultDTO> deliverStock(Long poId, List<DeliverStockItemDTO> deliverItems);
+    ResponseDTO<DeliverStockResultDTO> deliverStock(Long poId, String requestId, List<DeliverStockItemDTO> deliverItems);
 
     ResponseDTO<InventoryStockDTO> getBySupplierProductIdAndWarehouseId(Long supplierProductId, Long warehouseId);
 
@@ -0,0 +1,19 @@
+package com.example.ReservationApp.service.inventory;
+
+import java.util.List;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationDTO;
+
+public interface WarehouseCapacityService {
+
+    void reserve(Long warehouseId, int qty);
+
+    void adjust(Long warehouseId, int delta);
+
+    ResponseDTO<WarehouseUtilizationDTO> getUtilization(Long warehouseId);
+
+    ResponseDTO<List<WarehouseUtilizationDTO>> getAllUtilization();
+
+    int reconcile();
+}
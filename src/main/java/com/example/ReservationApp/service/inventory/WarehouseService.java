@@ -3,6 +3,7 @@ package com.example.ReservationApp.service.inventory;
 import java.util.List;
 
 import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseDTO;
 import com.example.ReservationApp.dto.response.inventory.WarehouseWithTotalChangedQtyDTO;
 
@@ -23,6 +24,8 @@ public interface WarehouseService {
     ResponseDTO<Void> deleteWarehouse(Long warehouseId);
 
     ResponseDTO<List<WarehouseDTO>> getWarehouseBySkuWithStocks(String sku);
+
+    ResponseDTO<List<InventoryStockDTO>> getWarehouseStocks(Long warehouseId, int page, int size);
     
     ResponseDTO<List<WarehouseWithTotalChangedQtyDTO>> getWarehouseWithTotalChangedQty();
     
@@ -2,8 +2,11 @@ package com.example.ReservationApp.service.notification;
 
 import java.util.List;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.enums.UserRole;
 
 public interface NotificationService {
     ResponseDTO<List<NotificationDTO>> getNotificationsForUser(Long userId);
@@ -17,4 +20,10 @@ public interface NotificationService {
     ResponseDTO<Void> deleteNotification(Long id);
 
     ResponseDTO<Void> markReadAllNotification(Long userId);
+
+    ResponseDTO<NotificationDTO> markBroadcastAsRead(Long userId, Long id);
+
+    SseEmitter subscribe(Long userId, UserRole role);
+
+    void purgeExpiredNotifications();
 }
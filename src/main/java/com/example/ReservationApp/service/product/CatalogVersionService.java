@@ -0,0 +1,12 @@
+package com.example.ReservationApp.service.product;
+
+import java.util.Optional;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+
+public interface CatalogVersionService {
+
+    void bump(CatalogAggregate aggregate);
+
+    Optional<String> currentETag(CatalogAggregate... aggregates);
+}
@@ -0,0 +1,14 @@
+package com.example.ReservationApp.service.product;
+
+import java.util.Collection;
+
+import com.example.ReservationApp.dto.response.product.CategoryInventorySalesOverviewDTO;
+
+public interface CategoryMetricsService {
+
+    CategoryInventorySalesOverviewDTO getOverview(Long categoryId);
+
+    void recompute(Collection<Long> categoryIds);
+
+    void recomputeAll();
+}
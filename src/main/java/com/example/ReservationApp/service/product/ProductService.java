@@ -7,6 +7,7 @@ import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
 import com.example.ReservationApp.dto.response.product.ProductDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDTO;
 import com.example.ReservationApp.dto.response.product.ProductInfoDetailDTO;
+import com.example.ReservationApp.dto.response.product.ProductSuggestionDTO;
 import com.example.ReservationApp.dto.response.product.ProductWithSkuByCategoryDTO;
 import com.example.ReservationApp.dto.response.product.SumReceivedGroupByProductDTO;
 
@@ -24,7 +25,9 @@ public interface ProductService {
 
     ResponseDTO<List<ProductDTO>> getProductsByCategory(Long categoryId);
 
-    ResponseDTO<List<ProductDTO>> searchProducts(String keyword);
+    ResponseDTO<List<ProductDTO>> searchProducts(String keyword, int page, int size);
+
+    ResponseDTO<List<ProductSuggestionDTO>> suggestProducts(String prefix, int limit);
 
     ResponseDTO<ProductInfoDTO> getProductWithSupplierAndStockById(Long productId);
     
@@ -0,0 +1,16 @@
+package com.example.ReservationApp.service.supplier;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingDTO;
+
+public interface ProductSupplierRankingService {
+
+    ResponseDTO<List<ProductSupplierRankingDTO>> getRankings(String sort, int minSuppliers, int page, int size);
+
+    void recompute(Collection<Long> productIds);
+
+    void recomputeAll();
+}
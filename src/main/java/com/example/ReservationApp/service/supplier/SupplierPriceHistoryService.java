@@ -0,0 +1,19 @@
+package com.example.ReservationApp.service.supplier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderCostDTO;
+import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
+
+public interface SupplierPriceHistoryService {
+
+    ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistory(int page, int size);
+
+    ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistoryBySku(String sku, int page, int size);
+
+    ResponseDTO<SupplierProductPriceHistoryDTO> getPriceAsOf(String sku, LocalDate date);
+
+    ResponseDTO<List<PurchaseOrderCostDTO>> getPurchaseOrderCosts(LocalDate from, LocalDate to);
+}
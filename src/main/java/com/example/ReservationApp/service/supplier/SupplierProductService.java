@@ -4,8 +4,9 @@ import java.util.List;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.supplier.CategoryProductsDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierProductsOverviewDTO;
 import com.example.ReservationApp.dto.supplier.SupplierProductDTO;
-import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
+import com.example.ReservationApp.enums.SupplierProductStatus;
 
 public interface SupplierProductService {
 
@@ -13,15 +14,18 @@ public interface SupplierProductService {
 
     ResponseDTO<List<SupplierProductDTO>> getProductsBySupplier(Long supplierId);
 
+    ResponseDTO<List<SupplierProductDTO>> getProductsBySupplierPage(Long supplierId, SupplierProductStatus status,
+            int page, int size);
+
     ResponseDTO<SupplierProductDTO> updateSupplierProduct(String sku, SupplierProductDTO spDTO);
 
     ResponseDTO<Void> deleteSupplierProductBySku(String sku);
 
-    ResponseDTO<List<SupplierProductPriceHistoryDTO>> getPriceHistory();
-
     ResponseDTO<List<CategoryProductsDTO>> getSupplierProductsWithStock(Long supplierId);
     
     ResponseDTO<List<CategoryProductsDTO>> getSupplierProductsWithLeadTime(Long supplierId);
 
+    ResponseDTO<SupplierProductsOverviewDTO> getSupplierProductsOverview(Long supplierId);
+
     ResponseDTO<SupplierProductDTO> getProductsBySkuWithPriceHistory(String sku);
 }
@@ -0,0 +1,25 @@
+package com.example.ReservationApp.service.transaction;
+
+import java.util.function.IntSupplier;
+
+import com.example.ReservationApp.entity.transaction.TrackedOrder;
+import com.example.ReservationApp.enums.OrderCommandType;
+import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
+
+public interface OrderStatusService {
+
+    boolean registerCommand(String requestId, RefType refType, Long orderId, OrderCommandType command);
+
+    void transition(TrackedOrder order, OrderStatus next);
+
+    void transitionRequested(TrackedOrder order, OrderStatus next);
+
+    void startLines(TrackedOrder order, int totalLines);
+
+    void ensureCounters(TrackedOrder order, int totalLines, IntSupplier completedLines);
+
+    OrderStatus recordLineProgress(TrackedOrder order, int newlyCompletedLines, boolean anyProgress);
+
+    int purgeExpiredCommands();
+}
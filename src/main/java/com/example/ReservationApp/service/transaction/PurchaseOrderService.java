@@ -4,11 +4,14 @@ import java.util.List;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.transaction.PurchaseOrderDTO;
+import com.example.ReservationApp.entity.user.User;
 
 public interface PurchaseOrderService {
 
     ResponseDTO<PurchaseOrderDTO> createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO);
 
+    ResponseDTO<PurchaseOrderDTO> createPurchaseOrder(PurchaseOrderDTO purchaseOrderDTO, User createdBy);
+
     ResponseDTO<List<PurchaseOrderDTO>> getAllPurchaseOrders();
 
     ResponseDTO<PurchaseOrderDTO> getPurchaseOrderById(Long purchaseOrderId);
@@ -21,7 +24,7 @@ public interface PurchaseOrderService {
 
     ResponseDTO<Void> deletePurchaseOrder(Long purchaseOrderId);
 
-    ResponseDTO<PurchaseOrderDTO> placeOrder(Long purchaseOrderId);
+    ResponseDTO<PurchaseOrderDTO> placeOrder(Long purchaseOrderId, String requestId);
 
     ResponseDTO<List<PurchaseOrderDTO>> getPurchaseOrderBySupplier(Long supplierId);
 }
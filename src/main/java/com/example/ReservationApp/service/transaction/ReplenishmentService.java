@@ -0,0 +1,9 @@
+package com.example.ReservationApp.service.transaction;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentResultDTO;
+
+public interface ReplenishmentService {
+
+    ResponseDTO<ReplenishmentResultDTO> runReplenishment();
+}
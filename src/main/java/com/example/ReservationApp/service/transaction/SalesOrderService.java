@@ -19,5 +19,5 @@ public interface SalesOrderService {
 
     ResponseDTO<Void> deleteSalesOrder(Long salesOrderId);
 
-    ResponseDTO<SalesOrderDTO> prepareOrder(Long saleOrderId);
+    ResponseDTO<SalesOrderDTO> prepareOrder(Long saleOrderId, String requestId);
 }
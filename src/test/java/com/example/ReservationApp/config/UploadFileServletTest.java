@@ -0,0 +1,215 @@
+package com.example.ReservationApp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+public class UploadFileServletTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private UploadFileServlet servlet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        servlet = new UploadFileServlet(tempDir, 3600, 16);
+        servlet.init(new MockServletConfig());
+        Files.writeString(tempDir.resolve(HASH + ".png"), "0123456789", StandardCharsets.US_ASCII);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        servlet.service(request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String fileName) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + fileName);
+        request.setServletPath("/uploads");
+        request.setPathInfo("/" + fileName);
+        return request;
+    }
+
+    @Test
+    void testServeContentAddressedFile() throws Exception {
+        MockHttpServletResponse response = get(request(HASH + ".png"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader("Cache-Control"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertNotNull(response.getHeader("Last-Modified"));
+    }
+
+    @Test
+    void testLegacyFileUsesShortCache() throws Exception {
+        Files.writeString(tempDir.resolve("legacy.png"), "abc", StandardCharsets.US_ASCII);
+
+        MockHttpServletResponse response = get(request("legacy.png"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("public, max-age=3600", response.getHeader("Cache-Control"));
+        assertNotEquals("\"legacy\"", response.getHeader("ETag"));
+    }
+
+    private void assertLegacyFileServed(String legacyName) throws Exception {
+        Files.writeString(tempDir.resolve(legacyName), "abc", StandardCharsets.US_ASCII);
+
+        MockHttpServletResponse response = get(request(legacyName));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("abc", response.getContentAsString());
+        assertEquals("public, max-age=3600", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testLegacyFileWithSpacesAndParentheses() throws Exception {
+        assertLegacyFileServed("5b1c0e4a-8f2d-4c7e-9a61-0d3f2b7c9e10_my photo (1).png");
+    }
+
+    @Test
+    void testLegacyFileWithUnicodeName() throws Exception {
+        String legacyName = "5b1c0e4a-8f2d-4c7e-9a61-0d3f2b7c9e10_商品 画像.png";
+        // ファイル名の文字コードが UTF-8 でない環境（LANG=C など）では日本語のファイルを作成できない
+        boolean encodable;
+        try {
+            tempDir.resolve(legacyName);
+            encodable = true;
+        } catch (InvalidPathException e) {
+            encodable = false;
+        }
+        assumeTrue(encodable, "ファイルシステムが日本語のファイル名に対応していません");
+        assertLegacyFileServed(legacyName);
+    }
+
+    @Test
+    void testNotModifiedWhenETagMatches() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.addHeader("If-None-Match", "W/\"" + HASH + "\"");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testPartialContent() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.addHeader("Range", "bytes=2-5");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLength());
+    }
+
+    @Test
+    void testSuffixRange() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.addHeader("Range", "bytes=-3");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    void testRangeIgnoredWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"other\"");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void testUnsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.addHeader("Range", "bytes=20-30");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testServePrecompressedSibling() throws Exception {
+        Files.writeString(tempDir.resolve(HASH + ".svg"), "<svg/>", StandardCharsets.US_ASCII);
+        Files.writeString(tempDir.resolve(HASH + ".svg.gz"), "gz", StandardCharsets.US_ASCII);
+        MockHttpServletRequest request = request(HASH + ".svg");
+        request.addHeader("Accept-Encoding", "br;q=0, gzip");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gz", response.getContentAsString());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("image/svg+xml", response.getContentType());
+        assertEquals("\"" + HASH + "-gzip\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    }
+
+    @Test
+    void testRejectTraversalAndMissingFile() throws Exception {
+        assertEquals(404, get(request("..")).getStatus());
+        assertEquals(404, get(request("../secret.png")).getStatus());
+        assertEquals(404, get(request("..\\secret.png")).getStatus());
+        assertEquals(404, get(request(".hidden.png")).getStatus());
+        assertEquals(404, get(request("missing.png")).getStatus());
+    }
+
+    @Test
+    void testDelegateToSendfileWhenSupported() throws Exception {
+        byte[] large = new byte[32];
+        Files.write(tempDir.resolve(HASH + ".jpg"), large);
+        MockHttpServletRequest request = request(HASH + ".jpg");
+        request.setAttribute(UploadFileServlet.SENDFILE_SUPPORTED_ATTR, Boolean.TRUE);
+        request.addHeader("Range", "bytes=8-");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(24, response.getContentLength());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(tempDir.resolve(HASH + ".jpg").toAbsolutePath().toString(),
+                request.getAttribute(UploadFileServlet.SENDFILE_FILENAME_ATTR));
+        assertEquals(8L, request.getAttribute(UploadFileServlet.SENDFILE_START_ATTR));
+        assertEquals(32L, request.getAttribute(UploadFileServlet.SENDFILE_END_ATTR));
+    }
+
+    @Test
+    void testHeadWithoutBody() throws Exception {
+        MockHttpServletRequest request = request(HASH + ".png");
+        request.setMethod("HEAD");
+
+        MockHttpServletResponse response = get(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLength());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ReservationApp.entity.notification;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class NotificationReadMarkerTest {
+
+    @Test
+    void testMarkRead_KeepsGapsInBitmap() {
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).build();
+
+        List<Long> visible = List.of(1L, 2L, 3L, 4L, 5L);
+
+        assertTrue(marker.markRead(3L, visible));
+        assertTrue(marker.markRead(5L, visible));
+
+        assertEquals(0L, marker.getLastReadBroadcastId());
+        assertFalse(marker.isRead(1L));
+        assertTrue(marker.isRead(3L));
+        assertFalse(marker.isRead(4L));
+        assertTrue(marker.isRead(5L));
+    }
+
+    @Test
+    void testMarkRead_AdvancesHighWaterMarkWhenContiguous() {
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).build();
+        List<Long> visible = List.of(1L, 2L, 3L, 4L);
+        marker.markRead(2L, visible);
+        marker.markRead(4L, visible);
+
+        marker.markRead(1L, visible);
+
+        // 1, 2 が連続して既読になったため既読位置は 2、4 はビットマップに残る
+        assertEquals(2L, marker.getLastReadBroadcastId());
+        assertFalse(marker.isRead(3L));
+        assertTrue(marker.isRead(4L));
+
+        marker.markRead(3L, List.of(3L, 4L));
+
+        assertEquals(4L, marker.getLastReadBroadcastId());
+        assertNull(marker.getReadBitmap());
+    }
+
+    @Test
+    void testMarkRead_AlreadyReadIsNoop() {
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).lastReadBroadcastId(10L).build();
+
+        assertFalse(marker.markRead(7L, List.of(11L, 12L)));
+        assertTrue(marker.markRead(12L, List.of(11L, 12L)));
+        assertFalse(marker.markRead(12L, List.of(11L, 12L)));
+    }
+
+    @Test
+    void testMarkRead_SkipsOtherRolesAndDeletedIds() {
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).build();
+
+        // 対象ロールの通知は 1, 4, 9（間の ID は他ロール宛て・削除済み）
+        marker.markRead(1L, List.of(1L, 4L, 9L));
+        assertEquals(3L, marker.getLastReadBroadcastId());
+
+        marker.markRead(9L, List.of(4L, 9L));
+        assertEquals(3L, marker.getLastReadBroadcastId());
+        assertTrue(marker.isRead(9L));
+
+        marker.markRead(4L, List.of(4L, 9L));
+
+        // 既読位置が最新の対象通知まで進み、ビットマップは空になる
+        assertEquals(9L, marker.getLastReadBroadcastId());
+        assertNull(marker.getReadBitmap());
+    }
+
+    @Test
+    void testMarkAllRead_ShiftsRemainingBits() {
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).build();
+        marker.markRead(8L, List.of(6L, 8L));
+
+        marker.markAllRead(5L);
+
+        assertEquals(5L, marker.getLastReadBroadcastId());
+        assertFalse(marker.isRead(6L));
+        assertTrue(marker.isRead(8L));
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.ReservationApp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class IdempotencyFilterTest {
+
+    private static final String KEY = "idempotency:anonymous:key-1";
+    private static final String BODY = "{\"items\":[{\"detailId\":1,\"receivedQty\":5}]}";
+    private static final String RESULT = "{\"status\":200,\"message\":\"受領しました\"}";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyFilter filter;
+
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        filter = new IdempotencyFilter(redisTemplate, objectMapper);
+        ReflectionTestUtils.setField(filter, "ttlHours", 24L);
+    }
+
+    private MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/inventory/stock/1/receive-stock");
+        request.setServletPath("/api/inventory/stock/1/receive-stock");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private FilterChain chain(int status, String responseBody) {
+        return (req, res) -> {
+            chainCalls.incrementAndGet();
+            // 後続でもボディを読み直せること
+            assertEquals(BODY, new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            ((HttpServletResponse) res).setStatus(status);
+            res.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            res.getWriter().write(responseBody);
+        };
+    }
+
+    /**
+     * 初回リクエストを処理させ、Redis に確保された処理中マーカーの JSON を返す。
+     */
+    private String processingMarker() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), chain(200, RESULT));
+        ArgumentCaptor<String> marker = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq(KEY), marker.capture(), any(Duration.class));
+        reset(valueOperations);
+        chainCalls.set(0);
+        return marker.getValue();
+    }
+
+    @Test
+    void testFirstRequest_StoresSuccessfulResponse() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(BODY), response, chain(200, RESULT));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(RESULT, response.getContentAsString(StandardCharsets.UTF_8));
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(KEY), stored.capture(), any(Duration.class));
+        assertTrue(stored.getValue().contains("\"status\":200"));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void testReplay_ReturnsStoredResponseWithoutProcessing() throws Exception {
+        IdempotencyFilter.IdempotencyRecord marker = objectMapper.readValue(processingMarker(),
+                IdempotencyFilter.IdempotencyRecord.class);
+        String stored = objectMapper.writeValueAsString(
+                new IdempotencyFilter.IdempotencyRecord(marker.getFingerprint(), 200, RESULT));
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(stored);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(BODY), response, chain(200, "not expected"));
+
+        assertEquals(0, chainCalls.get());
+        assertEquals(200, response.getStatus());
+        assertEquals(RESULT, response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("true", response.getHeader("Idempotent-Replayed"));
+    }
+
+    @Test
+    void testInProgress_Returns409() throws Exception {
+        String marker = processingMarker();
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(marker);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(BODY), response, chain(200, RESULT));
+
+        assertEquals(0, chainCalls.get());
+        assertEquals(409, response.getStatus());
+    }
+
+    @Test
+    void testFingerprintMismatch_Returns422() throws Exception {
+        String marker = processingMarker();
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get(KEY)).thenReturn(marker);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("{\"items\":[{\"detailId\":1,\"receivedQty\":6}]}"), response,
+                chain(200, RESULT));
+
+        assertEquals(0, chainCalls.get());
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void testFailedRequest_ReleasesKey() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(BODY), response, chain(400, "{\"status\":400}"));
+
+        assertEquals(400, response.getStatus());
+        verify(redisTemplate).delete(KEY);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void testRedisDown_FailsOpen() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(BODY), response, chain(200, RESULT));
+
+        assertEquals(1, chainCalls.get());
+        assertEquals(200, response.getStatus());
+        assertEquals(RESULT, response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCachedBody_NotifiesReadListener() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        AtomicReference<String> read = new AtomicReference<>();
+        AtomicInteger allDataRead = new AtomicInteger();
+        FilterChain asyncChain = (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        out.write(in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    read.set(out.toString(StandardCharsets.UTF_8));
+                    allDataRead.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t);
+                }
+            });
+            ((HttpServletResponse) res).setStatus(200);
+        };
+
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), asyncChain);
+
+        assertEquals(1, allDataRead.get());
+        assertEquals(BODY, read.get());
+    }
+
+    /**
+     * 後続に渡された X-Request-Id を記録するチェーン。
+     */
+    private FilterChain requestIdChain(List<String> requestIds) {
+        return (req, res) -> {
+            requestIds.add(((HttpServletRequest) req).getHeader("X-Request-Id"));
+            ((HttpServletResponse) res).setStatus(200);
+        };
+    }
+
+    @Test
+    void testDerivedRequestId_DependsOnUserAndBody() throws Exception {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        List<String> requestIds = new ArrayList<>();
+
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), requestIdChain(requestIds));
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), requestIdChain(requestIds));
+        filter.doFilter(request("{\"items\":[{\"detailId\":2,\"receivedQty\":1}]}"),
+                new MockHttpServletResponse(), requestIdChain(requestIds));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("staff-2", null));
+        try {
+            filter.doFilter(request(BODY), new MockHttpServletResponse(), requestIdChain(requestIds));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // キーをそのまま渡さず、同じユーザー・同じ内容の場合のみ同じ ID になる
+        assertNotEquals("key-1", requestIds.get(0));
+        assertEquals(requestIds.get(0), requestIds.get(1));
+        assertNotEquals(requestIds.get(0), requestIds.get(2));
+        assertNotEquals(requestIds.get(0), requestIds.get(3));
+    }
+
+    @Test
+    void testExplicitRequestId_PassedThrough() throws Exception {
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        List<String> requestIds = new ArrayList<>();
+        MockHttpServletRequest request = request(BODY);
+        request.addHeader("X-Request-Id", "scan-42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), requestIdChain(requestIds));
+
+        assertEquals(List.of("scan-42"), requestIds);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.ReservationApp.service.impl;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.response.storage.ImageVariantDTO;
+import com.example.ReservationApp.entity.storage.ImageVariant;
+import com.example.ReservationApp.repository.storage.ImageVariantRepository;
+
+public class StorageServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ImageVariantRepository imageVariantRepository;
+
+    private StorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        storageService = new StorageServiceImpl(imageVariantRepository);
+        ReflectionTestUtils.setField(storageService, "location", tempDir.toString());
+        ReflectionTestUtils.setField(storageService, "thumbnailWidths", List.of(160, 320, 1000));
+        ReflectionTestUtils.setField(storageService, "workers", 2);
+        ReflectionTestUtils.setField(storageService, "queueCapacity", 4);
+        ReflectionTestUtils.setField(storageService, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(storageService, "timeoutSeconds", 30L);
+        ReflectionTestUtils.setField(storageService, "maxPixels", 40_000_000L);
+        storageService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width / 2, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStoreFile_ContentAddressedWithThumbnails() throws Exception {
+        byte[] bytes = png(800, 400);
+        MockMultipartFile file = new MockMultipartFile("file", "cat.PNG", "image/png", bytes);
+
+        String url = storageService.storeFile(file);
+
+        assertTrue(url.matches("/uploads/[0-9a-f]{64}\\.png"));
+        String hash = StorageServiceImpl.contentHashOf(url);
+        assertTrue(Files.exists(tempDir.resolve(hash + ".png")));
+        assertTrue(Files.exists(tempDir.resolve(hash + "_w160.jpg")));
+        assertTrue(Files.exists(tempDir.resolve(hash + "_w320.jpg")));
+        // 原本より大きい幅は生成しない
+        assertFalse(Files.exists(tempDir.resolve(hash + "_w1000.jpg")));
+
+        BufferedImage thumbnail = ImageIO.read(tempDir.resolve(hash + "_w320.jpg").toFile());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(160, thumbnail.getHeight());
+
+        ArgumentCaptor<List<ImageVariant>> captor = ArgumentCaptor.forClass(List.class);
+        verify(imageVariantRepository).saveAll(captor.capture());
+        List<ImageVariant> variants = captor.getValue();
+        assertEquals(3, variants.size());
+        assertTrue(variants.get(0).isOriginal());
+        assertEquals(800, variants.get(0).getWidth());
+        assertEquals(List.of(160, 320), variants.subList(1, 3).stream().map(ImageVariant::getWidth).toList());
+
+        // 一時ファイルが残っていないこと
+        try (var files = Files.list(tempDir)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void testStoreBase64_DeduplicatesSameContent() throws Exception {
+        byte[] bytes = png(120, 80);
+        String first = storageService.storeFile(new MockMultipartFile("file", "a.png", "image/png", bytes));
+        when(imageVariantRepository.existsByContentHash(anyString())).thenReturn(true);
+
+        String second = storageService.storeBase64Image(
+                "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes));
+
+        assertEquals(first, second);
+        verify(imageVariantRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testStoreFile_RejectsNonImage() {
+        MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain", "abc".getBytes());
+        assertThrows(RuntimeException.class, () -> storageService.storeFile(file));
+    }
+
+    @Test
+    void testStoreBase64_RejectsTooManyPixels() throws Exception {
+        ReflectionTestUtils.setField(storageService, "maxPixels", 10_000L);
+        String base64 = "data:image/png;base64," + Base64.getEncoder().encodeToString(png(200, 100));
+
+        assertThrows(IllegalArgumentException.class, () -> storageService.storeBase64Image(base64));
+        // 原本・一時ファイルとも残さない
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        verify(imageVariantRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testFindVariants() {
+        String hash = "a".repeat(64);
+        String url = "/uploads/" + hash + ".png";
+        when(imageVariantRepository.findByContentHashInOrderByContentHashAscWidthAsc(anyCollection()))
+                .thenReturn(List.of(
+                        ImageVariant.builder().contentHash(hash).width(160).height(80)
+                                .url("/uploads/" + hash + "_w160.jpg").build(),
+                        ImageVariant.builder().contentHash(hash).width(800).height(400).url(url).original(true)
+                                .build()));
+
+        Map<String, List<ImageVariantDTO>> variants = storageService
+                .findVariants(List.of(url, "/uploads/legacy_image.jpg"));
+
+        assertEquals(1, variants.size());
+        assertEquals(2, variants.get(url).size());
+        assertEquals("/uploads/" + hash + "_w160.jpg", variants.get(url).get(0).getUrl());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.repository.inventory.InventoryLotRepository;
+
+public class InventoryLotServiceImplTest {
+
+    @Mock
+    private InventoryLotRepository inventoryLotRepository;
+
+    @InjectMocks
+    private InventoryLotServiceImpl inventoryLotService;
+
+    private InventoryStock stock;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        stock = new InventoryStock();
+        stock.setId(7L);
+    }
+
+    private List<InventoryLot> lots(long firstId, int count, int qty) {
+        List<InventoryLot> lots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lots.add(InventoryLot.builder().id(firstId + i).receivedQty(qty).remainingQty(qty).build());
+        }
+        return lots;
+    }
+
+    @Test
+    void testConsumeFifo_ReadsNextPageAfterFirstIsExhausted() {
+        List<InventoryLot> firstPage = lots(1L, InventoryLotServiceImpl.LOT_FETCH_SIZE, 1);
+        List<InventoryLot> secondPage = lots(100L, 2, 10);
+        when(inventoryLotRepository.findOpenLotsFifo(eq(7L), any(Pageable.class)))
+                .thenReturn(firstPage, secondPage);
+
+        List<Long> consumed = inventoryLotService.consumeFifo(stock, InventoryLotServiceImpl.LOT_FETCH_SIZE + 15);
+
+        assertEquals(InventoryLotServiceImpl.LOT_FETCH_SIZE + 2, consumed.size());
+        assertEquals(1L, consumed.get(0));
+        assertEquals(101L, consumed.get(consumed.size() - 1));
+        assertTrue(firstPage.stream().allMatch(lot -> lot.getRemainingQty() == 0));
+        assertEquals(0, secondPage.get(0).getRemainingQty());
+        assertEquals(5, secondPage.get(1).getRemainingQty());
+        verify(inventoryLotRepository, times(2)).findOpenLotsFifo(eq(7L), any(Pageable.class));
+    }
+
+    @Test
+    void testConsumeFifo_StopsWhenNoLotsRemain() {
+        List<InventoryLot> page = lots(1L, 1, 3);
+        when(inventoryLotRepository.findOpenLotsFifo(eq(7L), any(Pageable.class)))
+                .thenReturn(page, List.of());
+
+        List<Long> consumed = inventoryLotService.consumeFifo(stock, 5);
+
+        assertEquals(List.of(1L), consumed);
+        assertEquals(0, page.get(0).getRemainingQty());
+    }
+
+    @Test
+    void testBackfillOpeningLots_LocksBeforeInsert() {
+        when(inventoryLotRepository.backfillOpeningLots()).thenReturn(4);
+
+        assertEquals(4, inventoryLotService.backfillOpeningLots());
+
+        InOrder inOrder = inOrder(inventoryLotRepository);
+        inOrder.verify(inventoryLotRepository).lockBackfill();
+        inOrder.verify(inventoryLotRepository).backfillOpeningLots();
+    }
+}
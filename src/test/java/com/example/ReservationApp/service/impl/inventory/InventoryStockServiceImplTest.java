@@ -0,0 +1,213 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.request.ReceiveStockItemDTO;
+import com.example.ReservationApp.dto.response.inventory.ReceiveStockResultDTO;
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.entity.product.Product;
+import com.example.ReservationApp.entity.supplier.Supplier;
+import com.example.ReservationApp.entity.supplier.SupplierProduct;
+import com.example.ReservationApp.entity.transaction.PurchaseOrder;
+import com.example.ReservationApp.entity.transaction.PurchaseOrderDetail;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.OrderCommandType;
+import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.exception.InvalidCredentialException;
+import com.example.ReservationApp.mapper.StockHistoryMapper;
+import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
+import com.example.ReservationApp.repository.inventory.StockHistoryRepository;
+import com.example.ReservationApp.repository.inventory.WarehouseRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderDetailRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
+import com.example.ReservationApp.service.auth.UserService;
+import com.example.ReservationApp.service.inventory.InventoryLotService;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
+import com.example.ReservationApp.service.notification.NotificationService;
+import com.example.ReservationApp.service.transaction.OrderStatusService;
+
+public class InventoryStockServiceImplTest {
+
+    @Mock
+    private InventoryStockRepository inventoryStockRepository;
+
+    @Mock
+    private InventoryLotService inventoryLotService;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private StockHistoryMapper stockHistoryMapper;
+
+    @Mock
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock
+    private PurchaseOrderDetailRepository poDetailRepository;
+
+    @Mock
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Mock
+    private SupplierProductRepository supplierProductRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private OrderStatusService orderStatusService;
+
+    @Mock
+    private WarehouseCapacityService warehouseCapacityService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private InventoryStockServiceImpl inventoryStockService;
+
+    private PurchaseOrder po;
+    private PurchaseOrderDetail legacyDetail;
+    private PurchaseOrderDetail newDetail;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        Supplier supplier = new Supplier();
+        supplier.setId(5L);
+
+        Product milk = new Product();
+        milk.setId(101L);
+        Product butter = new Product();
+        butter.setId(102L);
+
+        // received_qty カラム導入前の明細（受領済み数量は履歴から補完される）
+        legacyDetail = PurchaseOrderDetail.builder()
+                .id(11L).product(milk).qty(10).status(OrderStatus.PROCESSING).receivedQty(null).build();
+        // カラム導入後に受領された明細
+        newDetail = PurchaseOrderDetail.builder()
+                .id(12L).product(butter).qty(5).status(OrderStatus.PROCESSING).receivedQty(2).build();
+
+        po = new PurchaseOrder();
+        po.setId(1L);
+        po.setSupplier(supplier);
+        po.setStatus(OrderStatus.PROCESSING);
+        po.setDetails(new ArrayList<>(List.of(legacyDetail, newDetail)));
+
+        SupplierProduct milkSp = SupplierProduct.builder().id(201L).product(milk).supplier(supplier).build();
+        SupplierProduct butterSp = SupplierProduct.builder().id(202L).product(butter).supplier(supplier).build();
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setId(1L);
+
+        InventoryStock milkStock = new InventoryStock();
+        milkStock.setId(301L);
+        milkStock.setSupplierProduct(milkSp);
+        milkStock.setWarehouse(warehouse);
+        milkStock.setQuantity(3);
+        InventoryStock butterStock = new InventoryStock();
+        butterStock.setId(302L);
+        butterStock.setSupplierProduct(butterSp);
+        butterStock.setWarehouse(warehouse);
+        butterStock.setQuantity(2);
+
+        User user = new User();
+        user.setId(7L);
+        user.setName("担当者");
+
+        InventoryLot lot = new InventoryLot();
+        lot.setId(401L);
+
+        // 過去の入庫履歴では milk が 3 個受領済み
+        List<Object[]> receivedRows = new ArrayList<>();
+        receivedRows.add(new Object[] { 201L, 3L, "SKU-MILK" });
+        List<SupplierProduct> sps = List.of(milkSp, butterSp);
+        List<InventoryStock> stocks = List.of(milkStock, butterStock);
+
+        when(purchaseOrderRepository.findByIdWithDetails(1L)).thenReturn(Optional.of(po));
+        when(orderStatusService.registerCommand(any(), eq(RefType.PO), eq(1L), eq(OrderCommandType.RECEIVE)))
+                .thenReturn(true);
+        when(userService.getCurrentUserEntity()).thenReturn(user);
+        when(supplierProductRepository.findByProductIdInAndSupplierId(any(), eq(5L))).thenReturn(sps);
+        when(inventoryStockRepository.findBySupplierProductIdInAndWarehouseIdIn(any(), any())).thenReturn(stocks);
+        when(stockHistoryRepository.sumReceivedQtyByPoGroupBySupplierProduct(1L)).thenReturn(receivedRows);
+        when(inventoryLotService.createLot(any(), anyInt(), eq(RefType.PO), anyLong())).thenReturn(lot);
+    }
+
+    @Test
+    void testReceiveStock_BackfillsLegacyAndAccumulatesNewLines() {
+        List<ReceiveStockItemDTO> items = List.of(
+                ReceiveStockItemDTO.builder().detailId(11L).warehouseId(1L).receivedQty(4).build(),
+                ReceiveStockItemDTO.builder().detailId(12L).warehouseId(1L).receivedQty(3).build());
+
+        ResponseDTO<ReceiveStockResultDTO> response = inventoryStockService.receiveStock(1L, "req-1", items);
+
+        assertEquals(200, response.getStatus());
+        // 旧明細: 履歴の 3 + 今回の 4
+        assertEquals(7, legacyDetail.getReceivedQty());
+        assertEquals(3, legacyDetail.getQty() - legacyDetail.getReceivedQty());
+        assertEquals(OrderStatus.PROCESSING, legacyDetail.getStatus());
+        // 新明細: 保存済みの 2 + 今回の 3 で完了
+        assertEquals(5, newDetail.getReceivedQty());
+        assertEquals(0, newDetail.getQty() - newDetail.getReceivedQty());
+        assertEquals(OrderStatus.COMPLETED, newDetail.getStatus());
+        assertEquals(List.of(12L), response.getData().getCompletedDetailIds());
+
+        verify(stockHistoryRepository, times(1)).sumReceivedQtyByPoGroupBySupplierProduct(1L);
+        verify(poDetailRepository).save(legacyDetail);
+        verify(poDetailRepository).save(newDetail);
+        verify(orderStatusService).recordLineProgress(po, 1, true);
+    }
+
+    @Test
+    void testReceiveStock_NoBackfillWhenAllLinesHaveReceivedQty() {
+        legacyDetail.setReceivedQty(3);
+        List<ReceiveStockItemDTO> items = List.of(
+                ReceiveStockItemDTO.builder().detailId(11L).warehouseId(1L).receivedQty(7).build());
+
+        inventoryStockService.receiveStock(1L, "req-2", items);
+
+        assertEquals(10, legacyDetail.getReceivedQty());
+        assertEquals(OrderStatus.COMPLETED, legacyDetail.getStatus());
+        verify(stockHistoryRepository, never()).sumReceivedQtyByPoGroupBySupplierProduct(anyLong());
+    }
+
+    @Test
+    void testReceiveStock_OverReceiptOfLegacyLineRejected() {
+        // 残数は 10 - 3 = 7 なので 8 個の受領は発注数量超過
+        List<ReceiveStockItemDTO> items = List.of(
+                ReceiveStockItemDTO.builder().detailId(11L).warehouseId(1L).receivedQty(8).build());
+
+        assertThrows(InvalidCredentialException.class,
+                () -> inventoryStockService.receiveStock(1L, "req-3", items));
+        assertEquals(3, legacyDetail.getReceivedQty());
+        verify(poDetailRepository, never()).save(any());
+        verify(warehouseCapacityService, never()).reserve(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.ReservationApp.dto.response.inventory.StockHistoryDTO;
+import com.example.ReservationApp.entity.inventory.InventoryLot;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.entity.inventory.StockHistory;
+import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.entity.product.Product;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.enums.StockChangeType;
+import com.example.ReservationApp.mapper.StockHistoryMapper;
+import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
+import com.example.ReservationApp.repository.inventory.StockHistoryRepository;
+import com.example.ReservationApp.service.inventory.InventoryLotService;
+import com.example.ReservationApp.service.inventory.WarehouseCapacityService;
+
+public class StockHistoryServiceImplTest {
+
+    @Mock
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Mock
+    private InventoryStockRepository inventoryStockRepository;
+
+    @Mock
+    private StockHistoryMapper stockHistoryMapper;
+
+    @Mock
+    private WarehouseCapacityService warehouseCapacityService;
+
+    @Mock
+    private InventoryLotService inventoryLotService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StockHistoryServiceImpl stockHistoryService;
+
+    private InventoryStock stock;
+    private StockHistory history;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Product product = new Product();
+        product.setId(3L);
+        stock = new InventoryStock();
+        stock.setId(10L);
+        stock.setQuantity(20);
+        stock.setProduct(product);
+        stock.setWarehouse(Warehouse.builder().id(2L).build());
+        history = new StockHistory();
+        history.setId(99L);
+        history.setType(StockChangeType.ADJ);
+        when(inventoryStockRepository.findById(10L)).thenReturn(Optional.of(stock));
+        when(stockHistoryMapper.toEntity(any(StockHistoryDTO.class))).thenReturn(history);
+        when(inventoryStockRepository.adjustQuantity(eq(10L), anyInt())).thenReturn(1);
+    }
+
+    @Test
+    void testCreateStockHistory_NegativeAdjustmentConsumesLotsFifo() {
+        when(inventoryLotService.consumeFifo(stock, 8)).thenReturn(List.of(4L, 5L));
+
+        stockHistoryService.createStockHistory(StockHistoryDTO.builder().changeQty(-8).build(), 10L);
+
+        verify(inventoryLotService).consumeFifo(stock, 8);
+        verify(inventoryLotService, never()).createLot(any(), anyInt(), any(), any());
+        assertEquals("4,5", history.getLotIds());
+        verify(inventoryStockRepository).adjustQuantity(10L, -8);
+        verify(inventoryStockRepository, never()).save(any());
+        verify(warehouseCapacityService).adjust(2L, -8);
+    }
+
+    @Test
+    void testCreateStockHistory_PositiveAdjustmentCreatesAdjLot() {
+        InventoryLot lot = InventoryLot.builder().id(30L).build();
+        when(inventoryLotService.createLot(stock, 5, RefType.ADJ, 99L)).thenReturn(lot);
+
+        stockHistoryService.createStockHistory(StockHistoryDTO.builder().changeQty(5).build(), 10L);
+
+        verify(inventoryLotService).createLot(eq(stock), eq(5), eq(RefType.ADJ), eq(99L));
+        verify(inventoryLotService, never()).consumeFifo(any(), anyInt());
+        assertEquals("30", history.getLotIds());
+        verify(inventoryStockRepository).adjustQuantity(10L, 5);
+    }
+
+    @Test
+    void testCreateStockHistory_ConcurrentShortageRejected() {
+        // 読み込んだ時点では足りていたが、同時の出庫で UPDATE の条件を満たさなくなった場合
+        when(inventoryStockRepository.adjustQuantity(10L, -8)).thenReturn(0);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> stockHistoryService.createStockHistory(StockHistoryDTO.builder().changeQty(-8).build(), 10L));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(inventoryLotService, never()).consumeFifo(any(), anyInt());
+    }
+}
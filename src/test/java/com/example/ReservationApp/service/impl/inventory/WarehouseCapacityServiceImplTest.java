@@ -0,0 +1,114 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseUtilizationFlatDTO;
+import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.repository.inventory.WarehouseRepository;
+
+public class WarehouseCapacityServiceImplTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private WarehouseCapacityServiceImpl warehouseCapacityService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private WarehouseUtilizationFlatDTO row(Long id, Integer stockLimit, Long usedQuantity) {
+        WarehouseUtilizationFlatDTO row = mock(WarehouseUtilizationFlatDTO.class);
+        when(row.getWarehouseId()).thenReturn(id);
+        when(row.getName()).thenReturn("東京倉庫");
+        when(row.getStockLimit()).thenReturn(stockLimit);
+        when(row.getUsedQuantity()).thenReturn(usedQuantity);
+        return row;
+    }
+
+    @Test
+    void testReserve_WithinLimit() {
+        when(warehouseRepository.reserveCapacity(1L, 30)).thenReturn(1);
+
+        warehouseCapacityService.reserve(1L, 30);
+
+        verify(warehouseRepository).reserveCapacity(1L, 30);
+        verify(warehouseRepository, never()).findUtilizationById(anyLong());
+    }
+
+    @Test
+    void testReserve_OverLimitIsRejected() {
+        WarehouseUtilizationFlatDTO row = row(1L, 100, 90L);
+        when(warehouseRepository.reserveCapacity(1L, 30)).thenReturn(0);
+        when(warehouseRepository.findUtilizationById(1L)).thenReturn(Optional.of(row));
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> warehouseCapacityService.reserve(1L, 30));
+
+        assertTrue(e.getMessage().contains("上限=100"));
+        assertTrue(e.getMessage().contains("使用量=90"));
+    }
+
+    @Test
+    void testReserve_WarehouseNotFound() {
+        when(warehouseRepository.reserveCapacity(9L, 1)).thenReturn(0);
+        when(warehouseRepository.findUtilizationById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> warehouseCapacityService.reserve(9L, 1));
+    }
+
+    @Test
+    void testGetUtilization_ComputesRateAndAvailable() {
+        WarehouseUtilizationFlatDTO row = row(1L, 200, 50L);
+        when(warehouseRepository.findUtilizationById(1L)).thenReturn(Optional.of(row));
+
+        WarehouseUtilizationDTO dto = warehouseCapacityService.getUtilization(1L).getData();
+
+        assertEquals(150L, dto.getAvailableCapacity());
+        assertEquals(new BigDecimal("25.00"), dto.getUtilizationRate());
+    }
+
+    @Test
+    void testReconcile_CorrectsOnlyDriftedWarehouses() {
+        when(warehouseRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(warehouseRepository.findForUpdate(1L)).thenReturn(Optional.of(Warehouse.builder().id(1L).usedQuantity(10).build()));
+        when(warehouseRepository.findForUpdate(2L)).thenReturn(Optional.of(Warehouse.builder().id(2L).usedQuantity(5).build()));
+        when(warehouseRepository.findForUpdate(3L)).thenReturn(Optional.of(Warehouse.builder().id(3L).build()));
+        when(warehouseRepository.sumQuantity(1L)).thenReturn(10L);
+        when(warehouseRepository.sumQuantity(2L)).thenReturn(7L);
+        when(warehouseRepository.sumQuantity(3L)).thenReturn(4L);
+
+        int corrected = warehouseCapacityService.reconcile();
+
+        assertEquals(2, corrected);
+        verify(warehouseRepository, never()).setUsedQuantity(eq(1L), anyLong());
+        verify(warehouseRepository).setUsedQuantity(2L, 7L);
+        verify(warehouseRepository).setUsedQuantity(3L, 4L);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ReservationApp.service.impl.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.inventory.InventoryStockDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseDTO;
+import com.example.ReservationApp.dto.response.inventory.WarehouseSummaryFlatDTO;
+import com.example.ReservationApp.entity.inventory.InventoryStock;
+import com.example.ReservationApp.entity.inventory.Warehouse;
+import com.example.ReservationApp.enums.WarehouseStatus;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.InventoryStockMapper;
+import com.example.ReservationApp.mapper.WarehouseMapper;
+import com.example.ReservationApp.repository.inventory.InventoryStockRepository;
+import com.example.ReservationApp.repository.inventory.WarehouseRepository;
+
+public class WarehouseServiceImplTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private InventoryStockRepository inventoryStockRepository;
+
+    @Mock
+    private InventoryStockMapper inventoryStockMapper;
+
+    @Mock
+    private WarehouseMapper warehouseMapper;
+
+    @InjectMocks
+    private WarehouseServiceImpl warehouseService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetAllWarehouse_UsesSummariesWithoutStocks() {
+        WarehouseSummaryFlatDTO row = mock(WarehouseSummaryFlatDTO.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getName()).thenReturn("東京倉庫");
+        when(row.getStatus()).thenReturn("ACTIVE");
+        when(row.getStockLimit()).thenReturn(400);
+        when(row.getSkuCount()).thenReturn(3L);
+        when(row.getOnHandQuantity()).thenReturn(100L);
+        when(row.getReservedQuantity()).thenReturn(20L);
+        when(row.getUsedQuantity()).thenReturn(100L);
+        List<WarehouseSummaryFlatDTO> rows = List.of(row);
+        when(warehouseRepository.findAllSummaries()).thenReturn(rows);
+
+        List<WarehouseDTO> result = warehouseService.getAllWarehouse().getData();
+
+        assertEquals(1, result.size());
+        WarehouseDTO dto = result.get(0);
+        assertEquals(WarehouseStatus.ACTIVE, dto.getStatus());
+        assertEquals(3L, dto.getSkuCount());
+        assertEquals(20L, dto.getReservedQuantity());
+        assertEquals(new BigDecimal("25.00"), dto.getUtilizationRate());
+        assertNull(dto.getStocks());
+        verifyNoInteractions(inventoryStockMapper);
+    }
+
+    @Test
+    void testDeleteWarehouse_RejectsWhenStockRemains() {
+        Warehouse warehouse = Warehouse.builder().id(1L).build();
+        when(warehouseRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(inventoryStockRepository.existsByWarehouseIdAndQuantityGreaterThan(1L, 0)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> warehouseService.deleteWarehouse(1L));
+        verify(warehouseRepository, never()).delete(any());
+    }
+
+    @Test
+    void testGetWarehouseStocks_PagesAndClampsSize() {
+        List<InventoryStock> stocks = List.of(new InventoryStock());
+        Page<InventoryStock> page = new PageImpl<>(stocks, PageRequest.of(0, 200), 250);
+        List<InventoryStockDTO> dtos = List.of(new InventoryStockDTO());
+        when(warehouseRepository.existsById(1L)).thenReturn(true);
+        when(inventoryStockRepository.findPageByWarehouseId(eq(1L), any(Pageable.class))).thenReturn(page);
+        when(inventoryStockMapper.toDTOList(stocks)).thenReturn(dtos);
+
+        ResponseDTO<List<InventoryStockDTO>> response = warehouseService.getWarehouseStocks(1L, -1, 1000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(inventoryStockRepository).findPageByWarehouseId(eq(1L), pageable.capture());
+        assertEquals(0, pageable.getValue().getPageNumber());
+        assertEquals(200, pageable.getValue().getPageSize());
+        assertEquals(250L, response.getTotal());
+        assertEquals(1, response.getData().size());
+    }
+
+    @Test
+    void testGetWarehouseStocks_WarehouseNotFound() {
+        when(warehouseRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> warehouseService.getWarehouseStocks(9L, 0, 50));
+        verify(inventoryStockRepository, never()).findPageByWarehouseId(anyLong(), any());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.example.ReservationApp.event.NotificationRequestedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationDispatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher(jdbcTemplate, eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ReflectionTestUtils.getField(dispatcher, "worker") != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private NotificationDTO request(Long userId) {
+        return NotificationDTO.builder()
+                .userId(userId)
+                .title("在庫の出庫処理が行われました")
+                .type(NotificationType.STOCK)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnSavedRows() {
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    String sql = invocation.getArgument(0);
+                    int rows = sql.split("\\(\\?", -1).length - 1;
+                    List<NotificationDTO> saved = new ArrayList<>();
+                    for (int i = 0; i < rows; i++) {
+                        saved.add(NotificationDTO.builder().id((long) i + 1).userId(1L).build());
+                    }
+                    return saved;
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_InsertsInOneStatementAndPublishesCreatedEvents() {
+        returnSavedRows();
+
+        dispatcher.flush(List.of(request(1L), request(2L), request(3L)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).query(sql.capture(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        assertTrue(sql.getValue().startsWith("INSERT INTO notifications"));
+        assertTrue(sql.getValue().contains("RETURNING id"));
+        verify(eventPublisher, times(3)).publishEvent(any(NotificationCreatedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_BroadcastsGoToSeparateTable() {
+        returnSavedRows();
+        NotificationDTO broadcast = NotificationDTO.builder().targetRole(UserRole.ADMIN).title("入庫").build();
+
+        dispatcher.flush(List.of(request(1L), broadcast));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        assertTrue(sql.getAllValues().get(0).startsWith("INSERT INTO notifications"));
+        assertTrue(sql.getAllValues().get(1).startsWith("INSERT INTO broadcast_notifications"));
+        verify(eventPublisher, times(2)).publishEvent(any(NotificationCreatedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_FailureDoesNotPropagate() {
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertDoesNotThrow(() -> dispatcher.flush(List.of(request(1L))));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_RetriesRowByRowAfterBadRow() {
+        // 3件まとめた INSERT は不正な行で失敗し、1件ずつの INSERT では不正な行のみ失敗する
+        NotificationDTO bad = NotificationDTO.builder().userId(2L).title("x".repeat(300)).build();
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenReturn(List.of(NotificationDTO.builder().id(1L).userId(1L).build()))
+                .thenThrow(new DataIntegrityViolationException("value too long"))
+                .thenReturn(List.of(NotificationDTO.builder().id(3L).userId(3L).build()));
+
+        dispatcher.flush(List.of(request(1L), bad, request(3L)));
+
+        verify(jdbcTemplate, times(4)).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        ArgumentCaptor<NotificationCreatedEvent> events = ArgumentCaptor.forClass(NotificationCreatedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(1L, 3L), events.getAllValues().stream().map(e -> e.notification().getId()).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_ConnectionFailureNotRetried() {
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        dispatcher.flush(List.of(request(1L), request(2L), request(3L)));
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnNotificationRequested_DispatchedByWorker() {
+        returnSavedRows();
+        dispatcher.init();
+
+        dispatcher.onNotificationRequested(new NotificationRequestedEvent(request(1L)));
+
+        verify(jdbcTemplate, timeout(3000)).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        verify(eventPublisher, timeout(3000)).publishEvent(any(NotificationCreatedEvent.class));
+    }
+
+    @Test
+    void testOnNotificationRequested_IgnoresMissingUser() {
+        dispatcher.init();
+
+        dispatcher.onNotificationRequested(new NotificationRequestedEvent(NotificationDTO.builder().build()));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnNotificationRequested_QueueFullSpillsToOutbox() {
+        BlockingQueue<NotificationDTO> full = new ArrayBlockingQueue<>(1);
+        full.add(request(9L));
+        ReflectionTestUtils.setField(dispatcher, "queue", full);
+
+        dispatcher.onNotificationRequested(new NotificationRequestedEvent(request(1L)));
+
+        // 呼び出し元では退避の1行のみ INSERT し、通知の保存・配信は行わない
+        verify(jdbcTemplate).update(startsWith("INSERT INTO notification_outbox"), any(Object[].class));
+        verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(1.0, meterRegistry.counter("notification.dispatch.spilled").count());
+    }
+
+    @Test
+    void testOnNotificationRequested_SpillFailureDropsAndCounts() {
+        BlockingQueue<NotificationDTO> full = new ArrayBlockingQueue<>(1);
+        full.add(request(9L));
+        ReflectionTestUtils.setField(dispatcher, "queue", full);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+        assertDoesNotThrow(() -> dispatcher.onNotificationRequested(new NotificationRequestedEvent(request(1L))));
+
+        assertEquals(1.0, meterRegistry.counter("notification.dispatch.dropped").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDrainOutbox_SavesSpilledNotifications() {
+        NotificationDTO broadcast = NotificationDTO.builder().targetRole(UserRole.ADMIN).title("入庫").build();
+        when(jdbcTemplate.query(startsWith("DELETE FROM notification_outbox"), any(PreparedStatementSetter.class),
+                any(RowMapper.class))).thenReturn(List.of(request(1L), broadcast));
+        when(jdbcTemplate.query(startsWith("INSERT INTO"), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenReturn(List.of(NotificationDTO.builder().id(1L).userId(1L).build()));
+
+        boolean more = dispatcher.drainOutbox();
+
+        assertFalse(more);
+        verify(jdbcTemplate).query(startsWith("INSERT INTO notifications"), any(PreparedStatementSetter.class),
+                any(RowMapper.class));
+        verify(jdbcTemplate).query(startsWith("INSERT INTO broadcast_notifications"),
+                any(PreparedStatementSetter.class), any(RowMapper.class));
+        verify(eventPublisher, times(2)).publishEvent(any(NotificationCreatedEvent.class));
+    }
+}
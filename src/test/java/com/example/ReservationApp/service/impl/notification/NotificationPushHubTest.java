@@ -0,0 +1,145 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.enums.NotificationType;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NotificationPushHubTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final List<SseEmitter> created = new ArrayList<>();
+
+    private NotificationPushHub hub;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        hub = new NotificationPushHub(redisTemplate, listenerContainer, objectMapper, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter createEmitter() {
+                SseEmitter emitter = mock(SseEmitter.class);
+                created.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(hub, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(hub, "maxConnectionsPerUser", 2);
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private NotificationDTO notification(Long userId) {
+        return NotificationDTO.builder()
+                .id(10L)
+                .userId(userId)
+                .title("新しい注文書が作成されました")
+                .type(NotificationType.ORDER)
+                .build();
+    }
+
+    @Test
+    void testOnNotificationCreated_PublishesToRedis() throws Exception {
+        hub.onNotificationCreated(new NotificationCreatedEvent(notification(1L)));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(NotificationPushHub.CHANNEL), payload.capture());
+        assertEquals(1L, objectMapper.readValue(payload.getValue(), NotificationDTO.class).getUserId());
+    }
+
+    @Test
+    void testOnMessage_DeliversOnlyToTargetUser() throws IOException {
+        SseEmitter target = hub.subscribe(1L, UserRole.STAFF);
+        SseEmitter other = hub.subscribe(2L, UserRole.ADMIN);
+        byte[] body = objectMapper.writeValueAsString(notification(1L)).getBytes(StandardCharsets.UTF_8);
+
+        hub.onMessage(new DefaultMessage(NotificationPushHub.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+
+        verify(target, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(other, after(200).never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void testOnMessage_DeliversBroadcastToRoleMembers() throws IOException {
+        SseEmitter staff = hub.subscribe(1L, UserRole.STAFF);
+        SseEmitter admin = hub.subscribe(2L, UserRole.ADMIN);
+        NotificationDTO broadcast = NotificationDTO.builder().id(5L).targetRole(UserRole.ADMIN).title("入庫").build();
+        byte[] body = objectMapper.writeValueAsString(broadcast).getBytes(StandardCharsets.UTF_8);
+
+        hub.onMessage(new DefaultMessage(NotificationPushHub.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+
+        verify(admin, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(staff, after(200).never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void testPublish_FallsBackToLocalDeliveryWhenRedisIsDown() throws IOException {
+        SseEmitter emitter = hub.subscribe(1L, UserRole.STAFF);
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        hub.publish(notification(1L));
+
+        verify(emitter, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void testSubscribe_ClosesOldestOverLimit() {
+        SseEmitter first = hub.subscribe(1L, UserRole.STAFF);
+        hub.subscribe(1L, UserRole.STAFF);
+        hub.subscribe(1L, UserRole.STAFF);
+
+        verify(first).complete();
+        assertEquals(2, hub.connectionCount());
+        assertEquals(3, created.size());
+    }
+
+    @Test
+    void testHeartbeat_RemovesBrokenConnection() throws IOException {
+        SseEmitter emitter = hub.subscribe(1L, UserRole.STAFF);
+        doThrow(new IOException("broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        hub.heartbeat();
+
+        verify(emitter, timeout(1000)).completeWithError(any(IOException.class));
+        assertEquals(0, hub.connectionCount());
+    }
+}
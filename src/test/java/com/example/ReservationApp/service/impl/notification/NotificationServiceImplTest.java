@@ -0,0 +1,213 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.entity.notification.BroadcastNotification;
+import com.example.ReservationApp.entity.notification.Notification;
+import com.example.ReservationApp.entity.notification.NotificationReadMarker;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationRequestedEvent;
+import com.example.ReservationApp.event.UnreadCountChangedEvent;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.NotificationMapper;
+import com.example.ReservationApp.repository.notification.BroadcastNotificationRepository;
+import com.example.ReservationApp.repository.notification.NotificationReadMarkerRepository;
+import com.example.ReservationApp.repository.notification.NotificationRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
+
+public class NotificationServiceImplTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Mock
+    private NotificationReadMarkerRepository notificationReadMarkerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NotificationMapper notificationMapper;
+
+    @Mock
+    private NotificationPushHub notificationPushHub;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    private Notification notification;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        notification = Notification.builder().id(10L).userId(1L).build();
+        when(notificationRepository.findById(10L)).thenReturn(Optional.of(notification));
+        when(notificationMapper.toDTO(any(Notification.class))).thenReturn(new NotificationDTO());
+        when(notificationMapper.toDTO(any(BroadcastNotification.class))).thenAnswer(invocation -> {
+            BroadcastNotification b = invocation.getArgument(0);
+            return NotificationDTO.builder().id(b.getId()).targetRole(b.getTargetRole())
+                    .createdAt(b.getCreatedAt()).build();
+        });
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).role(UserRole.ADMIN).build()));
+        marker = NotificationReadMarker.builder().userId(1L).build();
+        when(notificationReadMarkerRepository.findById(1L)).thenReturn(Optional.of(marker));
+        when(notificationReadMarkerRepository.findForUpdate(1L)).thenReturn(Optional.of(marker));
+    }
+
+    private NotificationReadMarker marker;
+
+    private BroadcastNotification broadcast(long id) {
+        return BroadcastNotification.builder().id(id).targetRole(UserRole.ADMIN)
+                .createdAt(LocalDateTime.now().minusMinutes(10 - id)).build();
+    }
+
+    @Test
+    void testCreateNotification_RecordsEventWithoutInsert() {
+        NotificationDTO request = NotificationDTO.builder().userId(1L).title("新しい注文書が作成されました").build();
+
+        notificationService.createNotification(request);
+
+        verify(eventPublisher).publishEvent(new NotificationRequestedEvent(request));
+        verify(notificationRepository, never()).save(any());
+        assertNotNull(request.getCreatedAt());
+    }
+
+    @Test
+    void testGetUnreadCount_UsesCounter() {
+        when(unreadNotificationCounter.get(1L)).thenReturn(3L);
+
+        ResponseDTO<Long> response = notificationService.getUnreadCount(1L);
+
+        assertEquals(3L, response.getData());
+        verify(notificationRepository, never()).countByUserIdAndReadedFalse(any());
+        // ロール宛ての未読件数もカウンタに含まれるため、ユーザー・既読位置・通知を読まない
+        verifyNoInteractions(userRepository, notificationReadMarkerRepository, broadcastNotificationRepository);
+    }
+
+    @Test
+    void testGetNotifications_MergesBroadcastsWithReadState() {
+        List<BroadcastNotification> broadcasts = List.of(broadcast(2L), broadcast(1L));
+        when(broadcastNotificationRepository.findTop20ByTargetRoleOrderByIdDesc(UserRole.ADMIN)).thenReturn(broadcasts);
+        when(notificationMapper.toDTOList(any())).thenReturn(List.of());
+        marker.markRead(1L, List.of(1L, 2L));
+
+        List<NotificationDTO> result = notificationService.getNotificationsForUser(1L).getData();
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertFalse(result.get(0).isReaded());
+        assertTrue(result.get(1).isReaded());
+    }
+
+    @Test
+    void testMarkBroadcastAsRead_UpdatesMarker() {
+        when(broadcastNotificationRepository.findById(1L)).thenReturn(Optional.of(broadcast(1L)));
+        when(broadcastNotificationRepository.findIdsByTargetRoleAfter(UserRole.ADMIN, 0L)).thenReturn(List.of(1L, 4L));
+
+        notificationService.markBroadcastAsRead(1L, 1L);
+
+        // 2, 3 は他ロール宛て・削除済みのため、次の対象通知 4 の直前まで進む
+        assertEquals(3L, marker.getLastReadBroadcastId());
+        assertNull(marker.getReadBitmap());
+        verify(notificationReadMarkerRepository).save(marker);
+        verify(eventPublisher).publishEvent(UnreadCountChangedEvent.broadcastRead(1L));
+    }
+
+    @Test
+    void testMarkBroadcastAsRead_AlreadyReadDoesNotDecrement() {
+        marker.setLastReadBroadcastId(5L);
+        when(broadcastNotificationRepository.findById(1L)).thenReturn(Optional.of(broadcast(1L)));
+
+        notificationService.markBroadcastAsRead(1L, 1L);
+
+        verify(notificationReadMarkerRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(UnreadCountChangedEvent.class));
+    }
+
+    @Test
+    void testMarkBroadcastAsRead_OtherRoleNotFound() {
+        BroadcastNotification staffOnly = BroadcastNotification.builder().id(1L).targetRole(UserRole.STAFF).build();
+        when(broadcastNotificationRepository.findById(1L)).thenReturn(Optional.of(staffOnly));
+
+        assertThrows(NotFoundException.class, () -> notificationService.markBroadcastAsRead(1L, 1L));
+        verify(notificationReadMarkerRepository, never()).save(any());
+    }
+
+    @Test
+    void testPurgeExpiredNotifications_DeletesInBatches() {
+        ReflectionTestUtils.setField(notificationService, "retentionBatchSize", 2);
+        ReflectionTestUtils.setField(notificationService, "readRetentionDays", 30L);
+        ReflectionTestUtils.setField(notificationService, "broadcastRetentionDays", 30L);
+        when(notificationRepository.deleteReadCreatedBefore(any(), eq(2))).thenReturn(2, 2, 1);
+        when(broadcastNotificationRepository.deleteCreatedBefore(any(), eq(2))).thenReturn(0);
+
+        notificationService.purgeExpiredNotifications();
+
+        verify(notificationRepository, times(3)).deleteReadCreatedBefore(any(), eq(2));
+        verify(broadcastNotificationRepository, times(1)).deleteCreatedBefore(any(), eq(2));
+    }
+
+    @Test
+    void testMarkAsRead_DecrementsOnce() {
+        when(notificationRepository.markAsReadIfUnread(10L)).thenReturn(1);
+
+        notificationService.markAsRead(10L);
+
+        verify(eventPublisher).publishEvent(UnreadCountChangedEvent.decrement(1L));
+    }
+
+    @Test
+    void testMarkAsRead_AlreadyReadDoesNotDecrement() {
+        when(notificationRepository.markAsReadIfUnread(10L)).thenReturn(0);
+
+        notificationService.markAsRead(10L);
+
+        verify(eventPublisher, never()).publishEvent(any(UnreadCountChangedEvent.class));
+    }
+
+    @Test
+    void testMarkReadAll_ResetsCounter() {
+        when(broadcastNotificationRepository.findMaxId()).thenReturn(0L);
+
+        notificationService.markReadAllNotification(1L);
+
+        verify(notificationRepository).markAllAsRead(1L);
+        verify(eventPublisher).publishEvent(UnreadCountChangedEvent.reset(1L));
+        assertEquals(0L, marker.getLastReadBroadcastId());
+    }
+
+    @Test
+    void testDeleteUnreadNotification_Decrements() {
+        notificationService.deleteNotification(10L);
+
+        verify(notificationRepository).deleteById(10L);
+        verify(eventPublisher).publishEvent(UnreadCountChangedEvent.decrement(1L));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.ReservationApp.service.impl.notification;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.notification.NotificationDTO;
+import com.example.ReservationApp.entity.notification.NotificationReadMarker;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.event.NotificationCreatedEvent;
+import com.example.ReservationApp.event.UnreadCountChangedEvent;
+import com.example.ReservationApp.repository.notification.BroadcastNotificationRepository;
+import com.example.ReservationApp.repository.notification.NotificationReadMarkerRepository;
+import com.example.ReservationApp.repository.notification.NotificationRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
+
+public class UnreadNotificationCounterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private BroadcastNotificationRepository broadcastNotificationRepository;
+
+    @Mock
+    private NotificationReadMarkerRepository notificationReadMarkerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        counter = new UnreadNotificationCounter(redisTemplate, notificationRepository,
+                broadcastNotificationRepository, notificationReadMarkerRepository, userRepository);
+        ReflectionTestUtils.setField(counter, "ttlSeconds", 3600L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGet_ReadsCachedValueWithoutQuery() {
+        when(valueOperations.get("notification:unread:1")).thenReturn("7");
+        when(valueOperations.get("notification:broadcast-read:1")).thenReturn("ADMIN:5:1");
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("notification:broadcast:ADMIN")), eq("5")))
+                .thenReturn(3L);
+
+        // 個人宛て 7 件 + 既読位置より新しいロール宛て 3 件のうち個別既読 1 件を除く 2 件
+        assertEquals(9, counter.get(1L));
+        verifyNoInteractions(notificationRepository, broadcastNotificationRepository, userRepository,
+                notificationReadMarkerRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGet_RebuildAddsUnreadBroadcasts() {
+        when(valueOperations.get("notification:unread:1")).thenReturn(null);
+        when(notificationRepository.countByUserIdAndReadedFalse(1L)).thenReturn(3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).role(UserRole.ADMIN).build()));
+        NotificationReadMarker marker = NotificationReadMarker.builder().userId(1L).build();
+        marker.markRead(2L, List.of(1L, 2L, 3L));
+        when(notificationReadMarkerRepository.findById(1L)).thenReturn(Optional.of(marker));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("notification:broadcast:ADMIN")), eq("0")))
+                .thenReturn(-1L);
+        when(broadcastNotificationRepository.findIdsByTargetRoleAfter(UserRole.ADMIN, 0L))
+                .thenReturn(List.of(1L, 2L, 3L));
+
+        // 1, 3 が未読（2 は既読）
+        assertEquals(5, counter.get(1L));
+        verify(valueOperations).setIfAbsent("notification:unread:1", "3", Duration.ofSeconds(3600));
+        verify(valueOperations).setIfAbsent("notification:broadcast-read:1", "ADMIN:0:1", Duration.ofSeconds(3600));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("notification:broadcast:ADMIN")),
+                eq("3600"), eq("1"), eq("2"), eq("3"));
+    }
+
+    @Test
+    void testGet_RebuildsFromDatabaseOnMiss() {
+        when(valueOperations.get("notification:unread:1")).thenReturn(null);
+        when(notificationRepository.countByUserIdAndReadedFalse(1L)).thenReturn(4L);
+
+        assertEquals(4, counter.get(1L));
+        verify(valueOperations).setIfAbsent("notification:unread:1", "4", Duration.ofSeconds(3600));
+        verify(valueOperations).setIfAbsent("notification:broadcast-read:1", "-", Duration.ofSeconds(3600));
+    }
+
+    @Test
+    void testGet_FallsBackToDatabaseWhenRedisIsDown() {
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        when(notificationRepository.countByUserIdAndReadedFalse(1L)).thenReturn(2L);
+
+        assertEquals(2, counter.get(1L));
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnNotificationCreated_IncrementsIfPresent() {
+        counter.onNotificationCreated(new NotificationCreatedEvent(NotificationDTO.builder().userId(1L).build()));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("notification:unread:1")), eq("1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnBroadcastCreated_AddsIdToRoleSetOnly() {
+        counter.onNotificationCreated(new NotificationCreatedEvent(
+                NotificationDTO.builder().id(42L).targetRole(UserRole.STAFF).build()));
+
+        // ロールのユーザー数によらず1件の追加のみ
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                eq(List.of("notification:broadcast:STAFF")), eq("42"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnUnreadCountChanged_Decrements() {
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.decrement(1L));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("notification:unread:1")), eq("-1"));
+    }
+
+    @Test
+    void testOnUnreadCountChanged_ResetsToZero() {
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.reset(1L));
+
+        verify(valueOperations).set("notification:unread:1", "0", Duration.ofSeconds(3600));
+        verify(redisTemplate).delete("notification:broadcast-read:1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnBroadcastRead_EvictsReadPositionOnly() {
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.broadcastRead(1L));
+
+        verify(redisTemplate).delete("notification:broadcast-read:1");
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    void testEvictBroadcasts_DeletesEveryRoleSet() {
+        counter.evictBroadcasts();
+
+        verify(redisTemplate).delete(Arrays.stream(UserRole.values())
+                .map(role -> "notification:broadcast:" + role.name())
+                .toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateFailure_EvictsKey() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.decrement(1L));
+
+        verify(redisTemplate).delete("notification:unread:1");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CatalogChangeRelayTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private CatalogChangeRelay relay;
+
+    private final BlockingQueue<CatalogChangedEvent> received = new ArrayBlockingQueue<>(10);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        relay = new CatalogChangeRelay(redisTemplate, listenerContainer, new ObjectMapper().findAndRegisterModules());
+        relay.init();
+        relay.register(received::add);
+    }
+
+    @Test
+    void testPublishedChange_ReachesHandlersOnEveryNode() throws Exception {
+        relay.onCatalogChanged(new CatalogChangedEvent(CatalogAggregate.PRODUCT, Set.of(1L, 2L)));
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CatalogChangeRelay.CHANNEL), body.capture());
+        // 発行のみで、反映は受信時に行う
+        assertTrue(received.isEmpty());
+
+        relay.onMessage(new DefaultMessage(CatalogChangeRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        CatalogChangedEvent event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(CatalogAggregate.PRODUCT, event.aggregate());
+        assertEquals(Set.of(1L, 2L), event.productIds());
+    }
+
+    @Test
+    void testFullRefresh_KeepsNullProductIds() throws Exception {
+        relay.onCatalogChanged(CatalogChangedEvent.all(CatalogAggregate.CATEGORY));
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CatalogChangeRelay.CHANNEL), body.capture());
+        relay.onMessage(new DefaultMessage(CatalogChangeRelay.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getValue().getBytes(StandardCharsets.UTF_8)), null);
+
+        CatalogChangedEvent event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertTrue(event.isFullRefresh());
+    }
+
+    @Test
+    void testInventoryChange_NotRelayed() {
+        relay.onCatalogChanged(new CatalogChangedEvent(CatalogAggregate.INVENTORY, Set.of(1L)));
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void testRedisDown_AppliesLocally() throws Exception {
+        when(redisTemplate.convertAndSend(anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        relay.onCatalogChanged(new CatalogChangedEvent(CatalogAggregate.PRODUCT, Set.of(3L)));
+
+        CatalogChangedEvent event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(Set.of(3L), event.productIds());
+    }
+}
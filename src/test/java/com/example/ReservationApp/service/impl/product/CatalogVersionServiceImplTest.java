@@ -0,0 +1,93 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+
+public class CatalogVersionServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private CatalogVersionServiceImpl catalogVersionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void testCurrentETag_MissingVersionIsZero() {
+        when(valueOperations.multiGet(
+                List.of("catalog:version:epoch", "catalog:version:PRODUCT", "catalog:version:CATEGORY")))
+                .thenReturn(Arrays.asList("a1b2", "12", null));
+
+        Optional<String> etag = catalogVersionService.currentETag(CatalogAggregate.PRODUCT, CatalogAggregate.CATEGORY);
+
+        assertEquals(Optional.of("\"a1b2.12.0\""), etag);
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString());
+    }
+
+    @Test
+    void testCurrentETag_InitializesEpochOnce() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, "3"));
+        // 他のインスタンスが先にエポックを設定した場合はその値を使う
+        when(valueOperations.setIfAbsent(eq("catalog:version:epoch"), anyString())).thenReturn(false);
+        when(valueOperations.get("catalog:version:epoch")).thenReturn("ffee");
+
+        assertEquals(Optional.of("\"ffee.3\""), catalogVersionService.currentETag(CatalogAggregate.PRODUCT));
+    }
+
+    @Test
+    void testCurrentETag_SuppressedUntilBumpSucceeds() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("a1b2", "7"));
+        when(valueOperations.increment("catalog:version:PRODUCT"))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenReturn(8L);
+
+        catalogVersionService.bump(CatalogAggregate.PRODUCT);
+        assertTrue(catalogVersionService.currentETag(CatalogAggregate.PRODUCT).isEmpty());
+        // 他の集約の ETag には影響しない
+        assertTrue(catalogVersionService.currentETag(CatalogAggregate.CATEGORY).isPresent());
+
+        catalogVersionService.bump(CatalogAggregate.PRODUCT);
+        assertTrue(catalogVersionService.currentETag(CatalogAggregate.PRODUCT).isPresent());
+    }
+
+    @Test
+    void testCurrentETag_RedisUnavailable() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(catalogVersionService.currentETag(CatalogAggregate.PRODUCT).isEmpty());
+    }
+
+    @Test
+    void testOnCatalogChanged_BumpsAggregate() {
+        catalogVersionService.onCatalogChanged(CatalogChangedEvent.of(CatalogAggregate.INVENTORY));
+
+        verify(valueOperations, times(1)).increment("catalog:version:INVENTORY");
+    }
+}
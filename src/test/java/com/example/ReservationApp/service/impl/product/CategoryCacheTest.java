@@ -0,0 +1,123 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.response.product.CategoryDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CategoryCacheTest {
+
+    private static final TypeReference<List<CategoryDTO>> CATEGORY_LIST = new TypeReference<>() {
+    };
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private CategoryCache categoryCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        categoryCache = new CategoryCache(redisTemplate, listenerContainer, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(categoryCache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(categoryCache, "localTtlSeconds", 60L);
+        ReflectionTestUtils.setField(categoryCache, "redisTtlSeconds", 600L);
+        categoryCache.init();
+    }
+
+    private List<CategoryDTO> load() {
+        loads.incrementAndGet();
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(1L);
+        dto.setName("文房具");
+        return List.of(dto);
+    }
+
+    @Test
+    void testGet_LoadsOnceAndWritesThroughToRedis() {
+        when(valueOperations.get("catalog:cache:category:generation")).thenReturn("3");
+
+        List<CategoryDTO> first = categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+        List<CategoryDTO> second = categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        verify(valueOperations).set(eq("catalog:cache:category:3:all"), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void testGet_ReadsSecondLevel() {
+        when(valueOperations.get("catalog:cache:category:generation")).thenReturn(null);
+        when(valueOperations.get("catalog:cache:category:0:all")).thenReturn("[{\"id\":2,\"name\":\"家電\"}]");
+
+        List<CategoryDTO> result = categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        assertEquals(0, loads.get());
+        assertEquals("家電", result.get(0).getName());
+    }
+
+    @Test
+    void testInvalidate_OnCatalogChange() {
+        when(valueOperations.get(anyString())).thenReturn(null);
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        categoryCache.onCatalogChanged(CatalogChangedEvent.of(CatalogAggregate.CATEGORY));
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        assertEquals(2, loads.get());
+        verify(valueOperations).increment("catalog:cache:category:generation");
+        verify(redisTemplate).convertAndSend(eq(CategoryCache.CHANNEL), anyString());
+    }
+
+    @Test
+    void testInventoryChangeDoesNotInvalidate() {
+        when(valueOperations.get(anyString())).thenReturn(null);
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        categoryCache.onCatalogChanged(CatalogChangedEvent.ofProduct(CatalogAggregate.INVENTORY, 1L));
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_RedisUnavailable() {
+        when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+        categoryCache.get(CategoryCache.ALL_CATEGORIES, CATEGORY_LIST, this::load);
+
+        assertEquals(1, loads.get());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.example.ReservationApp.dto.response.product.CategoryInventorySalesOverviewDTO;
+import com.example.ReservationApp.dto.response.product.CategoryMetricsFlatDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.repository.product.CategoryMetricsRepository;
+import com.example.ReservationApp.repository.product.CategoryRepository;
+import com.example.ReservationApp.repository.product.ProductRepository;
+
+public class CategoryMetricsServiceImplTest {
+
+    @Mock
+    private CategoryMetricsRepository categoryMetricsRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private CategoryMetricsServiceImpl categoryMetricsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testOnCatalogChanged_InventoryRecomputesAffectedCategories() {
+        when(productRepository.findCategoryIdsByProductIds(Set.of(10L, 11L))).thenReturn(List.of(2L));
+
+        categoryMetricsService.onCatalogChanged(
+                new CatalogChangedEvent(CatalogAggregate.INVENTORY, Set.of(10L, 11L)));
+
+        verify(categoryMetricsRepository).recompute(List.of(2L));
+        verify(categoryRepository, never()).findAllIds();
+    }
+
+    @Test
+    void testOnCatalogChanged_ProductRecomputesAll() {
+        when(categoryRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+
+        categoryMetricsService.onCatalogChanged(CatalogChangedEvent.ofProduct(CatalogAggregate.PRODUCT, 10L));
+
+        verify(categoryMetricsRepository).recompute(List.of(1L, 2L));
+        verify(categoryMetricsRepository).deleteOrphans();
+    }
+
+    @Test
+    void testOnCatalogChanged_ProductWithCategoriesRecomputesOnlyThose() {
+        categoryMetricsService.onCatalogChanged(
+                CatalogChangedEvent.ofProduct(CatalogAggregate.PRODUCT, 10L, 1L, 2L, null));
+
+        verify(categoryMetricsRepository).recompute(Set.of(1L, 2L));
+        verify(categoryRepository, never()).findAllIds();
+    }
+
+    @Test
+    void testOnApplicationReady_FillsEmptyTable() {
+        when(categoryMetricsRepository.count()).thenReturn(0L);
+        when(categoryRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+
+        categoryMetricsService.onApplicationReady();
+
+        verify(categoryMetricsRepository).recompute(List.of(1L, 2L));
+    }
+
+    @Test
+    void testOnApplicationReady_SkipsWhenAlreadyFilled() {
+        when(categoryMetricsRepository.count()).thenReturn(5L);
+
+        categoryMetricsService.onApplicationReady();
+
+        verify(categoryMetricsRepository, never()).recompute(any());
+    }
+
+    @Test
+    void testOnCatalogChanged_NoProductsAffected() {
+        categoryMetricsService.onCatalogChanged(CatalogChangedEvent.of(CatalogAggregate.SUPPLIER));
+
+        verify(categoryMetricsRepository, never()).recompute(any());
+    }
+
+    @Test
+    void testGetOverview_CreatesMissingRow() {
+        CategoryMetricsFlatDTO row = mock(CategoryMetricsFlatDTO.class);
+        when(row.getCategoryId()).thenReturn(3L);
+        when(row.getCategoryName()).thenReturn("文房具");
+        when(row.getProductCount()).thenReturn(4L);
+        when(row.getPercentage()).thenReturn(new BigDecimal("25.00"));
+        when(row.getTotalQuantity()).thenReturn(120L);
+        when(row.getTotalPrice()).thenReturn(new BigDecimal("5400.00"));
+        when(categoryMetricsRepository.findOverviewByCategoryId(3L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(row));
+
+        CategoryInventorySalesOverviewDTO overview = categoryMetricsService.getOverview(3L);
+
+        verify(categoryMetricsRepository).recompute(List.of(3L));
+        assertEquals("文房具", overview.getCategoryName());
+        assertEquals(25.0, overview.getPercentage());
+        assertEquals(120L, overview.getTotalQuantity());
+        assertEquals(5400.0, overview.getTotalPrice());
+    }
+}
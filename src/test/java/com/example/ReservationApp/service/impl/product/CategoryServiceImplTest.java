@@ -4,26 +4,36 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 
 import com.example.ReservationApp.dto.ResponseDTO;
 import com.example.ReservationApp.dto.response.product.CategoryDTO;
+import com.example.ReservationApp.dto.response.product.CategorySummaryDTO;
+import com.example.ReservationApp.dto.response.product.CategorySummaryFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductStockDTO;
 import com.example.ReservationApp.entity.product.Category;
 import com.example.ReservationApp.enums.CategoryStatus;
 import com.example.ReservationApp.mapper.CategoryMapper;
 import com.example.ReservationApp.repository.product.CategoryRepository;
+import com.example.ReservationApp.service.StorageService;
+import com.example.ReservationApp.service.product.CategoryMetricsService;
 
 class CategoryServiceImplTest {
 
@@ -36,6 +46,18 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CategoryMetricsService categoryMetricsService;
+
+    @Mock
+    private CategoryCache categoryCache;
+
     private Category category;
     private CategoryDTO categoryDTO;
 
@@ -54,6 +76,24 @@ class CategoryServiceImplTest {
         categoryDTO.setName("Food");
         categoryDTO.setDescription("Food category");
         categoryDTO.setStatus(CategoryStatus.ACTIVE);
+        categoryDTO.setImageUrl("/uploads/food.png");
+
+        // キャッシュは常に未ヒットとして読み込み処理を実行する
+        when(categoryCache.get(any(), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+    }
+
+    private CategorySummaryFlatDTO row(Long productId, String productName, Long supplierId, String supplierName,
+            Long quantity, String warehouse) {
+        CategorySummaryFlatDTO r = mock(CategorySummaryFlatDTO.class);
+        when(r.getProductId()).thenReturn(productId);
+        when(r.getProductName()).thenReturn(productName);
+        when(r.getSupplierId()).thenReturn(supplierId);
+        when(r.getSupplierName()).thenReturn(supplierName);
+        when(r.getPrice()).thenReturn(supplierId != null ? BigDecimal.valueOf(100 + supplierId) : null);
+        when(r.getQuantity()).thenReturn(quantity);
+        when(r.getWarehouse()).thenReturn(warehouse);
+        return r;
     }
 
     @Test
@@ -62,7 +102,7 @@ class CategoryServiceImplTest {
         when(categoryMapper.toEntity(any(CategoryDTO.class))).thenReturn(category);
         when(categoryRepository.save(any(Category.class))).thenReturn(category);
 
-        ResponseDTO<CategoryDTO> response = categoryService.createCategory(categoryDTO);
+        ResponseDTO<CategoryDTO> response = categoryService.createCategory(categoryDTO, null);
 
         assertEquals(HttpStatus.OK.value(), response.getStatus());
         assertEquals("新しいカテゴリの追加に成功しました", response.getMessage());
@@ -100,6 +140,7 @@ class CategoryServiceImplTest {
     void testUpdateCategorySuccess() {
         CategoryDTO updateDTO = new CategoryDTO();
         updateDTO.setName("Updated Food");
+        updateDTO.setImageUrl("/uploads/food.png");
 
         when(categoryRepository.findById(anyLong()))
                 .thenReturn(Optional.of(category));
@@ -108,7 +149,7 @@ class CategoryServiceImplTest {
         when(categoryMapper.toDTO(any(Category.class)))
                 .thenReturn(categoryDTO);
 
-        ResponseDTO<CategoryDTO> response = categoryService.updateCategory(1L, updateDTO);
+        ResponseDTO<CategoryDTO> response = categoryService.updateCategory(1L, updateDTO, null);
 
         assertEquals(HttpStatus.OK.value(), response.getStatus());
         assertEquals("編集に成功しました", response.getMessage());
@@ -125,4 +166,63 @@ class CategoryServiceImplTest {
         assertEquals(HttpStatus.OK.value(), response.getStatus());
         assertEquals("削除に成功しました", response.getMessage());
     }
+
+    @Test
+    void testBuildProducts_GroupsContiguousRowsByProductId() {
+        // 同名の別商品（ID違い）も別の商品として扱う
+        List<CategorySummaryFlatDTO> rows = List.of(
+                row(1L, "牛乳", 10L, "明治", null, null),
+                row(1L, "牛乳", 11L, "森永", null, null),
+                row(1L, "牛乳", null, null, 30L, "東京倉庫"),
+                row(1L, "牛乳", null, null, 12L, "大阪倉庫"),
+                row(2L, "牛乳", 10L, "明治", null, null),
+                row(3L, "バター", 12L, "雪印", null, null),
+                row(3L, "バター", null, null, 5L, "東京倉庫"));
+
+        List<ProductStockDTO> products = categoryService.buildProducts(rows);
+
+        assertEquals(3, products.size());
+        assertEquals(List.of("明治", "森永"),
+                products.get(0).getSuppliers().stream().map(s -> s.getSupplierName()).toList());
+        assertEquals(List.of(30L, 12L),
+                products.get(0).getStocks().stream().map(s -> s.getQuantity()).toList());
+        assertEquals(1, products.get(1).getSuppliers().size());
+        assertEquals(0, products.get(1).getStocks().size());
+        assertEquals("バター", products.get(2).getProductName());
+        assertEquals("東京倉庫", products.get(2).getStocks().get(0).getWarehouse());
+    }
+
+    @Test
+    void testBuildProducts_DeduplicatesSuppliersById() {
+        // 同じ仕入先が複数行に現れても1件にまとめ、同名でもIDが異なれば別の仕入先とする
+        List<CategorySummaryFlatDTO> rows = List.of(
+                row(1L, "牛乳", 10L, "明治", null, null),
+                row(1L, "牛乳", 10L, "明治", null, null),
+                row(1L, "牛乳", 20L, "明治", null, null),
+                row(1L, "牛乳", null, null, 8L, "東京倉庫"),
+                row(1L, "牛乳", 10L, "明治", null, null));
+
+        List<ProductStockDTO> products = categoryService.buildProducts(rows);
+
+        assertEquals(1, products.size());
+        assertEquals(List.of(BigDecimal.valueOf(110), BigDecimal.valueOf(120)),
+                products.get(0).getSuppliers().stream().map(s -> s.getPrice()).toList());
+        assertEquals(1, products.get(0).getStocks().size());
+    }
+
+    @Test
+    void testGetCategorySummariesById_UsesWarehouseTotals() {
+        List<CategorySummaryFlatDTO> rows = new ArrayList<>();
+        rows.add(row(1L, "牛乳", 10L, "明治", null, null));
+        rows.add(row(1L, "牛乳", null, null, 42L, "東京倉庫"));
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryRepository.getCategorySummaryById(1L)).thenReturn(rows);
+
+        ResponseDTO<CategorySummaryDTO> response = categoryService.getCategorySummariesById(1L);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("Food", response.getData().getCategoryName());
+        // 倉庫別の合計はSQL側で集計済みのため、1倉庫につき1件
+        assertEquals(42L, response.getData().getProducts().get(0).getStocks().get(0).getQuantity());
+    }
 }
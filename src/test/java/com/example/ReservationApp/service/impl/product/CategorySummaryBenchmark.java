@@ -0,0 +1,82 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.ReservationApp.dto.response.product.CategorySummaryFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductStockDTO;
+
+/**
+ * CategoryServiceImpl.buildProducts のベンチマーク（カテゴリ集計のフラット行を商品単位に集約）。
+ *
+ * 実行方法は ProductListBenchmark と同じ（テストクラスパスで main を実行する）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class CategorySummaryBenchmark {
+
+    private static final int SUPPLIERS_PER_PRODUCT = 4;
+    private static final int WAREHOUSES_PER_PRODUCT = 3;
+
+    @Param({ "10000", "100000" })
+    private int productCount;
+
+    private List<CategorySummaryFlatDTO> rows;
+
+    // 集計処理は依存コンポーネントを使わないため、依存なしで生成する
+    private final CategoryServiceImpl categoryService = new CategoryServiceImpl(null, null, null, null, null, null);
+
+    /**
+     * リポジトリの射影の代わりに使う行（SQL と同じく仕入先行の後に倉庫別在庫行が続く）
+     */
+    private record Row(Long getProductId, String getProductName, Long getSupplierId, String getSupplierName,
+            BigDecimal getPrice, Long getQuantity, String getWarehouse) implements CategorySummaryFlatDTO {
+    }
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(productCount * (SUPPLIERS_PER_PRODUCT + WAREHOUSES_PER_PRODUCT));
+        for (long productId = 1; productId <= productCount; productId++) {
+            String productName = "商品" + productId;
+            for (long supplierId = 1; supplierId <= SUPPLIERS_PER_PRODUCT; supplierId++) {
+                rows.add(new Row(productId, productName, supplierId, "仕入先" + supplierId,
+                        BigDecimal.valueOf(100 + supplierId), null, null));
+            }
+            for (int w = 1; w <= WAREHOUSES_PER_PRODUCT; w++) {
+                rows.add(new Row(productId, productName, null, null, null, productId % 100 + w, "倉庫" + w));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ProductStockDTO> buildProducts() {
+        return categoryService.buildProducts(rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CategorySummaryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ReservationApp.service.impl.product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.ReservationApp.dto.response.product.ProductInfoFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductInfoDTO;
+
+/**
+ * ProductServiceImpl.builtProductList のベンチマーク（100万行のフラットデータを商品単位に集約）。
+ *
+ * 実行方法：mvn test-compile の後、テストクラスパスで main を実行する
+ * （例：mvn exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.ReservationApp.service.impl.product.ProductListBenchmark）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class ProductListBenchmark {
+
+    // 1商品あたりの行数（仕入先4社 + JOIN による仕入先行の重複1行）
+    private static final int ROWS_PER_PRODUCT = 5;
+
+    @Param({ "1000000" })
+    private int rowCount;
+
+    private List<ProductInfoFlatDTO> rows;
+
+    /**
+     * リポジトリの射影の代わりに使う行（SQL と同じく商品ID・仕入先ID 順に並べる）
+     */
+    private record Row(Long getId, String getProductName, Long getSupplierId, String getSupplierName,
+            String getCategoryName, String getProductStatus, String getProductCode, BigDecimal getPrice,
+            Long getTotalQuantity) implements ProductInfoFlatDTO {
+    }
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            long productId = i / ROWS_PER_PRODUCT + 1;
+            // 最後の行は直前の仕入先の重複
+            long supplierId = Math.min(i % ROWS_PER_PRODUCT, ROWS_PER_PRODUCT - 2) + 1;
+            rows.add(new Row(productId, "商品" + productId, supplierId, "仕入先" + supplierId,
+                    "カテゴリ" + productId % 50, "ACTIVE", "P-" + productId,
+                    BigDecimal.valueOf(100 + supplierId), productId % 1000));
+        }
+    }
+
+    @Benchmark
+    public List<ProductInfoDTO> builtProductList() {
+        return ProductServiceImpl.builtProductList(rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductListBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.response.product.ProductSearchDocFlatDTO;
+import com.example.ReservationApp.repository.product.ProductRepository;
+
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogChangeRelay catalogChangeRelay;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productSearchIndex, "minSimilarity", 0.5);
+        List<ProductSearchDocFlatDTO> docs = List.of(
+                doc(1L, "Wireless Keyboard", "KB-001", "周辺機器", "LOGI-KB1", "Logitech"),
+                doc(2L, "Wireless Mouse", "MS-001", "周辺機器", "LOGI-MS1", "Logitech"),
+                doc(3L, "USBケーブル", "CB-010", "ケーブル", "ELE-CB10", "エレコム"),
+                doc(4L, "低脂肪牛乳", "MK-002", "乳製品", "MEIJI-MK2", "明治"),
+                doc(5L, "牛乳パック", "MK-001", "乳製品", "MEIJI-MK1", "明治"));
+        when(productRepository.findAllSearchDocuments()).thenReturn(docs);
+        productSearchIndex.rebuild();
+    }
+
+    private ProductSearchDocFlatDTO doc(Long id, String name, String code, String category, String skus,
+            String suppliers) {
+        ProductSearchDocFlatDTO d = mock(ProductSearchDocFlatDTO.class);
+        when(d.getProductId()).thenReturn(id);
+        when(d.getProductName()).thenReturn(name);
+        when(d.getProductCode()).thenReturn(code);
+        when(d.getCategoryName()).thenReturn(category);
+        when(d.getSkus()).thenReturn(skus);
+        when(d.getSupplierNames()).thenReturn(suppliers);
+        return d;
+    }
+
+    private List<Long> search(String keyword) {
+        return productSearchIndex.search(keyword, 0, 10).orElseThrow().productIds();
+    }
+
+    @Test
+    void testSearch_NameRankedFirst() {
+        assertEquals(List.of(1L), search("keyboard"));
+        assertEquals(List.of(1L, 2L), search("wireless"));
+    }
+
+    @Test
+    void testSearch_ToleratesTypo() {
+        assertEquals(List.of(1L), search("keybord"));
+    }
+
+    @Test
+    void testSearch_MatchesSkuAndSupplierAndFullWidth() {
+        assertEquals(2L, search("logi-ms1").get(0));
+        assertEquals(List.of(3L), search("エレコム"));
+        assertEquals(List.of(3L), search("ＵＳＢ"));
+    }
+
+    @Test
+    void testSearch_ShortQueryMatchesSubstring() {
+        // gram より短いクエリも項目の途中に一致し、名前の先頭一致が上位になる
+        assertEquals(List.of(5L, 4L), search("牛乳"));
+        assertEquals(List.of(2L), search("ms"));
+        assertEquals(List.of(4L, 5L), search("明治").stream().sorted().toList());
+    }
+
+    @Test
+    void testSearch_Pagination() {
+        ProductSearchIndex.SearchResult result = productSearchIndex.search("wireless", 1, 1).orElseThrow();
+        assertEquals(List.of(2L), result.productIds());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void testSearch_HugePageReturnsEmpty() {
+        ProductSearchIndex.SearchResult result = productSearchIndex
+                .search("wireless", Integer.MAX_VALUE, 100).orElseThrow();
+        assertTrue(result.productIds().isEmpty());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void testRefresh_UpdatesAndRemovesDocuments() {
+        List<ProductSearchDocFlatDTO> updated = List.of(
+                doc(2L, "Gaming Mouse", "MS-001", "周辺機器", "LOGI-MS1", "Logitech"));
+        when(productRepository.findSearchDocumentsByIds(any())).thenReturn(updated);
+
+        productSearchIndex.refresh(Set.of(1L, 2L));
+
+        assertEquals(List.of(2L), search("gaming"));
+        assertTrue(search("keyboard").isEmpty());
+        assertEquals(4, productSearchIndex.size());
+    }
+
+    @Test
+    void testSearch_NotReady() {
+        ProductSearchIndex empty = new ProductSearchIndex(productRepository, catalogChangeRelay);
+        assertTrue(empty.search("keyboard", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+
+import com.example.ReservationApp.dto.response.product.ProductDetailFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductInfoDTO;
+import com.example.ReservationApp.dto.response.product.ProductInfoDetailDTO;
+import com.example.ReservationApp.dto.response.product.ProductDTO;
+import com.example.ReservationApp.dto.response.product.ProductInfoFlatDTO;
+import com.example.ReservationApp.entity.product.Category;
+import com.example.ReservationApp.entity.product.Product;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.enums.StockChangeType;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.ProductMapper;
+import com.example.ReservationApp.repository.product.CategoryRepository;
+import com.example.ReservationApp.repository.product.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productService, "detailHistoryDays", 90L);
+        ReflectionTestUtils.setField(productService, "detailHistoryLimit", 200);
+    }
+
+    private ProductInfoFlatDTO row(Long productId, String name, Long supplierId, String supplierName, long total) {
+        ProductInfoFlatDTO r = mock(ProductInfoFlatDTO.class);
+        when(r.getId()).thenReturn(productId);
+        when(r.getProductName()).thenReturn(name);
+        when(r.getProductCode()).thenReturn("P-" + productId);
+        when(r.getCategoryName()).thenReturn("周辺機器");
+        when(r.getProductStatus()).thenReturn("ACTIVE");
+        when(r.getSupplierId()).thenReturn(supplierId);
+        when(r.getSupplierName()).thenReturn(supplierName);
+        when(r.getPrice()).thenReturn(supplierId != null ? BigDecimal.valueOf(1000) : null);
+        when(r.getTotalQuantity()).thenReturn(total);
+        return r;
+    }
+
+    @Test
+    void testBuiltProductList_GroupsConsecutiveRowsById() {
+        // 同名の別商品（ID 違い）も別々に集約されること
+        List<ProductInfoFlatDTO> rows = List.of(
+                row(1L, "Keyboard", 10L, "Logitech", 30),
+                row(1L, "Keyboard", 10L, "Logitech", 30),
+                row(1L, "Keyboard", 20L, "Elecom", 30),
+                row(2L, "Keyboard", 10L, "Logitech", 5),
+                row(3L, "Mouse", null, null, 0));
+
+        List<ProductInfoDTO> products = ProductServiceImpl.builtProductList(rows);
+
+        assertEquals(3, products.size());
+        assertEquals(1L, products.get(0).getId());
+        assertEquals(30L, products.get(0).getTotalStock());
+        assertEquals(2, products.get(0).getSupplier().size());
+        assertEquals(2L, products.get(1).getId());
+        assertEquals(1, products.get(1).getSupplier().size());
+        assertTrue(products.get(2).getSupplier().isEmpty());
+    }
+
+    @Test
+    void testGetProductInfoDetail_SingleQuery() {
+        ProductDetailFlatDTO detail = mock(ProductDetailFlatDTO.class);
+        when(detail.getId()).thenReturn(1L);
+        when(detail.getName()).thenReturn("Keyboard");
+        when(detail.getProductCode()).thenReturn("KB-001");
+        when(detail.getStatus()).thenReturn("ACTIVE");
+        when(detail.getCategoryName()).thenReturn("周辺機器");
+        when(detail.getSuppliersJson()).thenReturn(
+                "[{\"supplierId\":10,\"supplierName\":\"Logitech\",\"sku\":\"LOGI-KB1\",\"price\":1200.00}]");
+        when(detail.getHistoriesJson()).thenReturn(
+                "[{\"createdAt\":\"2026-10-01T09:30:00.123456\",\"type\":\"IN\",\"changeQty\":20}]");
+        when(detail.getStocksJson()).thenReturn(
+                "[{\"quantity\":12,\"warehouseName\":\"東京\"},{\"quantity\":8,\"warehouseName\":\"大阪\"}]");
+        when(productRepository.findProductDetail(eq(1L), any(LocalDateTime.class), eq(200)))
+                .thenReturn(Optional.of(detail));
+
+        ResponseDTO<ProductInfoDetailDTO> response = productService.getProductInfoDetail(1L);
+
+        ProductInfoDetailDTO data = response.getData();
+        assertEquals(20, data.getProductDTO().getTotalStock());
+        assertEquals("LOGI-KB1", data.getSupplierPriceDTO().get(0).getSku());
+        assertEquals(StockChangeType.IN, data.getStockHistoryDTO().get(0).getType());
+        assertEquals(2, data.getInventoryStockDTO().size());
+        verify(productRepository, times(1)).findProductDetail(eq(1L), any(LocalDateTime.class), eq(200));
+    }
+
+    @Test
+    void testGetProductInfoDetail_NotFound() {
+        when(productRepository.findProductDetail(eq(99L), any(LocalDateTime.class), anyInt()))
+                .thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> productService.getProductInfoDetail(99L));
+        assertEquals("この商品は存在していません", ex.getMessage());
+    }
+
+    @Test
+    void testUpdateProduct_PublishesOldAndNewCategory() {
+        Category food = new Category();
+        food.setId(1L);
+        Category drink = new Category();
+        drink.setId(2L);
+        Product product = new Product();
+        product.setId(10L);
+        product.setName("牛乳");
+        product.setCategory(food);
+        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(categoryRepository.findByName("飲料")).thenReturn(Optional.of(drink));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.updateProduct(10L, ProductDTO.builder().categoryName("飲料").build());
+
+        ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(CatalogAggregate.PRODUCT, event.getValue().aggregate());
+        assertEquals(Set.of(10L), event.getValue().productIds());
+        assertEquals(Set.of(1L, 2L), event.getValue().categoryIds());
+    }
+
+    @Test
+    void testDeleteProduct_PublishesCategoryBeforeDeletion() {
+        when(productRepository.existsById(10L)).thenReturn(true);
+        when(productRepository.findCategoryIdsByProductIds(Set.of(10L))).thenReturn(List.of(3L));
+
+        productService.deleteProduct(10L);
+
+        ArgumentCaptor<CatalogChangedEvent> event = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(3L), event.getValue().categoryIds());
+    }
+
+    @Test
+    void testSearchProducts_HugePageReturnsEmptyPage() {
+        // インデックス未構築のため DB 検索にフォールバックする
+        when(productRepository.searchProducts("mouse")).thenReturn(List.of(new Product(), new Product()));
+        when(productMapper.toDTOList(any())).thenReturn(List.of());
+
+        ResponseDTO<List<ProductDTO>> response = productService.searchProducts("mouse", Integer.MAX_VALUE, 50);
+
+        assertEquals(2L, response.getTotal());
+        verify(productMapper).toDTOList(List.of());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.ReservationApp.service.impl.product;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.response.product.ProductSearchDocFlatDTO;
+import com.example.ReservationApp.dto.response.product.ProductSuggestionDTO;
+import com.example.ReservationApp.repository.product.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogChangeRelay catalogChangeRelay;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductSuggestIndex productSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        productSuggestIndex = new ProductSuggestIndex(productRepository, meterRegistry, catalogChangeRelay);
+        ReflectionTestUtils.setField(productSuggestIndex, "maxK", 3);
+        productSuggestIndex.init();
+
+        List<ProductSearchDocFlatDTO> docs = List.of(
+                doc(1L, "Wireless Keyboard", "KB-001", "LOGI-KB1 ELE-KB1"),
+                doc(2L, "Wireless Mouse", "MS-001", "LOGI-MS1"),
+                doc(3L, "Wire", "WR-001", null),
+                doc(4L, "Webcam", "WC-001", "LOGI-WC1"),
+                doc(5L, "USBケーブル", "CB-010", "ELE-CB10"));
+        when(productRepository.findAllSearchDocuments()).thenReturn(docs);
+        productSuggestIndex.rebuild();
+    }
+
+    private ProductSearchDocFlatDTO doc(Long id, String name, String code, String skus) {
+        ProductSearchDocFlatDTO d = mock(ProductSearchDocFlatDTO.class);
+        when(d.getProductId()).thenReturn(id);
+        when(d.getProductName()).thenReturn(name);
+        when(d.getProductCode()).thenReturn(code);
+        when(d.getSkus()).thenReturn(skus);
+        return d;
+    }
+
+    private List<Long> ids(List<ProductSuggestionDTO> suggestions) {
+        return suggestions.stream().map(ProductSuggestionDTO::getProductId).toList();
+    }
+
+    @Test
+    void testInit_RegistersWithCatalogChangeRelay() {
+        verify(catalogChangeRelay).register(any());
+    }
+
+    @Test
+    void testSuggest_ShortestFirst() {
+        assertEquals(List.of(3L, 2L, 1L), ids(productSuggestIndex.suggest("wir", 10)));
+        assertEquals(List.of(3L, 4L, 2L), ids(productSuggestIndex.suggest("w", 10)));
+    }
+
+    @Test
+    void testSuggest_InsideCompressedEdgeAndLimit() {
+        assertEquals(List.of(1L), ids(productSuggestIndex.suggest("wireless k", 10)));
+        assertEquals(List.of(3L), ids(productSuggestIndex.suggest("wi", 1)));
+    }
+
+    @Test
+    void testSuggest_CodeAndSku() {
+        List<ProductSuggestionDTO> bySku = productSuggestIndex.suggest("ele-", 10);
+        assertEquals(List.of(1L, 5L), ids(bySku));
+        assertEquals(ProductSuggestIndex.TYPE_SKU, bySku.get(0).getType());
+
+        List<ProductSuggestionDTO> byCode = productSuggestIndex.suggest("ＭＳ", 10);
+        assertEquals(List.of(2L), ids(byCode));
+        assertEquals("MS-001", byCode.get(0).getLabel());
+    }
+
+    @Test
+    void testSuggest_NoMatch() {
+        assertTrue(productSuggestIndex.suggest("xyz", 10).isEmpty());
+        assertTrue(productSuggestIndex.suggest("wirex", 10).isEmpty());
+        assertTrue(productSuggestIndex.suggest(" ", 10).isEmpty());
+    }
+
+    @Test
+    void testMetrics_ReportFootprint() {
+        assertEquals(15, meterRegistry.get("product.suggest.trie.entries").gauge().value());
+        assertTrue(meterRegistry.get("product.suggest.trie.nodes").gauge().value() > 0);
+        assertTrue(meterRegistry.get("product.suggest.trie.memory").gauge().value() > 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingDTO;
+import com.example.ReservationApp.dto.response.supplier.ProductSupplierRankingFlatDTO;
+import com.example.ReservationApp.enums.CatalogAggregate;
+import com.example.ReservationApp.event.CatalogChangedEvent;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.repository.supplier.ProductSupplierRankingRepository;
+
+public class ProductSupplierRankingServiceImplTest {
+
+    @Mock
+    private ProductSupplierRankingRepository productSupplierRankingRepository;
+
+    @InjectMocks
+    private ProductSupplierRankingServiceImpl productSupplierRankingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productSupplierRankingService, "batchSize", 2);
+    }
+
+    @Test
+    void testOnCatalogChanged_SupplierProductRecomputesAffectedProducts() {
+        productSupplierRankingService.onCatalogChanged(
+                CatalogChangedEvent.ofProduct(CatalogAggregate.SUPPLIER_PRODUCT, 10L));
+
+        verify(productSupplierRankingRepository).recompute(List.of(10L));
+        verify(productSupplierRankingRepository).deleteWithoutActiveSuppliers(List.of(10L));
+        verify(productSupplierRankingRepository, never()).findRankedProductIds();
+    }
+
+    @Test
+    void testOnCatalogChanged_IgnoresInventoryAndEmptyUpdates() {
+        productSupplierRankingService.onCatalogChanged(
+                new CatalogChangedEvent(CatalogAggregate.INVENTORY, Set.of(10L)));
+        productSupplierRankingService.onCatalogChanged(CatalogChangedEvent.of(CatalogAggregate.SUPPLIER));
+
+        verifyNoInteractions(productSupplierRankingRepository);
+    }
+
+    @Test
+    void testRecomputeAll_UpsertsInChunksAndRemovesOrphans() {
+        when(productSupplierRankingRepository.findRankedProductIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+
+        productSupplierRankingService.recomputeAll();
+
+        verify(productSupplierRankingRepository).recompute(List.of(1L, 2L));
+        verify(productSupplierRankingRepository).recompute(List.of(3L, 4L));
+        verify(productSupplierRankingRepository).recompute(List.of(5L));
+        verify(productSupplierRankingRepository).deleteOrphans();
+    }
+
+    @Test
+    void testOnApplicationReady_BackfillsEmptyTable() {
+        when(productSupplierRankingRepository.count()).thenReturn(0L);
+        when(productSupplierRankingRepository.findRankedProductIds()).thenReturn(List.of(1L, 2L, 3L));
+
+        productSupplierRankingService.onApplicationReady();
+
+        verify(productSupplierRankingRepository).recompute(List.of(1L, 2L));
+        verify(productSupplierRankingRepository).recompute(List.of(3L));
+        verify(productSupplierRankingRepository).deleteOrphans();
+    }
+
+    @Test
+    void testOnApplicationReady_SkipsWhenAlreadyFilled() {
+        when(productSupplierRankingRepository.count()).thenReturn(5L);
+
+        productSupplierRankingService.onApplicationReady();
+
+        verify(productSupplierRankingRepository, never()).findRankedProductIds();
+        verify(productSupplierRankingRepository, never()).recompute(any());
+    }
+
+    @Test
+    void testGetRankings_MapsCheapestAndFastest() {
+        ProductSupplierRankingFlatDTO row = mock(ProductSupplierRankingFlatDTO.class);
+        when(row.getProductId()).thenReturn(10L);
+        when(row.getSupplierCount()).thenReturn(3);
+        when(row.getCheapestSupplierId()).thenReturn(1L);
+        when(row.getMinPrice()).thenReturn(new BigDecimal("100"));
+        when(row.getFastestSupplierId()).thenReturn(2L);
+        when(row.getFastestPrice()).thenReturn(new BigDecimal("130"));
+        when(row.getMinLeadTime()).thenReturn(2);
+        when(row.getPriceSpread()).thenReturn(new BigDecimal("50"));
+        when(productSupplierRankingRepository.findBySpread(2, PageRequest.of(0, 200)))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(0, 200), 51_000));
+
+        ResponseDTO<List<ProductSupplierRankingDTO>> response = productSupplierRankingService
+                .getRankings("spread", 2, 0, 1000);
+
+        ProductSupplierRankingDTO dto = response.getData().get(0);
+        assertEquals(1L, dto.getCheapest().getSupplierId());
+        assertEquals(new BigDecimal("100"), dto.getCheapest().getPrice());
+        assertEquals(2L, dto.getFastest().getSupplierId());
+        assertEquals(2, dto.getMinLeadTime());
+        assertEquals(51_000L, response.getTotal());
+    }
+
+    @Test
+    void testGetRankings_RejectsUnknownSort() {
+        assertThrows(BadRequestException.class,
+                () -> productSupplierRankingService.getRankings("name", 1, 0, 50));
+        verify(productSupplierRankingRepository, never()).findBySpread(anyInt(), any());
+    }
+}
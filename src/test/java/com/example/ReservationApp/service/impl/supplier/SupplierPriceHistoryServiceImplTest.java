@@ -0,0 +1,184 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.PricePointFlatDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderCostDTO;
+import com.example.ReservationApp.dto.response.transaction.PurchaseOrderLineFlatDTO;
+import com.example.ReservationApp.dto.supplier.SupplierProductPriceHistoryDTO;
+import com.example.ReservationApp.entity.supplier.SupplierProduct;
+import com.example.ReservationApp.entity.supplier.SupplierProductPriceHistory;
+import com.example.ReservationApp.exception.BadRequestException;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.SupplierProductPriceHistoryMapper;
+import com.example.ReservationApp.repository.supplier.SupplierProductPriceHistoryRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderDetailRepository;
+
+public class SupplierPriceHistoryServiceImplTest {
+
+    @Mock
+    private SupplierProductPriceHistoryRepository supplierProductPriceHistoryRepository;
+
+    @Mock
+    private SupplierProductRepository supplierProductRepository;
+
+    @Mock
+    private PurchaseOrderDetailRepository purchaseOrderDetailRepository;
+
+    @Mock
+    private SupplierProductPriceHistoryMapper supplierProductPriceHistoryMapper;
+
+    @InjectMocks
+    private SupplierPriceHistoryServiceImpl supplierPriceHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private PricePointFlatDTO point(Long supplierId, Long productId, String date, String price) {
+        PricePointFlatDTO p = mock(PricePointFlatDTO.class);
+        when(p.getSupplierId()).thenReturn(supplierId);
+        when(p.getProductId()).thenReturn(productId);
+        when(p.getEffectiveDate()).thenReturn(LocalDate.parse(date));
+        when(p.getPrice()).thenReturn(new BigDecimal(price));
+        return p;
+    }
+
+    private PurchaseOrderLineFlatDTO line(Long poId, Long supplierId, Long productId, String orderedAt, int qty,
+            String cost) {
+        PurchaseOrderLineFlatDTO l = mock(PurchaseOrderLineFlatDTO.class);
+        when(l.getPurchaseOrderId()).thenReturn(poId);
+        when(l.getSupplierId()).thenReturn(supplierId);
+        when(l.getProductId()).thenReturn(productId);
+        when(l.getOrderedAt()).thenReturn(LocalDate.parse(orderedAt).atTime(10, 0));
+        when(l.getQty()).thenReturn(qty);
+        when(l.getCost()).thenReturn(new BigDecimal(cost));
+        return l;
+    }
+
+    @Test
+    void testPriceTimeline_PriceAtUsesIntervalContainingDate() {
+        PriceTimeline timeline = PriceTimeline.of(List.of(
+                point(1L, 10L, "2026-03-01", "120"),
+                point(1L, 10L, "2026-01-01", "100"),
+                point(1L, 10L, "2026-03-01", "125"),
+                point(2L, 10L, "2026-01-01", "90")));
+
+        assertNull(timeline.priceAt(1L, 10L, LocalDate.parse("2025-12-31")));
+        assertEquals(new BigDecimal("100"), timeline.priceAt(1L, 10L, LocalDate.parse("2026-01-01")));
+        assertEquals(new BigDecimal("100"), timeline.priceAt(1L, 10L, LocalDate.parse("2026-02-28")));
+        // 同日の変化点は後のものを優先
+        assertEquals(new BigDecimal("125"), timeline.priceAt(1L, 10L, LocalDate.parse("2026-03-01")));
+        assertEquals(new BigDecimal("125"), timeline.priceAt(1L, 10L, LocalDate.parse("2027-01-01")));
+        assertEquals(new BigDecimal("90"), timeline.priceAt(2L, 10L, LocalDate.parse("2026-06-01")));
+        assertNull(timeline.priceAt(3L, 10L, LocalDate.parse("2026-06-01")));
+        assertEquals(2, timeline.size());
+    }
+
+    @Test
+    void testGetPurchaseOrderCosts_UsesPriceAtOrderDateWithTwoQueries() {
+        List<PurchaseOrderLineFlatDTO> lines = List.of(
+                line(1L, 1L, 10L, "2026-02-10", 2, "110"),
+                line(1L, 1L, 11L, "2026-02-10", 1, "50"),
+                line(2L, 1L, 10L, "2026-04-01", 3, "120"));
+        List<PricePointFlatDTO> points = List.of(
+                point(1L, 10L, "2026-01-01", "100"),
+                point(1L, 10L, "2026-03-01", "120"));
+        when(purchaseOrderDetailRepository.findLinesCreatedBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(lines);
+        when(supplierProductPriceHistoryRepository.findPricePoints(anyCollection(), eq(LocalDate.parse("2026-12-31"))))
+                .thenReturn(points);
+
+        ResponseDTO<List<PurchaseOrderCostDTO>> response = supplierPriceHistoryService
+                .getPurchaseOrderCosts(LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        List<PurchaseOrderCostDTO> costs = response.getData();
+        assertEquals(2, costs.size());
+        PurchaseOrderCostDTO first = costs.get(0);
+        assertEquals(2, first.getLineCount());
+        assertEquals(0, new BigDecimal("270").compareTo(first.getRecordedTotal()));
+        assertEquals(0, new BigDecimal("200").compareTo(first.getHistoricalTotal()));
+        assertEquals(1, first.getUnpricedLines());
+        assertEquals(0, new BigDecimal("360").compareTo(costs.get(1).getHistoricalTotal()));
+        verify(purchaseOrderDetailRepository).findLinesCreatedBetween(
+                LocalDate.parse("2026-01-01").atStartOfDay(), LocalDate.parse("2027-01-01").atStartOfDay());
+        verify(supplierProductPriceHistoryRepository, times(1)).findPricePoints(anyCollection(), any());
+    }
+
+    @Test
+    void testGetPurchaseOrderCosts_RejectsInvalidRange() {
+        assertThrows(BadRequestException.class, () -> supplierPriceHistoryService
+                .getPurchaseOrderCosts(LocalDate.parse("2026-02-01"), LocalDate.parse("2026-01-01")));
+        assertThrows(BadRequestException.class, () -> supplierPriceHistoryService
+                .getPurchaseOrderCosts(LocalDate.parse("2025-01-01"), LocalDate.parse("2026-06-01")));
+        verifyNoInteractions(purchaseOrderDetailRepository);
+    }
+
+    @Test
+    void testGetPriceAsOf_ReturnsLatestHistoryOnOrBeforeDate() {
+        SupplierProduct sp = SupplierProduct.builder().id(5L).supplierSku("SKU-1").build();
+        SupplierProductPriceHistory history = SupplierProductPriceHistory.builder().id(7L).supplierProduct(sp)
+                .price(new BigDecimal("100")).effectiveDate(LocalDate.parse("2026-01-01")).build();
+        SupplierProductPriceHistoryDTO dto = SupplierProductPriceHistoryDTO.builder().id(7L).build();
+        when(supplierProductRepository.findBySupplierSku("SKU-1")).thenReturn(Optional.of(sp));
+        when(supplierProductPriceHistoryRepository
+                .findFirstBySupplierProductIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDescIdDesc(5L,
+                        LocalDate.parse("2026-02-01")))
+                .thenReturn(Optional.of(history));
+        when(supplierProductPriceHistoryMapper.toDTO(history)).thenReturn(dto);
+
+        ResponseDTO<SupplierProductPriceHistoryDTO> response = supplierPriceHistoryService.getPriceAsOf("SKU-1",
+                LocalDate.parse("2026-02-01"));
+
+        assertSame(dto, response.getData());
+    }
+
+    @Test
+    void testGetPriceAsOf_NotFoundBeforeFirstHistory() {
+        when(supplierProductRepository.findBySupplierSku("SKU-1"))
+                .thenReturn(Optional.of(SupplierProduct.builder().id(5L).build()));
+        when(supplierProductPriceHistoryRepository
+                .findFirstBySupplierProductIdAndEffectiveDateLessThanEqualOrderByEffectiveDateDescIdDesc(any(), any()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class,
+                () -> supplierPriceHistoryService.getPriceAsOf("SKU-1", LocalDate.parse("2020-01-01")));
+    }
+
+    @Test
+    void testGetPriceHistoryBySku_ClampsPageSize() {
+        when(supplierProductRepository.findBySupplierSku("SKU-1"))
+                .thenReturn(Optional.of(SupplierProduct.builder().id(5L).build()));
+        when(supplierProductPriceHistoryRepository.findBySupplierProductIdOrderByEffectiveDateDescIdDesc(eq(5L),
+                any(Pageable.class))).thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 200), 1234));
+
+        ResponseDTO<List<SupplierProductPriceHistoryDTO>> response = supplierPriceHistoryService
+                .getPriceHistoryBySku("SKU-1", -1, 10_000);
+
+        verify(supplierProductPriceHistoryRepository).findBySupplierProductIdOrderByEffectiveDateDescIdDesc(5L,
+                PageRequest.of(0, 200));
+        assertEquals(1234L, response.getTotal());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.CategoryProductsDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierProductStockFlatDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierProductsOverviewDTO;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.SupplierProductMapper;
+import com.example.ReservationApp.mapper.SupplierProductPriceHistoryMapper;
+import com.example.ReservationApp.repository.product.CategoryRepository;
+import com.example.ReservationApp.repository.product.ProductRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductPriceHistoryRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.supplier.SupplierRepository;
+import com.example.ReservationApp.repository.transaction.SalesOrderDetailRepository;
+
+public class SupplierProductServiceImplTest {
+
+        @Mock
+        private SupplierProductRepository supplierProductRepository;
+
+        @Mock
+        private SupplierRepository supplierRepository;
+
+        @Mock
+        private ProductRepository productRepository;
+
+        @Mock
+        private CategoryRepository categoryRepository;
+
+        @Mock
+        private SupplierProductMapper supplierProductMapper;
+
+        @Mock
+        private SupplierProductPriceHistoryRepository supplierProductPriceHistoryRepository;
+
+        @Mock
+        private SalesOrderDetailRepository salesOrderDetailRepository;
+
+        @Mock
+        private SupplierProductPriceHistoryMapper supplierProductPriceHistoryMapper;
+
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
+        @InjectMocks
+        private SupplierProductServiceImpl supplierProductService;
+
+        @BeforeEach
+        void setUp() {
+                MockitoAnnotations.openMocks(this);
+        }
+
+        private SupplierProductStockFlatDTO row(Long id, Long categoryId, String categoryName, int stock,
+                        int leadTime) {
+                SupplierProductStockFlatDTO r = mock(SupplierProductStockFlatDTO.class);
+                when(r.getId()).thenReturn(id);
+                when(r.getSku()).thenReturn("SKU-" + id);
+                when(r.getCategoryId()).thenReturn(categoryId);
+                when(r.getCategoryName()).thenReturn(categoryName);
+                when(r.getSupplierName()).thenReturn("仕入先A");
+                when(r.getPrice()).thenReturn(BigDecimal.TEN);
+                when(r.getTotalQuantity()).thenReturn(stock);
+                when(r.getLeadTime()).thenReturn(leadTime);
+                return r;
+        }
+
+        @Test
+        void testGetSupplierProductsOverview_GroupsByCategoryIdFromOneQuery() {
+                List<SupplierProductStockFlatDTO> rows = List.of(
+                                row(1L, 10L, "文房具", 5, 3),
+                                row(2L, 20L, "食品", 0, 7),
+                                row(3L, 10L, "文房具", 8, 2),
+                                // 同名でも別カテゴリは別グループ
+                                row(4L, 30L, "食品", 1, 1));
+                when(supplierRepository.existsById(1L)).thenReturn(true);
+                when(supplierProductRepository.findSupplierProductsWithStock(1L)).thenReturn(rows);
+
+                ResponseDTO<SupplierProductsOverviewDTO> response = supplierProductService
+                                .getSupplierProductsOverview(1L);
+
+                List<CategoryProductsDTO> byCategory = response.getData().getStockByCategory();
+                assertEquals(List.of(10L, 20L, 30L),
+                                byCategory.stream().map(CategoryProductsDTO::getCategoryId).toList());
+                assertEquals(2, byCategory.get(0).getProducts().size());
+                assertEquals(8, byCategory.get(0).getProducts().get(1).getStock());
+                assertNull(byCategory.get(0).getProducts().get(0).getLeadTime());
+
+                List<CategoryProductsDTO> bySupplier = response.getData().getLeadTimeBySupplier();
+                assertEquals(1, bySupplier.size());
+                assertEquals(1L, bySupplier.get(0).getSupplierId());
+                assertEquals(4, bySupplier.get(0).getProducts().size());
+                assertEquals(7, bySupplier.get(0).getProducts().get(1).getLeadTime());
+                verify(supplierProductRepository, times(1)).findSupplierProductsWithStock(1L);
+        }
+
+        @Test
+        void testGetSupplierProductsWithStock_SupplierNotFound() {
+                when(supplierRepository.existsById(9L)).thenReturn(false);
+
+                assertThrows(NotFoundException.class, () -> supplierProductService.getSupplierProductsWithStock(9L));
+                verify(supplierProductRepository, never()).findSupplierProductsWithStock(9L);
+        }
+}
@@ -0,0 +1,78 @@
+package com.example.ReservationApp.service.impl.supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.supplier.SupplierSummaryFlatDTO;
+import com.example.ReservationApp.dto.supplier.SupplierDTO;
+import com.example.ReservationApp.enums.SupplierStatus;
+import com.example.ReservationApp.exception.NotFoundException;
+import com.example.ReservationApp.mapper.SupplierMapper;
+import com.example.ReservationApp.repository.supplier.SupplierRepository;
+
+public class SupplierServiceImplTest {
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private SupplierMapper supplierMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SupplierServiceImpl supplierService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private SupplierSummaryFlatDTO summary(Long id, long productCount, String categoryNames) {
+        SupplierSummaryFlatDTO row = mock(SupplierSummaryFlatDTO.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getName()).thenReturn("仕入先" + id);
+        when(row.getStatus()).thenReturn("ACTIVE");
+        when(row.getProductCount()).thenReturn(productCount);
+        when(row.getCategoryNames()).thenReturn(categoryNames);
+        return row;
+    }
+
+    @Test
+    void testGetAllSuppliers_UsesSummaryWithoutLoadingProducts() {
+        List<SupplierSummaryFlatDTO> rows = List.of(
+                summary(1L, 3, "文房具" + SupplierRepository.CATEGORY_NAME_SEPARATOR + "食品, 飲料"),
+                summary(2L, 0, null));
+        when(supplierRepository.findAllSummaries()).thenReturn(rows);
+
+        ResponseDTO<List<SupplierDTO>> response = supplierService.getAllSuppliers();
+
+        SupplierDTO first = response.getData().get(0);
+        assertEquals(3L, first.getProductCount());
+        assertEquals(SupplierStatus.ACTIVE, first.getSupplierStatus());
+        assertEquals(List.of("文房具", "食品, 飲料"), first.getCategoryNames());
+        assertEquals(List.of(), response.getData().get(1).getCategoryNames());
+        verify(supplierRepository, never()).findSupplierWithProductsAndCategory(any());
+        verifyNoInteractions(supplierMapper);
+    }
+
+    @Test
+    void testGetSupplierById_NotFound() {
+        when(supplierRepository.findSummaryById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> supplierService.getSupplierById(9L));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.ReservationApp.service.impl.transaction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.ReservationApp.entity.transaction.OrderCommand;
+import com.example.ReservationApp.entity.transaction.PurchaseOrder;
+import com.example.ReservationApp.enums.OrderCommandType;
+import com.example.ReservationApp.enums.OrderStatus;
+import com.example.ReservationApp.enums.RefType;
+import com.example.ReservationApp.repository.transaction.OrderCommandRepository;
+
+public class OrderStatusServiceImplTest {
+
+    @Mock
+    private OrderCommandRepository orderCommandRepository;
+
+    @InjectMocks
+    private OrderStatusServiceImpl orderStatusService;
+
+    private PurchaseOrder po;
+
+    private OrderCommand command(RefType refType, Long orderId, OrderCommandType type) {
+        return OrderCommand.builder().requestId("req-1").refType(refType).orderId(orderId).command(type).build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        po = new PurchaseOrder();
+        po.setId(1L);
+        po.setStatus(OrderStatus.NEW);
+    }
+
+    @Test
+    void testRegisterCommand_FirstRequest() {
+        when(orderCommandRepository.findByRequestId("req-1")).thenReturn(Optional.empty());
+
+        assertTrue(orderStatusService.registerCommand("req-1", RefType.PO, 1L, OrderCommandType.RECEIVE));
+        verify(orderCommandRepository, times(1)).saveAndFlush(any(OrderCommand.class));
+    }
+
+    @Test
+    void testRegisterCommand_DuplicateRequest() {
+        when(orderCommandRepository.findByRequestId("req-1")).thenReturn(Optional.of(command(RefType.PO, 1L,
+                OrderCommandType.RECEIVE)));
+
+        assertFalse(orderStatusService.registerCommand("req-1", RefType.PO, 1L, OrderCommandType.RECEIVE));
+        verify(orderCommandRepository, never()).saveAndFlush(any(OrderCommand.class));
+    }
+
+    @Test
+    void testRegisterCommand_RequestIdReusedForAnotherOrder() {
+        when(orderCommandRepository.findByRequestId("req-1")).thenReturn(Optional.of(command(RefType.PO, 2L,
+                OrderCommandType.RECEIVE)));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> orderStatusService.registerCommand("req-1", RefType.PO, 1L, OrderCommandType.RECEIVE));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+        verify(orderCommandRepository, never()).saveAndFlush(any(OrderCommand.class));
+    }
+
+    @Test
+    void testRegisterCommand_RequestIdReusedForAnotherCommand() {
+        when(orderCommandRepository.findByRequestId("req-1")).thenReturn(Optional.of(command(RefType.SO, 1L,
+                OrderCommandType.DELIVER)));
+
+        assertThrows(ResponseStatusException.class,
+                () -> orderStatusService.registerCommand("req-1", RefType.PO, 1L, OrderCommandType.RECEIVE));
+    }
+
+    @Test
+    void testRegisterCommand_WithoutRequestId() {
+        assertTrue(orderStatusService.registerCommand(null, RefType.PO, 1L, OrderCommandType.RECEIVE));
+        verifyNoInteractions(orderCommandRepository);
+    }
+
+    @Test
+    void testStartLinesAndProgress() {
+        orderStatusService.startLines(po, 2);
+        assertEquals(OrderStatus.PENDING, po.getStatus());
+        assertEquals(0, po.getCompletedLines());
+
+        assertEquals(OrderStatus.PROCESSING, orderStatusService.recordLineProgress(po, 1, true));
+        assertEquals(OrderStatus.COMPLETED, orderStatusService.recordLineProgress(po, 1, true));
+        assertEquals(2, po.getCompletedLines());
+    }
+
+    @Test
+    void testRecordLineProgress_NoProgressKeepsStatus() {
+        orderStatusService.startLines(po, 2);
+
+        assertEquals(OrderStatus.PENDING, orderStatusService.recordLineProgress(po, 0, false));
+        assertEquals(0, po.getCompletedLines());
+    }
+
+    @Test
+    void testTransitionFails_InvalidTransition() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> orderStatusService.transition(po, OrderStatus.COMPLETED));
+        assertEquals("注文ステータスを NEW から COMPLETED に変更できません。orderId=1", ex.getMessage());
+    }
+
+    @Test
+    void testTransitionRequested_CompletedIsRejected() {
+        orderStatusService.startLines(po, 2);
+
+        assertThrows(IllegalStateException.class,
+                () -> orderStatusService.transitionRequested(po, OrderStatus.COMPLETED));
+        assertEquals(OrderStatus.PENDING, po.getStatus());
+    }
+
+    @Test
+    void testTransitionRequested_CancelFromPending() {
+        orderStatusService.startLines(po, 2);
+
+        orderStatusService.transitionRequested(po, OrderStatus.CANCELLED);
+
+        assertEquals(OrderStatus.CANCELLED, po.getStatus());
+    }
+
+    @Test
+    void testEnsureCounters_OnlyInitializesOnce() {
+        orderStatusService.ensureCounters(po, 3, () -> 1);
+        orderStatusService.ensureCounters(po, 5, () -> 4);
+
+        assertEquals(3, po.getTotalLines());
+        assertEquals(1, po.getCompletedLines());
+    }
+
+    @Test
+    void testPurgeExpiredCommands_DeletesInBatches() {
+        ReflectionTestUtils.setField(orderStatusService, "retentionDays", 7L);
+        ReflectionTestUtils.setField(orderStatusService, "retentionBatchSize", 2);
+        when(orderCommandRepository.deleteCreatedBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        assertEquals(5, orderStatusService.purgeExpiredCommands());
+        verify(orderCommandRepository, times(3)).deleteCreatedBefore(any(), eq(2));
+    }
+}
@@ -28,9 +28,11 @@ import com.example.ReservationApp.exception.NotFoundException;
 import com.example.ReservationApp.mapper.PurchaseOrderDetailMapper;
 import com.example.ReservationApp.mapper.PurchaseOrderMapper;
 import com.example.ReservationApp.repository.product.ProductRepository;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
 import com.example.ReservationApp.repository.supplier.SupplierRepository;
 import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
 import com.example.ReservationApp.service.impl.auth.UserServiceImpl;
+import com.example.ReservationApp.service.notification.NotificationService;
 import com.example.ReservationApp.service.transaction.PurchaseOrderDetailService;
 
 public class PurchaseOrderServiceImplTest {
@@ -56,6 +58,12 @@ public class PurchaseOrderServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private SupplierProductRepository supplierProductRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
     @InjectMocks
     private PurchaseOrderServiceImpl poService;
 
@@ -75,6 +83,7 @@ public class PurchaseOrderServiceImplTest {
         supplier.setId(1L);
 
         supplierProduct = new SupplierProduct();
+        supplierProduct.setId(10L);
         supplierProduct.setProduct(product);
         supplierProduct.setSupplier(supplier);
 
@@ -114,10 +123,10 @@ public class PurchaseOrderServiceImplTest {
         poDTO.setSupplierId(1L);
         poDTO.setDetails(List.of(detailDTO));
 
-        when(supplierRepository.findSupplierWithProductsAndCategory(1L))
-                .thenReturn(Optional.of(supplier));
+        when(supplierRepository.findById(1L)).thenReturn(Optional.of(supplier));
         when(userService.getCurrentUserEntity()).thenReturn(user);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(supplierProductRepository.findWithProductByProductIdInAndSupplierId(List.of(1L), 1L))
+                .thenReturn(List.of(supplierProduct));
 
         PurchaseOrder poEntity = new PurchaseOrder();
         when(poRepository.save(any(PurchaseOrder.class))).thenReturn(poEntity);
@@ -130,12 +139,66 @@ public class PurchaseOrderServiceImplTest {
         verify(poRepository, times(1)).save(any(PurchaseOrder.class));
     }
 
+    @Test
+    void testCreatePurchaseOrder_LoadsResolvedSupplierProductsInBulk() {
+        // 自動発注では SupplierProduct ID が解決済みの明細が渡される
+        PurchaseOrderDetailDTO detailDTO = PurchaseOrderDetailDTO.builder()
+                .supplierProductId(10L)
+                .productId(1L)
+                .qty(5)
+                .cost(BigDecimal.valueOf(100))
+                .build();
+
+        PurchaseOrderDTO poDTO = new PurchaseOrderDTO();
+        poDTO.setSupplierId(1L);
+        poDTO.setDetails(List.of(detailDTO));
+
+        when(supplierRepository.findById(1L)).thenReturn(Optional.of(supplier));
+        when(supplierProductRepository.findWithProductByIdIn(List.of(10L))).thenReturn(List.of(supplierProduct));
+
+        ResponseDTO<PurchaseOrderDTO> response = poService.createPurchaseOrder(poDTO, user);
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        verify(supplierProductRepository, never()).findWithProductByProductIdInAndSupplierId(any(), any());
+        verify(supplierProductRepository, never()).findByProductIdAndSupplierId(any(), any());
+        verify(supplierRepository, never()).findSupplierWithProductsAndCategory(any());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void testCreatePurchaseOrder_RejectsSupplierProductOfOtherSupplier() {
+        Supplier other = new Supplier();
+        other.setId(2L);
+        SupplierProduct otherSp = new SupplierProduct();
+        otherSp.setId(20L);
+        otherSp.setProduct(product);
+        otherSp.setSupplier(other);
+
+        PurchaseOrderDetailDTO detailDTO = PurchaseOrderDetailDTO.builder()
+                .supplierProductId(20L)
+                .productId(1L)
+                .qty(5)
+                .cost(BigDecimal.valueOf(100))
+                .build();
+        PurchaseOrderDTO poDTO = new PurchaseOrderDTO();
+        poDTO.setSupplierId(1L);
+        poDTO.setDetails(List.of(detailDTO));
+
+        when(supplierRepository.findById(1L)).thenReturn(Optional.of(supplier));
+        when(supplierProductRepository.findWithProductByIdIn(List.of(20L))).thenReturn(List.of(otherSp));
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> poService.createPurchaseOrder(poDTO, user));
+        assertEquals("この仕入先はこの商品を取り扱っていません", ex.getMessage());
+        verify(poRepository, never()).save(any(PurchaseOrder.class));
+    }
+
     @Test
     void testCreatePurchaseOrderFailsWhenSupplierNotFound() {
         PurchaseOrderDTO poDTO = new PurchaseOrderDTO();
         poDTO.setSupplierId(999L);
 
-        when(supplierRepository.findSupplierWithProductsAndCategory(999L)).thenReturn(Optional.empty());
+        when(supplierRepository.findById(999L)).thenReturn(Optional.empty());
 
         NotFoundException ex = assertThrows(NotFoundException.class, () -> poService.createPurchaseOrder(poDTO));
         assertEquals("この仕入先は存在していません", ex.getMessage());
@@ -0,0 +1,143 @@
+package com.example.ReservationApp.service.impl.transaction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.ReservationApp.dto.ResponseDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentCandidateFlatDTO;
+import com.example.ReservationApp.dto.response.transaction.ReplenishmentResultDTO;
+import com.example.ReservationApp.dto.transaction.PurchaseOrderDTO;
+import com.example.ReservationApp.entity.user.User;
+import com.example.ReservationApp.enums.UserRole;
+import com.example.ReservationApp.repository.supplier.SupplierProductRepository;
+import com.example.ReservationApp.repository.transaction.PurchaseOrderRepository;
+import com.example.ReservationApp.repository.user.UserRepository;
+import com.example.ReservationApp.service.transaction.PurchaseOrderService;
+
+public class ReplenishmentServiceImplTest {
+
+    @Mock
+    private SupplierProductRepository supplierProductRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PurchaseOrderService purchaseOrderService;
+
+    @Mock
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ReplenishmentServiceImpl replenishmentService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(replenishmentService, "windowDays", 28);
+        ReflectionTestUtils.setField(replenishmentService, "reviewDays", 7);
+        ReflectionTestUtils.setField(replenishmentService, "serviceLevelZ", 1.65);
+        ReflectionTestUtils.setField(replenishmentService, "chunkSize", 2);
+        ReflectionTestUtils.setField(replenishmentService, "parallelism", 2);
+        ReflectionTestUtils.setField(replenishmentService, "userEmail", "");
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(purchaseOrderRepository.tryLockReplenishment()).thenReturn(true);
+    }
+
+    private ReplenishmentCandidateFlatDTO candidate(Long spId, Long supplierId, long sold, long squares,
+            long available, long onOrder) {
+        ReplenishmentCandidateFlatDTO c = mock(ReplenishmentCandidateFlatDTO.class);
+        when(c.getSupplierProductId()).thenReturn(spId);
+        when(c.getSupplierId()).thenReturn(supplierId);
+        when(c.getProductId()).thenReturn(spId);
+        when(c.getSku()).thenReturn("SKU-" + spId);
+        when(c.getPrice()).thenReturn(BigDecimal.valueOf(100));
+        when(c.getLeadTime()).thenReturn(4);
+        when(c.getSoldQty()).thenReturn(sold);
+        when(c.getSoldQtySquares()).thenReturn(squares);
+        when(c.getAvailableQty()).thenReturn(available);
+        when(c.getOnOrderQty()).thenReturn(onOrder);
+        return c;
+    }
+
+    @Test
+    void testEvaluate_BelowReorderPoint() {
+        // 1日10個 × 28日（ばらつきなし）、リードタイム4日 → ROP = 40
+        ReplenishmentServiceImpl.ReorderLine line = replenishmentService
+                .evaluate(candidate(1L, 1L, 280, 2800, 30, 0));
+
+        assertNotNull(line);
+        // ROP 40 + 10 × 7日 - 在庫ポジション 30
+        assertEquals(80, line.qty());
+    }
+
+    @Test
+    void testEvaluate_EnoughStockIncludingOnOrder() {
+        assertNull(replenishmentService.evaluate(candidate(1L, 1L, 280, 2800, 20, 30)));
+    }
+
+    @Test
+    void testEvaluate_NoSales() {
+        assertNull(replenishmentService.evaluate(candidate(1L, 1L, 0, 0, 0, 0)));
+    }
+
+    @Test
+    void testRunReplenishment_GroupsBySupplier() {
+        User admin = new User();
+        admin.setId(1L);
+        when(userRepository.findFirstByRoleOrderByIdAsc(UserRole.ADMIN)).thenReturn(Optional.of(admin));
+        List<ReplenishmentCandidateFlatDTO> candidates = List.of(
+                candidate(1L, 10L, 280, 2800, 0, 0),
+                candidate(2L, 10L, 280, 2800, 0, 0),
+                candidate(3L, 20L, 280, 2800, 0, 0),
+                candidate(4L, 20L, 280, 2800, 500, 0));
+        when(supplierProductRepository.findReplenishmentCandidates(anyInt())).thenReturn(candidates);
+        when(purchaseOrderService.createPurchaseOrder(any(PurchaseOrderDTO.class), any(User.class)))
+                .thenAnswer(inv -> ResponseDTO.<PurchaseOrderDTO>builder()
+                        .data(PurchaseOrderDTO.builder()
+                                .id(((PurchaseOrderDTO) inv.getArgument(0)).getSupplierId())
+                                .build())
+                        .build());
+
+        ResponseDTO<ReplenishmentResultDTO> response = replenishmentService.runReplenishment();
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("自動発注処理が完了しました", response.getMessage());
+        assertEquals(4, response.getData().getEvaluatedSkuCount());
+        assertEquals(3, response.getData().getReorderSkuCount());
+        assertEquals(2, response.getData().getCreatedPurchaseOrderIds().size());
+        verify(purchaseOrderService, times(2)).createPurchaseOrder(any(PurchaseOrderDTO.class), any(User.class));
+    }
+
+    @Test
+    void testRunReplenishment_SkipsWhenLockedByAnotherNode() {
+        when(purchaseOrderRepository.tryLockReplenishment()).thenReturn(false);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> replenishmentService.runReplenishment());
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        verifyNoInteractions(supplierProductRepository, purchaseOrderService);
+    }
+}